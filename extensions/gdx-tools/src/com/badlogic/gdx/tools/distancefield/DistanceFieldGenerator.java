@@ -20,6 +20,13 @@ import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
 
@@ -43,6 +50,8 @@ public class DistanceFieldGenerator {
 	private Color color = Color.white;
 	private int downscale = 1;
 	private float spread = 1;
+	private boolean bruteForce = false;
+	private int threads = Runtime.getRuntime().availableProcessors();
 	
 	/** @see #setColor(Color) */
 	public Color getColor() {
@@ -97,6 +106,39 @@ public class DistanceFieldGenerator {
 		this.spread = spread;
 	}
 	
+	/** @see #setBruteForce(boolean) */
+	public boolean getBruteForce() {
+		return bruteForce;
+	}
+	
+	/**
+	 * Sets whether to scan all pixels within the spread around every output pixel for the nearest edge.
+	 * The time this takes grows with the square of the spread.
+	 * 
+	 * <p> By default, an exact Euclidean distance transform is used instead, which takes time proportional
+	 * to the number of pixels, no matter the spread, and gives the same result.
+	 */
+	public void setBruteForce(boolean bruteForce) {
+		this.bruteForce = bruteForce;
+	}
+	
+	/** @see #setThreads(int) */
+	public int getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * Sets the number of threads used by the distance transform. Defaults to the number of available processors.
+	 * 
+	 * @param threads a positive integer
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public void setThreads(int threads) {
+		if (threads <= 0)
+			throw new IllegalArgumentException("threads must be positive");
+		this.threads = threads;
+	}
+	
 	/**
 	 * Caclulate the squared distance between two points
 	 * 
@@ -137,22 +179,38 @@ public class DistanceFieldGenerator {
 		
 		// Note: coordinates reversed to mimic storage of BufferedImage, for memory locality
 		final boolean[][] bitmap = new boolean[inHeight][inWidth];
+		final int[] row = new int[inWidth];
 		for (int y = 0; y < inHeight; ++y) {
+			inImage.getRGB(0, y, inWidth, 1, row, 0, inWidth);
 			for (int x = 0; x < inWidth; ++x) {
-				bitmap[y][x] = isInside(inImage.getRGB(x, y));
+				bitmap[y][x] = isInside(row[x]);
 			}
 		}
 		
-		for (int y = 0; y < outHeight; ++y)
+		final int[] pixels = new int[outWidth * outHeight];
+		if (bruteForce)
 		{
-			for (int x = 0; x < outWidth; ++x)
+			for (int y = 0; y < outHeight; ++y)
 			{
-				int centerX = (x * downscale) + (downscale / 2);
-				int centerY = (y * downscale) + (downscale / 2);
-				float signedDistance = findSignedDistance(centerX, centerY, bitmap);
-				outImage.setRGB(x, y, distanceToRGB(signedDistance));
+				for (int x = 0; x < outWidth; ++x)
+				{
+					int centerX = (x * downscale) + (downscale / 2);
+					int centerY = (y * downscale) + (downscale / 2);
+					float signedDistance = findSignedDistance(centerX, centerY, bitmap);
+					pixels[y * outWidth + x] = distanceToRGB(signedDistance);
+				}
 			}
 		}
+		else if (pixels.length > 0)
+		{
+			final float[] signedDistances = findSignedDistances(bitmap, outWidth, outHeight);
+			for (int i = 0; i < pixels.length; ++i)
+			{
+				pixels[i] = distanceToRGB(signedDistances[i]);
+			}
+		}
+		if (pixels.length > 0)
+			outImage.setRGB(0, 0, outWidth, outHeight, pixels, 0, outWidth);
 		
 		return outImage;
 	}
@@ -227,6 +285,173 @@ public class DistanceFieldGenerator {
 		return (base ? 1 : -1) * Math.min(closestDist, spread);
 	}
 	
+	/**
+	 * Returns the signed distance for the center of every output pixel, the same as {@link #findSignedDistance}
+	 * but in time proportional to the number of input pixels.
+	 * 
+	 * <p> This is the separable exact Euclidean distance transform from "Distance Transforms of Sampled Functions"
+	 * by Pedro Felzenszwalb and Daniel Huttenlocher. First each column is scanned in both directions for the nearest
+	 * inside and outside pixel, keeping only the rows that contain output pixel centers. Then the squared distance
+	 * along each of these rows is the lower envelope of parabolas rooted at the column distances.
+	 * Distances of at least {@code ceil(spread)} are all clamped to {@code spread}, so they are left out early.
+	 * Columns and rows are split between {@link #threads} threads.
+	 * 
+	 * @param bitmap the array representation of an image, {@code true} representing "inside"
+	 * @return the signed distances, row by row
+	 */
+	private float[] findSignedDistances(final boolean[][] bitmap, final int outWidth, final int outHeight)
+	{
+		final int width = bitmap[0].length;
+		final int height = bitmap.length;
+		final int delta = (int) Math.ceil(spread);
+		
+		// Squared distance to the nearest inside or outside pixel in the same column, for each output row,
+		// or NONE if it is at least delta.
+		final int[] toInside = new int[outHeight * width];
+		final int[] toOutside = new int[outHeight * width];
+		final float[] distances = new float[outWidth * outHeight];
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			parallel(executor, width, new Range() {
+				public void run(int start, int end) {
+					int[] aboveInside = new int[height];
+					int[] aboveOutside = new int[height];
+					for (int x = start; x < end; ++x) {
+						int lastInside = -delta, lastOutside = -delta;
+						for (int y = 0; y < height; ++y) {
+							if (bitmap[y][x]) lastInside = y; else lastOutside = y;
+							aboveInside[y] = y - lastInside;
+							aboveOutside[y] = y - lastOutside;
+						}
+						int nextInside = height + delta, nextOutside = height + delta;
+						for (int y = height - 1; y >= 0; --y) {
+							if (bitmap[y][x]) nextInside = y; else nextOutside = y;
+							int outY = y - downscale / 2;
+							if (outY < 0 || outY % downscale != 0 || outY / downscale >= outHeight) continue;
+							int i = outY / downscale * width + x;
+							toInside[i] = columnDistance(Math.min(aboveInside[y], nextInside - y), delta);
+							toOutside[i] = columnDistance(Math.min(aboveOutside[y], nextOutside - y), delta);
+						}
+					}
+				}
+			});
+			parallel(executor, outHeight, new Range() {
+				public void run(int start, int end) {
+					int[] roots = new int[width];
+					double[] bounds = new double[width + 1];
+					float[] rowToInside = new float[outWidth];
+					float[] rowToOutside = new float[outWidth];
+					for (int y = start; y < end; ++y) {
+						rowDistances(toInside, y * width, width, delta, roots, bounds, rowToInside);
+						rowDistances(toOutside, y * width, width, delta, roots, bounds, rowToOutside);
+						boolean[] bitmapRow = bitmap[y * downscale + downscale / 2];
+						for (int x = 0; x < outWidth; ++x) {
+							boolean base = bitmapRow[x * downscale + downscale / 2];
+							distances[y * outWidth + x] = base ? rowToOutside[x] : -rowToInside[x];
+						}
+					}
+				}
+			});
+		} finally {
+			executor.shutdown();
+		}
+		return distances;
+	}
+	
+	private static final int NONE = -1;
+	
+	/** Returns the squared distance, or {@link #NONE} if the distance is at least delta. */
+	private static int columnDistance(int distance, int delta) {
+		return distance < delta ? distance * distance : NONE;
+	}
+	
+	/**
+	 * Finds the distance from each output pixel center in a row to the nearest pixel, given the squared distances
+	 * to the nearest pixel in each column, and clamps it to {@link #spread}.
+	 * 
+	 * @param columnDistances squared distances per column as returned by {@link #columnDistance}
+	 * @param roots temporary storage for the columns whose parabolas form the lower envelope
+	 * @param bounds temporary storage for where each parabola of the envelope starts
+	 * @param out the distance for each output pixel of the row
+	 */
+	private void rowDistances(int[] columnDistances, int offset, int width, int delta, int[] roots, double[] bounds,
+		float[] out)
+	{
+		// Build the lower envelope of the parabolas (x - q)^2 + f(q).
+		int k = -1;
+		for (int q = 0; q < width; ++q) {
+			int f = columnDistances[offset + q];
+			if (f == NONE) continue;
+			if (k == -1) {
+				k = 0;
+				roots[0] = q;
+				bounds[0] = Double.NEGATIVE_INFINITY;
+				bounds[1] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			// Remove the parabolas that are above the new one where they start, bounds[0] is never passed.
+			double s = intersection(columnDistances, offset, q, f, roots[k]);
+			while (s <= bounds[k]) {
+				--k;
+				s = intersection(columnDistances, offset, q, f, roots[k]);
+			}
+			++k;
+			roots[k] = q;
+			bounds[k] = s;
+			bounds[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		
+		final float spread = this.spread;
+		final int deltaSquared = delta * delta;
+		for (int x = 0, j = 0; x < out.length; ++x) {
+			if (k == -1) {
+				out[x] = spread;
+				continue;
+			}
+			int centerX = (x * downscale) + (downscale / 2);
+			while (bounds[j + 1] < centerX) ++j;
+			int dx = centerX - roots[j];
+			int squareDist = Math.abs(dx) < delta ? dx * dx + columnDistances[offset + roots[j]] : deltaSquared;
+			out[x] = Math.min((float) Math.sqrt(Math.min(squareDist, deltaSquared)), spread);
+		}
+	}
+	
+	/** Returns the x coordinate where the parabola rooted at column q with height f crosses the one rooted at column v. */
+	private static double intersection(int[] columnDistances, int offset, int q, int f, int v) {
+		return ((f + (double) q * q) - (columnDistances[offset + v] + (double) v * v)) / (2.0 * (q - v));
+	}
+	
+	/** A part of the work of {@link #parallel}. */
+	private interface Range {
+		public void run(int start, int end);
+	}
+	
+	/** Splits the range from 0 to count into one part per thread and waits until all are done. */
+	private void parallel(ExecutorService executor, int count, final Range range) {
+		int parts = Math.min(threads, Math.max(count, 1));
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(parts);
+		for (int i = 0; i < parts; ++i) {
+			final int start = (int) ((long) count * i / parts);
+			final int end = (int) ((long) count * (i + 1) / parts);
+			futures.add(executor.submit(new Callable<Object>() {
+				public Object call() {
+					range.run(start, end);
+					return null;
+				}
+			}));
+		}
+		try {
+			for (Future<Object> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+	
 	/** Prints usage information to standard output. */
 	private static void usage() {
 		System.out.println(
@@ -241,7 +466,10 @@ public class DistanceFieldGenerator {
 			"Possible options:\n" +
 			"  --color rrggbb    color of output image (default: ffffff)\n" +
 			"  --downscale n     downscale by factor of n (default: 1)\n" +
-			"  --spread n        edge scan distance (default: 1)\n");
+			"  --spread n        edge scan distance (default: 1)\n" +
+			"  --brute-force     scan around every pixel instead of using the distance transform\n" +
+			"  --threads n       threads used by the distance transform (default: number of processors)\n" +
+			"  --compare         also run the other algorithm, print both times and check the results match\n");
 	}
 	
 	/** Thrown when the command line contained nonsense. */
@@ -276,6 +504,7 @@ public class DistanceFieldGenerator {
 		DistanceFieldGenerator generator = new DistanceFieldGenerator();
 		String inputFile = null;
 		String outputFile = null;
+		boolean compare = false;
 		
 		int i = 0;
 		try {
@@ -294,6 +523,13 @@ public class DistanceFieldGenerator {
 					} else if ("--spread".equals(arg)) {
 						++i;
 						generator.setSpread(Float.parseFloat(args[i]));
+					} else if ("--brute-force".equals(arg)) {
+						generator.setBruteForce(true);
+					} else if ("--threads".equals(arg)) {
+						++i;
+						generator.setThreads(Integer.parseInt(args[i]));
+					} else if ("--compare".equals(arg)) {
+						compare = true;
 					} else {
 						throw new CommandLineArgumentException("unknown option " + arg);
 					}
@@ -332,7 +568,27 @@ public class DistanceFieldGenerator {
 			System.err.println("Failed to load image: " + e.getMessage());
 		}
 		
+		long start = System.nanoTime();
 		BufferedImage output = generator.generateDistanceField(input);
+		if (compare) {
+			long time = System.nanoTime() - start;
+			generator.setBruteForce(!generator.getBruteForce());
+			start = System.nanoTime();
+			BufferedImage other = generator.generateDistanceField(input);
+			long otherTime = System.nanoTime() - start;
+			generator.setBruteForce(!generator.getBruteForce());
+			long bruteForceTime = generator.getBruteForce() ? time : otherTime;
+			long transformTime = generator.getBruteForce() ? otherTime : time;
+			System.out.println("Brute force: " + bruteForceTime / 1000000 + " ms");
+			System.out.println("Distance transform: " + transformTime / 1000000 + " ms, " + generator.getThreads() + " threads");
+			int differences = 0;
+			for (int y = 0; y < output.getHeight(); ++y) {
+				for (int x = 0; x < output.getWidth(); ++x) {
+					if (output.getRGB(x, y) != other.getRGB(x, y)) ++differences;
+				}
+			}
+			System.out.println(differences == 0 ? "Results match." : differences + " pixels differ.");
+		}
 		
 		try {
 			ImageIO.write(output, outputFormat, new File(outputFile));
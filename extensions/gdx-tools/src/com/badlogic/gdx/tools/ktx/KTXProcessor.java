@@ -19,10 +19,15 @@ import com.badlogic.gdx.graphics.Pixmap.Filter;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.glutils.ETC1;
 import com.badlogic.gdx.graphics.glutils.ETC1.ETC1Data;
+import com.badlogic.gdx.graphics.glutils.ETC1.Quality;
 import com.badlogic.gdx.graphics.glutils.KTXTextureData;
+import com.badlogic.gdx.graphics.glutils.MipMapBuilder;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 public class KTXProcessor {
 
@@ -74,11 +79,12 @@ public class KTXProcessor {
 
 		@Override
 		public void create () {
-			boolean isCubemap = args.length == 7 || args.length == 8 || args.length == 9;
-			boolean isTexture = args.length == 2 || args.length == 3 || args.length == 4;
+			boolean isCubemap = args.length >= 7 && args.length <= 10;
+			boolean isTexture = args.length >= 2 && args.length <= 5;
 			boolean isPackETC1 = false, isAlphaAtlas = false, isGenMipMaps = false;
+			Quality quality = Quality.High;
 			if (!isCubemap && !isTexture) {
-				System.out.println("usage : KTXProcessor input_file output_file [-etc1|-etc1a] [-mipmaps]");
+				System.out.println("usage : KTXProcessor input_file output_file [-etc1|-etc1a] [-mipmaps] [-fast]");
 				System.out.println("  input_file  is the texture file to include in the output KTX or ZKTX file.");
 				System.out
 					.println("              for cube map, just provide 6 input files corresponding to the faces in the following order : X+, X-, Y+, Y-, Z+, Z-");
@@ -90,6 +96,8 @@ public class KTXProcessor {
 				System.out
 					.println("    -etc1a   input file will be packed using ETC1 compression, doubling the height and placing the alpha channel in the bottom half");
 				System.out.println("    -mipmaps input file will be processed to generate mipmaps");
+				System.out
+					.println("    -fast    ETC1 compression only tries one way to split each block, about twice as fast at a slightly lower quality");
 				System.out.println();
 				System.out.println("  examples:");
 				System.out
@@ -115,7 +123,13 @@ public class KTXProcessor {
 				if ("-etc1".equals(args[i])) isPackETC1 = true;
 				if ("-etc1a".equals(args[i])) isAlphaAtlas = isPackETC1 = true;
 				if ("-mipmaps".equals(args[i])) isGenMipMaps = true;
+				if ("-fast".equals(args[i])) quality = Quality.Fast;
 			}
+			final boolean packETC1 = isPackETC1, alphaAtlas = isAlphaAtlas;
+
+			// Levels are prepared concurrently and each level is compressed using all threads
+			AsyncExecutor executor = new AsyncExecutor(Runtime.getRuntime().availableProcessors());
+			MipMapBuilder mipMapBuilder = new MipMapBuilder(executor);
 
 			File output = new File(args[isCubemap ? 6 : 1]);
 
@@ -136,6 +150,7 @@ public class KTXProcessor {
 			for (int face = 0; face < nFaces; face++) {
 				ETC1Data etc1 = null;
 				Pixmap facePixmap = null;
+				Pixmap[] mipMaps = null;
 				int ktxFace = 0;
 
 				// Load source image (ends up with either ktx, etc1 or facePixmap initialized)
@@ -179,12 +194,12 @@ public class KTXProcessor {
 
 				// Process each mipmap level
 				images[face] = new Image[nLevels];
+				AsyncResult<Pixmap>[] levelPixmaps = new AsyncResult[nLevels];
 				for (int level = 0; level < nLevels; level++) {
-					int levelWidth = Math.max(1, texWidth >> level);
-					int levelHeight = Math.max(1, texHeight >> level);
+					final int levelWidth = Math.max(1, texWidth >> level);
+					final int levelHeight = Math.max(1, texHeight >> level);
 
-					// Get pixmap for this level (ends with either levelETCData or levelPixmap being non null)
-					Pixmap levelPixmap = null;
+					// Get data for this level (ends with either levelETCData or facePixmap being non null)
 					ETC1Data levelETCData = null;
 					if (ktx != null) {
 						ByteBuffer ktxData = ktx.getData(level, ktxFace);
@@ -202,64 +217,47 @@ public class KTXProcessor {
 					if (levelETCData == null && etc1 != null && facePixmap == null) {
 						facePixmap = ETC1.decodeImage(etc1, Format.RGB888);
 					}
-					if (levelETCData == null) {
-						levelPixmap = new Pixmap(levelWidth, levelHeight, facePixmap.getFormat());
-						levelPixmap.setBlending(Blending.None);
-						levelPixmap.setFilter(Filter.BiLinear);
-						levelPixmap.drawPixmap(facePixmap, 0, 0, facePixmap.getWidth(), facePixmap.getHeight(), 0, 0,
-							levelPixmap.getWidth(), levelPixmap.getHeight());
-					}
-					if (levelETCData == null && levelPixmap == null)
+					if (levelETCData == null && facePixmap == null)
 						throw new GdxRuntimeException("Failed to load data for face " + face + " / mipmap level " + level);
 
-					// Create alpha atlas
-					if (isAlphaAtlas) {
-						if (levelPixmap == null) levelPixmap = ETC1.decodeImage(levelETCData, Format.RGB888);
-						int w = levelPixmap.getWidth(), h = levelPixmap.getHeight();
-						Pixmap pm = new Pixmap(w, h * 2, levelPixmap.getFormat());
-						pm.setBlending(Blending.None);
-						pm.setFilter(Filter.BiLinear);
-						pm.drawPixmap(levelPixmap, 0, 0);
-						for (int y = 0; y < h; y++) {
-							for (int x = 0; x < w; x++) {
-								int alpha = (levelPixmap.getPixel(x, y)) & 0x0FF;
-								pm.drawPixel(x, y + h, (alpha << 24) | (alpha << 16) | (alpha << 8) | 0x0FF);
-							}
-						}
-						levelPixmap.dispose();
-						levelPixmap = pm;
-						levelETCData = null;
+					images[face][level] = new Image();
+					if (levelETCData != null && !alphaAtlas) {
+						images[face][level].etcData = levelETCData;
+						continue;
 					}
 
-					// Perform ETC1 compression
-					if (levelETCData == null && isPackETC1) {
-						if (levelPixmap.getFormat() != Format.RGB888 && levelPixmap.getFormat() != Format.RGB565) {
-							if (!isAlphaAtlas)
-								System.out.println("Converting from " + levelPixmap.getFormat() + " to RGB888 for ETC1 compression");
-							Pixmap tmp = new Pixmap(levelPixmap.getWidth(), levelPixmap.getHeight(), Format.RGB888);
-							tmp.setBlending(Blending.None);
-							tmp.setFilter(Filter.BiLinear);
-							tmp.drawPixmap(levelPixmap, 0, 0, 0, 0, levelPixmap.getWidth(), levelPixmap.getHeight());
-							levelPixmap.dispose();
-							levelPixmap = tmp;
-						}
-						// System.out.println("Compress : " + levelWidth + " x " + levelHeight);
-						levelETCData = ETC1.encodeImagePKM(levelPixmap);
-						levelPixmap.dispose();
-						levelPixmap = null;
+					// Scale, decode or build the alpha atlas for this level while the other levels are processed
+					Pixmap levelSource = facePixmap;
+					if (isGenMipMaps && levelETCData == null) {
+						if (mipMaps == null) mipMaps = mipMapBuilder.build(facePixmap);
+						if (level < mipMaps.length) levelSource = mipMaps[level];
 					}
+					final ETC1Data sourceETCData = levelETCData;
+					final Pixmap sourcePixmap = levelSource;
+					levelPixmaps[level] = executor.submit(new AsyncTask<Pixmap>() {
+						public Pixmap call () throws Exception {
+							return prepareLevel(sourcePixmap, sourceETCData, levelWidth, levelHeight, alphaAtlas, packETC1);
+						}
+					});
+				}
 
-					// Save result to ouput ktx
-					images[face][level] = new Image();
-					images[face][level].etcData = levelETCData;
-					images[face][level].pixmap = levelPixmap;
-					if (levelPixmap != null) {
+				// Perform ETC1 compression and save result to ouput ktx
+				for (int level = 0; level < nLevels; level++) {
+					if (levelPixmaps[level] == null) continue;
+					Pixmap levelPixmap = levelPixmaps[level].get();
+					if (isPackETC1) {
+						images[face][level].etcData = ETC1.encodeImagePKM(levelPixmap, quality, executor);
 						levelPixmap.dispose();
-						facePixmap = null;
-					}
+					} else
+						images[face][level].pixmap = levelPixmap;
 				}
 
 				// Dispose resources
+				if (mipMaps != null) {
+					for (int level = 1; level < mipMaps.length; level++)
+						mipMaps[level].dispose();
+					mipMaps = null;
+				}
 				if (facePixmap != null) {
 					facePixmap.dispose();
 					facePixmap = null;
@@ -277,6 +275,7 @@ public class KTXProcessor {
 				ktx.disposePreparedData();
 				ktx = null;
 			}
+			executor.dispose();
 
 			int glType, glTypeSize, glFormat, glInternalFormat, glBaseInternalFormat;
 			if (isPackETC1) {
@@ -346,6 +345,52 @@ public class KTXProcessor {
 		}
 	}
 
+	/** @param facePixmap Scaled to the level size if etcData is null.
+	 * @param etcData Decoded if not null.
+	 * @return The pixmap to store or compress for a mipmap level. */
+	static Pixmap prepareLevel (Pixmap facePixmap, ETC1Data etcData, int levelWidth, int levelHeight, boolean isAlphaAtlas,
+		boolean isPackETC1) {
+		Pixmap levelPixmap;
+		if (etcData != null)
+			levelPixmap = ETC1.decodeImage(etcData, Format.RGB888);
+		else {
+			levelPixmap = new Pixmap(levelWidth, levelHeight, facePixmap.getFormat());
+			levelPixmap.setBlending(Blending.None);
+			levelPixmap.setFilter(Filter.BiLinear);
+			levelPixmap.drawPixmap(facePixmap, 0, 0, facePixmap.getWidth(), facePixmap.getHeight(), 0, 0, levelPixmap.getWidth(),
+				levelPixmap.getHeight());
+		}
+
+		// Create alpha atlas
+		if (isAlphaAtlas) {
+			int w = levelPixmap.getWidth(), h = levelPixmap.getHeight();
+			Pixmap pm = new Pixmap(w, h * 2, levelPixmap.getFormat());
+			pm.setBlending(Blending.None);
+			pm.setFilter(Filter.BiLinear);
+			pm.drawPixmap(levelPixmap, 0, 0);
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					int alpha = (levelPixmap.getPixel(x, y)) & 0x0FF;
+					pm.drawPixel(x, y + h, (alpha << 24) | (alpha << 16) | (alpha << 8) | 0x0FF);
+				}
+			}
+			levelPixmap.dispose();
+			levelPixmap = pm;
+		}
+
+		// Convert to a format ETC1 compression supports
+		if (isPackETC1 && levelPixmap.getFormat() != Format.RGB888 && levelPixmap.getFormat() != Format.RGB565) {
+			if (!isAlphaAtlas) System.out.println("Converting from " + levelPixmap.getFormat() + " to RGB888 for ETC1 compression");
+			Pixmap tmp = new Pixmap(levelPixmap.getWidth(), levelPixmap.getHeight(), Format.RGB888);
+			tmp.setBlending(Blending.None);
+			tmp.setFilter(Filter.BiLinear);
+			tmp.drawPixmap(levelPixmap, 0, 0, 0, 0, levelPixmap.getWidth(), levelPixmap.getHeight());
+			levelPixmap.dispose();
+			levelPixmap = tmp;
+		}
+		return levelPixmap;
+	}
+
 	private static class Image {
 
 		public ETC1Data etcData;
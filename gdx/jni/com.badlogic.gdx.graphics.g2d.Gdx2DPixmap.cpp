@@ -1,15 +1,68 @@
 #include <com.badlogic.gdx.graphics.g2d.Gdx2DPixmap.h>
 
-//@line:273
+//@line:300
 
 	#include <gdx2d/gdx2d.h>
 	#include <stdlib.h>
-	 JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_load(JNIEnv* env, jclass clazz, jlongArray nativeData, jbyteArray buffer, jint offset, jint len) {
 
-//@line:278
+	// Reads a java.io.InputStream into a byte[], so Java is only called once per filled byte[]. An exception thrown by the
+	// stream ends it and stays pending, so it is thrown once the native method returns.
+	typedef struct {
+		JNIEnv* env;
+		jobject stream;
+		jmethodID read;
+		jbyteArray buffer;
+		int capacity, position, count, eof;
+	} java_stream;
+
+	static int fill_java_stream (java_stream* s) {
+		if (s->eof) return 0;
+		int count = s->env->CallIntMethod(s->stream, s->read, s->buffer, 0, s->capacity);
+		if (s->env->ExceptionCheck() || count < 0) {
+			s->eof = 1;
+			s->position = s->count = 0;
+			return 0;
+		}
+		s->position = 0;
+		s->count = count;
+		return 1;
+	}
+
+	static int read_java_stream (void* user, char* data, int size) {
+		java_stream* s = (java_stream*)user;
+		int total = 0;
+		while (total < size) {
+			if (s->position == s->count && !fill_java_stream(s)) break;
+			int n = s->count - s->position;
+			if (n > size - total) n = size - total;
+			s->env->GetByteArrayRegion(s->buffer, s->position, n, (jbyte*)data + total);
+			s->position += n;
+			total += n;
+		}
+		return total;
+	}
+
+	static void skip_java_stream (void* user, int n) {
+		java_stream* s = (java_stream*)user;
+		while (n > 0) {
+			if (s->position == s->count && !fill_java_stream(s)) break;
+			int skipped = s->count - s->position;
+			if (skipped > n) skipped = n;
+			s->position += skipped;
+			n -= skipped;
+		}
+	}
+
+	static int eof_java_stream (void* user) {
+		java_stream* s = (java_stream*)user;
+		return s->eof && s->position == s->count;
+	}
+	 JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_load(JNIEnv* env, jclass clazz, jlongArray nativeData, jbyteArray buffer, jint offset, jint len, jint x, jint y, jint width, jint height, jint subsample) {
+
+//@line:359
 
 		const unsigned char* p_buffer = (const unsigned char*)env->GetPrimitiveArrayCritical(buffer, 0);
-		gdx2d_pixmap* pixmap = gdx2d_load(p_buffer + offset, len);
+		gdx2d_pixmap* pixmap = gdx2d_load_region(p_buffer + offset, len, x, y, width, height, subsample);
 		env->ReleasePrimitiveArrayCritical(buffer, (char*)p_buffer, 0);
 
 		if(pixmap==0)
@@ -27,9 +80,64 @@
 	 
 }
 
+JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_loadBuffer(JNIEnv* env, jclass clazz, jlongArray nativeData, jobject buffer, jint offset, jint len, jint x, jint y, jint width, jint height, jint subsample) {
+
+//@line:379
+
+		const unsigned char* p_buffer = (const unsigned char*)env->GetDirectBufferAddress(buffer);
+		gdx2d_pixmap* pixmap = gdx2d_load_region(p_buffer + offset, len, x, y, width, height, subsample);
+
+		if(pixmap==0)
+			return 0;
+
+		jobject pixel_buffer = env->NewDirectByteBuffer((void*)pixmap->pixels, pixmap->width * pixmap->height * gdx2d_bytes_per_pixel(pixmap->format));
+		jlong* p_native_data = (jlong*)env->GetPrimitiveArrayCritical(nativeData, 0);
+		p_native_data[0] = (jlong)pixmap;
+		p_native_data[1] = pixmap->width;
+		p_native_data[2] = pixmap->height;
+		p_native_data[3] = pixmap->format;
+		env->ReleasePrimitiveArrayCritical(nativeData, p_native_data, 0);
+
+		return pixel_buffer;
+	 
+}
+
+JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_loadStream(JNIEnv* env, jclass clazz, jlongArray nativeData, jobject stream, jbyteArray buffer, jint x, jint y, jint width, jint height, jint subsample) {
+
+//@line:398
+
+		java_stream s;
+		s.env = env;
+		s.stream = stream;
+		s.read = env->GetMethodID(env->GetObjectClass(stream), "read", "([BII)I");
+		s.buffer = buffer;
+		s.capacity = env->GetArrayLength(buffer);
+		s.position = s.count = s.eof = 0;
+		gdx2d_stream callbacks = { read_java_stream, skip_java_stream, eof_java_stream };
+		gdx2d_pixmap* pixmap = gdx2d_load_stream(&callbacks, &s, x, y, width, height, subsample);
+		if(pixmap!=0 && env->ExceptionCheck()) {
+			gdx2d_free(pixmap);
+			return 0;
+		}
+
+		if(pixmap==0)
+			return 0;
+
+		jobject pixel_buffer = env->NewDirectByteBuffer((void*)pixmap->pixels, pixmap->width * pixmap->height * gdx2d_bytes_per_pixel(pixmap->format));
+		jlong* p_native_data = (jlong*)env->GetPrimitiveArrayCritical(nativeData, 0);
+		p_native_data[0] = (jlong)pixmap;
+		p_native_data[1] = pixmap->width;
+		p_native_data[2] = pixmap->height;
+		p_native_data[3] = pixmap->format;
+		env->ReleasePrimitiveArrayCritical(nativeData, p_native_data, 0);
+
+		return pixel_buffer;
+	 
+}
+
 JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_newPixmap(JNIEnv* env, jclass clazz, jlongArray nativeData, jint width, jint height, jint format) {
 
-//@line:297
+//@line:427
 
 		gdx2d_pixmap* pixmap = gdx2d_new(width, height, format);
 		if(pixmap==0)
@@ -50,7 +158,7 @@ JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_newPixm
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_free(JNIEnv* env, jclass clazz, jlong pixmap) {
 
 
-//@line:313
+//@line:443
 
 		gdx2d_free((gdx2d_pixmap*)pixmap);
 	 
@@ -60,7 +168,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_free(JNIEn
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_clear(JNIEnv* env, jclass clazz, jlong pixmap, jint color) {
 
 
-//@line:317
+//@line:447
 
 		gdx2d_clear((gdx2d_pixmap*)pixmap, color);
 	 
@@ -70,7 +178,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_clear(JNIE
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setPixel(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint color) {
 
 
-//@line:321
+//@line:451
 
 		gdx2d_set_pixel((gdx2d_pixmap*)pixmap, x, y, color);
 	 
@@ -80,7 +188,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setPixel(J
 JNIEXPORT jint JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_getPixel(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y) {
 
 
-//@line:325
+//@line:455
 
 		return gdx2d_get_pixel((gdx2d_pixmap*)pixmap, x, y);
 	 
@@ -90,7 +198,7 @@ JNIEXPORT jint JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_getPixel(J
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawLine(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint x2, jint y2, jint color) {
 
 
-//@line:329
+//@line:459
 
 		gdx2d_draw_line((gdx2d_pixmap*)pixmap, x, y, x2, y2, color);
 	 
@@ -100,7 +208,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawLine(J
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawRect(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint width, jint height, jint color) {
 
 
-//@line:333
+//@line:463
 
 		gdx2d_draw_rect((gdx2d_pixmap*)pixmap, x, y, width, height, color);
 	 
@@ -110,7 +218,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawRect(J
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawCircle(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint radius, jint color) {
 
 
-//@line:337
+//@line:467
 
 		gdx2d_draw_circle((gdx2d_pixmap*)pixmap, x, y, radius, color);
 	 
@@ -120,7 +228,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawCircle
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillRect(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint width, jint height, jint color) {
 
 
-//@line:341
+//@line:471
 
 		gdx2d_fill_rect((gdx2d_pixmap*)pixmap, x, y, width, height, color);
 	 
@@ -130,7 +238,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillRect(J
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillCircle(JNIEnv* env, jclass clazz, jlong pixmap, jint x, jint y, jint radius, jint color) {
 
 
-//@line:345
+//@line:475
 
 		gdx2d_fill_circle((gdx2d_pixmap*)pixmap, x, y, radius, color);
 	 
@@ -140,7 +248,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillCircle
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillTriangle(JNIEnv* env, jclass clazz, jlong pixmap, jint x1, jint y1, jint x2, jint y2, jint x3, jint y3, jint color) {
 
 
-//@line:349
+//@line:479
 
 		gdx2d_fill_triangle((gdx2d_pixmap*)pixmap, x1, y1, x2, y2, x3, y3, color);
 	 
@@ -150,7 +258,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_fillTriang
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawPixmap(JNIEnv* env, jclass clazz, jlong src, jlong dst, jint srcX, jint srcY, jint srcWidth, jint srcHeight, jint dstX, jint dstY, jint dstWidth, jint dstHeight) {
 
 
-//@line:354
+//@line:484
 
 		gdx2d_draw_pixmap((gdx2d_pixmap*)src, (gdx2d_pixmap*)dst, srcX, srcY, srcWidth, srcHeight, dstX, dstY, dstWidth, dstHeight);
 		 
@@ -160,7 +268,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_drawPixmap
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setBlend(JNIEnv* env, jclass clazz, jlong src, jint blend) {
 
 
-//@line:358
+//@line:488
 
 		gdx2d_set_blend((gdx2d_pixmap*)src, blend);
 	 
@@ -170,7 +278,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setBlend(J
 JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setScale(JNIEnv* env, jclass clazz, jlong src, jint scale) {
 
 
-//@line:362
+//@line:492
 
 		gdx2d_set_scale((gdx2d_pixmap*)src, scale);
 	 
@@ -180,7 +288,7 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_setScale(J
 JNIEXPORT jstring JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_getFailureReason(JNIEnv* env, jclass clazz) {
 
 
-//@line:366
+//@line:496
 
      return env->NewStringUTF(gdx2d_get_failure_reason());
 	 
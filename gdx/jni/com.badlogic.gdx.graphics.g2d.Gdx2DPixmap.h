@@ -30,10 +30,26 @@ extern "C" {
 /*
  * Class:     com_badlogic_gdx_graphics_g2d_Gdx2DPixmap
  * Method:    load
- * Signature: ([J[BII)Ljava/nio/ByteBuffer;
+ * Signature: ([J[BIIIIIII)Ljava/nio/ByteBuffer;
  */
 JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_load
-  (JNIEnv *, jclass, jlongArray, jbyteArray, jint, jint);
+  (JNIEnv *, jclass, jlongArray, jbyteArray, jint, jint, jint, jint, jint, jint, jint);
+
+/*
+ * Class:     com_badlogic_gdx_graphics_g2d_Gdx2DPixmap
+ * Method:    loadBuffer
+ * Signature: ([JLjava/nio/ByteBuffer;IIIIIII)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_loadBuffer
+  (JNIEnv *, jclass, jlongArray, jobject, jint, jint, jint, jint, jint, jint, jint);
+
+/*
+ * Class:     com_badlogic_gdx_graphics_g2d_Gdx2DPixmap
+ * Method:    loadStream
+ * Signature: ([JLjava/io/InputStream;[BIIIII)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_g2d_Gdx2DPixmap_loadStream
+  (JNIEnv *, jclass, jlongArray, jobject, jbyteArray, jint, jint, jint, jint, jint);
 
 /*
  * Class:     com_badlogic_gdx_graphics_g2d_Gdx2DPixmap
@@ -58,18 +58,10 @@ JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_glutils_ETC1_decodeImage
 /*
  * Class:     com_badlogic_gdx_graphics_glutils_ETC1
  * Method:    encodeImage
- * Signature: (Ljava/nio/ByteBuffer;IIII)Ljava/nio/ByteBuffer;
+ * Signature: (Ljava/nio/ByteBuffer;IIIILjava/nio/ByteBuffer;IZ)V
  */
-JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_glutils_ETC1_encodeImage
-  (JNIEnv *, jclass, jobject, jint, jint, jint, jint);
-
-/*
- * Class:     com_badlogic_gdx_graphics_glutils_ETC1
- * Method:    encodeImagePKM
- * Signature: (Ljava/nio/ByteBuffer;IIII)Ljava/nio/ByteBuffer;
- */
-JNIEXPORT jobject JNICALL Java_com_badlogic_gdx_graphics_glutils_ETC1_encodeImagePKM
-  (JNIEnv *, jclass, jobject, jint, jint, jint, jint);
+JNIEXPORT void JNICALL Java_com_badlogic_gdx_graphics_glutils_ETC1_encodeImage
+  (JNIEnv *, jclass, jobject, jint, jint, jint, jint, jobject, jint, jboolean);
 
 #ifdef __cplusplus
 }
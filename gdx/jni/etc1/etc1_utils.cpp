@@ -498,6 +498,33 @@ void etc1_encode_block(const etc1_byte* pIn, etc1_uint32 inMask,
     writeBigEndian(pOut + 4, a.low);
 }
 
+// Like etc1_encode_block, but only tries the orientation whose two subblock averages differ the most,
+// which is about twice as fast at a slightly lower quality.
+
+void etc1_encode_block_fast(const etc1_byte* pIn, etc1_uint32 inMask,
+        etc1_byte* pOut) {
+    etc1_byte colors[6];
+    etc1_byte flippedColors[6];
+    etc_average_colors_subblock(pIn, inMask, colors, false, false);
+    etc_average_colors_subblock(pIn, inMask, colors + 3, false, true);
+    etc_average_colors_subblock(pIn, inMask, flippedColors, true, false);
+    etc_average_colors_subblock(pIn, inMask, flippedColors + 3, true, true);
+
+    int distance = square(colors[0] - colors[3]) + square(colors[1] - colors[4])
+            + square(colors[2] - colors[5]);
+    int flippedDistance = square(flippedColors[0] - flippedColors[3])
+            + square(flippedColors[1] - flippedColors[4])
+            + square(flippedColors[2] - flippedColors[5]);
+    etc_compressed a;
+    if (flippedDistance > distance) {
+        etc_encode_block_helper(pIn, inMask, flippedColors, &a, true);
+    } else {
+        etc_encode_block_helper(pIn, inMask, colors, &a, false);
+    }
+    writeBigEndian(pOut, a.high);
+    writeBigEndian(pOut + 4, a.low);
+}
+
 // Return the size of the encoded image data (does not include size of PKM header).
 
 etc1_uint32 etc1_get_encoded_data_size(etc1_uint32 width, etc1_uint32 height) {
@@ -509,8 +536,9 @@ etc1_uint32 etc1_get_encoded_data_size(etc1_uint32 width, etc1_uint32 height) {
 //       pixel (x,y) is at pIn + pixelSize * x + stride * y + redOffset;
 // pOut - pointer to encoded data. Must be large enough to store entire encoded image.
 
-int etc1_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
-        etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut) {
+static
+int etc_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
+        etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut, bool fast) {
     if (pixelSize < 2 || pixelSize > 3) {
         return -1;
     }
@@ -550,7 +578,11 @@ int etc1_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 heigh
                     }
                 }
             }
-            etc1_encode_block(block, mask, encoded);
+            if (fast) {
+                etc1_encode_block_fast(block, mask, encoded);
+            } else {
+                etc1_encode_block(block, mask, encoded);
+            }
             memcpy(pOut, encoded, sizeof(encoded));
             pOut += sizeof(encoded);
         }
@@ -558,6 +590,16 @@ int etc1_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 heigh
     return 0;
 }
 
+int etc1_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
+        etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut) {
+    return etc_encode_image(pIn, width, height, pixelSize, stride, pOut, false);
+}
+
+int etc1_encode_image_fast(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
+        etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut) {
+    return etc_encode_image(pIn, width, height, pixelSize, stride, pOut, true);
+}
+
 // Decode an entire image.
 // pIn - pointer to encoded data.
 // pOut - pointer to the image data. Will be written such that the Red component of
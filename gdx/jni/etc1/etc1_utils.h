@@ -43,6 +43,11 @@ extern "C" {
 
 void etc1_encode_block(const etc1_byte* pIn, etc1_uint32 validPixelMask, etc1_byte* pOut);
 
+// Like etc1_encode_block, but only tries one of the two subblock orientations,
+// picked from the subblock average colors. About twice as fast.
+
+void etc1_encode_block_fast(const etc1_byte* pIn, etc1_uint32 validPixelMask, etc1_byte* pOut);
+
 // Decode a block of pixels.
 //
 // pIn is an ETC1 compressed version of the data.
@@ -67,6 +72,11 @@ etc1_uint32 etc1_get_encoded_data_size(etc1_uint32 width, etc1_uint32 height);
 int etc1_encode_image(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
         etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut);
 
+// Like etc1_encode_image, but uses etc1_encode_block_fast.
+
+int etc1_encode_image_fast(const etc1_byte* pIn, etc1_uint32 width, etc1_uint32 height,
+        etc1_uint32 pixelSize, etc1_uint32 stride, etc1_byte* pOut);
+
 // Decode an entire image.
 // pIn - pointer to encoded data.
 // pOut - pointer to the image data. Will be written such that
@@ -18,35 +18,25 @@
 #include "jpgd_c.h"
 
 
-static uint32_t* lu4 = 0;
-static uint32_t* lu5 = 0;
-static uint32_t* lu6 = 0;
+// Expand 4, 5 and 6 bit channels to 8 bits, i / (2^bits - 1) * 255 truncated. Constant, so pixmaps can be used on several
+// threads at once.
+static const uint32_t lu4[16] = {
+	0, 17, 34, 51, 68, 85, 102, 119, 136, 153, 170, 187, 204, 221, 238, 255
+};
+static const uint32_t lu5[32] = {
+	0, 8, 16, 24, 32, 41, 49, 57, 65, 74, 82, 90, 98, 106, 115, 123,
+	131, 139, 148, 156, 164, 172, 180, 189, 197, 205, 213, 222, 230, 238, 246, 255
+};
+static const uint32_t lu6[64] = {
+	0, 4, 8, 12, 16, 20, 24, 28, 32, 36, 40, 44, 48, 52, 56, 60,
+	64, 68, 72, 76, 80, 85, 89, 93, 97, 101, 105, 109, 113, 117, 121, 125,
+	129, 133, 137, 141, 145, 149, 153, 157, 161, 165, 170, 174, 178, 182, 186, 190,
+	194, 198, 202, 206, 210, 214, 218, 222, 226, 230, 234, 238, 242, 246, 250, 255
+};
 
 typedef void(*set_pixel_func)(unsigned char* pixel_addr, uint32_t color);
 typedef uint32_t(*get_pixel_func)(unsigned char* pixel_addr);
 
-static inline void generate_look_ups() {
-	uint32_t i = 0;
-	lu4 = malloc(sizeof(uint32_t) * 16);
-	lu5 = malloc(sizeof(uint32_t) * 32);
-	lu6 = malloc(sizeof(uint32_t) * 64);
-
-	for(i = 0; i < 16; i++) {
-		lu4[i] = (uint32_t) i / 15.0f * 255;
-		lu5[i] = (uint32_t) i / 31.0f * 255;
-		lu6[i] = (uint32_t) i / 63.0f * 255;
-	}
-
-	for(i = 16; i < 32; i++) {
-		lu5[i] = (uint32_t) i / 31.0f * 255;
-		lu6[i] = (uint32_t) i / 63.0f * 255;
-	}
-
-	for(i = 32; i < 64; i++) {
-		lu6[i] = (uint32_t) i / 63.0f * 255;
-	}
-}
-
 static inline uint32_t to_format(uint32_t format, uint32_t color) {
 	uint32_t r, g, b, a, l;
 
@@ -95,8 +85,6 @@ static inline uint32_t weight_RGBA8888(uint32_t color, float weight) {
 static inline uint32_t to_RGBA8888(uint32_t format, uint32_t color) {
 	uint32_t r, g, b, a;
 
-	if(!lu5) generate_look_ups();
-
 	switch(format) {
 		case GDX2D_FORMAT_ALPHA: 
 			return (color & 0xff) | 0xffffff00;
@@ -127,7 +115,8 @@ static inline void set_pixel_alpha(unsigned char *pixel_addr, uint32_t color) {
 }
 
 static inline void set_pixel_luminance_alpha(unsigned char *pixel_addr, uint32_t color) {	
-	*(unsigned short*)pixel_addr = (unsigned short)color;
+	pixel_addr[0] = (color & 0xff00) >> 8;
+	pixel_addr[1] = (color & 0xff);
 }
 
 static inline void set_pixel_RGB888(unsigned char *pixel_addr, uint32_t color) {	
@@ -239,6 +228,89 @@ gdx2d_pixmap* gdx2d_load(const unsigned char *buffer, uint32_t len) {
 	return pixmap;
 }
 
+static gdx2d_pixmap* crop_pixmap(gdx2d_pixmap* pixmap, int32_t x, int32_t y, int32_t width, int32_t height, uint32_t subsample) {
+	if (width <= 0 || x + width > (int32_t)pixmap->width) width = (int32_t)pixmap->width - x;
+	if (height <= 0 || y + height > (int32_t)pixmap->height) height = (int32_t)pixmap->height - y;
+	if (subsample < 1) subsample = 1;
+	if (x == 0 && y == 0 && width == (int32_t)pixmap->width && height == (int32_t)pixmap->height && subsample == 1)
+		return pixmap;
+	if (x < 0 || y < 0 || width <= 0 || height <= 0) {
+		gdx2d_free(pixmap);
+		return NULL;
+	}
+
+	// averages each subsample x subsample block of the region, blocks at the right and bottom edge may be smaller.
+	// all formats returned by the decoders have 8 bits per component, so the bytes can be averaged independently.
+	uint32_t bpp = gdx2d_bytes_per_pixel(pixmap->format);
+	uint32_t src_stride = pixmap->width * bpp;
+	int32_t dst_width = (width + subsample - 1) / subsample;
+	int32_t dst_height = (height + subsample - 1) / subsample;
+	unsigned char* pixels = (unsigned char*)malloc(dst_width * dst_height * bpp);
+	if (!pixels) {
+		gdx2d_free(pixmap);
+		return NULL;
+	}
+	unsigned char* dst = pixels;
+	int32_t dst_x, dst_y, sx, sy;
+	uint32_t i;
+	for (dst_y = 0; dst_y < dst_height; dst_y++) {
+		int32_t y0 = y + dst_y * subsample;
+		int32_t rows = y + height - y0 < (int32_t)subsample ? y + height - y0 : (int32_t)subsample;
+		for (dst_x = 0; dst_x < dst_width; dst_x++) {
+			int32_t x0 = x + dst_x * subsample;
+			int32_t columns = x + width - x0 < (int32_t)subsample ? x + width - x0 : (int32_t)subsample;
+			uint32_t count = rows * columns;
+			for (i = 0; i < bpp; i++) {
+				uint32_t sum = count / 2;
+				for (sy = 0; sy < rows; sy++) {
+					const unsigned char* src = pixmap->pixels + (y0 + sy) * src_stride + x0 * bpp + i;
+					for (sx = 0; sx < columns; sx++, src += bpp)
+						sum += *src;
+				}
+				*dst++ = (unsigned char)(sum / count);
+			}
+		}
+	}
+
+	free((void*)pixmap->pixels);
+	pixmap->pixels = pixels;
+	pixmap->width = (uint32_t)dst_width;
+	pixmap->height = (uint32_t)dst_height;
+	return pixmap;
+}
+
+gdx2d_pixmap* gdx2d_load_region(const unsigned char *buffer, uint32_t len, int32_t x, int32_t y, int32_t width, int32_t height, uint32_t subsample) {
+	gdx2d_pixmap* pixmap = gdx2d_load(buffer, len);
+	if (pixmap == NULL)
+		return NULL;
+	return crop_pixmap(pixmap, x, y, width, height, subsample);
+}
+
+gdx2d_pixmap* gdx2d_load_stream(const gdx2d_stream* stream, void* user, int32_t x, int32_t y, int32_t width, int32_t height, uint32_t subsample) {
+	int32_t image_width, image_height, format;
+	stbi_io_callbacks callbacks;
+	callbacks.read = stream->read;
+	callbacks.skip = stream->skip;
+	callbacks.eof = stream->eof;
+
+	const unsigned char* pixels = stbi_load_from_callbacks(&callbacks, user, &image_width, &image_height, &format, 0);
+	if (pixels == NULL)
+		return NULL;
+
+	gdx2d_pixmap* pixmap = (gdx2d_pixmap*)malloc(sizeof(gdx2d_pixmap));
+	if (!pixmap) {
+		free((void*)pixels);
+		return 0;
+	}
+	pixmap->width = (uint32_t)image_width;
+	pixmap->height = (uint32_t)image_height;
+	pixmap->format = (uint32_t)format;
+	pixmap->blend = GDX2D_BLEND_SRC_OVER;
+	pixmap->scale = GDX2D_SCALE_BILINEAR;
+	pixmap->pixels = pixels;
+	return crop_pixmap(pixmap, x, y, width, height, subsample);
+}
+
 uint32_t gdx2d_bytes_per_pixel(uint32_t format) {
 	switch(format) {
 		case GDX2D_FORMAT_ALPHA:
@@ -68,7 +68,27 @@ typedef struct {
 	const unsigned char* pixels;
 } gdx2d_pixmap;
 
+/**
+ * callbacks to read encoded image data from a stream, see gdx2d_load_stream.
+ * read fills data with up to size bytes and returns the number of bytes read,
+ * skip skips the next n bytes and eof returns nonzero at the end of the stream.
+ */
+typedef struct {
+	int  (*read) (void* user, char* data, int size);
+	void (*skip) (void* user, int n);
+	int  (*eof)  (void* user);
+} gdx2d_stream;
+
+/**
+ * gdx2d_load_region and gdx2d_load_stream only keep the region x, y, width, height
+ * of the image, a width or height <= 0 extends the region to the right or bottom
+ * edge. each subsample x subsample block of the region is averaged into one pixel,
+ * 1 keeps the full resolution. returns NULL if the region is outside of the image.
+ * gdx2d_load_stream only supports the formats of stb_image.
+ */
 JNIEXPORT gdx2d_pixmap* gdx2d_load (const unsigned char *buffer, uint32_t len);
+JNIEXPORT gdx2d_pixmap* gdx2d_load_region (const unsigned char *buffer, uint32_t len, int32_t x, int32_t y, int32_t width, int32_t height, uint32_t subsample);
+JNIEXPORT gdx2d_pixmap* gdx2d_load_stream (const gdx2d_stream* stream, void* user, int32_t x, int32_t y, int32_t width, int32_t height, uint32_t subsample);
 JNIEXPORT gdx2d_pixmap* gdx2d_new  (uint32_t width, uint32_t height, uint32_t format);
 JNIEXPORT void 		 gdx2d_free (const gdx2d_pixmap* pixmap);
 
@@ -20,8 +20,10 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.Gdx2DPixmap;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 /** <p>
@@ -41,6 +43,12 @@ import java.nio.ByteBuffer;
  * needed, otherwise memory leaks will result
  * </p>
  * 
+ * <p>
+ * Different pixmaps can be drawn to and read on different threads at once. Decoding images, eg with
+ * {@link Pixmap#Pixmap(FileHandle)}, is not supported on several threads at once, because the natives keep the reason of a
+ * failed decode in global state.
+ * </p>
+ * 
  * @author badlogicgames@gmail.com */
 public class Pixmap implements Disposable {
 	/** Different pixel formats.
@@ -137,14 +145,53 @@ public class Pixmap implements Disposable {
 		}
 	}
 
+	/** Creates a new Pixmap instance from the given encoded image data without copying it into a byte[]. The image can be encoded
+	 * as JPEG, PNG or BMP.
+	 * @param encodedData a direct buffer with the encoded image data, eg from {@link FileHandle#map()}
+	 * @param offset the offset
+	 * @param len the length */
+	public Pixmap (ByteBuffer encodedData, int offset, int len) {
+		try {
+			pixmap = new Gdx2DPixmap(encodedData, offset, len, 0, 0, 0, 0, 1, 0);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't load pixmap from image data", e);
+		}
+	}
+
 	/** Creates a new Pixmap instance from the given file. The file must be a Png, Jpeg or Bitmap. Paletted formats are not
-	 * supported.
+	 * supported. The image is decoded while the file is read, without reading all of the file into memory first.
 	 * 
 	 * @param file the {@link FileHandle} */
 	public Pixmap (FileHandle file) {
+		this(file, 0, 0, 0, 0, 1);
+	}
+
+	/** Creates a new Pixmap instance from a region of the given file, optionally downscaled, eg for thumbnails or to use parts of
+	 * huge images. Only the pixels of the resulting Pixmap are kept in memory.
+	 * 
+	 * @param file the {@link FileHandle}
+	 * @param x the x coordinate of the top left corner of the region
+	 * @param y the y coordinate of the top left corner of the region
+	 * @param width the width of the region, 0 to extend it to the right edge of the image
+	 * @param height the height of the region, 0 to extend it to the bottom edge of the image
+	 * @param subsample each subsample x subsample block of pixels of the region is averaged into one pixel of the Pixmap, 1 keeps
+	 *           the full resolution */
+	public Pixmap (FileHandle file, int x, int y, int width, int height, int subsample) {
+		pixmap = load(file, x, y, width, height, subsample);
+	}
+
+	static private Gdx2DPixmap load (FileHandle file, int x, int y, int width, int height, int subsample) {
 		try {
+			InputStream input = file.read();
+			try {
+				Gdx2DPixmap pixmap = Gdx2DPixmap.decodeStream(input, x, y, width, height, subsample, 0);
+				if (pixmap != null) return pixmap;
+			} finally {
+				StreamUtils.closeQuietly(input);
+			}
+			// The stream decoder doesn't support all files the decoders for a byte[] do, eg some JPEGs.
 			byte[] bytes = file.readBytes();
-			pixmap = new Gdx2DPixmap(bytes, 0, bytes.length, 0);
+			return new Gdx2DPixmap(bytes, 0, bytes.length, x, y, width, height, subsample, 0);
 		} catch (Exception e) {
 			throw new GdxRuntimeException("Couldn't load file: " + file, e);
 		}
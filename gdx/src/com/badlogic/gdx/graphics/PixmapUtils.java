@@ -0,0 +1,623 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Bulk operations on the pixels of {@link Pixmap Pixmaps}. Each call works on whole rows of the pixel buffer, instead of a native
+ * call per pixel like {@link Pixmap#getPixel(int, int)} and {@link Pixmap#drawPixel(int, int)}. Colors are RGBA8888 and are
+ * converted between formats the same way {@link Pixmap#drawPixmap(Pixmap, int, int)} does, pixels are copied unchanged between
+ * Pixmaps of the same format.
+ * <p>
+ * The methods don't change the position or limit of the Pixmap's pixel buffer. Different Pixmaps can be processed concurrently.
+ * Blending and filter settings of the Pixmaps are ignored, blending is done with {@link #composite}. */
+public final class PixmapUtils {
+	/** The Porter-Duff compositing operators, with the source drawn onto the destination. Colors are not premultiplied, the
+	 * operators are applied to the premultiplied colors. */
+	public enum Composite {
+		Clear(0, 0, 0, 0), Src(255, 0, 0, 0), Dst(0, 0, 255, 0), SrcOver(255, 0, 255, -1), DstOver(255, -1, 255, 0),
+		SrcIn(0, 1, 0, 0), DstIn(0, 0, 0, 1), SrcOut(255, -1, 0, 0), DstOut(0, 0, 255, -1), SrcAtop(0, 1, 255, -1),
+		DstAtop(255, -1, 0, 1), Xor(255, -1, 255, -1),
+		/** Adds the premultiplied colors, clamped to 1. */
+		Add(255, 0, 255, 0);
+
+		/** The Porter-Duff factors fa = fa0 + fa1 * dstAlpha for the source and fb = fb0 + fb1 * srcAlpha for the destination,
+		 * scaled to 0-255. */
+		final int fa0, fa1, fb0, fb1;
+
+		Composite (int fa0, int fa1, int fb0, int fb1) {
+			this.fa0 = fa0;
+			this.fa1 = fa1;
+			this.fb0 = fb0;
+			this.fb1 = fb1;
+		}
+	}
+
+	static private final int[] lu4 = new int[16], lu5 = new int[32], lu6 = new int[64];
+	static {
+		// The same look ups gdx2d uses to expand 4, 5 and 6 bit components.
+		for (int i = 0; i < 16; i++)
+			lu4[i] = (int)(i / 15f * 255);
+		for (int i = 0; i < 32; i++)
+			lu5[i] = (int)(i / 31f * 255);
+		for (int i = 0; i < 64; i++)
+			lu6[i] = (int)(i / 63f * 255);
+	}
+
+	private PixmapUtils () {
+	}
+
+	/** Reads the pixels of a region as RGBA8888, row by row from the top.
+	 * @param colors Must have room for width * height colors after offset. */
+	public static void getPixels (Pixmap pixmap, int x, int y, int width, int height, int[] colors, int offset) {
+		int pixmapWidth = pixmap.getWidth(), pixmapHeight = pixmap.getHeight();
+		if (x < 0 || y < 0 || width < 0 || height < 0 || x + width > pixmapWidth || y + height > pixmapHeight)
+			throw new GdxRuntimeException("Region outside of the pixmap: " + x + ", " + y + ", " + width + ", " + height);
+		ByteBuffer pixels = buffer(pixmap);
+		Format format = pixmap.getFormat();
+		int bpp = bytesPerPixel(format);
+		byte[] bytes = new byte[width * bpp];
+		for (int row = 0; row < height; row++, offset += width)
+			readRow(pixels, format, bpp, pixmapWidth, x, y + row, width, bytes, colors, offset);
+	}
+
+	/** Writes RGBA8888 colors to the pixels of a region, row by row from the top.
+	 * @see #getPixels(Pixmap, int, int, int, int, int[], int) */
+	public static void setPixels (Pixmap pixmap, int x, int y, int width, int height, int[] colors, int offset) {
+		int pixmapWidth = pixmap.getWidth(), pixmapHeight = pixmap.getHeight();
+		if (x < 0 || y < 0 || width < 0 || height < 0 || x + width > pixmapWidth || y + height > pixmapHeight)
+			throw new GdxRuntimeException("Region outside of the pixmap: " + x + ", " + y + ", " + width + ", " + height);
+		ByteBuffer pixels = buffer(pixmap);
+		Format format = pixmap.getFormat();
+		int bpp = bytesPerPixel(format);
+		byte[] bytes = new byte[width * bpp];
+		for (int row = 0; row < height; row++, offset += width)
+			writeRow(pixels, format, bpp, pixmapWidth, x, y + row, width, bytes, colors, offset);
+	}
+
+	/** Copies a region of the source to the destination, converting the format if necessary. The destination pixels are replaced,
+	 * like {@link Pixmap#drawPixmap} with {@link Pixmap.Blending#None}. The source and destination may be the same Pixmap. */
+	public static void blit (Pixmap src, int srcX, int srcY, Pixmap dst, int dstX, int dstY, int width, int height) {
+		if (srcX < 0) {
+			dstX -= srcX;
+			width += srcX;
+			srcX = 0;
+		}
+		if (srcY < 0) {
+			dstY -= srcY;
+			height += srcY;
+			srcY = 0;
+		}
+		if (dstX < 0) {
+			srcX -= dstX;
+			width += dstX;
+			dstX = 0;
+		}
+		if (dstY < 0) {
+			srcY -= dstY;
+			height += dstY;
+			dstY = 0;
+		}
+		width = Math.min(width, Math.min(src.getWidth() - srcX, dst.getWidth() - dstX));
+		height = Math.min(height, Math.min(src.getHeight() - srcY, dst.getHeight() - dstY));
+		if (width <= 0 || height <= 0) return;
+
+		ByteBuffer srcPixels = buffer(src), dstPixels = buffer(dst);
+		Format srcFormat = src.getFormat(), dstFormat = dst.getFormat();
+		int srcBpp = bytesPerPixel(srcFormat), dstBpp = bytesPerPixel(dstFormat);
+		int srcWidth = src.getWidth(), dstWidth = dst.getWidth();
+		// Rows are copied bottom up when they move down within the same pixmap, so no row is overwritten before it is read.
+		boolean up = src == dst && dstY > srcY;
+		if (srcBpp == dstBpp && sameLayout(srcFormat, dstFormat)) {
+			byte[] bytes = new byte[width * srcBpp];
+			for (int i = 0; i < height; i++) {
+				int row = up ? height - 1 - i : i;
+				srcPixels.position(((srcY + row) * srcWidth + srcX) * srcBpp);
+				srcPixels.get(bytes);
+				dstPixels.position(((dstY + row) * dstWidth + dstX) * dstBpp);
+				dstPixels.put(bytes);
+			}
+		} else {
+			byte[] srcBytes = new byte[width * srcBpp], dstBytes = new byte[width * dstBpp];
+			int[] colors = new int[width];
+			for (int i = 0; i < height; i++) {
+				int row = up ? height - 1 - i : i;
+				readRow(srcPixels, srcFormat, srcBpp, srcWidth, srcX, srcY + row, width, srcBytes, colors, 0);
+				writeRow(dstPixels, dstFormat, dstBpp, dstWidth, dstX, dstY + row, width, dstBytes, colors, 0);
+			}
+		}
+	}
+
+	/** Copies a region of the source to a region of the destination with a different size, converting the format if necessary.
+	 * The destination pixels are replaced. The destination region is clipped to the destination, the source region must be inside
+	 * of the source. The source and destination must be different Pixmaps.
+	 * @param bilinear If false, the nearest source pixel is used. */
+	public static void blit (Pixmap src, int srcX, int srcY, int srcWidth, int srcHeight, Pixmap dst, int dstX, int dstY,
+		int dstWidth, int dstHeight, boolean bilinear) {
+		if (src == dst) throw new IllegalArgumentException("src and dst must be different pixmaps.");
+		if (srcX < 0 || srcY < 0 || srcWidth <= 0 || srcHeight <= 0 || srcX + srcWidth > src.getWidth()
+			|| srcY + srcHeight > src.getHeight())
+			throw new GdxRuntimeException("Region outside of the source: " + srcX + ", " + srcY + ", " + srcWidth + ", " + srcHeight);
+		if (dstWidth <= 0 || dstHeight <= 0) return;
+		int startX = Math.max(0, -dstX), endX = Math.min(dstWidth, dst.getWidth() - dstX);
+		int startY = Math.max(0, -dstY), endY = Math.min(dstHeight, dst.getHeight() - dstY);
+		if (startX >= endX || startY >= endY) return;
+
+		ByteBuffer srcPixels = buffer(src), dstPixels = buffer(dst);
+		Format srcFormat = src.getFormat(), dstFormat = dst.getFormat();
+		int srcBpp = bytesPerPixel(srcFormat), dstBpp = bytesPerPixel(dstFormat);
+		int srcPixmapWidth = src.getWidth(), dstPixmapWidth = dst.getWidth(), width = endX - startX;
+		byte[] srcBytes = new byte[srcWidth * srcBpp], dstBytes = new byte[width * dstBpp];
+		int[] row0 = new int[srcWidth], row1 = new int[srcWidth], colors = new int[width];
+
+		// Source x coordinates and 8 bit weights for each destination column, computed once for all rows.
+		int[] columns = new int[width], weights = new int[width];
+		float scaleX = srcWidth / (float)dstWidth, scaleY = srcHeight / (float)dstHeight;
+		for (int i = 0; i < width; i++) {
+			int x = startX + i;
+			if (bilinear) {
+				float fx = Math.max(0, (x + 0.5f) * scaleX - 0.5f);
+				columns[i] = Math.min((int)fx, srcWidth - 1);
+				weights[i] = columns[i] == srcWidth - 1 ? 0 : (int)((fx - columns[i]) * 256);
+			} else
+				columns[i] = Math.min((int)(x * scaleX), srcWidth - 1);
+		}
+
+		int loaded0 = -1, loaded1 = -1;
+		for (int y = startY; y < endY; y++) {
+			int sy, weightY = 0;
+			if (bilinear) {
+				float fy = Math.max(0, (y + 0.5f) * scaleY - 0.5f);
+				sy = Math.min((int)fy, srcHeight - 1);
+				if (sy < srcHeight - 1) weightY = (int)((fy - sy) * 256);
+			} else
+				sy = Math.min((int)(y * scaleY), srcHeight - 1);
+
+			if (loaded0 != sy) {
+				if (loaded1 == sy) {
+					int[] temp = row0;
+					row0 = row1;
+					row1 = temp;
+					loaded1 = -1;
+				} else
+					readRow(srcPixels, srcFormat, srcBpp, srcPixmapWidth, srcX, srcY + sy, srcWidth, srcBytes, row0, 0);
+				loaded0 = sy;
+			}
+			if (weightY > 0 && loaded1 != sy + 1) {
+				readRow(srcPixels, srcFormat, srcBpp, srcPixmapWidth, srcX, srcY + sy + 1, srcWidth, srcBytes, row1, 0);
+				loaded1 = sy + 1;
+			}
+
+			if (!bilinear) {
+				for (int i = 0; i < width; i++)
+					colors[i] = row0[columns[i]];
+			} else {
+				for (int i = 0; i < width; i++) {
+					int sx = columns[i], weightX = weights[i];
+					int top = lerp(row0[sx], weightX > 0 ? row0[sx + 1] : 0, weightX);
+					if (weightY > 0) top = lerp(top, lerp(row1[sx], weightX > 0 ? row1[sx + 1] : 0, weightX), weightY);
+					colors[i] = top;
+				}
+			}
+			writeRow(dstPixels, dstFormat, dstBpp, dstPixmapWidth, dstX + startX, dstY + y, width, dstBytes, colors, 0);
+		}
+	}
+
+	/** Returns a new Pixmap with the pixels of the given Pixmap converted to the format. */
+	public static Pixmap convert (Pixmap pixmap, Format format) {
+		Pixmap result = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), format);
+		blit(pixmap, 0, 0, result, 0, 0, pixmap.getWidth(), pixmap.getHeight());
+		return result;
+	}
+
+	/** Multiplies the color components of each pixel by its alpha. Does nothing for formats without color or alpha. */
+	public static void premultiplyAlpha (Pixmap pixmap) {
+		if (!hasColorAndAlpha(pixmap.getFormat())) return;
+		ByteBuffer pixels = buffer(pixmap);
+		Format format = pixmap.getFormat();
+		int bpp = bytesPerPixel(format), width = pixmap.getWidth();
+		byte[] bytes = new byte[width * bpp];
+		int[] colors = new int[width];
+		for (int y = 0, height = pixmap.getHeight(); y < height; y++) {
+			readRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+			for (int i = 0; i < width; i++) {
+				int color = colors[i], a = color & 0xff;
+				if (a == 255) continue;
+				int r = ((color >>> 24) * a + 127) / 255, g = ((color >>> 16 & 0xff) * a + 127) / 255;
+				int b = ((color >>> 8 & 0xff) * a + 127) / 255;
+				colors[i] = r << 24 | g << 16 | b << 8 | a;
+			}
+			writeRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+		}
+	}
+
+	/** Divides the color components of each pixel by its alpha, reversing {@link #premultiplyAlpha(Pixmap)}. Pixels with zero
+	 * alpha become transparent black. Does nothing for formats without color or alpha. */
+	public static void unpremultiplyAlpha (Pixmap pixmap) {
+		if (!hasColorAndAlpha(pixmap.getFormat())) return;
+		ByteBuffer pixels = buffer(pixmap);
+		Format format = pixmap.getFormat();
+		int bpp = bytesPerPixel(format), width = pixmap.getWidth();
+		byte[] bytes = new byte[width * bpp];
+		int[] colors = new int[width];
+		for (int y = 0, height = pixmap.getHeight(); y < height; y++) {
+			readRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+			for (int i = 0; i < width; i++) {
+				int color = colors[i], a = color & 0xff;
+				if (a == 255) continue;
+				if (a == 0) {
+					colors[i] = 0;
+					continue;
+				}
+				int half = a / 2;
+				int r = Math.min(255, ((color >>> 24) * 255 + half) / a), g = Math.min(255, ((color >>> 16 & 0xff) * 255 + half) / a);
+				int b = Math.min(255, ((color >>> 8 & 0xff) * 255 + half) / a);
+				colors[i] = r << 24 | g << 16 | b << 8 | a;
+			}
+			writeRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+		}
+	}
+
+	/** Transforms the color of each pixel with a 4x5 matrix. The components are in the range 0 to 1 and the results are clamped to
+	 * that range. For each row of the matrix the new component is the dot product of the row's first four values with RGBA,
+	 * plus the fifth value. Eg {1,0,0,0,0, 0,1,0,0,0, 0,0,1,0,0, 0,0,0,1,0} does nothing, and tinting multiplies the diagonal.
+	 * @param matrix The rows for red, green, blue and alpha. */
+	public static void transformColors (Pixmap pixmap, float[] matrix) {
+		if (matrix.length < 20) throw new IllegalArgumentException("matrix must have 20 values: " + matrix.length);
+		// Scaled so the 0-255 components can be used directly.
+		float m0 = matrix[0], m1 = matrix[1], m2 = matrix[2], m3 = matrix[3], m4 = matrix[4] * 255 + 0.5f;
+		float m5 = matrix[5], m6 = matrix[6], m7 = matrix[7], m8 = matrix[8], m9 = matrix[9] * 255 + 0.5f;
+		float m10 = matrix[10], m11 = matrix[11], m12 = matrix[12], m13 = matrix[13], m14 = matrix[14] * 255 + 0.5f;
+		float m15 = matrix[15], m16 = matrix[16], m17 = matrix[17], m18 = matrix[18], m19 = matrix[19] * 255 + 0.5f;
+		ByteBuffer pixels = buffer(pixmap);
+		Format format = pixmap.getFormat();
+		int bpp = bytesPerPixel(format), width = pixmap.getWidth();
+		byte[] bytes = new byte[width * bpp];
+		int[] colors = new int[width];
+		for (int y = 0, height = pixmap.getHeight(); y < height; y++) {
+			readRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+			for (int i = 0; i < width; i++) {
+				int color = colors[i];
+				float r = color >>> 24, g = color >>> 16 & 0xff, b = color >>> 8 & 0xff, a = color & 0xff;
+				colors[i] = clamp(r * m0 + g * m1 + b * m2 + a * m3 + m4) << 24 //
+					| clamp(r * m5 + g * m6 + b * m7 + a * m8 + m9) << 16 //
+					| clamp(r * m10 + g * m11 + b * m12 + a * m13 + m14) << 8 //
+					| clamp(r * m15 + g * m16 + b * m17 + a * m18 + m19);
+			}
+			writeRow(pixels, format, bpp, width, 0, y, width, bytes, colors, 0);
+		}
+	}
+
+	/** Draws a region of the source onto the destination with a Porter-Duff operator, converting the format if necessary. The
+	 * source and destination must be different Pixmaps. */
+	public static void composite (Pixmap src, int srcX, int srcY, Pixmap dst, int dstX, int dstY, int width, int height,
+		Composite composite) {
+		if (src == dst) throw new IllegalArgumentException("src and dst must be different pixmaps.");
+		if (srcX < 0) {
+			dstX -= srcX;
+			width += srcX;
+			srcX = 0;
+		}
+		if (srcY < 0) {
+			dstY -= srcY;
+			height += srcY;
+			srcY = 0;
+		}
+		if (dstX < 0) {
+			srcX -= dstX;
+			width += dstX;
+			dstX = 0;
+		}
+		if (dstY < 0) {
+			srcY -= dstY;
+			height += dstY;
+			dstY = 0;
+		}
+		width = Math.min(width, Math.min(src.getWidth() - srcX, dst.getWidth() - dstX));
+		height = Math.min(height, Math.min(src.getHeight() - srcY, dst.getHeight() - dstY));
+		if (width <= 0 || height <= 0) return;
+
+		ByteBuffer srcPixels = buffer(src), dstPixels = buffer(dst);
+		Format srcFormat = src.getFormat(), dstFormat = dst.getFormat();
+		int srcBpp = bytesPerPixel(srcFormat), dstBpp = bytesPerPixel(dstFormat);
+		int srcWidth = src.getWidth(), dstWidth = dst.getWidth();
+		byte[] srcBytes = new byte[width * srcBpp], dstBytes = new byte[width * dstBpp];
+		int[] srcColors = new int[width], dstColors = new int[width];
+		for (int row = 0; row < height; row++) {
+			readRow(srcPixels, srcFormat, srcBpp, srcWidth, srcX, srcY + row, width, srcBytes, srcColors, 0);
+			readRow(dstPixels, dstFormat, dstBpp, dstWidth, dstX, dstY + row, width, dstBytes, dstColors, 0);
+			compositeRow(srcColors, dstColors, width, composite);
+			writeRow(dstPixels, dstFormat, dstBpp, dstWidth, dstX, dstY + row, width, dstBytes, dstColors, 0);
+		}
+	}
+
+	/** Draws a row of RGBA8888 colors with the operator's Porter-Duff factors, which covers all operators without a branch per
+	 * pixel. Integer math is faster here than floats, which need many conversions. */
+	static void compositeRow (int[] src, int[] dst, int width, Composite composite) {
+		int fa0 = composite.fa0, fa1 = composite.fa1, fb0 = composite.fb0, fb1 = composite.fb1;
+		for (int i = 0; i < width; i++) {
+			int s = src[i], d = dst[i], sa = s & 0xff, da = d & 0xff;
+			// The weights of the premultiplied components, their sum is the result's alpha scaled by 255 * 255.
+			int wa = sa * (fa0 + fa1 * da), wb = da * (fb0 + fb1 * sa);
+			// When only one color contributes, eg an opaque source drawn over, its components are unchanged.
+			if (wb == 0) {
+				dst[i] = wa == 0 ? 0 : (s & 0xffffff00) | (wa + 127) / 255;
+				continue;
+			}
+			if (wa == 0) {
+				dst[i] = (d & 0xffffff00) | (wb + 127) / 255;
+				continue;
+			}
+			int total = wa + wb;
+			if (total > 65025) total = 65025; // Add can exceed an alpha of 1.
+			// Dividing the premultiplied components by the alpha stores them without premultiplied alpha again. They are clamped to
+			// the alpha, which only Add can exceed. Multiplying by a rounded up reciprocal with 42 bits of fraction is exact for
+			// these ranges, and needs one division of doubles instead of three integer divisions, which are much slower.
+			long reciprocal = (long)(4398046511104d / total) + 1;
+			int half = total >>> 1;
+			long r = Math.min((s >>> 24) * wa + (d >>> 24) * wb, 16581375) + half;
+			long g = Math.min((s >>> 16 & 0xff) * wa + (d >>> 16 & 0xff) * wb, 16581375) + half;
+			long b = Math.min((s >>> 8 & 0xff) * wa + (d >>> 8 & 0xff) * wb, 16581375) + half;
+			dst[i] = (int)(r * reciprocal >>> 42) << 24 | (int)(g * reciprocal >>> 42) << 16 | (int)(b * reciprocal >>> 42) << 8
+				| (total + 127) / 255;
+		}
+	}
+
+	/** Mirrors the pixels horizontally. */
+	public static void flipX (Pixmap pixmap) {
+		ByteBuffer pixels = buffer(pixmap);
+		int bpp = bytesPerPixel(pixmap.getFormat()), width = pixmap.getWidth(), rowBytes = width * bpp;
+		byte[] row = new byte[rowBytes];
+		for (int y = 0, height = pixmap.getHeight(); y < height; y++) {
+			pixels.position(y * rowBytes);
+			pixels.get(row);
+			for (int left = 0, right = rowBytes - bpp; left < right; left += bpp, right -= bpp) {
+				for (int i = 0; i < bpp; i++) {
+					byte temp = row[left + i];
+					row[left + i] = row[right + i];
+					row[right + i] = temp;
+				}
+			}
+			pixels.position(y * rowBytes);
+			pixels.put(row);
+		}
+	}
+
+	/** Mirrors the pixels vertically. */
+	public static void flipY (Pixmap pixmap) {
+		ByteBuffer pixels = buffer(pixmap);
+		int rowBytes = pixmap.getWidth() * bytesPerPixel(pixmap.getFormat());
+		byte[] top = new byte[rowBytes], bottom = new byte[rowBytes];
+		for (int y = 0, y2 = pixmap.getHeight() - 1; y < y2; y++, y2--) {
+			pixels.position(y * rowBytes);
+			pixels.get(top);
+			pixels.position(y2 * rowBytes);
+			pixels.get(bottom);
+			pixels.position(y2 * rowBytes);
+			pixels.put(top);
+			pixels.position(y * rowBytes);
+			pixels.put(bottom);
+		}
+	}
+
+	/** Returns a new Pixmap with the same format and the pixels rotated by 90 degrees, so its width is the given Pixmap's height.
+	 * @param clockwise If false, the pixels are rotated counterclockwise. */
+	public static Pixmap rotate90 (Pixmap pixmap, boolean clockwise) {
+		int width = pixmap.getWidth(), height = pixmap.getHeight(), bpp = bytesPerPixel(pixmap.getFormat());
+		Pixmap result = new Pixmap(height, width, pixmap.getFormat());
+		ByteBuffer pixels = buffer(pixmap), resultPixels = buffer(result);
+		byte[] row = new byte[width * bpp], column = new byte[width * height * bpp];
+		// Each source row becomes a column of the result, which is built in memory and written at once.
+		for (int y = 0; y < height; y++) {
+			pixels.position(y * width * bpp);
+			pixels.get(row);
+			int resultX = clockwise ? height - 1 - y : y;
+			for (int x = 0; x < width; x++) {
+				int resultY = clockwise ? x : width - 1 - x;
+				System.arraycopy(row, x * bpp, column, (resultY * height + resultX) * bpp, bpp);
+			}
+		}
+		resultPixels.position(0);
+		resultPixels.put(column);
+		return result;
+	}
+
+	static private ByteBuffer buffer (Pixmap pixmap) {
+		ByteBuffer pixels = pixmap.getPixels().duplicate();
+		pixels.clear();
+		pixels.order(ByteOrder.BIG_ENDIAN); // An RGBA8888 pixel is a big endian int.
+		return pixels;
+	}
+
+	static private int bytesPerPixel (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/** Alpha and Intensity are both stored as gdx2d's alpha format, so they can be copied without conversion. */
+	static private boolean sameLayout (Format a, Format b) {
+		if (a == b) return true;
+		return (a == Format.Alpha || a == Format.Intensity) && (b == Format.Alpha || b == Format.Intensity);
+	}
+
+	static private boolean hasColorAndAlpha (Format format) {
+		return format == Format.RGBA8888 || format == Format.RGBA4444 || format == Format.LuminanceAlpha;
+	}
+
+	static private void readRow (ByteBuffer pixels, Format format, int bpp, int pixmapWidth, int x, int y, int width, byte[] bytes,
+		int[] colors, int offset) {
+		pixels.position((y * pixmapWidth + x) * bpp);
+		if (format == Format.RGBA8888) {
+			// A bulk copy converts the byte order much faster than a loop.
+			pixels.asIntBuffer().get(colors, offset, width);
+			return;
+		}
+		pixels.get(bytes, 0, width * bpp);
+		// Each format has its own method, so the JIT compiles the loops separately and using another format doesn't deoptimize them.
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			decodeAlpha(bytes, colors, offset, width);
+			break;
+		case LuminanceAlpha:
+			decodeLuminanceAlpha(bytes, colors, offset, width);
+			break;
+		case RGB565:
+			decodeRGB565(bytes, colors, offset, width);
+			break;
+		case RGBA4444:
+			decodeRGBA4444(bytes, colors, offset, width);
+			break;
+		default:
+			decodeRGB888(bytes, colors, offset, width);
+		}
+	}
+
+	static private void writeRow (ByteBuffer pixels, Format format, int bpp, int pixmapWidth, int x, int y, int width,
+		byte[] bytes, int[] colors, int offset) {
+		pixels.position((y * pixmapWidth + x) * bpp);
+		if (format == Format.RGBA8888) {
+			pixels.asIntBuffer().put(colors, offset, width);
+			return;
+		}
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			encodeAlpha(colors, offset, bytes, width);
+			break;
+		case LuminanceAlpha:
+			encodeLuminanceAlpha(colors, offset, bytes, width);
+			break;
+		case RGB565:
+			encodeRGB565(colors, offset, bytes, width);
+			break;
+		case RGBA4444:
+			encodeRGBA4444(colors, offset, bytes, width);
+			break;
+		default:
+			encodeRGB888(colors, offset, bytes, width);
+		}
+		pixels.put(bytes, 0, width * bpp);
+	}
+
+	static private void decodeAlpha (byte[] bytes, int[] colors, int offset, int width) {
+		for (int i = 0; i < width; i++)
+			colors[offset + i] = 0xffffff00 | bytes[i] & 0xff;
+	}
+
+	static private void decodeLuminanceAlpha (byte[] bytes, int[] colors, int offset, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int l = bytes[b] & 0xff;
+			colors[offset + i] = l << 24 | l << 16 | l << 8 | bytes[b + 1] & 0xff;
+		}
+	}
+
+	static private void decodeRGB565 (byte[] bytes, int[] colors, int offset, int width) {
+		int[] lu5 = PixmapUtils.lu5, lu6 = PixmapUtils.lu6;
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int value = bytes[b] & 0xff | (bytes[b + 1] & 0xff) << 8;
+			colors[offset + i] = lu5[value >>> 11] << 24 | lu6[value >>> 5 & 0x3f] << 16 | lu5[value & 0x1f] << 8 | 0xff;
+		}
+	}
+
+	static private void decodeRGBA4444 (byte[] bytes, int[] colors, int offset, int width) {
+		int[] lu4 = PixmapUtils.lu4;
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int value = bytes[b] & 0xff | (bytes[b + 1] & 0xff) << 8;
+			colors[offset + i] = lu4[value >>> 12] << 24 | lu4[value >>> 8 & 0xf] << 16 | lu4[value >>> 4 & 0xf] << 8
+				| lu4[value & 0xf];
+		}
+	}
+
+	static private void decodeRGB888 (byte[] bytes, int[] colors, int offset, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 3)
+			colors[offset + i] = (bytes[b] & 0xff) << 24 | (bytes[b + 1] & 0xff) << 16 | (bytes[b + 2] & 0xff) << 8 | 0xff;
+	}
+
+	static private void encodeAlpha (int[] colors, int offset, byte[] bytes, int width) {
+		for (int i = 0; i < width; i++)
+			bytes[i] = (byte)colors[offset + i];
+	}
+
+	static private void encodeLuminanceAlpha (int[] colors, int offset, byte[] bytes, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int color = colors[offset + i];
+			// The luminance weights of gdx2d, which rounds a few colors differently because it mixes in doubles.
+			bytes[b] = (byte)(int)(0.2126f * (color >>> 24) + 0.7152f * (color >>> 16 & 0xff) + 0.0722f * (color >>> 8 & 0xff));
+			bytes[b + 1] = (byte)color;
+		}
+	}
+
+	static private void encodeRGB565 (int[] colors, int offset, byte[] bytes, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int color = colors[offset + i];
+			int value = (color >>> 27) << 11 | (color >>> 18 & 0x3f) << 5 | (color >>> 11 & 0x1f);
+			bytes[b] = (byte)value;
+			bytes[b + 1] = (byte)(value >>> 8);
+		}
+	}
+
+	static private void encodeRGBA4444 (int[] colors, int offset, byte[] bytes, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 2) {
+			int color = colors[offset + i];
+			int value = (color >>> 28) << 12 | (color >>> 20 & 0xf) << 8 | (color >>> 12 & 0xf) << 4 | (color >>> 4 & 0xf);
+			bytes[b] = (byte)value;
+			bytes[b + 1] = (byte)(value >>> 8);
+		}
+	}
+
+	static private void encodeRGB888 (int[] colors, int offset, byte[] bytes, int width) {
+		for (int i = 0, b = 0; i < width; i++, b += 3) {
+			int color = colors[offset + i];
+			bytes[b] = (byte)(color >>> 24);
+			bytes[b + 1] = (byte)(color >>> 16);
+			bytes[b + 2] = (byte)(color >>> 8);
+		}
+	}
+
+	/** Interpolates each component of two RGBA8888 colors with an 8 bit weight for the second color. */
+	static private int lerp (int a, int b, int weight) {
+		if (weight == 0) return a;
+		int inverse = 256 - weight;
+		int r = ((a >>> 24) * inverse + (b >>> 24) * weight) >>> 8;
+		int g = ((a >>> 16 & 0xff) * inverse + (b >>> 16 & 0xff) * weight) >>> 8;
+		int bl = ((a >>> 8 & 0xff) * inverse + (b >>> 8 & 0xff) * weight) >>> 8;
+		int al = ((a & 0xff) * inverse + (b & 0xff) * weight) >>> 8;
+		return r << 24 | g << 16 | bl << 8 | al;
+	}
+
+	static private int clamp (float value) {
+		if (value <= 0) return 0;
+		if (value >= 255) return 255;
+		return (int)value;
+	}
+}
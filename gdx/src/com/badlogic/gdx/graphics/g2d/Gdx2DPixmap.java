@@ -81,17 +81,56 @@ public class Gdx2DPixmap implements Disposable {
 	long[] nativeData = new long[4];
 
 	public Gdx2DPixmap (byte[] encodedData, int offset, int len, int requestedFormat) throws IOException {
-		pixelPtr = load(nativeData, encodedData, offset, len);
+		this(encodedData, offset, len, 0, 0, 0, 0, 1, requestedFormat);
+	}
+
+	/** Decodes only a region of the image, optionally downscaled. The full image is decoded temporarily, but only the resulting
+	 * pixels are kept.
+	 * @param width The width of the region, 0 to extend it to the right edge of the image.
+	 * @param height The height of the region, 0 to extend it to the bottom edge of the image.
+	 * @param subsample Each subsample x subsample block of the region is averaged into one pixel, 1 keeps the full resolution. */
+	public Gdx2DPixmap (byte[] encodedData, int offset, int len, int x, int y, int width, int height, int subsample,
+		int requestedFormat) throws IOException {
+		pixelPtr = load(nativeData, encodedData, offset, len, x, y, width, height, subsample);
 		if (pixelPtr == null) throw new IOException("Error loading pixmap: " + getFailureReason());
+		setNativeData(requestedFormat);
+	}
 
-		basePtr = nativeData[0];
-		width = (int)nativeData[1];
-		height = (int)nativeData[2];
-		format = (int)nativeData[3];
+	/** Decodes the encoded image data without copying it into a byte[].
+	 * @param encodedData A direct buffer, eg a memory mapped file.
+	 * @see #Gdx2DPixmap(byte[], int, int, int, int, int, int, int, int) */
+	public Gdx2DPixmap (ByteBuffer encodedData, int offset, int len, int x, int y, int width, int height, int subsample,
+		int requestedFormat) throws IOException {
+		if (!encodedData.isDirect()) throw new GdxRuntimeException("encodedData must be a direct buffer.");
+		pixelPtr = loadBuffer(nativeData, encodedData, offset, len, x, y, width, height, subsample);
+		if (pixelPtr == null) throw new IOException("Error loading pixmap: " + getFailureReason());
+		setNativeData(requestedFormat);
+	}
 
-		if (requestedFormat != 0 && requestedFormat != format) {
-			convert(requestedFormat);
-		}
+	/** Decodes the image while it is read from the stream, without first reading all of the stream into memory. Only supports the
+	 * formats of stb_image, the decoder used by the other constructors falls back to a second JPEG decoder. The stream is not
+	 * closed.
+	 * @see #Gdx2DPixmap(byte[], int, int, int, int, int, int, int, int) */
+	public Gdx2DPixmap (InputStream in, int x, int y, int width, int height, int subsample, int requestedFormat)
+		throws IOException {
+		pixelPtr = loadStream(nativeData, in, new byte[16 * 1024], x, y, width, height, subsample);
+		if (pixelPtr == null) throw new IOException("Error loading pixmap: " + getFailureReason());
+		setNativeData(requestedFormat);
+	}
+
+	private Gdx2DPixmap () {
+	}
+
+	/** Like {@link #Gdx2DPixmap(InputStream, int, int, int, int, int, int)}, but returns null if the image could not be decoded,
+	 * so it can be decoded from a byte[] instead.
+	 * @throws IOException if the stream throws an exception. */
+	public static Gdx2DPixmap decodeStream (InputStream in, int x, int y, int width, int height, int subsample,
+		int requestedFormat) throws IOException {
+		Gdx2DPixmap pixmap = new Gdx2DPixmap();
+		pixmap.pixelPtr = loadStream(pixmap.nativeData, in, new byte[16 * 1024], x, y, width, height, subsample);
+		if (pixmap.pixelPtr == null) return null;
+		pixmap.setNativeData(requestedFormat);
+		return pixmap;
 	}
 
 	public Gdx2DPixmap (InputStream in, int requestedFormat) throws IOException {
@@ -104,17 +143,9 @@ public class Gdx2DPixmap implements Disposable {
 		}
 
 		buffer = bytes.toByteArray();
-		pixelPtr = load(nativeData, buffer, 0, buffer.length);
+		pixelPtr = load(nativeData, buffer, 0, buffer.length, 0, 0, 0, 0, 1);
 		if (pixelPtr == null) throw new IOException("Error loading pixmap: " + getFailureReason());
-
-		basePtr = nativeData[0];
-		width = (int)nativeData[1];
-		height = (int)nativeData[2];
-		format = (int)nativeData[3];
-
-		if (requestedFormat != 0 && requestedFormat != format) {
-			convert(requestedFormat);
-		}
+		setNativeData(requestedFormat);
 	}
 
 	/** @throws GdxRuntimeException if allocation failed. */
@@ -136,6 +167,17 @@ public class Gdx2DPixmap implements Disposable {
 		this.format = (int)nativeData[3];
 	}
 
+	private void setNativeData (int requestedFormat) {
+		basePtr = nativeData[0];
+		width = (int)nativeData[1];
+		height = (int)nativeData[2];
+		format = (int)nativeData[3];
+
+		if (requestedFormat != 0 && requestedFormat != format) {
+			convert(requestedFormat);
+		}
+	}
+
 	private void convert (int requestedFormat) {
 		Gdx2DPixmap pixmap = new Gdx2DPixmap(width, height, requestedFormat);
 		pixmap.drawPixmap(this, 0, 0, 0, 0, width, height);
@@ -273,11 +315,65 @@ public class Gdx2DPixmap implements Disposable {
 	/*JNI
 	#include <gdx2d/gdx2d.h>
 	#include <stdlib.h>
+
+	// Reads a java.io.InputStream into a byte[], so Java is only called once per filled byte[]. An exception thrown by the
+	// stream ends it and stays pending, so it is thrown once the native method returns.
+	typedef struct {
+		JNIEnv* env;
+		jobject stream;
+		jmethodID read;
+		jbyteArray buffer;
+		int capacity, position, count, eof;
+	} java_stream;
+
+	static int fill_java_stream (java_stream* s) {
+		if (s->eof) return 0;
+		int count = s->env->CallIntMethod(s->stream, s->read, s->buffer, 0, s->capacity);
+		if (s->env->ExceptionCheck() || count < 0) {
+			s->eof = 1;
+			s->position = s->count = 0;
+			return 0;
+		}
+		s->position = 0;
+		s->count = count;
+		return 1;
+	}
+
+	static int read_java_stream (void* user, char* data, int size) {
+		java_stream* s = (java_stream*)user;
+		int total = 0;
+		while (total < size) {
+			if (s->position == s->count && !fill_java_stream(s)) break;
+			int n = s->count - s->position;
+			if (n > size - total) n = size - total;
+			s->env->GetByteArrayRegion(s->buffer, s->position, n, (jbyte*)data + total);
+			s->position += n;
+			total += n;
+		}
+		return total;
+	}
+
+	static void skip_java_stream (void* user, int n) {
+		java_stream* s = (java_stream*)user;
+		while (n > 0) {
+			if (s->position == s->count && !fill_java_stream(s)) break;
+			int skipped = s->count - s->position;
+			if (skipped > n) skipped = n;
+			s->position += skipped;
+			n -= skipped;
+		}
+	}
+
+	static int eof_java_stream (void* user) {
+		java_stream* s = (java_stream*)user;
+		return s->eof && s->position == s->count;
+	}
 	 */
 
-	private static native ByteBuffer load (long[] nativeData, byte[] buffer, int offset, int len); /*MANUAL
+	private static native ByteBuffer load (long[] nativeData, byte[] buffer, int offset, int len, int x, int y, int width,
+		int height, int subsample); /*MANUAL
 		const unsigned char* p_buffer = (const unsigned char*)env->GetPrimitiveArrayCritical(buffer, 0);
-		gdx2d_pixmap* pixmap = gdx2d_load(p_buffer + offset, len);
+		gdx2d_pixmap* pixmap = gdx2d_load_region(p_buffer + offset, len, x, y, width, height, subsample);
 		env->ReleasePrimitiveArrayCritical(buffer, (char*)p_buffer, 0);
 
 		if(pixmap==0)
@@ -294,6 +390,55 @@ public class Gdx2DPixmap implements Disposable {
 		return pixel_buffer;
 	 */
 
+	private static native ByteBuffer loadBuffer (long[] nativeData, ByteBuffer buffer, int offset, int len, int x, int y,
+		int width, int height, int subsample); /*MANUAL
+		const unsigned char* p_buffer = (const unsigned char*)env->GetDirectBufferAddress(buffer);
+		gdx2d_pixmap* pixmap = gdx2d_load_region(p_buffer + offset, len, x, y, width, height, subsample);
+
+		if(pixmap==0)
+			return 0;
+
+		jobject pixel_buffer = env->NewDirectByteBuffer((void*)pixmap->pixels, pixmap->width * pixmap->height * gdx2d_bytes_per_pixel(pixmap->format));
+		jlong* p_native_data = (jlong*)env->GetPrimitiveArrayCritical(nativeData, 0);
+		p_native_data[0] = (jlong)pixmap;
+		p_native_data[1] = pixmap->width;
+		p_native_data[2] = pixmap->height;
+		p_native_data[3] = pixmap->format;
+		env->ReleasePrimitiveArrayCritical(nativeData, p_native_data, 0);
+
+		return pixel_buffer;
+	 */
+
+	private static native ByteBuffer loadStream (long[] nativeData, InputStream stream, byte[] buffer, int x, int y, int width,
+		int height, int subsample); /*MANUAL
+		java_stream s;
+		s.env = env;
+		s.stream = stream;
+		s.read = env->GetMethodID(env->GetObjectClass(stream), "read", "([BII)I");
+		s.buffer = buffer;
+		s.capacity = env->GetArrayLength(buffer);
+		s.position = s.count = s.eof = 0;
+		gdx2d_stream callbacks = { read_java_stream, skip_java_stream, eof_java_stream };
+		gdx2d_pixmap* pixmap = gdx2d_load_stream(&callbacks, &s, x, y, width, height, subsample);
+		if(pixmap!=0 && env->ExceptionCheck()) {
+			gdx2d_free(pixmap);
+			return 0;
+		}
+
+		if(pixmap==0)
+			return 0;
+
+		jobject pixel_buffer = env->NewDirectByteBuffer((void*)pixmap->pixels, pixmap->width * pixmap->height * gdx2d_bytes_per_pixel(pixmap->format));
+		jlong* p_native_data = (jlong*)env->GetPrimitiveArrayCritical(nativeData, 0);
+		p_native_data[0] = (jlong)pixmap;
+		p_native_data[1] = pixmap->width;
+		p_native_data[2] = pixmap->height;
+		p_native_data[3] = pixmap->format;
+		env->ReleasePrimitiveArrayCritical(nativeData, p_native_data, 0);
+
+		return pixel_buffer;
+	 */
+
 	private static native ByteBuffer newPixmap (long[] nativeData, int width, int height, int format); /*MANUAL
 		gdx2d_pixmap* pixmap = gdx2d_new(width, height, format);
 		if(pixmap==0)
@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.utils.TextureDescriptor;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Pool;
+
+/** A {@link DirectionalLight} which casts shadows using cascaded shadow maps. The view frustum of a {@link PerspectiveCamera} is
+ * split in depth into up to four cascades, each rendered into its own region of a single depth map. The splits blend a logarithmic
+ * and a uniform distribution, see {@link #lambda}.
+ * <p>
+ * Each cascade covers the bounding sphere of its part of the view frustum, which doesn't change size when the camera rotates, and
+ * is snapped to whole texels of the depth map to avoid shimmering shadow edges when the camera moves. Because of the snapping a
+ * cascade only moves once the camera moved at least one texel, in which case it is marked dirty. Only dirty cascades are rendered
+ * again, so static shadow casters aren't rendered each frame. Call {@link #invalidate(BoundingBox)} for casters which moved, or
+ * {@link #invalidate()} to render all cascades again. Typical usage, where the batch uses a
+ * {@link com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider}:
+ *
+ * <pre>
+ * shadowLight.update(camera);
+ * shadowLight.render(shadowBatch, instances);
+ * modelBatch.begin(camera);
+ * modelBatch.render(instances, environment);
+ * modelBatch.end();
+ * </pre>
+ *
+ * Set this light as {@link com.badlogic.gdx.graphics.g3d.Environment#shadowMap} to let the
+ * {@link com.badlogic.gdx.graphics.g3d.shaders.DefaultShader} select the cascade per fragment. */
+public class CascadedShadowLight extends DirectionalLight implements CascadedShadowMap, Disposable {
+	public final static int MAX_CASCADES = 4;
+
+	/** The number of cascades */
+	public final int cascadeCount;
+	/** The width and height in texels of the depth map region of a single cascade */
+	public final int cascadeSize;
+	/** The weight of the logarithmic split distribution, 0 for uniform splits, 1 for logarithmic splits */
+	public float lambda = 0.75f;
+	/** The maximum view distance at which shadows are rendered, zero to use the far plane of the camera */
+	public float shadowDistance;
+	/** The distance in the direction of the light that casters outside the view frustum still cast shadows into it */
+	public float casterDistance;
+
+	protected FrameBuffer fbo;
+	protected final int columns, rows;
+	protected final OrthographicCamera[] cameras;
+	/** The matrices of the cameras, adjusted to the region of the cascade in the depth map */
+	protected final Matrix4[] projViewTrans;
+	/** The view distances of the splits, cascadeCount + 1 values */
+	protected final float[] splits;
+	protected final float[] scales, offsets;
+	protected final TextureDescriptor textureDesc;
+
+	/** Per cascade the snapped light space center and radius of the cascade */
+	private final float[] snapped;
+	private final boolean[] dirty;
+	private final int[] renderCounts, culledCounts, updateCounts;
+	private int skippedCount;
+	private final Vector3 lightDirection = new Vector3();
+	private final Vector3 lightRight = new Vector3();
+	private final Vector3 lightUp = new Vector3();
+	private final Vector3 tmpV = new Vector3();
+	private final Array<Renderable> renderables = new Array<Renderable>();
+	private final Pool<Renderable> renderablesPool = new Pool<Renderable>() {
+		@Override
+		protected Renderable newObject () {
+			return new Renderable();
+		}
+
+		@Override
+		public Renderable obtain () {
+			Renderable renderable = super.obtain();
+			renderable.environment = null;
+			renderable.material = null;
+			renderable.meshPart.set("", null, 0, 0, 0);
+			renderable.shader = null;
+			renderable.userData = null;
+			return renderable;
+		}
+	};
+
+	/** @param cascadeCount the number of cascades, one to {@link #MAX_CASCADES}
+	 * @param cascadeSize the width and height in texels of the depth map region of each cascade
+	 * @param casterDistance the distance in the direction of the light that casters outside the view frustum still cast shadows
+	 *           into it */
+	public CascadedShadowLight (int cascadeCount, int cascadeSize, float casterDistance) {
+		if (cascadeCount < 1 || cascadeCount > MAX_CASCADES)
+			throw new GdxRuntimeException("The number of cascades must be between 1 and " + MAX_CASCADES + ": " + cascadeCount);
+		this.cascadeCount = cascadeCount;
+		this.cascadeSize = cascadeSize;
+		this.casterDistance = casterDistance;
+		columns = cascadeCount > 1 ? 2 : 1;
+		rows = (cascadeCount + columns - 1) / columns;
+		fbo = new FrameBuffer(Format.RGBA8888, columns * cascadeSize, rows * cascadeSize, true);
+		cameras = new OrthographicCamera[cascadeCount];
+		projViewTrans = new Matrix4[cascadeCount];
+		for (int i = 0; i < cascadeCount; i++) {
+			cameras[i] = new OrthographicCamera();
+			projViewTrans[i] = new Matrix4();
+		}
+		splits = new float[cascadeCount + 1];
+		scales = new float[cascadeCount * 4];
+		offsets = new float[cascadeCount * 4];
+		snapped = new float[cascadeCount * 4];
+		dirty = new boolean[cascadeCount];
+		renderCounts = new int[cascadeCount];
+		culledCounts = new int[cascadeCount];
+		updateCounts = new int[cascadeCount];
+		textureDesc = new TextureDescriptor();
+		textureDesc.minFilter = textureDesc.magFilter = Texture.TextureFilter.Nearest;
+		textureDesc.uWrap = textureDesc.vWrap = Texture.TextureWrap.ClampToEdge;
+		invalidate();
+	}
+
+	/** Computes the splits and cascades for the specified camera, marking the cascades which moved as dirty. */
+	public void update (final PerspectiveCamera camera) {
+		final float near = camera.near;
+		final float far = shadowDistance > 0f ? Math.min(shadowDistance, camera.far) : camera.far;
+		splits[0] = near;
+		for (int i = 1; i <= cascadeCount; i++) {
+			final float p = (float)i / cascadeCount;
+			final float log = near * (float)Math.pow(far / near, p);
+			final float uniform = near + (far - near) * p;
+			splits[i] = lambda * log + (1f - lambda) * uniform;
+		}
+
+		if (!tmpV.set(direction).nor().epsilonEquals(lightDirection, MathUtils.FLOAT_ROUNDING_ERROR)) {
+			lightDirection.set(tmpV);
+			if (Math.abs(lightDirection.y) > 0.99f)
+				lightRight.set(lightDirection).crs(Vector3.Z).nor();
+			else
+				lightRight.set(lightDirection).crs(Vector3.Y).nor();
+			lightUp.set(lightRight).crs(lightDirection).nor();
+			invalidate();
+		}
+
+		final float tanY = (float)Math.tan(camera.fieldOfView * 0.5f * MathUtils.degreesToRadians);
+		final float aspect = camera.viewportWidth / camera.viewportHeight;
+		// squared distance of a corner of the frustum to its axis, per squared unit of depth
+		final float k = tanY * tanY * (1f + aspect * aspect);
+		final float[] proj = camera.projection.val;
+		for (int i = 0; i < cascadeCount; i++) {
+			final float n = splits[i], f = splits[i + 1];
+			// the smallest sphere enclosing the part of the frustum, its radius only depends on the projection
+			float z = (f + n) * (1f + k) * 0.5f;
+			final float radius2;
+			if (z >= f) {
+				z = f;
+				radius2 = f * f * k;
+			} else
+				radius2 = (z - n) * (z - n) + n * n * k;
+			final float radius = (float)Math.sqrt(radius2);
+			final float texel = 2f * radius / cascadeSize;
+			tmpV.set(camera.direction).scl(z).add(camera.position);
+			final float x = MathUtils.floor(tmpV.dot(lightRight) / texel) * texel;
+			final float y = MathUtils.floor(tmpV.dot(lightUp) / texel) * texel;
+			final float d = MathUtils.floor(tmpV.dot(lightDirection) / texel) * texel;
+			final int o = i * 4;
+			if (dirty[i] || snapped[o] != x || snapped[o + 1] != y || snapped[o + 2] != d || snapped[o + 3] != radius) {
+				snapped[o] = x;
+				snapped[o + 1] = y;
+				snapped[o + 2] = d;
+				snapped[o + 3] = radius;
+				dirty[i] = true;
+				updateCamera(i, x, y, d, radius);
+			}
+			// the window depth of the far plane of the cascade, as seen by the view camera
+			final float clipZ = -proj[Matrix4.M22] * f + proj[Matrix4.M23];
+			final float clipW = -proj[Matrix4.M32] * f + proj[Matrix4.M33];
+			scales[o + 3] = clipZ / clipW * 0.5f + 0.5f;
+		}
+		if (shadowDistance <= 0f || shadowDistance >= camera.far) scales[cascadeCount * 4 - 1] = 1f;
+
+		// Transform the coordinates of the last cascade into those of the others, which is possible because they only differ in
+		// position and size
+		final float[] base = projViewTrans[cascadeCount - 1].val;
+		for (int i = 0; i < cascadeCount; i++) {
+			final float[] m = projViewTrans[i].val;
+			for (int r = 0; r < 3; r++) {
+				final float s = (m[r] * base[r] + m[r + 4] * base[r + 4] + m[r + 8] * base[r + 8])
+					/ (base[r] * base[r] + base[r + 4] * base[r + 4] + base[r + 8] * base[r + 8]);
+				final float t = m[r + 12] - s * base[r + 12];
+				scales[i * 4 + r] = s;
+				offsets[i * 4 + r] = 0.5f * (t - s + 1f);
+			}
+		}
+	}
+
+	private void updateCamera (final int cascade, final float x, final float y, final float d, final float radius) {
+		final OrthographicCamera cam = cameras[cascade];
+		cam.viewportWidth = cam.viewportHeight = 2f * radius;
+		cam.zoom = 1f;
+		cam.near = 0f;
+		cam.far = 2f * radius + casterDistance;
+		cam.position.set(lightRight).scl(x).mulAdd(lightUp, y).mulAdd(lightDirection, d - radius - casterDistance);
+		cam.direction.set(lightDirection);
+		cam.up.set(lightUp);
+		cam.update();
+		// Map the normalized device coordinates of the camera to the region of the cascade in the depth map
+		final float[] src = cam.combined.val;
+		final float[] dst = projViewTrans[cascade].set(src).val;
+		final int column = cascade % columns, row = cascade / columns;
+		final float ox = (2f * column + 1f) / columns - 1f, oy = (2f * row + 1f) / rows - 1f;
+		for (int c = 0; c < 16; c += 4) {
+			dst[c] = src[c] / columns + ox * src[c + 3];
+			dst[c + 1] = src[c + 1] / rows + oy * src[c + 3];
+		}
+	}
+
+	/** Renders the casters into all dirty cascades, using the specified batch, which typically uses a
+	 * {@link com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider}. Renderables outside a cascade are culled using the bounds of
+	 * their mesh part, if available.
+	 * @return the number of cascades that were rendered */
+	public <T extends RenderableProvider> int render (final ModelBatch batch, final Iterable<T> casters) {
+		int result = 0;
+		for (int i = 0; i < cascadeCount; i++) {
+			if (!dirty[i]) {
+				skippedCount++;
+				continue;
+			}
+			begin(i);
+			batch.begin(cameras[i]);
+			for (final T caster : casters)
+				caster.getRenderables(renderables, renderablesPool);
+			final Frustum frustum = cameras[i].frustum;
+			int rendered = 0, culled = 0;
+			for (int j = 0; j < renderables.size; j++) {
+				final Renderable renderable = renderables.get(j);
+				if (isVisible(renderable, frustum)) {
+					batch.render(renderable);
+					rendered++;
+				} else
+					culled++;
+			}
+			batch.end();
+			renderablesPool.freeAll(renderables);
+			renderables.clear();
+			end(i);
+			renderCounts[i] = rendered;
+			culledCounts[i] = culled;
+			result++;
+		}
+		return result;
+	}
+
+	private boolean isVisible (final Renderable renderable, final Frustum frustum) {
+		final float radius = renderable.meshPart.radius;
+		if (radius < 0f) return true;
+		final Matrix4 transform = renderable.worldTransform;
+		final float scale = (float)Math.sqrt(Math.max(transform.getScaleXSquared(),
+			Math.max(transform.getScaleYSquared(), transform.getScaleZSquared())));
+		return frustum.sphereInFrustum(tmpV.set(renderable.meshPart.center).mul(transform), radius * scale);
+	}
+
+	/** Binds the depth map and clears the region of the specified cascade, after which the casters can be rendered using
+	 * {@link #getCamera(int)}. Must be followed by a call to {@link #end(int)}, which marks the cascade as up to date. */
+	public void begin (final int cascade) {
+		final int x = (cascade % columns) * cascadeSize, y = (cascade / columns) * cascadeSize;
+		fbo.begin();
+		Gdx.gl.glViewport(x, y, cascadeSize, cascadeSize);
+		Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+		Gdx.gl.glScissor(x, y, cascadeSize, cascadeSize);
+		Gdx.gl.glClearColor(1, 1, 1, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+		Gdx.gl.glScissor(x + 1, y + 1, cascadeSize - 2, cascadeSize - 2);
+	}
+
+	public void end (final int cascade) {
+		Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+		fbo.end();
+		dirty[cascade] = false;
+		updateCounts[cascade]++;
+	}
+
+	/** Marks all cascades as dirty, so they are rendered again on the next call to {@link #render(ModelBatch, Iterable)}. */
+	public void invalidate () {
+		for (int i = 0; i < cascadeCount; i++)
+			dirty[i] = true;
+	}
+
+	/** Marks the cascades which overlap the specified bounds as dirty, e.g. because a caster within the bounds moved. */
+	public void invalidate (final BoundingBox bounds) {
+		for (int i = 0; i < cascadeCount; i++)
+			if (!dirty[i] && cameras[i].frustum.boundsInFrustum(bounds)) dirty[i] = true;
+	}
+
+	/** @return whether the cascade has to be rendered again */
+	public boolean isDirty (final int cascade) {
+		return dirty[cascade];
+	}
+
+	/** @return the number of renderables rendered into the cascade when it was last rendered */
+	public int getRenderCount (final int cascade) {
+		return renderCounts[cascade];
+	}
+
+	/** @return the number of renderables culled from the cascade when it was last rendered */
+	public int getCulledCount (final int cascade) {
+		return culledCounts[cascade];
+	}
+
+	/** @return the number of times the cascade was rendered since the last call to {@link #resetStatistics()} */
+	public int getUpdateCount (final int cascade) {
+		return updateCounts[cascade];
+	}
+
+	/** @return the number of times a cascade wasn't rendered because it was up to date, since the last call to
+	 *         {@link #resetStatistics()} */
+	public int getSkippedCount () {
+		return skippedCount;
+	}
+
+	public void resetStatistics () {
+		for (int i = 0; i < cascadeCount; i++)
+			updateCounts[i] = 0;
+		skippedCount = 0;
+	}
+
+	/** @return the view distance at which the cascade starts, the cascade ends at the start of the next cascade */
+	public float getSplit (final int cascade) {
+		return splits[cascade];
+	}
+
+	public FrameBuffer getFrameBuffer () {
+		return fbo;
+	}
+
+	public OrthographicCamera getCamera (final int cascade) {
+		return cameras[cascade];
+	}
+
+	@Override
+	public int getCascadeCount () {
+		return cascadeCount;
+	}
+
+	@Override
+	public Matrix4 getProjViewTrans (final int cascade) {
+		return projViewTrans[cascade];
+	}
+
+	@Override
+	public float[] getCascadeScales () {
+		return scales;
+	}
+
+	@Override
+	public float[] getCascadeOffsets () {
+		return offsets;
+	}
+
+	@Override
+	public Matrix4 getProjViewTrans () {
+		return projViewTrans[cascadeCount - 1];
+	}
+
+	@Override
+	public TextureDescriptor getDepthMap () {
+		textureDesc.texture = fbo.getColorBufferTexture();
+		return textureDesc;
+	}
+
+	@Override
+	public void dispose () {
+		if (fbo != null) fbo.dispose();
+		fbo = null;
+	}
+}
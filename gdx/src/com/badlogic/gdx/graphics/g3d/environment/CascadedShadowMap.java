@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import com.badlogic.gdx.math.Matrix4;
+
+/** A {@link ShadowMap} which consists of multiple cascades, each covering a consecutive range of the view depth. The cascades are
+ * stored in a single depth map and share the orientation of {@link #getProjViewTrans()}, so the shadow map coordinates of a
+ * cascade can be derived from those of {@link #getProjViewTrans()} using a per cascade scale and offset. */
+public interface CascadedShadowMap extends ShadowMap {
+	/** @return the number of cascades, at most four */
+	int getCascadeCount ();
+
+	/** @return the matrix to transform world coordinates to the region of the depth map of the specified cascade */
+	Matrix4 getProjViewTrans (int cascade);
+
+	/** @return four values per cascade: the xyz scale to apply to the shadow map coordinates of {@link #getProjViewTrans()} to get
+	 *         those of the cascade, and the window depth (gl_FragCoord.z) of the view camera up to which the cascade is used */
+	float[] getCascadeScales ();
+
+	/** @return four values per cascade: the xyz offset to add after applying the scale of {@link #getCascadeScales()}, w is
+	 *         unused */
+	float[] getCascadeOffsets ();
+}
@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.environment;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.Texture.TextureWrap;
+import com.badlogic.gdx.graphics.g3d.attributes.ClusteredLightsAttribute;
+import com.badlogic.gdx.graphics.glutils.FloatTextureData;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Assigns {@link PointLight}s and {@link SpotLight}s to the clusters of a view-space grid, so a shader only has to evaluate the
+ * lights which affect the cluster of a fragment. The view frustum is divided into {@link #tilesX} by {@link #tilesY} screen
+ * tiles and {@link #slices} depth slices, which are distributed exponentially between the near and far plane of the camera.
+ * <p>
+ * Call {@link #update(PerspectiveCamera, Array, Array)} every frame, prior to rendering, to bin the lights and upload the result
+ * to the textures. Add a {@link ClusteredLightsAttribute} to the {@link com.badlogic.gdx.graphics.g3d.Environment} to let the
+ * {@link com.badlogic.gdx.graphics.g3d.shaders.DefaultShader} evaluate the lights per fragment. The lights do not have to be
+ * added to the environment itself.
+ * <p>
+ * Because the attenuation of the lights is unbounded, the range of a light is the distance at which its contribution drops below
+ * {@link #threshold}. Each cluster holds at most {@link #maxLightsPerCluster} lights, the amount of lights which did not fit is
+ * available through {@link #getOverflowCount()}. The binning can be distributed over multiple threads using
+ * {@link #setExecutor(AsyncExecutor, int)}.
+ * <p>
+ * Requires float texture support (GLES 3.0 or the OES_texture_float extension). */
+public class ClusteredLights implements Disposable {
+	/** The amount of texels per light in the light texture */
+	private final static int LIGHT_ROWS = 3;
+	/** Value of the cutoff channel which marks a light as a point light */
+	private final static float POINT_LIGHT = -2f;
+
+	public final int tilesX, tilesY, slices;
+	/** The maximum amount of lights which can be assigned per frame */
+	public final int maxLights;
+	/** The maximum amount of lights per cluster, always a multiple of four */
+	public final int maxLightsPerCluster;
+	/** The contribution (color times intensity times attenuation) below which a light is considered to have no effect. */
+	public float threshold = 1f / 256f;
+
+	private final int clusterCount;
+	/** The light texture data, {@link #LIGHT_ROWS} rows of {@link #maxLights} RGBA texels */
+	private final float[] lightData;
+	/** The cluster texture data, one based light indices per cluster, zero terminated if the cluster is not full */
+	private final float[] clusterData;
+	private final int[] clusterCounts;
+	/** Per light the range of clusters: minX, maxX, minY, maxY, minZ, maxZ */
+	private final int[] lightRanges;
+	private int lightCount;
+	private int visibleCount;
+	private int assignedCount;
+	private int overflowCount;
+
+	private float depthScale, depthBias;
+	private boolean customViewport;
+	private int viewportX, viewportY, viewportWidth, viewportHeight;
+
+	private FloatTextureData lightTextureData, clusterTextureData;
+	private Texture lightTexture, clusterTexture;
+
+	private AsyncExecutor executor;
+	private SliceTask[] tasks;
+	private AsyncResult<Void>[] results;
+
+	private final SliceTask localTask = new SliceTask();
+	private final Matrix4 view = new Matrix4();
+
+	private class SliceTask implements AsyncTask<Void> {
+		int fromSlice, toSlice;
+		int assigned, overflow;
+
+		@Override
+		public Void call () throws Exception {
+			fill(this);
+			return null;
+		}
+	}
+
+	/** Creates a grid of 16 by 9 tiles and 24 slices, supporting 256 lights of which at most 32 per cluster. */
+	public ClusteredLights () {
+		this(16, 9, 24, 256, 32);
+	}
+
+	/** @param tilesX the amount of screen tiles horizontally
+	 * @param tilesY the amount of screen tiles vertically
+	 * @param slices the amount of depth slices
+	 * @param maxLights the maximum amount of lights, must not exceed the maximum texture size
+	 * @param maxLightsPerCluster the maximum amount of lights per cluster, rounded up to a multiple of four */
+	public ClusteredLights (int tilesX, int tilesY, int slices, int maxLights, int maxLightsPerCluster) {
+		if (tilesX < 1 || tilesY < 1 || slices < 1 || maxLights < 1 || maxLightsPerCluster < 1)
+			throw new GdxRuntimeException("Illegal arguments");
+		this.tilesX = tilesX;
+		this.tilesY = tilesY;
+		this.slices = slices;
+		this.maxLights = maxLights;
+		this.maxLightsPerCluster = (maxLightsPerCluster + 3) & ~3;
+		clusterCount = tilesX * tilesY * slices;
+		lightData = new float[maxLights * LIGHT_ROWS * 4];
+		clusterData = new float[clusterCount * this.maxLightsPerCluster];
+		clusterCounts = new int[clusterCount];
+		lightRanges = new int[maxLights * 6];
+	}
+
+	/** Sets the area of the render target the lights are rendered to, in pixels. By default the back buffer is used. */
+	public void setViewport (int x, int y, int width, int height) {
+		customViewport = true;
+		viewportX = x;
+		viewportY = y;
+		viewportWidth = width;
+		viewportHeight = height;
+	}
+
+	/** Distributes the binning of the lights over multiple threads.
+	 * @param executor the executor to use or null to bin on the calling thread.
+	 * @param tasks the amount of tasks to split the slices in, typically the amount of threads of the executor. */
+	public void setExecutor (AsyncExecutor executor, int tasks) {
+		this.executor = executor;
+		if (executor == null) {
+			this.tasks = null;
+			this.results = null;
+			return;
+		}
+		tasks = MathUtils.clamp(tasks, 1, slices);
+		this.tasks = new SliceTask[tasks];
+		this.results = new AsyncResult[tasks];
+		for (int i = 0; i < tasks; i++) {
+			final SliceTask task = this.tasks[i] = new SliceTask();
+			task.fromSlice = i * slices / tasks;
+			task.toSlice = (i + 1) * slices / tasks - 1;
+		}
+	}
+
+	/** Assigns the lights to the clusters and uploads the result. Must be called on the rendering thread, prior to rendering the
+	 * models which use the lights (e.g. before {@link com.badlogic.gdx.graphics.g3d.ModelBatch#begin(com.badlogic.gdx.graphics.Camera)}),
+	 * because it binds the textures.
+	 * @param camera the camera the lights will be rendered with
+	 * @param pointLights the point lights, may be null
+	 * @param spotLights the spot lights, may be null, the cutoff angle is in degrees */
+	public void update (final PerspectiveCamera camera, final Array<PointLight> pointLights, final Array<SpotLight> spotLights) {
+		bin(camera, pointLights, spotLights);
+		upload();
+	}
+
+	/** Assigns the lights to the clusters without uploading the result. Can be called from any thread.
+	 * @see #update(PerspectiveCamera, Array, Array) */
+	public void bin (final PerspectiveCamera camera, final Array<PointLight> pointLights, final Array<SpotLight> spotLights) {
+		final float near = camera.near, far = camera.far;
+		final float logRatio = (float)Math.log(far / near);
+		depthScale = slices / logRatio;
+		depthBias = -slices * (float)Math.log(near) / logRatio;
+		final float tanY = (float)Math.tan(camera.fieldOfView * 0.5f * MathUtils.degreesToRadians);
+		final float tanX = tanY * camera.viewportWidth / camera.viewportHeight;
+		view.set(camera.view);
+
+		lightCount = visibleCount = 0;
+		final int pointCount = pointLights == null ? 0 : pointLights.size;
+		for (int i = 0; i < pointCount && lightCount < maxLights; i++) {
+			final PointLight light = pointLights.get(i);
+			final float range = range(light.color.r, light.color.g, light.color.b, light.intensity);
+			final int offset = lightCount * 4;
+			set(offset, light.position.x, light.position.y, light.position.z, range);
+			set(offset + maxLights * 4, light.color.r * light.intensity, light.color.g * light.intensity,
+				light.color.b * light.intensity, POINT_LIGHT);
+			set(offset + maxLights * 8, 0f, 0f, 0f, 0f);
+			computeRange(lightCount++, light.position.x, light.position.y, light.position.z, range, near, far, tanX, tanY);
+		}
+		final int spotCount = spotLights == null ? 0 : spotLights.size;
+		for (int i = 0; i < spotCount && lightCount < maxLights; i++) {
+			final SpotLight light = spotLights.get(i);
+			final float range = range(light.color.r, light.color.g, light.color.b, light.intensity);
+			final int offset = lightCount * 4;
+			set(offset, light.position.x, light.position.y, light.position.z, range);
+			set(offset + maxLights * 4, light.color.r * light.intensity, light.color.g * light.intensity,
+				light.color.b * light.intensity, MathUtils.cosDeg(light.cutoffAngle));
+			set(offset + maxLights * 8, light.direction.x, light.direction.y, light.direction.z, light.exponent);
+			computeRange(lightCount++, light.position.x, light.position.y, light.position.z, range, near, far, tanX, tanY);
+		}
+
+		assignedCount = overflowCount = 0;
+		if (executor == null) {
+			final SliceTask task = localTask;
+			task.fromSlice = 0;
+			task.toSlice = slices - 1;
+			fill(task);
+			assignedCount = task.assigned;
+			overflowCount = task.overflow;
+		} else {
+			for (int i = 0; i < tasks.length; i++)
+				results[i] = executor.submit(tasks[i]);
+			for (int i = 0; i < tasks.length; i++) {
+				results[i].get();
+				results[i] = null;
+				assignedCount += tasks[i].assigned;
+				overflowCount += tasks[i].overflow;
+			}
+		}
+	}
+
+	private void set (int offset, float x, float y, float z, float w) {
+		lightData[offset] = x;
+		lightData[offset + 1] = y;
+		lightData[offset + 2] = z;
+		lightData[offset + 3] = w;
+	}
+
+	/** @return the distance at which the contribution of the light, which is attenuated by 1 / (1 + distance^2), drops below the
+	 *         threshold */
+	private float range (float r, float g, float b, float intensity) {
+		final float max = Math.max(r, Math.max(g, b)) * intensity;
+		final float dist2 = max / threshold - 1f;
+		return dist2 <= 0f ? 0f : (float)Math.sqrt(dist2);
+	}
+
+	/** Calculates the range of clusters which is overlapped by the view space bounding box of the light. */
+	private void computeRange (int index, float x, float y, float z, float range, float near, float far, float tanX,
+		float tanY) {
+		final float[] m = view.val;
+		final float vx = x * m[Matrix4.M00] + y * m[Matrix4.M01] + z * m[Matrix4.M02] + m[Matrix4.M03];
+		final float vy = x * m[Matrix4.M10] + y * m[Matrix4.M11] + z * m[Matrix4.M12] + m[Matrix4.M13];
+		final float depth = -(x * m[Matrix4.M20] + y * m[Matrix4.M21] + z * m[Matrix4.M22] + m[Matrix4.M23]);
+		final int o = index * 6;
+		final float minDepth = depth - range, maxDepth = depth + range;
+		if (range <= 0f || maxDepth < near || minDepth > far) {
+			lightRanges[o + 4] = 1; // empty range
+			lightRanges[o + 5] = 0;
+			return;
+		}
+		if (minDepth <= near) {
+			lightRanges[o] = lightRanges[o + 2] = 0;
+			lightRanges[o + 1] = tilesX - 1;
+			lightRanges[o + 3] = tilesY - 1;
+		} else {
+			// The projection of a coordinate is monotonic in depth, so the extremes are found at the nearest and farthest depth
+			final float minX = Math.min((vx - range) / (minDepth * tanX), (vx - range) / (maxDepth * tanX));
+			final float maxX = Math.max((vx + range) / (minDepth * tanX), (vx + range) / (maxDepth * tanX));
+			final float minY = Math.min((vy - range) / (minDepth * tanY), (vy - range) / (maxDepth * tanY));
+			final float maxY = Math.max((vy + range) / (minDepth * tanY), (vy + range) / (maxDepth * tanY));
+			if (maxX < -1f || minX > 1f || maxY < -1f || minY > 1f) {
+				lightRanges[o + 4] = 1;
+				lightRanges[o + 5] = 0;
+				return;
+			}
+			lightRanges[o] = tile(minX, tilesX);
+			lightRanges[o + 1] = tile(maxX, tilesX);
+			lightRanges[o + 2] = tile(minY, tilesY);
+			lightRanges[o + 3] = tile(maxY, tilesY);
+		}
+		lightRanges[o + 4] = slice(Math.max(minDepth, near));
+		lightRanges[o + 5] = slice(Math.min(maxDepth, far));
+		visibleCount++;
+	}
+
+	private static int tile (float ndc, int tiles) {
+		return MathUtils.clamp((int)((ndc + 1f) * 0.5f * tiles), 0, tiles - 1);
+	}
+
+	private int slice (float depth) {
+		return MathUtils.clamp((int)Math.floor(Math.log(depth) * depthScale + depthBias), 0, slices - 1);
+	}
+
+	/** Assigns the lights to the clusters of the slices of the task, only writes to the clusters of those slices. */
+	private void fill (final SliceTask task) {
+		final int perCluster = maxLightsPerCluster;
+		final int from = task.fromSlice * tilesX * tilesY, to = (task.toSlice + 1) * tilesX * tilesY;
+		for (int c = from; c < to; c++)
+			clusterCounts[c] = 0;
+		int assigned = 0, overflow = 0;
+		for (int l = 0; l < lightCount; l++) {
+			final int o = l * 6;
+			final int z0 = Math.max(lightRanges[o + 4], task.fromSlice), z1 = Math.min(lightRanges[o + 5], task.toSlice);
+			if (z0 > z1) continue;
+			final int x0 = lightRanges[o], x1 = lightRanges[o + 1], y0 = lightRanges[o + 2], y1 = lightRanges[o + 3];
+			final float value = l + 1;
+			for (int z = z0; z <= z1; z++) {
+				for (int y = y0; y <= y1; y++) {
+					int cluster = (z * tilesY + y) * tilesX + x0;
+					for (int x = x0; x <= x1; x++, cluster++) {
+						final int count = clusterCounts[cluster];
+						if (count < perCluster) {
+							clusterData[cluster * perCluster + count] = value;
+							clusterCounts[cluster] = count + 1;
+							assigned++;
+						} else
+							overflow++;
+					}
+				}
+			}
+		}
+		for (int c = from; c < to; c++)
+			if (clusterCounts[c] < perCluster) clusterData[c * perCluster + clusterCounts[c]] = 0f;
+		task.assigned = assigned;
+		task.overflow = overflow;
+	}
+
+	/** Uploads the result of the last call to {@link #bin(PerspectiveCamera, Array, Array)} to the textures, creating the
+	 * textures if needed. Must be called on the rendering thread. */
+	public void upload () {
+		if (lightTexture == null) {
+			lightTextureData = new FloatTextureData(maxLights, LIGHT_ROWS, GL30.GL_RGBA32F, GL20.GL_RGBA, GL20.GL_FLOAT, false);
+			lightTexture = createTexture(lightTextureData);
+			clusterTextureData = new FloatTextureData(tilesX * maxLightsPerCluster / 4, tilesY * slices, GL30.GL_RGBA32F,
+				GL20.GL_RGBA, GL20.GL_FLOAT, false);
+			clusterTexture = createTexture(clusterTextureData);
+		}
+		upload(lightTexture, lightTextureData, lightData);
+		upload(clusterTexture, clusterTextureData, clusterData);
+		if (!customViewport) {
+			viewportX = viewportY = 0;
+			viewportWidth = Gdx.graphics.getBackBufferWidth();
+			viewportHeight = Gdx.graphics.getBackBufferHeight();
+		}
+	}
+
+	private static Texture createTexture (final FloatTextureData data) {
+		final Texture result = new Texture(data);
+		result.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+		result.setWrap(TextureWrap.ClampToEdge, TextureWrap.ClampToEdge);
+		return result;
+	}
+
+	private static void upload (final Texture texture, final FloatTextureData data, final float[] values) {
+		final FloatBuffer buffer = data.getBuffer();
+		buffer.clear();
+		buffer.put(values, 0, Math.min(values.length, buffer.capacity()));
+		buffer.flip();
+		texture.bind();
+		Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, data.getWidth(), data.getHeight(), GL20.GL_RGBA, GL20.GL_FLOAT,
+			buffer);
+	}
+
+	/** @return the texture containing the light properties, {@link #maxLights} wide and three texels high */
+	public Texture getLightTexture () {
+		return lightTexture;
+	}
+
+	/** @return the texture containing the light indices of each cluster */
+	public Texture getClusterTexture () {
+		return clusterTexture;
+	}
+
+	/** @return the factor to multiply the logarithm of the view depth with to get the slice */
+	public float getDepthScale () {
+		return depthScale;
+	}
+
+	/** @return the value to add to the scaled logarithm of the view depth to get the slice */
+	public float getDepthBias () {
+		return depthBias;
+	}
+
+	public int getViewportX () {
+		return viewportX;
+	}
+
+	public int getViewportY () {
+		return viewportY;
+	}
+
+	public int getViewportWidth () {
+		return viewportWidth;
+	}
+
+	public int getViewportHeight () {
+		return viewportHeight;
+	}
+
+	/** @return the amount of lights passed to the last update, limited to {@link #maxLights} */
+	public int getLightCount () {
+		return lightCount;
+	}
+
+	/** @return the amount of lights of the last update which affect at least one cluster */
+	public int getVisibleCount () {
+		return visibleCount;
+	}
+
+	/** @return the total amount of light to cluster assignments of the last update */
+	public int getAssignedCount () {
+		return assignedCount;
+	}
+
+	/** @return the amount of light to cluster assignments of the last update which were dropped because the cluster was full */
+	public int getOverflowCount () {
+		return overflowCount;
+	}
+
+	/** @return the amount of lights assigned to the specified cluster by the last update */
+	public int getClusterLightCount (int x, int y, int slice) {
+		return clusterCounts[(slice * tilesY + y) * tilesX + x];
+	}
+
+	@Override
+	public void dispose () {
+		if (lightTexture != null) lightTexture.dispose();
+		if (clusterTexture != null) clusterTexture.dispose();
+		lightTexture = clusterTexture = null;
+	}
+}
@@ -24,6 +24,7 @@ import com.badlogic.gdx.graphics.g3d.particles.influencers.Influencer;
 import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderer;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
@@ -67,6 +68,11 @@ public class ParticleController implements Json.Serializable, ResourceData.Confi
 	/** Time step, DO NOT CHANGE MANUALLY */
 	public float deltaTime, deltaTimeSqr;
 
+	/** The random generator used by the components of this controller, instead of {@link com.badlogic.gdx.math.MathUtils#random}.
+	 * Seed it to make the simulation reproducible, also when controllers are updated concurrently, see
+	 * {@link ParticleEffect#setSeed(long)}. */
+	public final RandomXS128 random = new RandomXS128();
+
 	public ParticleController () {
 		transform = new Matrix4();
 		scale = new Vector3(1, 1, 1);
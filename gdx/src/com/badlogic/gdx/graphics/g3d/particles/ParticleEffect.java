@@ -56,6 +56,15 @@ public class ParticleEffect implements Disposable, ResourceData.Configurable {
 			controllers.get(i).start();
 	}
 
+	/** Seeds the {@link ParticleController#random} of each controller, so the simulation is the same every time the effect is
+	 * started after seeding it with the same value. Each controller gets a different stream. Seed it before {@link #init()} when
+	 * it uses {@link com.badlogic.gdx.graphics.g3d.particles.influencers.ParticleControllerInfluencer.Random}, which picks the
+	 * templates of its pooled controllers during initialization. */
+	public void setSeed (long seed) {
+		for (int i = 0, n = controllers.size; i < n; i++)
+			controllers.get(i).random.setSeed(seed + i);
+	}
+
 	public void end () {
 		for (int i = 0, n = controllers.size; i < n; i++)
 			controllers.get(i).end();
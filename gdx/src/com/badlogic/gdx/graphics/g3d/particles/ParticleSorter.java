@@ -144,6 +144,118 @@ public abstract class ParticleSorter {
 		}
 	}
 
+	/** Sorts the particles by their distance from the camera like {@link Distance}, but uses a stable radix sort on 16 bit
+	 * quantized depths. The order of the previous frame is kept and, when the particle count did not change, it is first repaired
+	 * with a bounded insertion sort: slow moving effects are usually almost sorted already, which makes this linear. Ties keep
+	 * the previous order, so particles with the same quantized depth do not flicker. */
+	public static class Radix extends ParticleSorter {
+		private static final int KEY_BITS = 16, RADIX_BITS = 8, RADIX = 1 << RADIX_BITS;
+		private float[] distances;
+		private int[] keys, order, swap, particleOffsets;
+		private final int[] counts = new int[RADIX];
+		private int currentSize = 0, lastCount = -1;
+		private boolean coherent;
+
+		@Override
+		public void ensureCapacity (int capacity) {
+			if (currentSize < capacity) {
+				distances = new float[capacity];
+				keys = new int[capacity];
+				order = new int[capacity];
+				swap = new int[capacity];
+				particleOffsets = new int[capacity];
+				currentSize = capacity;
+				lastCount = -1;
+			}
+		}
+
+		@Override
+		public <T extends ParticleControllerRenderData> int[] sort (Array<T> renderData) {
+			float[] val = camera.view.val;
+			float cx = val[Matrix4.M20], cy = val[Matrix4.M21], cz = val[Matrix4.M22];
+			float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+			int count = 0, i = 0;
+			for (ParticleControllerRenderData data : renderData) {
+				for (int k = 0, c = i + data.controller.particles.size; i < c; ++i, k += data.positionChannel.strideSize) {
+					float distance = cx * data.positionChannel.data[k + ParticleChannels.XOffset] + cy
+						* data.positionChannel.data[k + ParticleChannels.YOffset] + cz
+						* data.positionChannel.data[k + ParticleChannels.ZOffset];
+					distances[i] = distance;
+					if (distance < min) min = distance;
+					if (distance > max) max = distance;
+				}
+				count += data.controller.particles.size;
+			}
+
+			float scale = max > min ? ((1 << KEY_BITS) - 1) / (max - min) : 0;
+			for (i = 0; i < count; ++i)
+				keys[i] = (int)((distances[i] - min) * scale);
+
+			coherent = count == lastCount && insertionSort(count, count * 2);
+			if (!coherent) {
+				if (count != lastCount) {
+					for (i = 0; i < count; ++i)
+						order[i] = i;
+				}
+				radixSort(count);
+			}
+			lastCount = count;
+
+			for (i = 0; i < count; ++i)
+				particleOffsets[order[i]] = i;
+			return particleOffsets;
+		}
+
+		/** Sorts the previous order in place, giving up once more than maxShifts elements have been moved.
+		 * @return whether the order is sorted */
+		private boolean insertionSort (int count, int maxShifts) {
+			final int[] order = this.order, keys = this.keys;
+			for (int i = 1; i < count; ++i) {
+				int index = order[i], key = keys[index], j = i - 1;
+				for (; j >= 0 && keys[order[j]] > key; --j) {
+					order[j + 1] = order[j];
+					if (--maxShifts < 0) {
+						order[j] = index;
+						return false;
+					}
+				}
+				order[j + 1] = index;
+			}
+			return true;
+		}
+
+		/** Stable least significant digit radix sort of {@link #order} by {@link #keys}. */
+		private void radixSort (int count) {
+			final int[] keys = this.keys, counts = this.counts;
+			int[] src = order, dst = swap;
+			for (int shift = 0; shift < KEY_BITS; shift += RADIX_BITS) {
+				for (int i = 0; i < RADIX; ++i)
+					counts[i] = 0;
+				for (int i = 0; i < count; ++i)
+					counts[(keys[src[i]] >>> shift) & (RADIX - 1)]++;
+				for (int i = 0, sum = 0; i < RADIX; ++i) {
+					int c = counts[i];
+					counts[i] = sum;
+					sum += c;
+				}
+				for (int i = 0; i < count; ++i) {
+					int index = src[i];
+					dst[counts[(keys[index] >>> shift) & (RADIX - 1)]++] = index;
+				}
+				int[] tmp = src;
+				src = dst;
+				dst = tmp;
+			}
+			order = src;
+			swap = dst;
+		}
+
+		/** @return whether the last sort could reuse the order of the previous frame without a full radix pass */
+		public boolean isCoherent () {
+			return coherent;
+		}
+	}
+
 	protected Camera camera;
 
 	/** @return an array of offsets where each particle should be put in the resulting mesh (also if more than one mesh will be
@@ -16,11 +16,16 @@
 
 package com.badlogic.gdx.graphics.g3d.particles;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.RenderableProvider;
 import com.badlogic.gdx.graphics.g3d.particles.batches.ParticleBatch;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsInfluencer;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Singleton class which manages the particle effects. It's a utility class to ease particle batches management and particle
  * effects update.
@@ -37,6 +42,23 @@ public final class ParticleSystem implements RenderableProvider {
 	private Array<ParticleBatch<?>> batches;
 	private Array<ParticleEffect> effects;
 
+	private AsyncExecutor executor;
+	private int chunkSize;
+	private final Array<ControllerTask> tasks = new Array<ControllerTask>();
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+	private final Array<ParticleController> largeControllers = new Array<ParticleController>();
+
+	private static class ControllerTask implements AsyncTask<Void> {
+		ParticleController controller;
+		float deltaTime;
+
+		@Override
+		public Void call () throws Exception {
+			controller.update(deltaTime);
+			return null;
+		}
+	}
+
 	public ParticleSystem () {
 		batches = new Array<ParticleBatch<?>>();
 		effects = new Array<ParticleEffect>();
@@ -59,14 +81,39 @@ public final class ParticleSystem implements RenderableProvider {
 		effects.clear();
 	}
 
+	/** Enables the parallel update mode, in which the {@link ParticleController}s are updated concurrently by the specified
+	 * executor. Each controller only modifies its own particles and uses its own {@link ParticleController#random}, so the result
+	 * doesn't depend on the order in which the controllers are updated. Controllers with at least twice the chunk size of
+	 * particles are updated on the calling thread instead, while their {@link DynamicsInfluencer} integrates chunks of the
+	 * particles concurrently. Drawing always happens on the calling thread, after all controllers are updated.
+	 * @param executor the executor to update the controllers with, null to update them on the calling thread
+	 * @param chunkSize the minimum number of particles per chunk of a large controller */
+	public void setExecutor (AsyncExecutor executor, int chunkSize) {
+		this.executor = executor;
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	public AsyncExecutor getExecutor () {
+		return executor;
+	}
+
 	/** Updates the simulation of all effects */
 	public void update () {
+		if (executor != null) {
+			updateConcurrently(Gdx.graphics.getDeltaTime());
+			return;
+		}
 		for (ParticleEffect effect : effects) {
 			effect.update();
 		}
 	}
 
 	public void updateAndDraw () {
+		if (executor != null) {
+			updateConcurrently(Gdx.graphics.getDeltaTime());
+			draw();
+			return;
+		}
 		for (ParticleEffect effect : effects) {
 			effect.update();
 			effect.draw();
@@ -74,17 +121,65 @@ public final class ParticleSystem implements RenderableProvider {
 	}
 
 	public void update (float deltaTime) {
+		if (executor != null) {
+			updateConcurrently(deltaTime);
+			return;
+		}
 		for (ParticleEffect effect : effects) {
 			effect.update(deltaTime);
 		}
 	}
 	public void updateAndDraw(float deltaTime) {
+		if (executor != null) {
+			updateConcurrently(deltaTime);
+			draw();
+			return;
+		}
 		for (ParticleEffect effect : effects) {
 			effect.update(deltaTime);
 			effect.draw();
 		}
 	}
 
+	private void updateConcurrently (float deltaTime) {
+		int taskCount = 0;
+		for (int i = 0; i < effects.size; i++) {
+			final Array<ParticleController> controllers = effects.get(i).getControllers();
+			for (int j = 0; j < controllers.size; j++) {
+				final ParticleController controller = controllers.get(j);
+				if (controller.particles != null && controller.particles.size >= 2 * chunkSize) {
+					largeControllers.add(controller);
+					continue;
+				}
+				if (taskCount == tasks.size) tasks.add(new ControllerTask());
+				final ControllerTask task = tasks.get(taskCount++);
+				task.controller = controller;
+				task.deltaTime = deltaTime;
+				results.add(executor.submit(task));
+			}
+		}
+		// Large controllers are updated on this thread, which only waits for the chunks, so the executor can't deadlock
+		try {
+			for (int i = 0; i < largeControllers.size; i++) {
+				final ParticleController controller = largeControllers.get(i);
+				final DynamicsInfluencer dynamics = controller.findInfluencer(DynamicsInfluencer.class);
+				if (dynamics != null) dynamics.setExecutor(executor, chunkSize);
+				controller.update(deltaTime);
+				if (dynamics != null) dynamics.setExecutor(null, 0);
+			}
+		} finally {
+			largeControllers.clear();
+		}
+		try {
+			for (int i = 0; i < results.size; i++)
+				results.get(i).get();
+		} finally {
+			results.clear();
+			for (int i = 0; i < taskCount; i++)
+				tasks.get(i).controller = null;
+		}
+	}
+
 	/** Must be called one time per frame before any particle effect drawing operation will occur. */
 	public void begin () {
 		for (ParticleBatch<?> batch : batches)
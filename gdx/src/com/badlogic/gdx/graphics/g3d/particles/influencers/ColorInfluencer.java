@@ -20,7 +20,6 @@ import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
 import com.badlogic.gdx.graphics.g3d.particles.values.GradientColorValue;
 import com.badlogic.gdx.graphics.g3d.particles.values.ScaledNumericValue;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 
@@ -40,10 +39,10 @@ public abstract class ColorInfluencer extends Influencer {
 		@Override
 		public void activateParticles (int startIndex, int count) {
 			for (int i = startIndex * colorChannel.strideSize, c = i + count * colorChannel.strideSize; i < c; i += colorChannel.strideSize) {
-				colorChannel.data[i + ParticleChannels.RedOffset] = MathUtils.random();
-				colorChannel.data[i + ParticleChannels.GreenOffset] = MathUtils.random();
-				colorChannel.data[i + ParticleChannels.BlueOffset] = MathUtils.random();
-				colorChannel.data[i + ParticleChannels.AlphaOffset] = MathUtils.random();
+				colorChannel.data[i + ParticleChannels.RedOffset] = controller.random.nextFloat();
+				colorChannel.data[i + ParticleChannels.GreenOffset] = controller.random.nextFloat();
+				colorChannel.data[i + ParticleChannels.BlueOffset] = controller.random.nextFloat();
+				colorChannel.data[i + ParticleChannels.AlphaOffset] = controller.random.nextFloat();
 			}
 		}
 
@@ -89,8 +88,8 @@ public abstract class ColorInfluencer extends Influencer {
 		public void activateParticles (int startIndex, int count) {
 			for (int i = startIndex * colorChannel.strideSize, a = startIndex * alphaInterpolationChannel.strideSize, l = startIndex
 				* lifeChannel.strideSize + ParticleChannels.LifePercentOffset, c = i + count * colorChannel.strideSize; i < c; i += colorChannel.strideSize, a += alphaInterpolationChannel.strideSize, l += lifeChannel.strideSize) {
-				float alphaStart = alphaValue.newLowValue();
-				float alphaDiff = alphaValue.newHighValue() - alphaStart;
+				float alphaStart = alphaValue.newLowValue(controller.random);
+				float alphaDiff = alphaValue.newHighValue(controller.random) - alphaStart;
 				colorValue.getColor(0, colorChannel.data, i);
 				colorChannel.data[i + ParticleChannels.AlphaOffset] = alphaStart + alphaDiff
 					* alphaValue.getScale(lifeChannel.data[l]);
@@ -22,9 +22,13 @@ import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleChannels;
 import com.badlogic.gdx.graphics.g3d.particles.ParticleController;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** It's an {@link Influencer} which controls the particles dynamics (movement, rotations).
  * @author Inferno */
@@ -32,6 +36,21 @@ public class DynamicsInfluencer extends Influencer {
 	public Array<DynamicsModifier> velocities;
 	private FloatChannel accellerationChannel, positionChannel, previousPositionChannel, rotationChannel, angularVelocityChannel;
 	boolean hasAcceleration, has2dAngularVelocity, has3dAngularVelocity;
+	private AsyncExecutor executor;
+	private int chunkSize;
+	private IntegrateTask[] tasks = new IntegrateTask[0];
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+
+	private class IntegrateTask implements AsyncTask<Void> {
+		final Quaternion tmpQ = new Quaternion();
+		int start, end;
+
+		@Override
+		public Void call () throws Exception {
+			integrate(start, end, tmpQ);
+			return null;
+		}
+	}
 
 	public DynamicsInfluencer () {
 		this.velocities = new Array<DynamicsModifier>(true, 3, DynamicsModifier.class);
@@ -84,6 +103,16 @@ public class DynamicsInfluencer extends Influencer {
 		}
 	}
 
+	/** Lets {@link #update()} apply the forces to chunks of the particles concurrently, when there are at least twice as many
+	 * particles as the chunk size. The {@link DynamicsModifier}s are still evaluated on the calling thread, because they might
+	 * depend on state shared between the particles. Must not be called while updating.
+	 * @param executor the executor to submit the chunks to, null to update on the calling thread only
+	 * @param chunkSize the minimum number of particles per chunk */
+	public void setExecutor (AsyncExecutor executor, int chunkSize) {
+		this.executor = executor;
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
 	@Override
 	public void init () {
 		for (int k = 0; k < velocities.size; ++k) {
@@ -140,6 +169,35 @@ public class DynamicsInfluencer extends Influencer {
 			velocities.items[k].update();
 		}
 
+		final int count = controller.particles.size;
+		if (executor == null || count < 2 * chunkSize) {
+			integrate(0, count, tmpQ);
+		} else {
+			final int chunks = (count + chunkSize - 1) / chunkSize;
+			if (tasks.length < chunks) {
+				IntegrateTask[] newTasks = new IntegrateTask[chunks];
+				System.arraycopy(tasks, 0, newTasks, 0, tasks.length);
+				for (int i = tasks.length; i < chunks; i++)
+					newTasks[i] = new IntegrateTask();
+				tasks = newTasks;
+			}
+			for (int i = 0; i < chunks; i++) {
+				tasks[i].start = i * chunkSize;
+				tasks[i].end = Math.min(count, (i + 1) * chunkSize);
+				results.add(executor.submit(tasks[i]));
+			}
+			try {
+				for (int i = 0; i < results.size; i++)
+					results.get(i).get();
+			} finally {
+				results.clear();
+			}
+		}
+	}
+
+	/** Applies the forces to the particles in the range [start, end), which doesn't depend on other particles and thus can be done
+	 * concurrently for disjoint ranges. */
+	private void integrate (final int start, final int end, final Quaternion tmpQ) {
 		// Apply the forces
 		if (hasAcceleration) {
 			/*
@@ -155,7 +213,7 @@ public class DynamicsInfluencer extends Influencer {
 			 * ParticleChannels.ZOffset] += previousPositionChannel.data[offset + ParticleChannels.ZOffset]*controller.deltaTime; }
 			 */
 			// Verlet integration
-			for (int i = 0, offset = 0; i < controller.particles.size; ++i, offset += positionChannel.strideSize) {
+			for (int i = start, offset = start * positionChannel.strideSize; i < end; ++i, offset += positionChannel.strideSize) {
 				float x = positionChannel.data[offset + ParticleChannels.XOffset], y = positionChannel.data[offset
 					+ ParticleChannels.YOffset], z = positionChannel.data[offset + ParticleChannels.ZOffset];
 				positionChannel.data[offset + ParticleChannels.XOffset] = 2 * x
@@ -174,7 +232,7 @@ public class DynamicsInfluencer extends Influencer {
 		}
 
 		if (has2dAngularVelocity) {
-			for (int i = 0, offset = 0; i < controller.particles.size; ++i, offset += rotationChannel.strideSize) {
+			for (int i = start, offset = start * rotationChannel.strideSize; i < end; ++i, offset += rotationChannel.strideSize) {
 				float rotation = angularVelocityChannel.data[i] * controller.deltaTime;
 				if (rotation != 0) {
 					float cosBeta = MathUtils.cosDeg(rotation), sinBeta = MathUtils.sinDeg(rotation);
@@ -187,17 +245,17 @@ public class DynamicsInfluencer extends Influencer {
 				}
 			}
 		} else if (has3dAngularVelocity) {
-			for (int i = 0, offset = 0, angularOffset = 0; i < controller.particles.size; ++i, offset += rotationChannel.strideSize, angularOffset += angularVelocityChannel.strideSize) {
+			for (int i = start, offset = start * rotationChannel.strideSize, angularOffset = start * angularVelocityChannel.strideSize; i < end; ++i, offset += rotationChannel.strideSize, angularOffset += angularVelocityChannel.strideSize) {
 
 				float wx = angularVelocityChannel.data[angularOffset + ParticleChannels.XOffset], wy = angularVelocityChannel.data[angularOffset
 					+ ParticleChannels.YOffset], wz = angularVelocityChannel.data[angularOffset + ParticleChannels.ZOffset], qx = rotationChannel.data[offset
 					+ ParticleChannels.XOffset], qy = rotationChannel.data[offset + ParticleChannels.YOffset], qz = rotationChannel.data[offset
 					+ ParticleChannels.ZOffset], qw = rotationChannel.data[offset + ParticleChannels.WOffset];
-				TMP_Q.set(wx, wy, wz, 0).mul(qx, qy, qz, qw).mul(0.5f * controller.deltaTime).add(qx, qy, qz, qw).nor();
-				rotationChannel.data[offset + ParticleChannels.XOffset] = TMP_Q.x;
-				rotationChannel.data[offset + ParticleChannels.YOffset] = TMP_Q.y;
-				rotationChannel.data[offset + ParticleChannels.ZOffset] = TMP_Q.z;
-				rotationChannel.data[offset + ParticleChannels.WOffset] = TMP_Q.w;
+				tmpQ.set(wx, wy, wz, 0).mul(qx, qy, qz, qw).mul(0.5f * controller.deltaTime).add(qx, qy, qz, qw).nor();
+				rotationChannel.data[offset + ParticleChannels.XOffset] = tmpQ.x;
+				rotationChannel.data[offset + ParticleChannels.YOffset] = tmpQ.y;
+				rotationChannel.data[offset + ParticleChannels.ZOffset] = tmpQ.z;
+				rotationChannel.data[offset + ParticleChannels.WOffset] = tmpQ.w;
 			}
 		}
 	}
@@ -22,7 +22,6 @@ import com.badlogic.gdx.graphics.g3d.particles.ParticleControllerComponent;
 import com.badlogic.gdx.graphics.g3d.particles.values.ScaledNumericValue;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
@@ -32,9 +31,6 @@ import com.badlogic.gdx.utils.JsonValue;
  * {@link DynamicsInfluencer} .
  * @author Inferno */
 public abstract class DynamicsModifier extends Influencer {
-	protected static final Vector3 TMP_V1 = new Vector3(), TMP_V2 = new Vector3(), TMP_V3 = new Vector3();
-	protected static final Quaternion TMP_Q = new Quaternion();
-
 	public static class FaceDirection extends DynamicsModifier {
 		FloatChannel rotationChannel, accellerationChannel;
 
@@ -55,15 +51,15 @@ public abstract class DynamicsModifier extends Influencer {
 		public void update () {
 			for (int i = 0, accelOffset = 0, c = i + controller.particles.size * rotationChannel.strideSize; i < c; i += rotationChannel.strideSize, accelOffset += accellerationChannel.strideSize) {
 
-				Vector3 axisZ = TMP_V1.set(accellerationChannel.data[accelOffset + ParticleChannels.XOffset],
+				Vector3 axisZ = tmpV1.set(accellerationChannel.data[accelOffset + ParticleChannels.XOffset],
 					accellerationChannel.data[accelOffset + ParticleChannels.YOffset],
-					accellerationChannel.data[accelOffset + ParticleChannels.ZOffset]).nor(), axisY = TMP_V2.set(TMP_V1)
-					.crs(Vector3.Y).nor().crs(TMP_V1).nor(), axisX = TMP_V3.set(axisY).crs(axisZ).nor();
-				TMP_Q.setFromAxes(false, axisX.x, axisY.x, axisZ.x, axisX.y, axisY.y, axisZ.y, axisX.z, axisY.z, axisZ.z);
-				rotationChannel.data[i + ParticleChannels.XOffset] = TMP_Q.x;
-				rotationChannel.data[i + ParticleChannels.YOffset] = TMP_Q.y;
-				rotationChannel.data[i + ParticleChannels.ZOffset] = TMP_Q.z;
-				rotationChannel.data[i + ParticleChannels.WOffset] = TMP_Q.w;
+					accellerationChannel.data[accelOffset + ParticleChannels.ZOffset]).nor(), axisY = tmpV2.set(tmpV1)
+					.crs(Vector3.Y).nor().crs(tmpV1).nor(), axisX = tmpV3.set(axisY).crs(axisZ).nor();
+				tmpQ.setFromAxes(false, axisX.x, axisY.x, axisZ.x, axisX.y, axisY.y, axisZ.y, axisX.z, axisY.z, axisZ.z);
+				rotationChannel.data[i + ParticleChannels.XOffset] = tmpQ.x;
+				rotationChannel.data[i + ParticleChannels.YOffset] = tmpQ.y;
+				rotationChannel.data[i + ParticleChannels.ZOffset] = tmpQ.z;
+				rotationChannel.data[i + ParticleChannels.WOffset] = tmpQ.w;
 			}
 		}
 
@@ -98,8 +94,8 @@ public abstract class DynamicsModifier extends Influencer {
 		public void activateParticles (int startIndex, int count) {
 			float start, diff;
 			for (int i = startIndex * strengthChannel.strideSize, c = i + count * strengthChannel.strideSize; i < c; i += strengthChannel.strideSize) {
-				start = strengthValue.newLowValue();
-				diff = strengthValue.newHighValue();
+				start = strengthValue.newLowValue(controller.random);
+				diff = strengthValue.newHighValue(controller.random);
 				if (!strengthValue.isRelative()) diff -= start;
 				strengthChannel.data[i + ParticleChannels.VelocityStrengthStartOffset] = start;
 				strengthChannel.data[i + ParticleChannels.VelocityStrengthDiffOffset] = diff;
@@ -153,15 +149,15 @@ public abstract class DynamicsModifier extends Influencer {
 			for (int i = startIndex * angularChannel.strideSize, c = i + count * angularChannel.strideSize; i < c; i += angularChannel.strideSize) {
 
 				// Theta
-				start = thetaValue.newLowValue();
-				diff = thetaValue.newHighValue();
+				start = thetaValue.newLowValue(controller.random);
+				diff = thetaValue.newHighValue(controller.random);
 				if (!thetaValue.isRelative()) diff -= start;
 				angularChannel.data[i + ParticleChannels.VelocityThetaStartOffset] = start;
 				angularChannel.data[i + ParticleChannels.VelocityThetaDiffOffset] = diff;
 
 				// Phi
-				start = phiValue.newLowValue();
-				diff = phiValue.newHighValue();
+				start = phiValue.newLowValue(controller.random);
+				diff = phiValue.newHighValue(controller.random);
 				if (!phiValue.isRelative()) diff -= start;
 				angularChannel.data[i + ParticleChannels.VelocityPhiStartOffset] = start;
 				angularChannel.data[i + ParticleChannels.VelocityPhiDiffOffset] = diff;
@@ -274,12 +270,12 @@ public abstract class DynamicsModifier extends Influencer {
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi), sinPhi = MathUtils
 					.sinDeg(phi);
 
-				TMP_V3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
-				TMP_V3.scl(strength * MathUtils.degreesToRadians);
+				tmpV3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi);
+				tmpV3.scl(strength * MathUtils.degreesToRadians);
 
-				rotationalForceChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				rotationalForceChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				rotationalForceChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				rotationalForceChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				rotationalForceChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				rotationalForceChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -323,13 +319,13 @@ public abstract class DynamicsModifier extends Influencer {
 				float strength = strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthStartOffset]
 					+ strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthDiffOffset]
 					* strengthValue.getScale(lifeChannel.data[lifeOffset]);
-				TMP_V3
+				tmpV3
 					.set(positionChannel.data[positionOffset + ParticleChannels.XOffset] - cx,
 						positionChannel.data[positionOffset + ParticleChannels.YOffset] - cy,
 						positionChannel.data[positionOffset + ParticleChannels.ZOffset] - cz).nor().scl(strength);
-				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += TMP_V3.x;
-				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += TMP_V3.y;
-				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += TMP_V3.z;
+				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += tmpV3.x;
+				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += tmpV3.y;
+				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -370,10 +366,10 @@ public abstract class DynamicsModifier extends Influencer {
 
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi), sinPhi = MathUtils
 					.sinDeg(phi);
-				TMP_V3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi).nor().scl(strength);
-				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				tmpV3.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi).nor().scl(strength);
+				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -415,14 +411,14 @@ public abstract class DynamicsModifier extends Influencer {
 
 				float cosTheta = MathUtils.cosDeg(theta), sinTheta = MathUtils.sinDeg(theta), cosPhi = MathUtils.cosDeg(phi), sinPhi = MathUtils
 					.sinDeg(phi);
-				TMP_V3
+				tmpV3
 					.set(cosTheta * sinPhi, cosPhi, sinTheta * sinPhi)
 					.crs(positionChannel.data[positionOffset + ParticleChannels.XOffset],
 						positionChannel.data[positionOffset + ParticleChannels.YOffset],
 						positionChannel.data[positionOffset + ParticleChannels.ZOffset]).nor().scl(strength);
-				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += TMP_V3.x;
-				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += TMP_V3.y;
-				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += TMP_V3.z;
+				directionalVelocityChannel.data[i + ParticleChannels.XOffset] += tmpV3.x;
+				directionalVelocityChannel.data[i + ParticleChannels.YOffset] += tmpV3.y;
+				directionalVelocityChannel.data[i + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -456,10 +452,10 @@ public abstract class DynamicsModifier extends Influencer {
 				float strength = strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthStartOffset]
 					+ strengthChannel.data[strengthOffset + ParticleChannels.VelocityStrengthDiffOffset]
 					* strengthValue.getScale(lifeChannel.data[lifeOffset]);
-				TMP_V3.set(MathUtils.random(-1, 1f), MathUtils.random(-1, 1f), MathUtils.random(-1, 1f)).nor().scl(strength);
-				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += TMP_V3.x;
-				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += TMP_V3.y;
-				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += TMP_V3.z;
+				tmpV3.set(controller.random.nextFloat() * 2f - 1f, controller.random.nextFloat() * 2f - 1f, controller.random.nextFloat() * 2f - 1f).nor().scl(strength);
+				accelerationChannel.data[forceOffset + ParticleChannels.XOffset] += tmpV3.x;
+				accelerationChannel.data[forceOffset + ParticleChannels.YOffset] += tmpV3.y;
+				accelerationChannel.data[forceOffset + ParticleChannels.ZOffset] += tmpV3.z;
 			}
 		}
 
@@ -62,7 +62,9 @@ public abstract class ParticleControllerInfluencer extends Influencer {
 		@Override
 		public void activateParticles (int startIndex, int count) {
 			for (int i = startIndex, c = startIndex + count; i < c; ++i) {
-				particleControllerChannel.data[i].start();
+				ParticleController particleController = particleControllerChannel.data[i];
+				particleController.random.setSeed(controller.random.nextLong());
+				particleController.start();
 			}
 		}
 
@@ -87,9 +89,9 @@ public abstract class ParticleControllerInfluencer extends Influencer {
 
 			@Override
 			public ParticleController newObject () {
-				ParticleController controller = templates.random().copy();
-				controller.init();
-				return controller;
+				ParticleController particleController = templates.get(controller.random.nextInt(templates.size)).copy();
+				particleController.init();
+				return particleController;
 			}
 
 			@Override
@@ -137,9 +139,11 @@ public abstract class ParticleControllerInfluencer extends Influencer {
 		@Override
 		public void activateParticles (int startIndex, int count) {
 			for (int i = startIndex, c = startIndex + count; i < c; ++i) {
-				ParticleController controller = pool.obtain();
-				controller.start();
-				particleControllerChannel.data[i] = controller;
+				ParticleController particleController = pool.obtain();
+				// Derived from this controller's stream, so seeding the effect also makes the children reproducible
+				particleController.random.setSeed(controller.random.nextLong());
+				particleController.start();
+				particleControllerChannel.data[i] = particleController;
 			}
 		}
 
@@ -84,7 +84,7 @@ public abstract class RegionInfluencer extends Influencer {
 		@Override
 		public void activateParticles (int startIndex, int count) {
 			for (int i = startIndex * regionChannel.strideSize, c = i + count * regionChannel.strideSize; i < c; i += regionChannel.strideSize) {
-				AspectTextureRegion region = regions.random();
+				AspectTextureRegion region = regions.get(controller.random.nextInt(regions.size));
 				regionChannel.data[i + ParticleChannels.UOffset] = region.u;
 				regionChannel.data[i + ParticleChannels.VOffset] = region.v;
 				regionChannel.data[i + ParticleChannels.U2Offset] = region.u2;
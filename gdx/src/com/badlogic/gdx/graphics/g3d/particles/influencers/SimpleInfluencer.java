@@ -60,8 +60,8 @@ public abstract class SimpleInfluencer extends Influencer {
 		if (!value.isRelative()) {
 			for (int i = startIndex * valueChannel.strideSize, a = startIndex * interpolationChannel.strideSize, c = i + count
 				* valueChannel.strideSize; i < c; i += valueChannel.strideSize, a += interpolationChannel.strideSize) {
-				float start = value.newLowValue();
-				float diff = value.newHighValue() - start;
+				float start = value.newLowValue(controller.random);
+				float diff = value.newHighValue(controller.random) - start;
 				interpolationChannel.data[a + ParticleChannels.InterpolationStartOffset] = start;
 				interpolationChannel.data[a + ParticleChannels.InterpolationDiffOffset] = diff;
 				valueChannel.data[i] = start + diff * value.getScale(0);
@@ -69,8 +69,8 @@ public abstract class SimpleInfluencer extends Influencer {
 		} else {
 			for (int i = startIndex * valueChannel.strideSize, a = startIndex * interpolationChannel.strideSize, c = i + count
 				* valueChannel.strideSize; i < c; i += valueChannel.strideSize, a += interpolationChannel.strideSize) {
-				float start = value.newLowValue();
-				float diff = value.newHighValue();
+				float start = value.newLowValue(controller.random);
+				float diff = value.newHighValue(controller.random);
 				interpolationChannel.data[a + ParticleChannels.InterpolationStartOffset] = start;
 				interpolationChannel.data[a + ParticleChannels.InterpolationDiffOffset] = diff;
 				valueChannel.data[i] = start + diff * value.getScale(0);
@@ -40,15 +40,15 @@ public final class CylinderSpawnShapeValue extends PrimitiveSpawnShapeValue {
 
 		float radiusX, radiusZ;
 		float hf = height / 2;
-		float ty = MathUtils.random(height) - hf;
+		float ty = random.nextFloat() * height - hf;
 
 		// Where generate the point, on edges or inside ?
 		if (edges) {
 			radiusX = width / 2;
 			radiusZ = depth / 2;
 		} else {
-			radiusX = MathUtils.random(width) / 2;
-			radiusZ = MathUtils.random(depth) / 2;
+			radiusX = random.nextFloat() * width / 2;
+			radiusZ = random.nextFloat() * depth / 2;
 		}
 
 		float spawnTheta = 0;
@@ -56,11 +56,11 @@ public final class CylinderSpawnShapeValue extends PrimitiveSpawnShapeValue {
 		// Generate theta
 		boolean isRadiusXZero = radiusX == 0, isRadiusZZero = radiusZ == 0;
 		if (!isRadiusXZero && !isRadiusZZero)
-			spawnTheta = MathUtils.random(360f);
+			spawnTheta = random.nextFloat() * 360f;
 		else {
 			if (isRadiusXZero)
-				spawnTheta = MathUtils.random(1) == 0 ? -90 : 90;
-			else if (isRadiusZZero) spawnTheta = MathUtils.random(1) == 0 ? 0 : 180;
+				spawnTheta = random.nextBoolean() ? -90 : 90;
+			else if (isRadiusZZero) spawnTheta = random.nextBoolean() ? 0 : 180;
 		}
 
 		vector.set(radiusX * MathUtils.cosDeg(spawnTheta), ty, radiusZ * MathUtils.sinDeg(spawnTheta));
@@ -49,7 +49,7 @@ public final class EllipseSpawnShapeValue extends PrimitiveSpawnShapeValue {
 		} else if (side == SpawnSide.bottom) {
 			maxT = -MathUtils.PI;
 		}
-		float t = MathUtils.random(minT, maxT);
+		float t = minT + random.nextFloat() * (maxT - minT);
 
 		// Where generate the point, on edges or inside ?
 		if (edges) {
@@ -70,12 +70,12 @@ public final class EllipseSpawnShapeValue extends PrimitiveSpawnShapeValue {
 			radiusY = height / 2;
 			radiusZ = depth / 2;
 		} else {
-			radiusX = MathUtils.random(width / 2);
-			radiusY = MathUtils.random(height / 2);
-			radiusZ = MathUtils.random(depth / 2);
+			radiusX = random.nextFloat() * width / 2;
+			radiusY = random.nextFloat() * height / 2;
+			radiusZ = random.nextFloat() * depth / 2;
 		}
 
-		float z = MathUtils.random(-1, 1f);
+		float z = random.nextFloat() * 2f - 1f;
 		float r = (float)Math.sqrt(1f - z * z);
 		vector.set(radiusX * r * MathUtils.cos(t), radiusY * r * MathUtils.sin(t), radiusZ * z);
 	}
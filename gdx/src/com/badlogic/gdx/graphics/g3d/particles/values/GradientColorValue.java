@@ -22,7 +22,7 @@ import com.badlogic.gdx.utils.JsonValue;
 /** Defines a variation of red, green and blue on a given time line.
  * @author Inferno */
 public class GradientColorValue extends ParticleValue {
-	static private float[] temp = new float[3];
+	private float[] temp = new float[3];
 
 	private float[] colors = {1, 1, 1};
 	public float[] timeline = {0};
@@ -16,7 +16,6 @@
 
 package com.badlogic.gdx.graphics.g3d.particles.values;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
 /** Encapsulate the formulas to spawn a particle on a line shape.
@@ -37,7 +36,7 @@ public final class LineSpawnShapeValue extends PrimitiveSpawnShapeValue {
 		float height = spawnHeight + (spawnHeightDiff * spawnHeightValue.getScale(percent));
 		float depth = spawnDepth + (spawnDepthDiff * spawnDepthValue.getScale(percent));
 
-		float a = MathUtils.random();
+		float a = random.nextFloat();
 		vector.x = a * width;
 		vector.y = a * height;
 		vector.z = a * depth;
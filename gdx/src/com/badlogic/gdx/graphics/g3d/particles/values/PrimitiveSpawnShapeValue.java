@@ -23,7 +23,7 @@ import com.badlogic.gdx.utils.JsonValue;
 /** The base class of all the {@link SpawnShapeValue} values which spawn the particles on a geometric primitive.
  * @author Inferno */
 public abstract class PrimitiveSpawnShapeValue extends SpawnShapeValue {
-	protected static final Vector3 TMP_V1 = new Vector3();
+	protected final Vector3 tmpV1 = new Vector3();
 
 	static public enum SpawnSide {
 		both, top, bottom
@@ -84,16 +84,16 @@ public abstract class PrimitiveSpawnShapeValue extends SpawnShapeValue {
 
 	@Override
 	public void start () {
-		spawnWidth = spawnWidthValue.newLowValue();
-		spawnWidthDiff = spawnWidthValue.newHighValue();
+		spawnWidth = spawnWidthValue.newLowValue(random);
+		spawnWidthDiff = spawnWidthValue.newHighValue(random);
 		if (!spawnWidthValue.isRelative()) spawnWidthDiff -= spawnWidth;
 
-		spawnHeight = spawnHeightValue.newLowValue();
-		spawnHeightDiff = spawnHeightValue.newHighValue();
+		spawnHeight = spawnHeightValue.newLowValue(random);
+		spawnHeightDiff = spawnHeightValue.newHighValue(random);
 		if (!spawnHeightValue.isRelative()) spawnHeightDiff -= spawnHeight;
 
-		spawnDepth = spawnDepthValue.newLowValue();
-		spawnDepthDiff = spawnDepthValue.newHighValue();
+		spawnDepth = spawnDepthValue.newLowValue(random);
+		spawnDepthDiff = spawnDepthValue.newHighValue(random);
 		if (!spawnDepthValue.isRelative()) spawnDepthDiff -= spawnDepth;
 	}
 
@@ -16,8 +16,11 @@
 
 package com.badlogic.gdx.graphics.g3d.particles.values;
 
+import java.util.Random;
+
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g3d.particles.ResourceData;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
@@ -27,6 +30,8 @@ import com.badlogic.gdx.utils.JsonValue;
 public abstract class SpawnShapeValue extends ParticleValue implements ResourceData.Configurable, Json.Serializable {
 
 	public RangedNumericValue xOffsetValue, yOffsetValue, zOffsetValue;
+	/** The generator to be used by {@link #spawnAux(Vector3, float)} and {@link #start()}, see {@link #setRandom(Random)}. */
+	protected Random random = MathUtils.random;
 
 	public SpawnShapeValue () {
 		xOffsetValue = new RangedNumericValue();
@@ -40,14 +45,28 @@ public abstract class SpawnShapeValue extends ParticleValue implements ResourceD
 
 	public abstract void spawnAux (Vector3 vector, float percent);
 
+	/** Spawns with the last generator set by {@link #setRandom(Random)} or {@link #spawn(Vector3, float, Random)}, by default
+	 * {@link MathUtils#random}. */
 	public final Vector3 spawn (Vector3 vector, float percent) {
+		return spawn(vector, percent, random);
+	}
+
+	/** @param random the generator to use, e.g. {@link com.badlogic.gdx.graphics.g3d.particles.ParticleController#random} */
+	public final Vector3 spawn (Vector3 vector, float percent, Random random) {
+		this.random = random;
 		spawnAux(vector, percent);
-		if (xOffsetValue.active) vector.x += xOffsetValue.newLowValue();
-		if (yOffsetValue.active) vector.y += yOffsetValue.newLowValue();
-		if (zOffsetValue.active) vector.z += zOffsetValue.newLowValue();
+		if (xOffsetValue.active) vector.x += xOffsetValue.newLowValue(random);
+		if (yOffsetValue.active) vector.y += yOffsetValue.newLowValue(random);
+		if (zOffsetValue.active) vector.z += zOffsetValue.newLowValue(random);
 		return vector;
 	}
 
+	/** Sets the generator used to spawn and to pick the dimensions of the shape in {@link #start()}.
+	 * @param random the generator to use, e.g. {@link com.badlogic.gdx.graphics.g3d.particles.ParticleController#random} */
+	public void setRandom (Random random) {
+		this.random = random;
+	}
+
 	public void init () {
 	}
 
@@ -19,7 +19,6 @@ package com.badlogic.gdx.graphics.g3d.particles.values;
 import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
 import com.badlogic.gdx.math.CumulativeDistribution;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
 /** Encapsulate the formulas to spawn a particle on a mesh shape dealing with not uniform area triangles.
@@ -82,10 +81,7 @@ public final class WeightMeshSpawnShapeValue extends MeshSpawnShapeValue {
 
 	@Override
 	public void spawnAux (Vector3 vector, float percent) {
-		Triangle t = distribution.value();
-		float a = MathUtils.random(), b = MathUtils.random();
-		vector.set(t.x1 + a * (t.x2 - t.x1) + b * (t.x3 - t.x1), t.y1 + a * (t.y2 - t.y1) + b * (t.y3 - t.y1), t.z1 + a
-			* (t.z2 - t.z1) + b * (t.z3 - t.z1));
+		distribution.value(random.nextFloat()).pick(vector, random);
 	}
 
 	@Override
@@ -36,6 +36,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.NumberUtils;
 
 /** @author Xoppa A BaseShader is a wrapper around a ShaderProgram that keeps track of the uniform and attribute locations. It does
  *         not manage the ShaderPogram, you are still responsible for disposing the ShaderProgram. */
@@ -103,6 +104,12 @@ public abstract class BaseShader implements Shader {
 	private final Array<Validator> validators = new Array<Validator>();
 	private final Array<Setter> setters = new Array<Setter>();
 	private int locations[];
+	/** The raw bits of the last value uploaded for each uniform, or null if unknown */
+	private int values[][];
+	/** The amount of uploads skipped because the value didn't change, since the last call to {@link #resetUniformStatistics()} */
+	private int uniformsSkipped;
+	/** The amount of values uploaded, since the last call to {@link #resetUniformStatistics()} */
+	private int uniformsSet;
 	private final IntArray globalUniforms = new IntArray();
 	private final IntArray localUniforms = new IntArray();
 	private final IntIntMap attributes = new IntIntMap();
@@ -169,6 +176,7 @@ public abstract class BaseShader implements Shader {
 
 		final int n = uniforms.size;
 		locations = new int[n];
+		values = new int[n][];
 		for (int i = 0; i < n; i++) {
 			final String input = uniforms.get(i);
 			final Validator validator = validators.get(i);
@@ -206,6 +214,7 @@ public abstract class BaseShader implements Shader {
 		this.context = context;
 		program.begin();
 		currentMesh = null;
+		invalidateUniforms();
 		for (int u, i = 0; i < globalUniforms.size; ++i)
 			if (setters.get(u = globalUniforms.get(i)) != null) setters.get(u).set(this, u, null, null);
 	}
@@ -262,8 +271,84 @@ public abstract class BaseShader implements Shader {
 		localUniforms.clear();
 		globalUniforms.clear();
 		locations = null;
+		values = null;
 	}
 
+	/** Forgets the values of all uniforms, causing the next call to one of the set methods to upload the value regardless of
+	 * whether it changed. This is done on every call to {@link #begin(Camera, RenderContext)}, call it when the values of the
+	 * program are changed by other means (e.g. by using the {@link ShaderProgram} directly) in between. */
+	public void invalidateUniforms () {
+		final int values[][] = this.values;
+		if (values == null) return;
+		for (int i = 0; i < values.length; i++)
+			if (values[i] != null) values[i][0] = -1;
+	}
+
+	/** @return the amount of uniform values uploaded to the program since the last call to {@link #resetUniformStatistics()} */
+	public int getUniformsSet () {
+		return uniformsSet;
+	}
+
+	/** @return the amount of uniform uploads which were skipped because the value didn't change since the last call to
+	 *         {@link #resetUniformStatistics()} */
+	public int getUniformsSkipped () {
+		return uniformsSkipped;
+	}
+
+	public void resetUniformStatistics () {
+		uniformsSet = uniformsSkipped = 0;
+	}
+
+	/** The first element of the cache array is the type of the cached value (-1 if unknown), followed by the raw bits. */
+	private int[] cache (final int uniform, final int size) {
+		int[] cache = values[uniform];
+		if (cache == null || cache.length < size + 1) {
+			cache = values[uniform] = new int[size + 1];
+			cache[0] = -1;
+		}
+		return cache;
+	}
+
+	private boolean unchanged (final int uniform, final int type, final float[] value, final int size) {
+		final int[] cache = cache(uniform, size);
+		boolean result = cache[0] == type;
+		for (int i = 0; i < size; i++) {
+			final int bits = NumberUtils.floatToRawIntBits(value[i]);
+			if (cache[i + 1] != bits) {
+				cache[i + 1] = bits;
+				result = false;
+			}
+		}
+		return update(cache, type, result);
+	}
+
+	private boolean unchanged (final int uniform, final int type, final float v1, final float v2, final float v3, final float v4) {
+		return unchanged(uniform, type, NumberUtils.floatToRawIntBits(v1), NumberUtils.floatToRawIntBits(v2),
+			NumberUtils.floatToRawIntBits(v3), NumberUtils.floatToRawIntBits(v4));
+	}
+
+	private boolean unchanged (final int uniform, final int type, final int v1, final int v2, final int v3, final int v4) {
+		final int[] cache = cache(uniform, 4);
+		final boolean result = cache[0] == type && cache[1] == v1 && cache[2] == v2 && cache[3] == v3 && cache[4] == v4;
+		cache[1] = v1;
+		cache[2] = v2;
+		cache[3] = v3;
+		cache[4] = v4;
+		return update(cache, type, result);
+	}
+
+	private boolean update (final int[] cache, final int type, final boolean unchanged) {
+		cache[0] = type;
+		if (unchanged)
+			uniformsSkipped++;
+		else
+			uniformsSet++;
+		return unchanged;
+	}
+
+	private final static int TYPE_MATRIX4 = 0, TYPE_MATRIX3 = 1, TYPE_FLOAT1 = 2, TYPE_FLOAT2 = 3, TYPE_FLOAT3 = 4, TYPE_FLOAT4 = 5,
+		TYPE_INT1 = 6, TYPE_INT2 = 7, TYPE_INT3 = 8, TYPE_INT4 = 9;
+
 	/** Whether this Shader instance implements the specified uniform, only valid after a call to init(). */
 	public final boolean has (final int inputID) {
 		return inputID >= 0 && inputID < locations.length && locations[inputID] >= 0;
@@ -275,91 +360,108 @@ public abstract class BaseShader implements Shader {
 
 	public final boolean set (final int uniform, final Matrix4 value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_MATRIX4, value.val, 16)) return true;
 		program.setUniformMatrix(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final Matrix3 value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_MATRIX3, value.val, 9)) return true;
 		program.setUniformMatrix(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final Vector3 value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT3, value.x, value.y, value.z, 0f)) return true;
 		program.setUniformf(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final Vector2 value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT2, value.x, value.y, 0f, 0f)) return true;
 		program.setUniformf(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final Color value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT4, value.r, value.g, value.b, value.a)) return true;
 		program.setUniformf(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final float value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT1, value, 0f, 0f, 0f)) return true;
 		program.setUniformf(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final float v1, final float v2) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT2, v1, v2, 0f, 0f)) return true;
 		program.setUniformf(locations[uniform], v1, v2);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final float v1, final float v2, final float v3) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT3, v1, v2, v3, 0f)) return true;
 		program.setUniformf(locations[uniform], v1, v2, v3);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final float v1, final float v2, final float v3, final float v4) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_FLOAT4, v1, v2, v3, v4)) return true;
 		program.setUniformf(locations[uniform], v1, v2, v3, v4);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final int value) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_INT1, value, 0, 0, 0)) return true;
 		program.setUniformi(locations[uniform], value);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final int v1, final int v2) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_INT2, v1, v2, 0, 0)) return true;
 		program.setUniformi(locations[uniform], v1, v2);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final int v1, final int v2, final int v3) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_INT3, v1, v2, v3, 0)) return true;
 		program.setUniformi(locations[uniform], v1, v2, v3);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final int v1, final int v2, final int v3, final int v4) {
 		if (locations[uniform] < 0) return false;
+		if (unchanged(uniform, TYPE_INT4, v1, v2, v3, v4)) return true;
 		program.setUniformi(locations[uniform], v1, v2, v3, v4);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final TextureDescriptor textureDesc) {
 		if (locations[uniform] < 0) return false;
-		program.setUniformi(locations[uniform], context.textureBinder.bind(textureDesc));
+		final int unit = context.textureBinder.bind(textureDesc);
+		if (unchanged(uniform, TYPE_INT1, unit, 0, 0, 0)) return true;
+		program.setUniformi(locations[uniform], unit);
 		return true;
 	}
 
 	public final boolean set (final int uniform, final GLTexture texture) {
 		if (locations[uniform] < 0) return false;
-		program.setUniformi(locations[uniform], context.textureBinder.bind(texture));
+		final int unit = context.textureBinder.bind(texture);
+		if (unchanged(uniform, TYPE_INT1, unit, 0, 0, 0)) return true;
+		program.setUniformi(locations[uniform], unit);
 		return true;
 	}
 }
@@ -27,6 +27,7 @@ import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ClusteredLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.CubemapAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.DepthTestAttribute;
@@ -37,6 +38,8 @@ import com.badlogic.gdx.graphics.g3d.attributes.PointLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.SpotLightsAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.AmbientCubemap;
+import com.badlogic.gdx.graphics.g3d.environment.CascadedShadowMap;
+import com.badlogic.gdx.graphics.g3d.environment.ClusteredLights;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.graphics.g3d.environment.PointLight;
 import com.badlogic.gdx.graphics.g3d.environment.SpotLight;
@@ -118,6 +121,12 @@ public class DefaultShader extends BaseShader {
 		public final static Uniform pointLights = new Uniform("u_pointLights");
 		public final static Uniform spotLights = new Uniform("u_spotLights");
 		public final static Uniform environmentCubemap = new Uniform("u_environmentCubemap");
+
+		public final static Uniform clusterLights = new Uniform("u_clusterLights", 0, ClusteredLightsAttribute.Type);
+		public final static Uniform clusterIndices = new Uniform("u_clusterIndices", 0, ClusteredLightsAttribute.Type);
+		public final static Uniform clusterGrid = new Uniform("u_clusterGrid", 0, ClusteredLightsAttribute.Type);
+		public final static Uniform clusterDepth = new Uniform("u_clusterDepth", 0, ClusteredLightsAttribute.Type);
+		public final static Uniform clusterViewport = new Uniform("u_clusterViewport", 0, ClusteredLightsAttribute.Type);
 	}
 
 	public static class Setters {
@@ -466,6 +475,13 @@ public class DefaultShader extends BaseShader {
 	protected final int u_shadowMapProjViewTrans = register(new Uniform("u_shadowMapProjViewTrans"));
 	protected final int u_shadowTexture = register(new Uniform("u_shadowTexture"));
 	protected final int u_shadowPCFOffset = register(new Uniform("u_shadowPCFOffset"));
+	protected final int u_cascadeScale = register(new Uniform("u_cascadeScale"));
+	protected final int u_cascadeOffset = register(new Uniform("u_cascadeOffset"));
+	protected final int u_clusterLights = register(Inputs.clusterLights);
+	protected final int u_clusterIndices = register(Inputs.clusterIndices);
+	protected final int u_clusterGrid = register(Inputs.clusterGrid);
+	protected final int u_clusterDepth = register(Inputs.clusterDepth);
+	protected final int u_clusterViewport = register(Inputs.clusterViewport);
 	// FIXME Cache vertex attribute locations...
 
 	protected int dirLightsLoc;
@@ -489,6 +505,10 @@ public class DefaultShader extends BaseShader {
 	protected final boolean lighting;
 	protected final boolean environmentCubemap;
 	protected final boolean shadowMap;
+	/** The number of shadow map cascades this shader is compiled for, zero if the shadow map isn't a {@link CascadedShadowMap} */
+	protected final int shadowCascades;
+	/** The amount of lights per cluster this shader is compiled for, zero if clustered lighting is not used */
+	protected final int clusterSize;
 	protected final AmbientCubemap ambientCubemap = new AmbientCubemap();
 	protected final DirectionalLight directionalLights[];
 	protected final PointLight pointLights[];
@@ -529,6 +549,8 @@ public class DefaultShader extends BaseShader {
 		this.environmentCubemap = attributes.has(CubemapAttribute.EnvironmentMap)
 			|| (lighting && attributes.has(CubemapAttribute.EnvironmentMap));
 		this.shadowMap = lighting && renderable.environment.shadowMap != null;
+		this.shadowCascades = lighting ? getShadowCascades(renderable.environment) : 0;
+		this.clusterSize = lighting ? getClusterSize(attributes) : 0;
 		this.renderable = renderable;
 		attributesMask = attributes.getMask() | optionalAttributes;
 		vertexMask = renderable.meshPart.mesh.getVertexAttributes().getMaskWithSizePacked();
@@ -665,7 +687,14 @@ public class DefaultShader extends BaseShader {
 					prefix += "#define fogFlag\n";
 				}
 				if (renderable.environment.shadowMap != null) prefix += "#define shadowMapFlag\n";
+				final int shadowCascades = getShadowCascades(renderable.environment);
+				if (shadowCascades > 0) prefix += "#define numCascades " + shadowCascades + "\n";
 				if (attributes.has(CubemapAttribute.EnvironmentMap)) prefix += "#define environmentCubemapFlag\n";
+				final int clusterSize = getClusterSize(attributes);
+				if (clusterSize > 0) {
+					prefix += "#define clusteredLightsFlag\n";
+					prefix += "#define clusterTexels " + (clusterSize / 4) + "\n";
+				}
 			}
 		}
 		final int n = renderable.meshPart.mesh.getVertexAttributes().size();
@@ -717,11 +746,22 @@ public class DefaultShader extends BaseShader {
 		return prefix;
 	}
 
+	private static final int getClusterSize (final Attributes attributes) {
+		final ClusteredLightsAttribute cla = attributes.get(ClusteredLightsAttribute.class, ClusteredLightsAttribute.Type);
+		return (cla == null || cla.lights == null) ? 0 : cla.lights.maxLightsPerCluster;
+	}
+
+	private static final int getShadowCascades (final Environment environment) {
+		return environment.shadowMap instanceof CascadedShadowMap ? ((CascadedShadowMap)environment.shadowMap).getCascadeCount() : 0;
+	}
+
 	@Override
 	public boolean canRender (final Renderable renderable) {
 		final long renderableMask = combineAttributeMasks(renderable);
 		return (attributesMask == (renderableMask | optionalAttributes))
-			&& (vertexMask == renderable.meshPart.mesh.getVertexAttributes().getMaskWithSizePacked()) && (renderable.environment != null) == lighting;
+			&& (vertexMask == renderable.meshPart.mesh.getVertexAttributes().getMaskWithSizePacked()) && (renderable.environment != null) == lighting
+			&& (clusterSize == 0 || clusterSize == getClusterSize(renderable.environment))
+			&& (shadowCascades == 0 || shadowCascades == getShadowCascades(renderable.environment));
 	}
 
 	@Override
@@ -885,6 +925,23 @@ public class DefaultShader extends BaseShader {
 			set(u_shadowMapProjViewTrans, lights.shadowMap.getProjViewTrans());
 			set(u_shadowTexture, lights.shadowMap.getDepthMap());
 			set(u_shadowPCFOffset, 1.f / (2f * lights.shadowMap.getDepthMap().texture.getWidth()));
+			if (shadowCascades > 0 && has(u_cascadeScale)) {
+				final CascadedShadowMap cascades = (CascadedShadowMap)lights.shadowMap;
+				program.setUniform4fv(loc(u_cascadeScale), cascades.getCascadeScales(), 0, shadowCascades * 4);
+				program.setUniform4fv(loc(u_cascadeOffset), cascades.getCascadeOffsets(), 0, shadowCascades * 4);
+			}
+		}
+
+		if (clusterSize > 0 && has(u_clusterIndices)) {
+			final ClusteredLights clusters = attributes.get(ClusteredLightsAttribute.class, ClusteredLightsAttribute.Type).lights;
+			if (clusters.getClusterTexture() != null) {
+				set(u_clusterLights, clusters.getLightTexture());
+				set(u_clusterIndices, clusters.getClusterTexture());
+				set(u_clusterGrid, clusters.tilesX, clusters.tilesY, clusters.slices, clusters.maxLights);
+				set(u_clusterDepth, clusters.getDepthScale(), clusters.getDepthBias());
+				set(u_clusterViewport, clusters.getViewportX(), clusters.getViewportY(), 1f / clusters.getViewportWidth(),
+					1f / clusters.getViewportHeight());
+			}
 		}
 
 		lightsSet = true;
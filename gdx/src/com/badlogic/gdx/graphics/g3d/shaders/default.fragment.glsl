@@ -84,24 +84,51 @@ varying vec3 v_lightSpecular;
 #endif //specularFlag
 
 #ifdef shadowMapFlag
+#if defined(numCascades) && defined(GL_FRAGMENT_PRECISION_HIGH)
+#define SHADOWP highp
+#else
+#define SHADOWP
+#endif
 uniform sampler2D u_shadowTexture;
 uniform float u_shadowPCFOffset;
-varying vec3 v_shadowMapUv;
+varying SHADOWP vec3 v_shadowMapUv;
+#ifdef numCascades
+// xyz: scale from the shadow map coordinates to those of the cascade, w: window depth up to which the cascade is used
+uniform SHADOWP vec4 u_cascadeScale[numCascades];
+// xyz: offset from the shadow map coordinates to those of the cascade
+uniform SHADOWP vec4 u_cascadeOffset[numCascades];
+#endif //numCascades
 #define separateAmbientFlag
 
-float getShadowness(vec2 offset)
+float getShadowness(SHADOWP vec3 uv, vec2 offset)
 {
     const vec4 bitShifts = vec4(1.0, 1.0 / 255.0, 1.0 / 65025.0, 1.0 / 16581375.0);
-    return step(v_shadowMapUv.z, dot(texture2D(u_shadowTexture, v_shadowMapUv.xy + offset), bitShifts));//+(1.0/255.0));
+    return step(uv.z, dot(texture2D(u_shadowTexture, uv.xy + offset), bitShifts));//+(1.0/255.0));
+}
+
+float getShadow(SHADOWP vec3 uv)
+{
+	return (//getShadowness(uv, vec2(0,0)) +
+			getShadowness(uv, vec2(u_shadowPCFOffset, u_shadowPCFOffset)) +
+			getShadowness(uv, vec2(-u_shadowPCFOffset, u_shadowPCFOffset)) +
+			getShadowness(uv, vec2(u_shadowPCFOffset, -u_shadowPCFOffset)) +
+			getShadowness(uv, vec2(-u_shadowPCFOffset, -u_shadowPCFOffset))) * 0.25;
 }
 
 float getShadow()
 {
-	return (//getShadowness(vec2(0,0)) +
-			getShadowness(vec2(u_shadowPCFOffset, u_shadowPCFOffset)) +
-			getShadowness(vec2(-u_shadowPCFOffset, u_shadowPCFOffset)) +
-			getShadowness(vec2(u_shadowPCFOffset, -u_shadowPCFOffset)) +
-			getShadowness(vec2(-u_shadowPCFOffset, -u_shadowPCFOffset))) * 0.25;
+#ifdef numCascades
+	for (int i = 0; i < numCascades; i++) {
+		if (gl_FragCoord.z <= u_cascadeScale[i].w) {
+			SHADOWP vec3 uv = v_shadowMapUv * u_cascadeScale[i].xyz + u_cascadeOffset[i].xyz;
+			uv.z = min(uv.z, 0.998);
+			return getShadow(uv);
+		}
+	}
+	return 1.0;
+#else
+	return getShadow(v_shadowMapUv);
+#endif //numCascades
 }
 #endif //shadowMapFlag
 
@@ -109,6 +136,82 @@ float getShadow()
 varying vec3 v_ambientLight;
 #endif //separateAmbientFlag
 
+#if defined(clusteredLightsFlag) && defined(normalFlag)
+#ifdef GL_FRAGMENT_PRECISION_HIGH
+#define CLUSTERP highp
+#else
+#define CLUSTERP mediump
+#endif
+// Each light is three texels: position and range, color and cosine of the cutoff angle (-2 for point lights), direction and exponent
+uniform sampler2D u_clusterLights;
+// Each cluster is clusterTexels texels of one based light indices, zero terminated if the cluster is not full
+uniform sampler2D u_clusterIndices;
+// tiles x, tiles y, slices, width of the lights texture
+uniform vec4 u_clusterGrid;
+// scale and bias to get the slice from the logarithm of the view depth
+uniform vec2 u_clusterDepth;
+// x, y, 1 / width, 1 / height of the viewport in pixels
+uniform vec4 u_clusterViewport;
+varying CLUSTERP vec3 v_clusterPosition;
+varying float v_clusterDepth;
+vec3 clusterDiffuse;
+#ifdef specularFlag
+varying vec3 v_clusterViewVec;
+varying float v_clusterShininess;
+vec3 clusterSpecular;
+#endif //specularFlag
+
+void applyClusterLight(float index, vec3 normal) {
+	float u = (index - 0.5) / u_clusterGrid.w;
+	CLUSTERP vec4 positionRange = texture2D(u_clusterLights, vec2(u, 1.0 / 6.0));
+	vec4 colorCutoff = texture2D(u_clusterLights, vec2(u, 0.5));
+	CLUSTERP vec3 lightDir = positionRange.xyz - v_clusterPosition;
+	CLUSTERP float dist2 = dot(lightDir, lightDir);
+	if (dist2 > positionRange.w * positionRange.w)
+		return;
+	lightDir *= inversesqrt(dist2);
+	float attenuation = 1.0 / (1.0 + dist2);
+	if (colorCutoff.w > -1.5) {
+		vec4 directionExponent = texture2D(u_clusterLights, vec2(u, 5.0 / 6.0));
+		float spot = dot(-lightDir, directionExponent.xyz);
+		if (spot < colorCutoff.w)
+			return;
+		attenuation *= pow(spot, directionExponent.w);
+	}
+	float NdotL = clamp(dot(normal, lightDir), 0.0, 1.0);
+	vec3 value = colorCutoff.rgb * (NdotL * attenuation);
+	clusterDiffuse += value;
+	#ifdef specularFlag
+		float halfDotView = max(0.0, dot(normal, normalize(lightDir + normalize(v_clusterViewVec))));
+		clusterSpecular += value * pow(halfDotView, v_clusterShininess);
+	#endif //specularFlag
+}
+
+void applyClusterLights(vec3 normal) {
+	clusterDiffuse = vec3(0.0);
+	#ifdef specularFlag
+		clusterSpecular = vec3(0.0);
+	#endif //specularFlag
+	float slice = clamp(floor(log(v_clusterDepth) * u_clusterDepth.x + u_clusterDepth.y), 0.0, u_clusterGrid.z - 1.0);
+	vec2 tile = clamp(floor((gl_FragCoord.xy - u_clusterViewport.xy) * u_clusterViewport.zw * u_clusterGrid.xy), vec2(0.0),
+		u_clusterGrid.xy - 1.0);
+	float v = (slice * u_clusterGrid.y + tile.y + 0.5) / (u_clusterGrid.y * u_clusterGrid.z);
+	float u0 = tile.x * float(clusterTexels) + 0.5;
+	float invWidth = 1.0 / (u_clusterGrid.x * float(clusterTexels));
+	for (int i = 0; i < clusterTexels; i++) {
+		vec4 indices = texture2D(u_clusterIndices, vec2((u0 + float(i)) * invWidth, v));
+		if (indices.x < 0.5) break;
+		applyClusterLight(indices.x, normal);
+		if (indices.y < 0.5) break;
+		applyClusterLight(indices.y, normal);
+		if (indices.z < 0.5) break;
+		applyClusterLight(indices.z, normal);
+		if (indices.w < 0.5) break;
+		applyClusterLight(indices.w, normal);
+	}
+}
+#endif //clusteredLightsFlag
+
 #endif //lightingFlag
 
 #ifdef fogFlag
@@ -149,46 +252,60 @@ void main() {
 		vec4 emissive = vec4(0.0);
 	#endif
 
+	#ifdef lightingFlag
+		vec3 lightDiffuse = v_lightDiffuse;
+		#ifdef specularFlag
+			vec3 lightSpecular = v_lightSpecular;
+		#endif //specularFlag
+		#if defined(clusteredLightsFlag) && defined(normalFlag)
+			applyClusterLights(normalize(normal));
+			lightDiffuse += clusterDiffuse;
+			#ifdef specularFlag
+				lightSpecular += clusterSpecular;
+			#endif //specularFlag
+		#endif //clusteredLightsFlag
+	#endif //lightingFlag
+
 	#if (!defined(lightingFlag))
 		gl_FragColor.rgb = diffuse.rgb + emissive.rgb;
 	#elif (!defined(specularFlag))
 		#if defined(ambientFlag) && defined(separateAmbientFlag)
 			#ifdef shadowMapFlag
-				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + getShadow() * v_lightDiffuse)) + emissive.rgb;
+				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + getShadow() * lightDiffuse)) + emissive.rgb;
 				//gl_FragColor.rgb = texture2D(u_shadowTexture, v_shadowMapUv.xy);
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + v_lightDiffuse)) + emissive.rgb;
+				gl_FragColor.rgb = (diffuse.rgb * (v_ambientLight + lightDiffuse)) + emissive.rgb;
 			#endif //shadowMapFlag
 		#else
 			#ifdef shadowMapFlag
-				gl_FragColor.rgb = getShadow() * (diffuse.rgb * v_lightDiffuse) + emissive.rgb;
+				gl_FragColor.rgb = getShadow() * (diffuse.rgb * lightDiffuse) + emissive.rgb;
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * v_lightDiffuse) + emissive.rgb;
+				gl_FragColor.rgb = (diffuse.rgb * lightDiffuse) + emissive.rgb;
 			#endif //shadowMapFlag
 		#endif
 	#else
 		#if defined(specularTextureFlag) && defined(specularColorFlag)
-			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * u_specularColor.rgb * v_lightSpecular;
+			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * u_specularColor.rgb * lightSpecular;
 		#elif defined(specularTextureFlag)
-			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * v_lightSpecular;
+			vec3 specular = texture2D(u_specularTexture, v_specularUV).rgb * lightSpecular;
 		#elif defined(specularColorFlag)
-			vec3 specular = u_specularColor.rgb * v_lightSpecular;
+			vec3 specular = u_specularColor.rgb * lightSpecular;
 		#else
-			vec3 specular = v_lightSpecular;
+			vec3 specular = lightSpecular;
 		#endif
 
 		#if defined(ambientFlag) && defined(separateAmbientFlag)
 			#ifdef shadowMapFlag
-			gl_FragColor.rgb = (diffuse.rgb * (getShadow() * v_lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
+			gl_FragColor.rgb = (diffuse.rgb * (getShadow() * lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
 				//gl_FragColor.rgb = texture2D(u_shadowTexture, v_shadowMapUv.xy);
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * (v_lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
+				gl_FragColor.rgb = (diffuse.rgb * (lightDiffuse + v_ambientLight)) + specular + emissive.rgb;
 			#endif //shadowMapFlag
 		#else
 			#ifdef shadowMapFlag
-				gl_FragColor.rgb = getShadow() * ((diffuse.rgb * v_lightDiffuse) + specular) + emissive.rgb;
+				gl_FragColor.rgb = getShadow() * ((diffuse.rgb * lightDiffuse) + specular) + emissive.rgb;
 			#else
-				gl_FragColor.rgb = (diffuse.rgb * v_lightDiffuse) + specular + emissive.rgb;
+				gl_FragColor.rgb = (diffuse.rgb * lightDiffuse) + specular + emissive.rgb;
 			#endif //shadowMapFlag
 		#endif
 	#endif //lightingFlag
@@ -187,6 +187,16 @@ varying vec3 v_shadowMapUv;
 varying vec3 v_ambientLight;
 #endif //separateAmbientFlag
 
+#ifdef clusteredLightsFlag
+uniform mat4 u_viewTrans;
+varying vec3 v_clusterPosition;
+varying float v_clusterDepth;
+#ifdef specularFlag
+varying vec3 v_clusterViewVec;
+varying float v_clusterShininess;
+#endif // specularFlag
+#endif // clusteredLightsFlag
+
 #endif // lightingFlag
 
 void main() {
@@ -252,7 +262,9 @@ void main() {
 	#ifdef shadowMapFlag
 		vec4 spos = u_shadowMapProjViewTrans * pos;
 		v_shadowMapUv.xyz = (spos.xyz / spos.w) * 0.5 + 0.5;
-		v_shadowMapUv.z = min(v_shadowMapUv.z, 0.998);
+		#ifndef numCascades
+			v_shadowMapUv.z = min(v_shadowMapUv.z, 0.998);
+		#endif //numCascades
 	#endif //shadowMapFlag
 	
 	#if defined(normalFlag)
@@ -313,6 +325,15 @@ void main() {
 			v_lightSpecular = vec3(0.0);
 			vec3 viewVec = normalize(u_cameraPosition.xyz - pos.xyz);
 		#endif // specularFlag
+
+		#ifdef clusteredLightsFlag
+			v_clusterPosition = pos.xyz;
+			v_clusterDepth = -(u_viewTrans * pos).z;
+			#ifdef specularFlag
+				v_clusterViewVec = u_cameraPosition.xyz - pos.xyz;
+				v_clusterShininess = u_shininess;
+			#endif // specularFlag
+		#endif // clusteredLightsFlag
 			
 		#if (numDirectionalLights > 0) && defined(normalFlag)
 			for (int i = 0; i < numDirectionalLights; i++) {
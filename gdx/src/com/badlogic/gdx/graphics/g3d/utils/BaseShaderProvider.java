@@ -17,12 +17,26 @@
 package com.badlogic.gdx.graphics.g3d.utils;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
 import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
 
 public abstract class BaseShaderProvider implements ShaderProvider {
 	protected Array<Shader> shaders = new Array<Shader>();
+	private final Array<Renderable> prewarmRenderables = new Array<Renderable>();
+	private final Pool<Renderable> prewarmPool = new Pool<Renderable>() {
+		@Override
+		protected Renderable newObject () {
+			return new Renderable();
+		}
+	};
+	private long creationTime;
 
 	@Override
 	public Shader getShader (Renderable renderable) {
@@ -31,12 +45,93 @@ public abstract class BaseShaderProvider implements ShaderProvider {
 		for (Shader shader : shaders) {
 			if (shader.canRender(renderable)) return shader;
 		}
+		final long start = TimeUtils.nanoTime();
 		final Shader shader = createShader(renderable);
 		shader.init();
 		shaders.add(shader);
+		creationTime += TimeUtils.nanoTime() - start;
 		return shader;
 	}
 
+	/** Creates the shaders required to render the {@link Renderable}s of the specified provider, without rendering anything. Call
+	 * this e.g. while loading a level to avoid frame hitches caused by compiling shaders the first time a material variant becomes
+	 * visible. Must be called on the rendering thread.
+	 * @param renderableProvider the provider of the renderables, e.g. a {@link com.badlogic.gdx.graphics.g3d.ModelInstance}
+	 * @param environment the environment the renderables will be rendered with, as used by
+	 *           {@link ModelBatch#render(RenderableProvider, Environment)}, may be null.
+	 * @return the amount of shaders that were created */
+	public int prewarm (final RenderableProvider renderableProvider, final Environment environment) {
+		final int count = shaders.size;
+		renderableProvider.getRenderables(prewarmRenderables, prewarmPool);
+		for (int i = 0, n = prewarmRenderables.size; i < n; i++) {
+			final Renderable renderable = prewarmRenderables.get(i);
+			if (environment != null) renderable.environment = environment;
+			getShader(renderable);
+		}
+		for (int i = 0, n = prewarmRenderables.size; i < n; i++) {
+			final Renderable renderable = prewarmRenderables.get(i);
+			renderable.environment = null;
+			renderable.material = null;
+			renderable.meshPart.set("", null, 0, 0, 0);
+			renderable.shader = null;
+			renderable.userData = null;
+			renderable.bones = null;
+		}
+		prewarmPool.freeAll(prewarmRenderables);
+		prewarmRenderables.clear();
+		return shaders.size - count;
+	}
+
+	/** Creates the shaders required to render the {@link Renderable}s of all specified providers.
+	 * @see #prewarm(RenderableProvider, Environment)
+	 * @return the amount of shaders that were created */
+	public <T extends RenderableProvider> int prewarm (final Iterable<T> renderableProviders, final Environment environment) {
+		int result = 0;
+		for (final RenderableProvider renderableProvider : renderableProviders)
+			result += prewarm(renderableProvider, environment);
+		return result;
+	}
+
+	/** Creates the shader required to render a template {@link Renderable}, without rendering anything. Unlike
+	 * {@link #prewarm(RenderableProvider, Environment)} this doesn't need a model, eg to prewarm a material variant that is only
+	 * created at runtime. The template needs everything the shaders use to select and create a variant, which for the
+	 * {@link com.badlogic.gdx.graphics.g3d.shaders.DefaultShader} is the material and environment, the vertex attributes of the
+	 * mesh part and the bones. A mask of attribute types is not enough, because shaders read the attribute values, eg the texture,
+	 * when they are created.
+	 * @return the amount of shaders that were created, 0 or 1 */
+	public int prewarm (final Renderable renderable) {
+		final int count = shaders.size;
+		getShader(renderable);
+		return shaders.size - count;
+	}
+
+	/** Creates the shaders required to render a template {@link Renderable} with each of the materials. The material of the
+	 * template is restored afterwards.
+	 * @see #prewarm(Renderable)
+	 * @return the amount of shaders that were created */
+	public int prewarm (final Renderable renderable, final Iterable<Material> materials) {
+		final int count = shaders.size;
+		final Material material = renderable.material;
+		for (final Material variant : materials) {
+			renderable.material = variant;
+			getShader(renderable);
+		}
+		renderable.material = material;
+		return shaders.size - count;
+	}
+
+	/** @return the amount of shaders created by this provider */
+	public int getShaderCount () {
+		return shaders.size;
+	}
+
+	/** @return the total time in nanoseconds spent creating and initializing the shaders of this provider. Use
+	 *         {@link com.badlogic.gdx.graphics.glutils.ShaderProgram#getTotalCompileTime()} to measure the time spent in the GL
+	 *         driver. */
+	public long getCreationTime () {
+		return creationTime;
+	}
+
 	protected abstract Shader createShader (final Renderable renderable);
 
 	@Override
@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+/** A loose octree of {@link ModelInstance}s which only provides the {@link Renderable}s of the instances that are visible in the
+ * current {@link Frustum}. Use it as a drop-in replacement for an array of instances passed to
+ * {@link ModelBatch#render(RenderableProvider)}:
+ *
+ * <pre>
+ * octree.add(instance);
+ * ...
+ * octree.setFrustum(camera.frustum);
+ * modelBatch.render(octree, environment);
+ * </pre>
+ *
+ * The bounds of every instance are calculated once (in model space) when it is added and are transformed by
+ * {@link ModelInstance#transform} when the instance is (re)inserted. Call {@link #update(ModelInstance)} after moving an instance;
+ * it will only be relocated in the tree when it left the loose bounds of its current node. Instances outside the bounds of the
+ * tree are kept at the root and are tested individually.
+ * <p>
+ * The amount of tested, visible and culled instances of the last query is available through {@link #getVisibleCount()},
+ * {@link #getCulledCount()} and {@link #getNodesTested()}. */
+public class ModelInstanceOctree implements RenderableProvider {
+	private final static int OUTSIDE = 0, INTERSECTS = 1, INSIDE = 2;
+
+	private static class Entry {
+		ModelInstance instance;
+		final BoundingBox localBounds = new BoundingBox();
+		final BoundingBox bounds = new BoundingBox();
+		OctreeNode node;
+	}
+
+	private static class OctreeNode {
+		final float x, y, z, halfSize;
+		final int depth;
+		final OctreeNode parent;
+		OctreeNode[] children;
+		final Array<Entry> entries = new Array<Entry>(false, 4);
+		/** Total amount of entries in this node and all its descendants */
+		int count;
+
+		OctreeNode (OctreeNode parent, float x, float y, float z, float halfSize, int depth) {
+			this.parent = parent;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.halfSize = halfSize;
+			this.depth = depth;
+		}
+
+		/** @return the index of the child whose cell contains the specified point */
+		int childIndex (float px, float py, float pz) {
+			return (px >= x ? 1 : 0) | (py >= y ? 2 : 0) | (pz >= z ? 4 : 0);
+		}
+
+		OctreeNode child (int index) {
+			if (children == null) children = new OctreeNode[8];
+			OctreeNode result = children[index];
+			if (result == null) {
+				final float h = halfSize * 0.5f;
+				result = children[index] = new OctreeNode(this, (index & 1) != 0 ? x + h : x - h, (index & 2) != 0 ? y + h : y - h,
+					(index & 4) != 0 ? z + h : z - h, h, depth + 1);
+			}
+			return result;
+		}
+
+		boolean containsCenter (float px, float py, float pz) {
+			return px >= x - halfSize && px <= x + halfSize && py >= y - halfSize && py <= y + halfSize && pz >= z - halfSize
+				&& pz <= z + halfSize;
+		}
+	}
+
+	private final OctreeNode root;
+	private final int maxDepth;
+	private final ObjectMap<ModelInstance, Entry> entries = new ObjectMap<ModelInstance, Entry>();
+	private final Pool<Entry> entryPool = new Pool<Entry>() {
+		@Override
+		protected Entry newObject () {
+			return new Entry();
+		}
+	};
+	private final Array<ModelInstance> visible = new Array<ModelInstance>();
+	private Frustum frustum;
+	private final Vector3 tmpCenter = new Vector3(), tmpDimensions = new Vector3();
+
+	private int visibleCount, culledCount, nodesTested;
+
+	/** Creates an octree with a maximum depth of 8.
+	 * @param bounds the area in which most of the instances are expected, instances outside these bounds are still supported
+	 *           but are not culled hierarchically. */
+	public ModelInstanceOctree (final BoundingBox bounds) {
+		this(bounds, 8);
+	}
+
+	/** @param bounds the area in which most of the instances are expected, instances outside these bounds are still supported
+	 *           but are not culled hierarchically.
+	 * @param maxDepth the maximum depth of the tree, the root node has a depth of zero. */
+	public ModelInstanceOctree (final BoundingBox bounds, int maxDepth) {
+		final float halfSize = 0.5f * Math.max(bounds.getWidth(), Math.max(bounds.getHeight(), bounds.getDepth()));
+		root = new OctreeNode(null, bounds.getCenterX(), bounds.getCenterY(), bounds.getCenterZ(), halfSize, 0);
+		this.maxDepth = maxDepth;
+	}
+
+	/** Adds the instance to the tree, calculating its bounds using {@link ModelInstance#calculateBoundingBox(BoundingBox)}. This is
+	 * a potential slow operation, do not call this every frame for moving instances, use {@link #update(ModelInstance)} instead.
+	 * @return true if the instance was added, false if it already was part of the tree. */
+	public boolean add (final ModelInstance instance) {
+		if (entries.containsKey(instance)) return false;
+		final Entry entry = entryPool.obtain();
+		entry.instance = instance;
+		instance.calculateBoundingBox(entry.localBounds);
+		entries.put(instance, entry);
+		insert(entry);
+		return true;
+	}
+
+	/** Adds the instance to the tree, using the specified bounds (in model space) instead of calculating them.
+	 * @return true if the instance was added, false if it already was part of the tree. */
+	public boolean add (final ModelInstance instance, final BoundingBox localBounds) {
+		if (entries.containsKey(instance)) return false;
+		final Entry entry = entryPool.obtain();
+		entry.instance = instance;
+		entry.localBounds.set(localBounds);
+		entries.put(instance, entry);
+		insert(entry);
+		return true;
+	}
+
+	/** @return true if the instance was removed, false if it was not part of the tree. */
+	public boolean remove (final ModelInstance instance) {
+		final Entry entry = entries.remove(instance);
+		if (entry == null) return false;
+		detach(entry);
+		entry.instance = null;
+		entryPool.free(entry);
+		return true;
+	}
+
+	/** Removes all instances from the tree. */
+	public void clear () {
+		for (Entry entry : entries.values()) {
+			entry.instance = null;
+			entry.node = null;
+			entryPool.free(entry);
+		}
+		entries.clear();
+		root.entries.clear();
+		root.children = null;
+		root.count = 0;
+	}
+
+	public boolean contains (final ModelInstance instance) {
+		return entries.containsKey(instance);
+	}
+
+	/** @return the amount of instances in the tree */
+	public int size () {
+		return entries.size;
+	}
+
+	/** Updates the world bounds of the instance after its {@link ModelInstance#transform} has changed. The instance is only moved
+	 * to another node when it no longer fits its current node.
+	 * @return false if the instance was not part of the tree. */
+	public boolean update (final ModelInstance instance) {
+		final Entry entry = entries.get(instance);
+		if (entry == null) return false;
+		entry.bounds.set(entry.localBounds).mul(instance.transform);
+		if (fits(entry, entry.node)) return true;
+		detach(entry);
+		place(entry);
+		return true;
+	}
+
+	/** Recalculates the bounds of the instance (e.g. after its nodes have been animated) and updates its location in the tree.
+	 * This is a potential slow operation.
+	 * @return false if the instance was not part of the tree. */
+	public boolean invalidate (final ModelInstance instance) {
+		final Entry entry = entries.get(instance);
+		if (entry == null) return false;
+		instance.calculateBoundingBox(entry.localBounds);
+		return update(instance);
+	}
+
+	/** Sets the frustum used by {@link #getRenderables(Array, Pool)}, typically {@link Camera#frustum}. The frustum is referenced,
+	 * not copied, so updating the camera suffices to cull against the new view. Use null to disable culling. */
+	public void setFrustum (final Frustum frustum) {
+		this.frustum = frustum;
+	}
+
+	public Frustum getFrustum () {
+		return frustum;
+	}
+
+	/** Collects all instances whose bounds are (partially) inside the frustum.
+	 * @param frustum the frustum to test against
+	 * @param out the array to add the visible instances to
+	 * @return the out parameter for chaining */
+	public Array<ModelInstance> cull (final Frustum frustum, final Array<ModelInstance> out) {
+		visibleCount = culledCount = nodesTested = 0;
+		final int start = out.size;
+		cull(frustum, root, out);
+		visibleCount = out.size - start;
+		culledCount = entries.size - visibleCount;
+		return out;
+	}
+
+	/** Collects all instances whose bounds are intersected by the ray, e.g. to pick the instances under the cursor with
+	 * {@link Camera#getPickRay(float, float)}. The instances are not sorted by distance.
+	 * @param out the array to add the intersected instances to
+	 * @return the out parameter for chaining */
+	public Array<ModelInstance> raycast (final Ray ray, final Array<ModelInstance> out) {
+		raycast(ray, root, out);
+		return out;
+	}
+
+	@Override
+	public void getRenderables (final Array<Renderable> renderables, final Pool<Renderable> pool) {
+		visible.clear();
+		if (frustum == null) {
+			for (Entry entry : entries.values())
+				visible.add(entry.instance);
+			visibleCount = visible.size;
+			culledCount = nodesTested = 0;
+		} else
+			cull(frustum, visible);
+		for (int i = 0, n = visible.size; i < n; i++)
+			visible.get(i).getRenderables(renderables, pool);
+		visible.clear();
+	}
+
+	/** @return the amount of instances that passed the last query */
+	public int getVisibleCount () {
+		return visibleCount;
+	}
+
+	/** @return the amount of instances that were rejected by the last query */
+	public int getCulledCount () {
+		return culledCount;
+	}
+
+	/** @return the amount of tree nodes whose bounds were tested against the frustum by the last query */
+	public int getNodesTested () {
+		return nodesTested;
+	}
+
+	private void cull (final Frustum frustum, final OctreeNode node, final Array<ModelInstance> out) {
+		final int result;
+		if (node == root)
+			result = INTERSECTS; // The root might contain instances outside its bounds
+		else {
+			nodesTested++;
+			final float loose = node.halfSize * 2f;
+			result = classify(frustum, node.x, node.y, node.z, loose);
+		}
+		if (result == OUTSIDE) return;
+		if (result == INSIDE) {
+			addAll(node, out);
+			return;
+		}
+		final Array<Entry> nodeEntries = node.entries;
+		for (int i = 0, n = nodeEntries.size; i < n; i++) {
+			final Entry entry = nodeEntries.get(i);
+			if (frustum.boundsInFrustum(entry.bounds)) out.add(entry.instance);
+		}
+		if (node.children != null) {
+			for (int i = 0; i < 8; i++) {
+				final OctreeNode child = node.children[i];
+				if (child != null && child.count > 0) cull(frustum, child, out);
+			}
+		}
+	}
+
+	private void raycast (final Ray ray, final OctreeNode node, final Array<ModelInstance> out) {
+		if (node != root) { // The root might contain instances outside its bounds
+			final float loose = node.halfSize * 4f;
+			tmpCenter.set(node.x, node.y, node.z);
+			if (!Intersector.intersectRayBoundsFast(ray, tmpCenter, tmpDimensions.set(loose, loose, loose))) return;
+		}
+		final Array<Entry> nodeEntries = node.entries;
+		for (int i = 0, n = nodeEntries.size; i < n; i++) {
+			final Entry entry = nodeEntries.get(i);
+			if (Intersector.intersectRayBoundsFast(ray, entry.bounds)) out.add(entry.instance);
+		}
+		if (node.children != null) {
+			for (int i = 0; i < 8; i++) {
+				final OctreeNode child = node.children[i];
+				if (child != null && child.count > 0) raycast(ray, child, out);
+			}
+		}
+	}
+
+	private static void addAll (final OctreeNode node, final Array<ModelInstance> out) {
+		final Array<Entry> nodeEntries = node.entries;
+		for (int i = 0, n = nodeEntries.size; i < n; i++)
+			out.add(nodeEntries.get(i).instance);
+		if (node.children != null) {
+			for (int i = 0; i < 8; i++) {
+				final OctreeNode child = node.children[i];
+				if (child != null && child.count > 0) addAll(child, out);
+			}
+		}
+	}
+
+	/** Classifies the axis aligned cube against the frustum, using the planes of the frustum directly so a cube which is
+	 * completely inside the frustum can be detected. */
+	private static int classify (final Frustum frustum, float x, float y, float z, float halfSize) {
+		int result = INSIDE;
+		for (int i = 0; i < 6; i++) {
+			final Plane plane = frustum.planes[i];
+			final float distance = plane.normal.x * x + plane.normal.y * y + plane.normal.z * z + plane.d;
+			final float radius = halfSize * (Math.abs(plane.normal.x) + Math.abs(plane.normal.y) + Math.abs(plane.normal.z));
+			if (distance < -radius) return OUTSIDE;
+			if (distance < radius) result = INTERSECTS;
+		}
+		return result;
+	}
+
+	private void insert (final Entry entry) {
+		entry.bounds.set(entry.localBounds).mul(entry.instance.transform);
+		place(entry);
+	}
+
+	/** Places the entry in the deepest node which loose bounds fully contain the bounds of the entry. */
+	private void place (final Entry entry) {
+		final BoundingBox b = entry.bounds;
+		final float cx = b.getCenterX(), cy = b.getCenterY(), cz = b.getCenterZ();
+		final float extent = 0.5f * Math.max(b.getWidth(), Math.max(b.getHeight(), b.getDepth()));
+		OctreeNode node = root;
+		if (root.containsCenter(cx, cy, cz) && extent <= root.halfSize) {
+			// A child's loose bounds (twice its cell) contain the entry when its extent is at most the child's half size
+			while (node.depth < maxDepth && extent <= node.halfSize * 0.5f)
+				node = node.child(node.childIndex(cx, cy, cz));
+		}
+		entry.node = node;
+		node.entries.add(entry);
+		for (OctreeNode n = node; n != null; n = n.parent)
+			n.count++;
+	}
+
+	/** @return whether the node is still the node the entry would be placed in. */
+	private boolean fits (final Entry entry, final OctreeNode node) {
+		final BoundingBox b = entry.bounds;
+		final float cx = b.getCenterX(), cy = b.getCenterY(), cz = b.getCenterZ();
+		final float extent = 0.5f * Math.max(b.getWidth(), Math.max(b.getHeight(), b.getDepth()));
+		if (node == root) return !root.containsCenter(cx, cy, cz) || extent > root.halfSize
+			|| (maxDepth == 0 || extent > root.halfSize * 0.5f);
+		return node.containsCenter(cx, cy, cz) && extent <= node.halfSize
+			&& (node.depth >= maxDepth || extent > node.halfSize * 0.5f);
+	}
+
+	private void detach (final Entry entry) {
+		final OctreeNode node = entry.node;
+		node.entries.removeValue(entry, true);
+		for (OctreeNode n = node; n != null; n = n.parent) {
+			if (--n.count == 0 && n.parent != null) n.children = null;
+		}
+		entry.node = null;
+	}
+}
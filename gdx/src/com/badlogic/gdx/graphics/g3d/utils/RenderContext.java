@@ -34,6 +34,8 @@ public class RenderContext {
 	private float depthRangeFar;
 	private boolean depthMask;
 	private int cullFace;
+	/** The face last passed to glCullFace, which is kept by GL while culling is disabled */
+	private int cullMode;
 
 	public RenderContext (TextureBinder textures) {
 		this.textureBinder = textures;
@@ -48,7 +50,7 @@ public class RenderContext {
 		Gdx.gl.glDisable(GL20.GL_BLEND);
 		blending = false;
 		Gdx.gl.glDisable(GL20.GL_CULL_FACE);
-		cullFace = blendSFactor = blendDFactor = 0;
+		cullFace = cullMode = blendSFactor = blendDFactor = 0;
 		textureBinder.begin();
 	}
 
@@ -57,7 +59,7 @@ public class RenderContext {
 		if (depthFunc != 0) Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
 		if (!depthMask) Gdx.gl.glDepthMask(true);
 		if (blending) Gdx.gl.glDisable(GL20.GL_BLEND);
-		if (cullFace > 0) Gdx.gl.glDisable(GL20.GL_CULL_FACE);
+		if (isCullFace(cullFace)) Gdx.gl.glDisable(GL20.GL_CULL_FACE);
 		textureBinder.end();
 	}
 
@@ -72,19 +74,18 @@ public class RenderContext {
 	public void setDepthTest (final int depthFunction, final float depthRangeNear, final float depthRangeFar) {
 		final boolean wasEnabled = depthFunc != 0;
 		final boolean enabled = depthFunction != 0;
-		if (depthFunc != depthFunction) {
-			depthFunc = depthFunction;
-			if (enabled) {
+		if (wasEnabled != enabled) {
+			if (enabled)
 				Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
-				Gdx.gl.glDepthFunc(depthFunction);
-			} else
+			else
 				Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
 		}
 		if (enabled) {
-			if (!wasEnabled || depthFunc != depthFunction) Gdx.gl.glDepthFunc(depthFunc = depthFunction);
+			if (depthFunc != depthFunction) Gdx.gl.glDepthFunc(depthFunction);
 			if (!wasEnabled || this.depthRangeNear != depthRangeNear || this.depthRangeFar != depthRangeFar)
 				Gdx.gl.glDepthRangef(this.depthRangeNear = depthRangeNear, this.depthRangeFar = depthRangeFar);
 		}
+		depthFunc = depthFunction;
 	}
 
 	public void setBlending (final boolean enabled, final int sFactor, final int dFactor) {
@@ -104,12 +105,17 @@ public class RenderContext {
 
 	public void setCullFace (final int face) {
 		if (face != cullFace) {
+			final boolean wasEnabled = isCullFace(cullFace);
+			final boolean enabled = isCullFace(face);
+			if (enabled) {
+				if (!wasEnabled) Gdx.gl.glEnable(GL20.GL_CULL_FACE);
+				if (face != cullMode) Gdx.gl.glCullFace(cullMode = face);
+			} else if (wasEnabled) Gdx.gl.glDisable(GL20.GL_CULL_FACE);
 			cullFace = face;
-			if ((face == GL20.GL_FRONT) || (face == GL20.GL_BACK) || (face == GL20.GL_FRONT_AND_BACK)) {
-				Gdx.gl.glEnable(GL20.GL_CULL_FACE);
-				Gdx.gl.glCullFace(face);
-			} else
-				Gdx.gl.glDisable(GL20.GL_CULL_FACE);
 		}
 	}
+
+	private static boolean isCullFace (final int face) {
+		return (face == GL20.GL_FRONT) || (face == GL20.GL_BACK) || (face == GL20.GL_FRONT_AND_BACK);
+	}
 }
@@ -32,6 +32,9 @@ import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Class for encoding and decoding ETC1 compressed images. Also provides methods to add a PKM header.
  * @author mzechner */
@@ -39,6 +42,17 @@ public class ETC1 {
 	/** The PKM header size in bytes **/
 	public static int PKM_HEADER_SIZE = 16;
 	public static int ETC1_RGB8_OES = 0x00008d64;
+	/** The number of 4x4 block rows each task encodes when encoding with an {@link AsyncExecutor}. **/
+	static final int STRIP_BLOCK_ROWS = 16;
+
+	/** How hard the encoder searches for the best encoding of each 4x4 block. */
+	public enum Quality {
+		/** Only tries the split of the block into two halves whose average colors differ the most, about twice as fast as
+		 * {@link #High}. */
+		Fast,
+		/** Tries splitting the block both horizontally and vertically. This is the default. */
+		High
+	}
 
 	/** Class for storing ETC1 compressed image data.
 	 * @author mzechner */
@@ -149,10 +163,16 @@ public class ETC1 {
 	 * @param pixmap the {@link Pixmap}
 	 * @return the {@link ETC1Data} */
 	public static ETC1Data encodeImage (Pixmap pixmap) {
-		int pixelSize = getPixelSize(pixmap.getFormat());
-		ByteBuffer compressedData = encodeImage(pixmap.getPixels(), 0, pixmap.getWidth(), pixmap.getHeight(), pixelSize);
-		BufferUtils.newUnsafeByteBuffer(compressedData);
-		return new ETC1Data(pixmap.getWidth(), pixmap.getHeight(), compressedData, 0);
+		return encodeImage(pixmap, Quality.High, null);
+	}
+
+	/** Encodes the image via the ETC1 compression scheme. Only {@link Format#RGB565} and {@link Format#RGB888} are supported.
+	 * @param pixmap the {@link Pixmap}
+	 * @param executor Encodes strips of the image in parallel, may be null to encode on the calling thread. The 4x4 blocks are
+	 *           encoded independently, so the result is the same either way.
+	 * @return the {@link ETC1Data} */
+	public static ETC1Data encodeImage (Pixmap pixmap, Quality quality, AsyncExecutor executor) {
+		return encode(pixmap, quality, executor, 0);
 	}
 
 	/** Encodes the image via the ETC1 compression scheme. Only {@link Format#RGB565} and {@link Format#RGB888} are supported. Adds
@@ -160,10 +180,63 @@ public class ETC1 {
 	 * @param pixmap the {@link Pixmap}
 	 * @return the {@link ETC1Data} */
 	public static ETC1Data encodeImagePKM (Pixmap pixmap) {
-		int pixelSize = getPixelSize(pixmap.getFormat());
-		ByteBuffer compressedData = encodeImagePKM(pixmap.getPixels(), 0, pixmap.getWidth(), pixmap.getHeight(), pixelSize);
-		BufferUtils.newUnsafeByteBuffer(compressedData);
-		return new ETC1Data(pixmap.getWidth(), pixmap.getHeight(), compressedData, 16);
+		return encodeImagePKM(pixmap, Quality.High, null);
+	}
+
+	/** Encodes the image via the ETC1 compression scheme. Only {@link Format#RGB565} and {@link Format#RGB888} are supported. Adds
+	 * a PKM header in front of the compressed image data.
+	 * @param pixmap the {@link Pixmap}
+	 * @param executor Encodes strips of the image in parallel, may be null to encode on the calling thread. The 4x4 blocks are
+	 *           encoded independently, so the result is the same either way.
+	 * @return the {@link ETC1Data} */
+	public static ETC1Data encodeImagePKM (Pixmap pixmap, Quality quality, AsyncExecutor executor) {
+		return encode(pixmap, quality, executor, PKM_HEADER_SIZE);
+	}
+
+	private static ETC1Data encode (Pixmap pixmap, Quality quality, AsyncExecutor executor, int headerSize) {
+		final int pixelSize = getPixelSize(pixmap.getFormat());
+		final int width = pixmap.getWidth(), height = pixmap.getHeight();
+		final ByteBuffer imageData = pixmap.getPixels();
+		final ByteBuffer compressedData = BufferUtils.newUnsafeByteBuffer(headerSize + getCompressedDataSize(width, height));
+		if (headerSize > 0) formatHeader(compressedData, 0, width, height);
+		final boolean fast = quality == Quality.Fast;
+
+		int blockRows = (height + 3) / 4;
+		if (executor == null || blockRows <= STRIP_BLOCK_ROWS) {
+			encodeImage(imageData, 0, width, height, pixelSize, compressedData, headerSize, fast);
+		} else {
+			// Each strip is a multiple of 4 rows, so the blocks are the same as when encoding the whole image at once.
+			int stripSize = getCompressedDataSize(width, STRIP_BLOCK_ROWS * 4);
+			int strips = (blockRows + STRIP_BLOCK_ROWS - 1) / STRIP_BLOCK_ROWS;
+			AsyncResult[] results = new AsyncResult[strips];
+			for (int i = 0; i < strips; i++) {
+				final int y = i * STRIP_BLOCK_ROWS * 4, stripHeight = Math.min(STRIP_BLOCK_ROWS * 4, height - y);
+				final int compressedOffset = headerSize + i * stripSize;
+				results[i] = executor.submit(new AsyncTask<Void>() {
+					public Void call () throws Exception {
+						encodeImage(imageData, y * width * pixelSize, width, stripHeight, pixelSize, compressedData, compressedOffset,
+							fast);
+						return null;
+					}
+				});
+			}
+			try {
+				for (int i = 0; i < strips; i++)
+					results[i].get();
+			} catch (GdxRuntimeException ex) {
+				// The buffer can't be freed while strips are still being written to it. Other failures are ignored, the first one is
+				// thrown.
+				for (int i = 0; i < strips; i++) {
+					try {
+						results[i].get();
+					} catch (GdxRuntimeException ignored) {
+					}
+				}
+				BufferUtils.disposeUnsafeByteBuffer(compressedData);
+				throw ex;
+			}
+		}
+		return new ETC1Data(width, height, compressedData, headerSize);
 	}
 
 	/** Takes ETC1 compressed image data and converts it to a {@link Format#RGB565} or {@link Format#RGB888} {@link Pixmap}. Does
@@ -250,32 +323,24 @@ public class ETC1 {
 		etc1_decode_image((etc1_byte*)compressedData + offset, (etc1_byte*)decodedData + offsetDec, width, height, pixelSize, width * pixelSize);
 	*/
 
-	/** Encodes the image data given as RGB565 or RGB888. Does not modify the position or limit of the {@link ByteBuffer}.
-	 * @param imageData the image data in a direct native order {@link ByteBuffer}
-	 * @param offset the offset in bytes to the image data from the start of the buffer
-	 * @param width the width in pixels
-	 * @param height the height in pixels
-	 * @param pixelSize the pixel size, either 2 (RGB565) or 3 (RGB888)
-	 * @return a new direct native order ByteBuffer containing the compressed image data */
-	private static native ByteBuffer encodeImage (ByteBuffer imageData, int offset, int width, int height, int pixelSize); /*
-		int compressedSize = etc1_get_encoded_data_size(width, height);
-		etc1_byte* compressedData = (etc1_byte*)malloc(compressedSize);
-		etc1_encode_image((etc1_byte*)imageData + offset, width, height, pixelSize, width * pixelSize, compressedData);
-		return env->NewDirectByteBuffer(compressedData, compressedSize);
-	*/
-
-	/** Encodes the image data given as RGB565 or RGB888. Does not modify the position or limit of the {@link ByteBuffer}.
+	/** Encodes the image data given as RGB565 or RGB888. Does not modify the position or limit of the {@link ByteBuffer}
+	 * instances.
 	 * @param imageData the image data in a direct native order {@link ByteBuffer}
 	 * @param offset the offset in bytes to the image data from the start of the buffer
 	 * @param width the width in pixels
 	 * @param height the height in pixels
 	 * @param pixelSize the pixel size, either 2 (RGB565) or 3 (RGB888)
-	 * @return a new direct native order ByteBuffer containing the compressed image data */
-	private static native ByteBuffer encodeImagePKM (ByteBuffer imageData, int offset, int width, int height, int pixelSize); /*
-		int compressedSize = etc1_get_encoded_data_size(width, height);
-		etc1_byte* compressed = (etc1_byte*)malloc(compressedSize + ETC_PKM_HEADER_SIZE);
-		etc1_pkm_format_header(compressed, width, height);
-		etc1_encode_image((etc1_byte*)imageData + offset, width, height, pixelSize, width * pixelSize, compressed + ETC_PKM_HEADER_SIZE);
-		return env->NewDirectByteBuffer(compressed, compressedSize + ETC_PKM_HEADER_SIZE);
+	 * @param compressedData the direct native order ByteBuffer to write the compressed image data to, must hold
+	 *           {@link #getCompressedDataSize(int, int)} bytes after the offset.
+	 * @param compressedOffset the offset in bytes to the compressed image data
+	 * @param fast whether to use {@link Quality#Fast} */
+	private static native void encodeImage (ByteBuffer imageData, int offset, int width, int height, int pixelSize,
+		ByteBuffer compressedData, int compressedOffset, boolean fast); /*
+		etc1_byte* in = (etc1_byte*)imageData + offset;
+		etc1_byte* out = (etc1_byte*)compressedData + compressedOffset;
+		if (fast)
+			etc1_encode_image_fast(in, width, height, pixelSize, width * pixelSize, out);
+		else
+			etc1_encode_image(in, width, height, pixelSize, width * pixelSize, out);
 	*/
 }
@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Builds mipmap chains on the CPU, working directly on the pixel buffers of {@link Pixmap}s instead of scaling with
+ * {@link Pixmap#drawPixmap(Pixmap, int, int, int, int, int, int, int, int)}. Each level averages 2x2 pixels of the previous
+ * level. The colors are averaged in linear space when gamma correct and are weighted by alpha, so transparent pixels don't
+ * darken the edges of sprites. For cutout textures drawn with an alpha test, the alpha of each level can be scaled so the same
+ * fraction of pixels passes the test as in the full size image, which keeps foliage and fences from thinning out in the
+ * distance. The rows of each level are filtered in parallel when an {@link AsyncExecutor} is given.
+ * <p>
+ * {@link Format#Alpha} and {@link Format#Intensity} pixmaps only have an alpha channel. The 16 bit formats are unpacked to 8 bits
+ * per channel for filtering.
+ * @see MipMapGenerator#setMipMapBuilder(MipMapBuilder)
+ * @see MipMapTextureData#MipMapTextureData(Pixmap...) */
+public class MipMapBuilder {
+	static private final int bandPixels = 64 * 1024;
+	static private final float[] srgbToLinear = new float[256], srgbThresholds = new float[255];
+	static private final float[] identity = new float[256], identityThresholds = new float[255];
+	static {
+		for (int i = 0; i < 256; i++) {
+			float c = i / 255f;
+			srgbToLinear[i] = c <= 0.04045f ? c / 12.92f : (float)Math.pow((c + 0.055f) / 1.055f, 2.4f);
+			identity[i] = c;
+		}
+		// A linear value is encoded as the 8 bit value it is nearest to in linear space.
+		for (int i = 0; i < 255; i++) {
+			srgbThresholds[i] = (srgbToLinear[i] + srgbToLinear[i + 1]) / 2;
+			identityThresholds[i] = (identity[i] + identity[i + 1]) / 2;
+		}
+	}
+
+	private final AsyncExecutor executor;
+	private boolean gammaCorrect = true;
+	private float alphaTest = -1;
+
+	public MipMapBuilder () {
+		this(null);
+	}
+
+	/** @param executor Filters the rows of each level in parallel, may be null. */
+	public MipMapBuilder (AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	/** @param gammaCorrect If true, the colors are sRGB and are averaged in linear space. Default is true. */
+	public void setGammaCorrect (boolean gammaCorrect) {
+		this.gammaCorrect = gammaCorrect;
+	}
+
+	public boolean getGammaCorrect () {
+		return gammaCorrect;
+	}
+
+	/** @param alphaTest The alpha from 0 to 1 that cutout pixels are tested against when drawn. The alpha of each level is scaled
+	 *           so the same fraction of pixels is above it as in the first level. A negative value doesn't change the alpha
+	 *           (default). */
+	public void setAlphaCoverage (float alphaTest) {
+		this.alphaTest = alphaTest;
+	}
+
+	public float getAlphaCoverage () {
+		return alphaTest;
+	}
+
+	/** @return All levels down to 1x1, starting with the given pixmap. The other levels have the same format and must be disposed
+	 *         by the caller. */
+	public Pixmap[] build (Pixmap pixmap) {
+		int size = Math.max(pixmap.getWidth(), pixmap.getHeight());
+		Pixmap[] levels = new Pixmap[32 - Integer.numberOfLeadingZeros(size)];
+		levels[0] = pixmap;
+		float coverage = coverage(pixmap);
+		for (int i = 1; i < levels.length; i++)
+			levels[i] = downsample(levels[i - 1], coverage);
+		return levels;
+	}
+
+	/** @return A new pixmap of half the size, at least 1x1. With {@link #setAlphaCoverage(float)} the alpha coverage of the given
+	 *         pixmap is kept. */
+	public Pixmap downsample (Pixmap pixmap) {
+		return downsample(pixmap, coverage(pixmap));
+	}
+
+	/** @return The fraction of pixels above the alpha test, or -1 if alpha coverage isn't preserved for the pixmap. */
+	private float coverage (Pixmap pixmap) {
+		if (alphaTest < 0 || !hasAlpha(pixmap.getFormat())) return -1;
+		return coverage(histogram(pixmap.getPixels(), pixmap.getWidth() * pixmap.getHeight(), pixmap.getFormat()), 1);
+	}
+
+	private Pixmap downsample (Pixmap pixmap, float coverage) {
+		final int srcWidth = pixmap.getWidth(), srcHeight = pixmap.getHeight();
+		final int width = Math.max(1, srcWidth / 2), height = Math.max(1, srcHeight / 2);
+		final Format format = pixmap.getFormat();
+		Pixmap level = new Pixmap(width, height, format);
+		final ByteBuffer src = pixmap.getPixels(), dst = level.getPixels();
+
+		int bandRows = Math.max(1, bandPixels / width);
+		if (executor == null || bandRows >= height)
+			filter(src, srcWidth, srcHeight, dst, width, 0, height, format);
+		else {
+			AsyncResult[] results = new AsyncResult[(height + bandRows - 1) / bandRows];
+			for (int i = 0; i < results.length; i++) {
+				final int startY = i * bandRows, endY = Math.min(startY + bandRows, height);
+				results[i] = executor.submit(new AsyncTask<Void>() {
+					public Void call () throws Exception {
+						filter(src, srcWidth, srcHeight, dst, width, startY, endY, format);
+						return null;
+					}
+				});
+			}
+			for (int i = 0; i < results.length; i++)
+				results[i].get();
+		}
+
+		if (coverage >= 0) scaleAlpha(dst, width * height, format, alphaScale(histogram(dst, width * height, format), coverage));
+		return level;
+	}
+
+	/** Averages 2x2 pixels of the source for each pixel of the destination rows. A source of width or height 1 is only averaged
+	 * along the other axis. */
+	void filter (ByteBuffer src, int srcWidth, int srcHeight, ByteBuffer dst, int width, int startY, int endY, Format format) {
+		float[] toLinear = gammaCorrect ? srgbToLinear : identity;
+		float[] thresholds = gammaCorrect ? srgbThresholds : identityThresholds;
+		int[] rgba = new int[4];
+		for (int y = startY; y < endY; y++) {
+			int sy0 = y * 2, sy1 = Math.min(sy0 + 1, srcHeight - 1);
+			for (int x = 0; x < width; x++) {
+				int sx0 = x * 2, sx1 = Math.min(sx0 + 1, srcWidth - 1);
+				float r = 0, g = 0, b = 0, a = 0, weightedR = 0, weightedG = 0, weightedB = 0;
+				for (int i = 0; i < 4; i++) {
+					int sx = (i & 1) == 0 ? sx0 : sx1, sy = i < 2 ? sy0 : sy1;
+					getPixel(src, sy * srcWidth + sx, format, rgba);
+					float alpha = rgba[3] / 255f, linearR = toLinear[rgba[0]], linearG = toLinear[rgba[1]],
+						linearB = toLinear[rgba[2]];
+					r += linearR;
+					g += linearG;
+					b += linearB;
+					weightedR += linearR * alpha;
+					weightedG += linearG * alpha;
+					weightedB += linearB * alpha;
+					a += alpha;
+				}
+				if (a > 0) {
+					// Weighted by alpha, so the colors of transparent pixels don't bleed into the visible ones.
+					r = weightedR / a;
+					g = weightedG / a;
+					b = weightedB / a;
+				} else {
+					r /= 4;
+					g /= 4;
+					b /= 4;
+				}
+				rgba[0] = encode(thresholds, r);
+				rgba[1] = encode(thresholds, g);
+				rgba[2] = encode(thresholds, b);
+				rgba[3] = (int)(a / 4 * 255 + 0.5f);
+				setPixel(dst, y * width + x, format, rgba);
+			}
+		}
+	}
+
+	/** @return The 8 bit value whose linear value is nearest to the given one. */
+	static private int encode (float[] thresholds, float value) {
+		int low = 0, high = 255;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (value > thresholds[mid])
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	static private int[] histogram (ByteBuffer pixels, int count, Format format) {
+		int[] histogram = new int[256], rgba = new int[4];
+		for (int i = 0; i < count; i++) {
+			getPixel(pixels, i, format, rgba);
+			histogram[rgba[3]]++;
+		}
+		return histogram;
+	}
+
+	/** @return The fraction of pixels whose alpha times the scale is above the alpha test. */
+	private float coverage (int[] histogram, float scale) {
+		float test = alphaTest * 255;
+		int count = 0, above = 0;
+		for (int i = 0; i < 256; i++) {
+			count += histogram[i];
+			if (i * scale > test) above += histogram[i];
+		}
+		return count == 0 ? 0 : above / (float)count;
+	}
+
+	/** @return The smallest scale for the alpha of the pixels in the histogram that gives the coverage most closely. */
+	private float alphaScale (int[] histogram, float coverage) {
+		float low = 0, high = 255, best = 1, bestError = Math.abs(coverage(histogram, 1) - coverage);
+		if (bestError == 0) return 1;
+		for (int i = 0; i < 24; i++) {
+			float scale = (low + high) / 2, levelCoverage = coverage(histogram, scale);
+			float error = Math.abs(levelCoverage - coverage);
+			if (error < bestError || (error == bestError && scale < best)) {
+				best = scale;
+				bestError = error;
+			}
+			if (levelCoverage < coverage)
+				low = scale;
+			else
+				high = scale;
+		}
+		return best;
+	}
+
+	static private void scaleAlpha (ByteBuffer pixels, int count, Format format, float scale) {
+		if (scale == 1) return;
+		int[] rgba = new int[4];
+		for (int i = 0; i < count; i++) {
+			getPixel(pixels, i, format, rgba);
+			rgba[3] = Math.min(255, (int)(rgba[3] * scale + 0.5f));
+			setPixel(pixels, i, format, rgba);
+		}
+	}
+
+	static private boolean hasAlpha (Format format) {
+		return format != Format.RGB565 && format != Format.RGB888;
+	}
+
+	/** Reads the pixel as 8 bit red, green, blue and alpha. The 16 bit formats are stored in little endian order. */
+	static private void getPixel (ByteBuffer pixels, int index, Format format, int[] rgba) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			rgba[0] = rgba[1] = rgba[2] = 0;
+			rgba[3] = pixels.get(index) & 0xff;
+			break;
+		case LuminanceAlpha:
+			rgba[0] = rgba[1] = rgba[2] = pixels.get(index * 2) & 0xff;
+			rgba[3] = pixels.get(index * 2 + 1) & 0xff;
+			break;
+		case RGB565: {
+			int value = (pixels.get(index * 2) & 0xff) | (pixels.get(index * 2 + 1) & 0xff) << 8;
+			rgba[0] = (value >>> 11) * 255 / 31;
+			rgba[1] = (value >>> 5 & 0x3f) * 255 / 63;
+			rgba[2] = (value & 0x1f) * 255 / 31;
+			rgba[3] = 255;
+			break;
+		}
+		case RGBA4444: {
+			int value = (pixels.get(index * 2) & 0xff) | (pixels.get(index * 2 + 1) & 0xff) << 8;
+			rgba[0] = (value >>> 12) * 17;
+			rgba[1] = (value >>> 8 & 0xf) * 17;
+			rgba[2] = (value >>> 4 & 0xf) * 17;
+			rgba[3] = (value & 0xf) * 17;
+			break;
+		}
+		case RGB888:
+			rgba[0] = pixels.get(index * 3) & 0xff;
+			rgba[1] = pixels.get(index * 3 + 1) & 0xff;
+			rgba[2] = pixels.get(index * 3 + 2) & 0xff;
+			rgba[3] = 255;
+			break;
+		default:
+			rgba[0] = pixels.get(index * 4) & 0xff;
+			rgba[1] = pixels.get(index * 4 + 1) & 0xff;
+			rgba[2] = pixels.get(index * 4 + 2) & 0xff;
+			rgba[3] = pixels.get(index * 4 + 3) & 0xff;
+		}
+	}
+
+	/** Writes the 8 bit red, green, blue and alpha as the pixel, rounding to the nearest value for the 16 bit formats. */
+	static private void setPixel (ByteBuffer pixels, int index, Format format, int[] rgba) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			pixels.put(index, (byte)rgba[3]);
+			break;
+		case LuminanceAlpha:
+			pixels.put(index * 2, (byte)rgba[0]);
+			pixels.put(index * 2 + 1, (byte)rgba[3]);
+			break;
+		case RGB565: {
+			int value = (rgba[0] * 31 + 127) / 255 << 11 | (rgba[1] * 63 + 127) / 255 << 5 | (rgba[2] * 31 + 127) / 255;
+			pixels.put(index * 2, (byte)value);
+			pixels.put(index * 2 + 1, (byte)(value >>> 8));
+			break;
+		}
+		case RGBA4444: {
+			int value = (rgba[0] * 15 + 127) / 255 << 12 | (rgba[1] * 15 + 127) / 255 << 8 | (rgba[2] * 15 + 127) / 255 << 4
+				| (rgba[3] * 15 + 127) / 255;
+			pixels.put(index * 2, (byte)value);
+			pixels.put(index * 2 + 1, (byte)(value >>> 8));
+			break;
+		}
+		case RGB888:
+			pixels.put(index * 3, (byte)rgba[0]);
+			pixels.put(index * 3 + 1, (byte)rgba[1]);
+			pixels.put(index * 3 + 2, (byte)rgba[2]);
+			break;
+		default:
+			pixels.put(index * 4, (byte)rgba[0]);
+			pixels.put(index * 4 + 1, (byte)rgba[1]);
+			pixels.put(index * 4 + 2, (byte)rgba[2]);
+			pixels.put(index * 4 + 3, (byte)rgba[3]);
+		}
+	}
+}
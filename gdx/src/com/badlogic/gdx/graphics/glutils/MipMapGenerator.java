@@ -20,7 +20,6 @@ import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
@@ -31,11 +30,23 @@ public class MipMapGenerator {
 	}
 
 	private static boolean useHWMipMap = true;
+	private static MipMapBuilder builder = new MipMapBuilder();
+	static {
+		builder.setGammaCorrect(false); // Keeps the output of the previous filtering, which is also right for normal maps.
+	}
 
 	static public void setUseHardwareMipMap (boolean useHWMipMap) {
 		MipMapGenerator.useHWMipMap = useHWMipMap;
 	}
 
+	/** Sets the builder used when the mipmaps are generated on the CPU, eg to filter using threads, to average sRGB colors in
+	 * linear space or to preserve the alpha coverage of cutout textures. The default builder is not
+	 * {@link MipMapBuilder#setGammaCorrect(boolean) gamma correct}.
+	 * @see #setUseHardwareMipMap(boolean) */
+	static public void setMipMapBuilder (MipMapBuilder builder) {
+		MipMapGenerator.builder = builder;
+	}
+
 	/** Sets the image data of the {@link Texture} based on the {@link Pixmap}. The texture must be bound for this to work. If
 	 * <code>disposePixmap</code> is true, the pixmap will be disposed at the end of the method.
 	 * @param pixmap the Pixmap */
@@ -81,22 +92,12 @@ public class MipMapGenerator {
 			pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
 		if ((Gdx.gl20 == null) && textureWidth != textureHeight)
 			throw new GdxRuntimeException("texture width and height must be square when using mipmapping.");
-		int width = pixmap.getWidth() / 2;
-		int height = pixmap.getHeight() / 2;
-		int level = 1;
-		while (width > 0 && height > 0) {
-			Pixmap tmp = new Pixmap(width, height, pixmap.getFormat());
-			tmp.setBlending(Blending.None);
-			tmp.drawPixmap(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), 0, 0, width, height);
-			if (level > 1) pixmap.dispose();
-			pixmap = tmp;
-
+		Pixmap[] levels = builder.build(pixmap);
+		for (int level = 1; level < levels.length; level++) {
+			pixmap = levels[level];
 			Gdx.gl.glTexImage2D(target, level, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
 				pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
-
-			width = pixmap.getWidth() / 2;
-			height = pixmap.getHeight() / 2;
-			level++;
+			pixmap.dispose();
 		}
 	}
 }
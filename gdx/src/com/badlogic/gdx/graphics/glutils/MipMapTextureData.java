@@ -16,7 +16,16 @@ public class MipMapTextureData implements TextureData{
 		mips = new TextureData[mipMapData.length];
 		System.arraycopy(mipMapData, 0, mips, 0, mipMapData.length);
 	}
-	
+
+	/** @param levels the pixmap for each mipmap level, eg from {@link MipMapBuilder#build(Pixmap)}. They are kept to reload the
+	 *           texture and must be disposed by the caller after the texture. Must be != null and its length must be >= 1 */
+	public MipMapTextureData(Pixmap... levels){
+		mips = new TextureData[levels.length];
+		for(int i=0; i < levels.length; ++i){
+			mips[i] = new PixmapTextureData(levels[i], null, false, false, true);
+		}
+	}
+
 	@Override
 	public TextureDataType getType () {
 		return TextureDataType.Custom;
@@ -37,6 +37,7 @@ import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /** <p>
  * A shader program encapsulates a vertex and fragment shader pair linked to form a shader program.
@@ -93,6 +94,12 @@ public class ShaderProgram implements Disposable {
 	 * as-is, you should include a newline (`\n`) if needed. */
 	public static String prependFragmentCode = "";
 
+	/** the amount of programs compiled and linked since the last call to {@link #resetCompileStatistics()} **/
+	private static int totalCompileCount;
+
+	/** the total time in nanoseconds spent compiling and linking since the last call to {@link #resetCompileStatistics()} **/
+	private static long totalCompileTime;
+
 	/** the list of currently available shaders **/
 	private final static ObjectMap<Application, Array<ShaderProgram>> shaders = new ObjectMap<Application, Array<ShaderProgram>>();
 
@@ -147,6 +154,9 @@ public class ShaderProgram implements Disposable {
 	/** whether this shader was invalidated **/
 	private boolean invalidated;
 
+	/** the time in nanoseconds it took to compile and link this program the last time **/
+	private long compileTime;
+
 	/** reference count **/
 	private int refCount = 0;
 
@@ -185,6 +195,14 @@ public class ShaderProgram implements Disposable {
 	 * @param vertexShader
 	 * @param fragmentShader */
 	private void compileShaders (String vertexShader, String fragmentShader) {
+		final long start = TimeUtils.nanoTime();
+		compileAndLink(vertexShader, fragmentShader);
+		compileTime = TimeUtils.nanoTime() - start;
+		totalCompileCount++;
+		totalCompileTime += compileTime;
+	}
+
+	private void compileAndLink (String vertexShader, String fragmentShader) {
 		vertexShaderHandle = loadShader(GL20.GL_VERTEX_SHADER, vertexShader);
 		fragmentShaderHandle = loadShader(GL20.GL_FRAGMENT_SHADER, fragmentShader);
 
@@ -282,6 +300,12 @@ public class ShaderProgram implements Disposable {
 		return isCompiled;
 	}
 
+	/** @return the time in nanoseconds it took to compile and link this program, including the shader stages. When the program
+	 *         was reloaded after a context loss, this is the time of the last reload. */
+	public long getCompileTime () {
+		return compileTime;
+	}
+
 	private int fetchAttributeLocation (String name) {
 		GL20 gl = Gdx.gl20;
 		// -2 == not yet cached
@@ -786,6 +810,24 @@ public class ShaderProgram implements Disposable {
 		return builder.toString();
 	}
 
+	/** @return the amount of programs compiled and linked since the last call to {@link #resetCompileStatistics()}, including
+	 *         programs which failed to compile and programs reloaded after a context loss */
+	public static int getTotalCompileCount () {
+		return totalCompileCount;
+	}
+
+	/** @return the total time in nanoseconds spent compiling and linking programs since the last call to
+	 *         {@link #resetCompileStatistics()} */
+	public static long getTotalCompileTime () {
+		return totalCompileTime;
+	}
+
+	/** Resets the values returned by {@link #getTotalCompileCount()} and {@link #getTotalCompileTime()} to zero. */
+	public static void resetCompileStatistics () {
+		totalCompileCount = 0;
+		totalCompileTime = 0;
+	}
+
 	/** @return the number of managed shader programs currently loaded */
 	public static int getNumManagedShaderPrograms () {
 		return shaders.get(Gdx.app).size;
@@ -0,0 +1,536 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.maps.tiled.pathfinding;
+
+import com.badlogic.gdx.maps.tiled.pathfinding.HierarchicalGrid.Cluster;
+import com.badlogic.gdx.maps.tiled.pathfinding.HierarchicalGrid.Snapshot;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Finds paths on a {@link WalkableGrid} with jump point search, or on a {@link HierarchicalGrid} with its abstract graph. Moves
+ * go to the 8 neighbor cells, orthogonal moves cost 1 and diagonal moves cost sqrt(2). A diagonal move is only allowed when both
+ * orthogonal cells next to it are walkable, so paths never cut corners.
+ * <p>
+ * Jump point search finds optimal paths and only expands the cells where the path can change direction. Rows are scanned 64
+ * cells at a time with the bits of the grid, so long open areas are cheap.
+ * <p>
+ * A path is returned as the x, y pairs of the cells where its direction changes, including the start and end cells. Cells between
+ * two points are on a straight orthogonal or diagonal line, see {@link #expand(IntArray, IntArray)}.
+ * <p>
+ * A path finder keeps search state for every cell of the largest grid it has searched, 12 bytes per cell. It must only be used
+ * by one thread at a time, so each thread that searches needs its own path finder. */
+public class GridPathFinder {
+	static private final float SQRT2 = 1.4142135f, INFINITY = Float.POSITIVE_INFINITY;
+
+	// Per cell: the cost from the start, the previous cell, and the search stamp when the cell was reached (stamp) or closed
+	// (stamp + 1).
+	private float[] costs = new float[0];
+	private int[] parents = new int[0], stamps = new int[0];
+	private int stamp;
+
+	// Min heap of open cells. Cells are pushed again when their cost improves and skipped when popped if already closed.
+	private float[] heapCosts = new float[64];
+	private int[] heapCells = new int[64];
+	private int heapSize;
+
+	// The grid and bounds of the current search. Cells outside the bounds are not walkable.
+	private long[] bits;
+	private int width, rowWords, minX, minY, maxX, maxY, minWord, maxWord;
+	private int end, endX, endY;
+	private boolean heuristic;
+
+	private final IntArray abstractPath = new IntArray(), segment = new IntArray();
+	private float[] startCosts = new float[16], endCosts = new float[16];
+	private float pathCost;
+	private int expandedCount;
+
+	/** Finds an optimal path with jump point search.
+	 * @param path Cleared, then set to the x, y pairs of the path.
+	 * @return False if there is no path or the start or end is not walkable. */
+	public boolean findPath (WalkableGrid grid, int startX, int startY, int endX, int endY, IntArray path) {
+		path.clear();
+		pathCost = 0;
+		expandedCount = 0;
+		if (!grid.isWalkable(startX, startY) || !grid.isWalkable(endX, endY)) return false;
+		ensureCapacity(grid.width * grid.height);
+		if (!search(grid, 0, 0, grid.width - 1, grid.height - 1, startX, startY, endX, endY, path)) return false;
+		finish(path);
+		return true;
+	}
+
+	/** Finds a near optimal path using the abstract graph of the current snapshot of the grid. Can run while another thread
+	 * changes and updates the grid.
+	 * @param path Cleared, then set to the x, y pairs of the path.
+	 * @return False if there is no path or the start or end is not walkable. */
+	public boolean findPath (HierarchicalGrid graph, int startX, int startY, int endX, int endY, IntArray path) {
+		path.clear();
+		pathCost = 0;
+		expandedCount = 0;
+		Snapshot snapshot = graph.snapshot;
+		WalkableGrid grid = snapshot.grid;
+		if (!grid.isWalkable(startX, startY) || !grid.isWalkable(endX, endY)) return false;
+		int width = grid.width, clusterSize = graph.clusterSize, clustersX = graph.clustersX;
+		ensureCapacity(width * grid.height);
+		Cluster[] clusters = snapshot.clusters;
+		Cluster startCluster = clusters[startY / clusterSize * clustersX + startX / clusterSize];
+		Cluster endCluster = clusters[endY / clusterSize * clustersX + endX / clusterSize];
+		if (startCluster == endCluster && search(grid, startCluster, startX, startY, endX, endY, path)) {
+			finish(path);
+			return true;
+		}
+
+		// Connect the start and end to the nodes of their clusters.
+		int start = startY * width + startX, end = endY * width + endX;
+		if (startCosts.length < startCluster.nodes.length) startCosts = new float[startCluster.nodes.length];
+		if (endCosts.length < endCluster.nodes.length) endCosts = new float[endCluster.nodes.length];
+		float[] startCosts = this.startCosts, endCosts = this.endCosts;
+		clusterCosts(grid, startCluster, start, startCosts, 0);
+		clusterCosts(grid, endCluster, end, endCosts, 0);
+
+		// A* on the abstract graph.
+		setBounds(grid, 0, 0, grid.width - 1, grid.height - 1);
+		setEnd(endX, endY, true);
+		int stamp = nextStamp();
+		float[] costs = this.costs;
+		int[] parents = this.parents, stamps = this.stamps;
+		stamps[start] = stamp;
+		costs[start] = 0;
+		parents[start] = -1;
+		push(start, estimate(start));
+		boolean found = false;
+		while (heapSize > 0) {
+			int cell = pop();
+			if (stamps[cell] == stamp + 1) continue;
+			stamps[cell] = stamp + 1;
+			if (cell == end) {
+				found = true;
+				break;
+			}
+			expandedCount++;
+			float cost = costs[cell];
+			Cluster cluster = clusters[cell / width / clusterSize * clustersX + cell % width / clusterSize];
+			int[] nodes = cluster.nodes;
+			int index = cluster.indexOf(cell), count = nodes.length;
+			if (cell == start) {
+				for (int i = 0; i < count; i++)
+					if (startCosts[i] != INFINITY) relax(nodes[i], cost + startCosts[i], cell);
+			} else {
+				float[] clusterCosts = cluster.costs;
+				for (int i = 0, o = index * count; i < count; i++, o++)
+					if (i != index && clusterCosts[o] != INFINITY) relax(nodes[i], cost + clusterCosts[o], cell);
+				// The start's cluster was already searched for the end.
+				if (cluster == endCluster && endCosts[index] != INFINITY) relax(end, cost + endCosts[index], cell);
+			}
+			if (index >= 0) {
+				int[] links = cluster.links;
+				for (int i = cluster.linkOffsets[index], n = cluster.linkOffsets[index + 1]; i < n; i++)
+					relax(links[i], cost + 1, cell);
+			}
+		}
+		heapSize = 0;
+		if (!found) return false;
+
+		// Refine each abstract edge inside its cluster.
+		IntArray abstractPath = this.abstractPath;
+		abstractPath.clear();
+		for (int cell = end; cell != -1; cell = parents[cell])
+			abstractPath.add(cell);
+		int previous = abstractPath.peek();
+		path.add(previous % width, previous / width);
+		for (int i = abstractPath.size - 2; i >= 0; i--) {
+			int cell = abstractPath.get(i);
+			int x = cell % width, y = cell / width, px = previous % width, py = previous / width;
+			Cluster cluster = clusters[py / clusterSize * clustersX + px / clusterSize];
+			if (x < cluster.minX || y < cluster.minY || x > cluster.maxX || y > cluster.maxY)
+				path.add(x, y); // A step to the next cluster.
+			else
+				search(grid, cluster, px, py, x, y, path);
+			previous = cell;
+		}
+		finish(path);
+		return true;
+	}
+
+	/** Searches the grid inside the cluster. */
+	private boolean search (WalkableGrid grid, Cluster cluster, int startX, int startY, int endX, int endY, IntArray path) {
+		return search(grid, cluster.minX, cluster.minY, cluster.maxX, cluster.maxY, startX, startY, endX, endY, path);
+	}
+
+	/** Jump point search inside the bounds. The start and end must be walkable and inside the bounds.
+	 * @param path The path is added, without the start if it is already the last point. */
+	private boolean search (WalkableGrid grid, int minX, int minY, int maxX, int maxY, int startX, int startY, int endX, int endY,
+		IntArray path) {
+		setBounds(grid, minX, minY, maxX, maxY);
+		setEnd(endX, endY, true);
+		int width = this.width, start = startY * width + startX, end = this.end;
+		int stamp = nextStamp();
+		float[] costs = this.costs;
+		int[] parents = this.parents, stamps = this.stamps;
+		stamps[start] = stamp;
+		costs[start] = 0;
+		parents[start] = -1;
+		push(start, estimate(start));
+		while (heapSize > 0) {
+			int cell = pop();
+			if (stamps[cell] == stamp + 1) continue;
+			stamps[cell] = stamp + 1;
+			if (cell == end) {
+				heapSize = 0;
+				addPath(start, end, path);
+				return true;
+			}
+			expandedCount++;
+			int x = cell % width, y = cell / width, parent = parents[cell];
+			if (parent == -1) {
+				boolean left = walkable(x - 1, y), right = walkable(x + 1, y), down = walkable(x, y - 1), up = walkable(x, y + 1);
+				if (left) jump(cell, x, y, -1, 0);
+				if (right) jump(cell, x, y, 1, 0);
+				if (down) jump(cell, x, y, 0, -1);
+				if (up) jump(cell, x, y, 0, 1);
+				if (left && down) jump(cell, x, y, -1, -1);
+				if (left && up) jump(cell, x, y, -1, 1);
+				if (right && down) jump(cell, x, y, 1, -1);
+				if (right && up) jump(cell, x, y, 1, 1);
+				continue;
+			}
+			int dx = Integer.signum(x - parent % width), dy = Integer.signum(y - parent / width);
+			if (dx != 0 && dy != 0) {
+				boolean nextX = walkable(x + dx, y), nextY = walkable(x, y + dy);
+				if (nextY) jump(cell, x, y, 0, dy);
+				if (nextX) jump(cell, x, y, dx, 0);
+				if (nextX && nextY) jump(cell, x, y, dx, dy);
+			} else if (dx != 0) {
+				boolean next = walkable(x + dx, y), up = walkable(x, y + 1), down = walkable(x, y - 1);
+				if (next) {
+					jump(cell, x, y, dx, 0);
+					if (up) jump(cell, x, y, dx, 1);
+					if (down) jump(cell, x, y, dx, -1);
+				}
+				if (up) jump(cell, x, y, 0, 1);
+				if (down) jump(cell, x, y, 0, -1);
+			} else {
+				boolean next = walkable(x, y + dy), right = walkable(x + 1, y), left = walkable(x - 1, y);
+				if (next) {
+					jump(cell, x, y, 0, dy);
+					if (right) jump(cell, x, y, 1, dy);
+					if (left) jump(cell, x, y, -1, dy);
+				}
+				if (right) jump(cell, x, y, 1, 0);
+				if (left) jump(cell, x, y, -1, 0);
+			}
+		}
+		return false;
+	}
+
+	/** Jumps from the cell in the direction and adds the jump point that is found, if any. */
+	private void jump (int cell, int x, int y, int dx, int dy) {
+		int point;
+		if (dy == 0)
+			point = jumpX(x + dx, y, dx);
+		else if (dx == 0)
+			point = jumpY(x, y + dy, dy);
+		else
+			point = jumpDiagonal(x + dx, y + dy, dx, dy);
+		if (point == -1) return;
+		int distanceX = Math.abs(point % width - x), distanceY = Math.abs(point / width - y);
+		// Jump points are on a straight line from the cell.
+		relax(point, costs[cell] + (distanceX > distanceY ? distanceX : distanceY) + (distanceX != 0 && distanceY != 0 ? SQRT2 - 1 : 0)
+			* (distanceX < distanceY ? distanceX : distanceY), cell);
+	}
+
+	/** Scans the row from x in the direction, 64 cells at a time. Stops at a blocked cell, the end, or a cell with a walkable cell
+	 * above or below it whose cell behind is blocked, where the path may turn.
+	 * @return The jump point's cell, or -1. */
+	private int jumpX (int x, int y, int dx) {
+		if (y < minY || y > maxY) return -1;
+		int endX = y == this.endY ? this.endX : -1;
+		if (dx > 0) {
+			while (true) {
+				int word = x >> 6;
+				long row = word(y, word), up = word(y + 1, word), down = word(y - 1, word);
+				long upBehind = up << 1 | word(y + 1, word - 1) >>> 63, downBehind = down << 1 | word(y - 1, word - 1) >>> 63;
+				long stops = (~row | up & ~upBehind | down & ~downBehind) & -1L << x;
+				if (stops != 0) {
+					int stopX = (word << 6) + Long.numberOfTrailingZeros(stops);
+					if (endX >= x && endX <= stopX) return y * width + endX;
+					if ((row & 1L << stopX) == 0) return -1;
+					return y * width + stopX;
+				}
+				int nextX = (word + 1) << 6;
+				if (endX >= x && endX < nextX) return y * width + endX;
+				x = nextX;
+			}
+		}
+		while (true) {
+			int word = x >> 6;
+			long row = word(y, word), up = word(y + 1, word), down = word(y - 1, word);
+			long upBehind = up >>> 1 | word(y + 1, word + 1) << 63, downBehind = down >>> 1 | word(y - 1, word + 1) << 63;
+			long stops = (~row | up & ~upBehind | down & ~downBehind) & -1L >>> 63 - (x & 63);
+			if (stops != 0) {
+				int stopX = (word << 6) + 63 - Long.numberOfLeadingZeros(stops);
+				if (endX != -1 && endX <= x && endX >= stopX) return y * width + endX;
+				if ((row & 1L << stopX) == 0) return -1;
+				return y * width + stopX;
+			}
+			int nextX = (word << 6) - 1;
+			if (endX != -1 && endX <= x && endX > nextX) return y * width + endX;
+			x = nextX;
+		}
+	}
+
+	/** @return The 64 cells of the row that are inside the bounds as bits, 0 outside the bounds. */
+	private long word (int y, int word) {
+		if (y < minY || y > maxY || word < minWord || word > maxWord) return 0;
+		long bits = this.bits[y * rowWords + word];
+		if (word == minWord) bits &= -1L << minX;
+		if (word == maxWord) bits &= -1L >>> 63 - (maxX & 63);
+		return bits;
+	}
+
+	/** Steps along the column from y in the direction, like {@link #jumpX(int, int, int)}. */
+	private int jumpY (int x, int y, int dy) {
+		int end = this.end;
+		while (true) {
+			if (!walkable(x, y)) return -1;
+			int cell = y * width + x;
+			if (cell == end) return cell;
+			if ((walkable(x - 1, y) && !walkable(x - 1, y - dy)) || (walkable(x + 1, y) && !walkable(x + 1, y - dy))) return cell;
+			y += dy;
+		}
+	}
+
+	/** Steps diagonally from x, y and stops at a cell where an orthogonal jump finds a jump point. */
+	private int jumpDiagonal (int x, int y, int dx, int dy) {
+		int end = this.end;
+		while (true) {
+			if (!walkable(x, y)) return -1;
+			int cell = y * width + x;
+			if (cell == end) return cell;
+			boolean nextX = walkable(x + dx, y), nextY = walkable(x, y + dy);
+			if ((nextX && jumpX(x + dx, y, dx) != -1) || (nextY && jumpY(x, y + dy, dy) != -1)) return cell;
+			if (!nextX || !nextY) return -1;
+			x += dx;
+			y += dy;
+		}
+	}
+
+	private boolean walkable (int x, int y) {
+		if (x < minX || y < minY || x > maxX || y > maxY) return false;
+		return (bits[y * rowWords + (x >>> 6)] & 1L << x) != 0;
+	}
+
+	/** Computes the cost from the cell to each node of the cluster with Dijkstra's algorithm inside the cluster.
+	 * @param nodeCosts Set to the costs from the offset, infinite for nodes that can't be reached inside the cluster. */
+	void clusterCosts (WalkableGrid grid, Cluster cluster, int from, float[] nodeCosts, int offset) {
+		setBounds(grid, cluster.minX, cluster.minY, cluster.maxX, cluster.maxY);
+		setEnd(-1, -1, false);
+		int width = this.width;
+		int stamp = nextStamp();
+		float[] costs = this.costs;
+		int[] stamps = this.stamps;
+		stamps[from] = stamp;
+		costs[from] = 0;
+		parents[from] = -1;
+		push(from, 0);
+		while (heapSize > 0) {
+			int cell = pop();
+			if (stamps[cell] == stamp + 1) continue;
+			stamps[cell] = stamp + 1;
+			int x = cell % width, y = cell / width;
+			float cost = costs[cell];
+			boolean left = walkable(x - 1, y), right = walkable(x + 1, y), down = walkable(x, y - 1), up = walkable(x, y + 1);
+			if (left) relax(cell - 1, cost + 1, cell);
+			if (right) relax(cell + 1, cost + 1, cell);
+			if (down) relax(cell - width, cost + 1, cell);
+			if (up) relax(cell + width, cost + 1, cell);
+			if (left && down && walkable(x - 1, y - 1)) relax(cell - width - 1, cost + SQRT2, cell);
+			if (left && up && walkable(x - 1, y + 1)) relax(cell + width - 1, cost + SQRT2, cell);
+			if (right && down && walkable(x + 1, y - 1)) relax(cell - width + 1, cost + SQRT2, cell);
+			if (right && up && walkable(x + 1, y + 1)) relax(cell + width + 1, cost + SQRT2, cell);
+		}
+		int[] nodes = cluster.nodes;
+		for (int i = 0, n = nodes.length; i < n; i++) {
+			int node = nodes[i];
+			nodeCosts[offset + i] = stamps[node] == stamp + 1 ? costs[node] : INFINITY;
+		}
+	}
+
+	private void relax (int cell, float cost, int parent) {
+		int cellStamp = stamps[cell];
+		if (cellStamp == stamp + 1) return;
+		if (cellStamp == stamp && costs[cell] <= cost) return;
+		stamps[cell] = stamp;
+		costs[cell] = cost;
+		parents[cell] = parent;
+		push(cell, heuristic ? cost + estimate(cell) : cost);
+	}
+
+	/** @return The octile distance from the cell to the end. */
+	private float estimate (int cell) {
+		int dx = Math.abs(cell % width - endX), dy = Math.abs(cell / width - endY);
+		return dx > dy ? dx + (SQRT2 - 1) * dy : dy + (SQRT2 - 1) * dx;
+	}
+
+	private void setBounds (WalkableGrid grid, int minX, int minY, int maxX, int maxY) {
+		bits = grid.bits;
+		width = grid.width;
+		rowWords = grid.rowWords;
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		minWord = minX >> 6;
+		maxWord = maxX >> 6;
+	}
+
+	private void setEnd (int endX, int endY, boolean heuristic) {
+		this.endX = endX;
+		this.endY = endY;
+		end = endX == -1 ? -1 : endY * width + endX;
+		this.heuristic = heuristic;
+	}
+
+	private int nextStamp () {
+		heapSize = 0;
+		if (stamp >= Integer.MAX_VALUE - 2) {
+			int[] stamps = this.stamps;
+			for (int i = 0, n = stamps.length; i < n; i++)
+				stamps[i] = 0;
+			stamp = 0;
+		}
+		stamp += 2;
+		return stamp;
+	}
+
+	/** Adds the path from the start to the end by following the parents. */
+	private void addPath (int start, int end, IntArray path) {
+		IntArray segment = this.segment;
+		segment.clear();
+		int[] parents = this.parents;
+		for (int cell = end; cell != -1; cell = parents[cell])
+			segment.add(cell);
+		int width = this.width;
+		int i = segment.size - 1;
+		if (path.size > 0 && path.get(path.size - 2) == start % width && path.peek() == start / width) i--;
+		for (; i >= 0; i--) {
+			int cell = segment.get(i);
+			path.add(cell % width, cell / width);
+		}
+	}
+
+	/** Removes points where the direction doesn't change and computes the cost. */
+	private void finish (IntArray path) {
+		int[] items = path.items;
+		int size = 2;
+		float cost = 0;
+		for (int i = 2, n = path.size; i < n; i += 2) {
+			int x = items[i], y = items[i + 1];
+			if (size >= 4) {
+				int px = items[size - 2], py = items[size - 1], ppx = items[size - 4], ppy = items[size - 3];
+				if (Integer.signum(x - px) == Integer.signum(px - ppx) && Integer.signum(y - py) == Integer.signum(py - ppy))
+					size -= 2; // The previous point is on the line.
+			}
+			items[size++] = x;
+			items[size++] = y;
+		}
+		path.size = size;
+		for (int i = 2; i < size; i += 2) {
+			int dx = Math.abs(items[i] - items[i - 2]), dy = Math.abs(items[i + 1] - items[i - 1]);
+			cost += dx > dy ? dx + (SQRT2 - 1) * dy : dy + (SQRT2 - 1) * dx;
+		}
+		pathCost = cost;
+	}
+
+	private void push (int cell, float cost) {
+		if (heapSize == heapCells.length) {
+			float[] newCosts = new float[heapSize * 2];
+			System.arraycopy(heapCosts, 0, newCosts, 0, heapSize);
+			heapCosts = newCosts;
+			int[] newCells = new int[heapSize * 2];
+			System.arraycopy(heapCells, 0, newCells, 0, heapSize);
+			heapCells = newCells;
+		}
+		float[] heapCosts = this.heapCosts;
+		int[] heapCells = this.heapCells;
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (heapCosts[parent] <= cost) break;
+			heapCosts[i] = heapCosts[parent];
+			heapCells[i] = heapCells[parent];
+			i = parent;
+		}
+		heapCosts[i] = cost;
+		heapCells[i] = cell;
+	}
+
+	private int pop () {
+		float[] heapCosts = this.heapCosts;
+		int[] heapCells = this.heapCells;
+		int result = heapCells[0];
+		int size = --heapSize;
+		if (size > 0) {
+			float cost = heapCosts[size];
+			int cell = heapCells[size], i = 0;
+			while (true) {
+				int child = (i << 1) + 1;
+				if (child >= size) break;
+				if (child + 1 < size && heapCosts[child + 1] < heapCosts[child]) child++;
+				if (heapCosts[child] >= cost) break;
+				heapCosts[i] = heapCosts[child];
+				heapCells[i] = heapCells[child];
+				i = child;
+			}
+			heapCosts[i] = cost;
+			heapCells[i] = cell;
+		}
+		return result;
+	}
+
+	void ensureCapacity (int cells) {
+		if (costs.length >= cells) return;
+		costs = new float[cells];
+		parents = new int[cells];
+		stamps = new int[cells];
+		stamp = 0;
+	}
+
+	/** @return The cost of the last path that was found. */
+	public float getPathCost () {
+		return pathCost;
+	}
+
+	/** @return The number of cells or nodes expanded by the last search, for profiling. */
+	public int getExpandedCount () {
+		return expandedCount;
+	}
+
+	/** Adds the x, y pairs of every cell of the path, eg to move one cell at a time.
+	 * @param path A path as returned by this class. */
+	static public void expand (IntArray path, IntArray cells) {
+		int[] items = path.items;
+		if (path.size == 0) return;
+		cells.add(items[0], items[1]);
+		for (int i = 2, n = path.size; i < n; i += 2) {
+			int x = items[i - 2], y = items[i - 1], dx = Integer.signum(items[i] - x), dy = Integer.signum(items[i + 1] - y);
+			while (x != items[i] || y != items[i + 1]) {
+				x += dx;
+				y += dy;
+				cells.add(x, y);
+			}
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.maps.tiled.pathfinding;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.pathfinding.WalkableGrid.CellFilter;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+/** A cached abstraction of a {@link WalkableGrid} for hierarchical pathfinding (HPA*). The grid is split into square clusters.
+ * Where walkable cells meet across the border of two clusters, entrance cells are connected, and the cost between the entrances
+ * of each cluster is computed once. {@link GridPathFinder#findPath(HierarchicalGrid, int, int, int, int, IntArray)} searches
+ * this much smaller graph and only searches the grid inside the clusters the path goes through. Paths are near optimal, usually
+ * within a few percent.
+ * <p>
+ * Changed cells take effect on {@link #update()}, which only rebuilds the clusters around the changes. Each update publishes a
+ * new immutable snapshot of the grid and the clusters, sharing the unchanged clusters with the previous one. Queries use the
+ * snapshot that was current when they began, so any number of threads may search, each with its own {@link GridPathFinder},
+ * while another thread changes cells and updates. Changing cells and updating must not happen on more than one thread at once. */
+public class HierarchicalGrid {
+	static private final int maxEntranceWidth = 6; // Wider entrances get a transition at each end instead of the middle.
+
+	final int width, height, clusterSize, clustersX, clustersY;
+	private final WalkableGrid grid;
+	private final boolean[] dirty;
+	private final IntArray dirtyClusters = new IntArray();
+	private final GridPathFinder builder = new GridPathFinder();
+	private final LongArray transitions = new LongArray();
+	private final IntArray nodes = new IntArray(), linkOffsets = new IntArray(), links = new IntArray();
+	volatile Snapshot snapshot;
+
+	/** @param grid Copied, changes to it have no effect.
+	 * @param clusterSize The width and height of the clusters in cells, eg 16. Larger clusters make the abstract graph smaller,
+	 *           but each update and the search at the start and end of a path slower. */
+	public HierarchicalGrid (WalkableGrid grid, int clusterSize) {
+		if (clusterSize < 2) throw new IllegalArgumentException("clusterSize must be >= 2: " + clusterSize);
+		this.grid = new WalkableGrid(grid);
+		width = grid.width;
+		height = grid.height;
+		this.clusterSize = clusterSize;
+		clustersX = (width + clusterSize - 1) / clusterSize;
+		clustersY = (height + clusterSize - 1) / clusterSize;
+		dirty = new boolean[clustersX * clustersY];
+		for (int i = 0, n = dirty.length; i < n; i++) {
+			dirty[i] = true;
+			dirtyClusters.add(i);
+		}
+		update();
+	}
+
+	public HierarchicalGrid (TiledMapTileLayer layer, CellFilter filter, int clusterSize) {
+		this(new WalkableGrid(layer, filter), clusterSize);
+	}
+
+	public int getWidth () {
+		return width;
+	}
+
+	public int getHeight () {
+		return height;
+	}
+
+	public int getClusterSize () {
+		return clusterSize;
+	}
+
+	/** Returns whether the cell is walkable, including changes that are not updated yet. */
+	public boolean isWalkable (int x, int y) {
+		return grid.isWalkable(x, y);
+	}
+
+	/** Changes a cell, which takes effect on the next {@link #update()}.
+	 * @throws IndexOutOfBoundsException if the cell is outside the grid. */
+	public void setWalkable (int x, int y, boolean walkable) {
+		if (grid.isWalkable(x, y) == walkable) {
+			if (x < 0 || y < 0 || x >= width || y >= height)
+				throw new IndexOutOfBoundsException("Cell outside the grid: " + x + ", " + y);
+			return;
+		}
+		grid.setWalkable(x, y, walkable);
+		int clusterSize = this.clusterSize, cx = x / clusterSize, cy = y / clusterSize, cluster = cy * clustersX + cx;
+		markDirty(cluster);
+		// A cell on the border also changes the entrances of the neighbor cluster.
+		int borderX = x - cx * clusterSize, borderY = y - cy * clusterSize;
+		if (borderX == 0 && cx > 0) markDirty(cluster - 1);
+		if (borderX == clusterSize - 1 && cx < clustersX - 1) markDirty(cluster + 1);
+		if (borderY == 0 && cy > 0) markDirty(cluster - clustersX);
+		if (borderY == clusterSize - 1 && cy < clustersY - 1) markDirty(cluster + clustersX);
+	}
+
+	private void markDirty (int cluster) {
+		if (!dirty[cluster]) {
+			dirty[cluster] = true;
+			dirtyClusters.add(cluster);
+		}
+	}
+
+	/** Changes a cell from the layer's cell, eg after {@link TiledMapTileLayer#setCell(int, int, TiledMapTileLayer.Cell)}. It
+	 * takes effect on the next {@link #update()}. */
+	public void set (TiledMapTileLayer layer, int x, int y, CellFilter filter) {
+		setWalkable(x, y, filter.isWalkable(layer.getCell(x, y)));
+	}
+
+	/** Changes all cells from the layer's cells, which takes effect on the next {@link #update()}. Only clusters with changed
+	 * cells are rebuilt. */
+	public void set (TiledMapTileLayer layer, CellFilter filter) {
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				setWalkable(x, y, x < layer.getWidth() && y < layer.getHeight() && filter.isWalkable(layer.getCell(x, y)));
+	}
+
+	/** Rebuilds the clusters with changed cells, and their neighbors when border cells changed, and makes the changes visible to
+	 * new queries. Copies the grid, so changes should be batched into as few updates as possible.
+	 * @return False if there were no changes. */
+	public boolean update () {
+		IntArray dirtyClusters = this.dirtyClusters;
+		if (dirtyClusters.size == 0) return false;
+		WalkableGrid grid = new WalkableGrid(this.grid);
+		Cluster[] clusters = new Cluster[clustersX * clustersY];
+		Snapshot old = snapshot;
+		if (old != null) System.arraycopy(old.clusters, 0, clusters, 0, clusters.length);
+
+		boolean[] dirty = this.dirty;
+		int clustersX = this.clustersX;
+		builder.ensureCapacity(width * height);
+		for (int i = 0, n = dirtyClusters.size; i < n; i++) {
+			int cluster = dirtyClusters.get(i);
+			clusters[cluster] = build(grid, cluster % clustersX, cluster / clustersX);
+			dirty[cluster] = false;
+		}
+		dirtyClusters.clear();
+		snapshot = new Snapshot(grid, clusters);
+		return true;
+	}
+
+	private Cluster build (WalkableGrid grid, int cx, int cy) {
+		int minX = cx * clusterSize, minY = cy * clusterSize;
+		int maxX = Math.min(minX + clusterSize, width) - 1, maxY = Math.min(minY + clusterSize, height) - 1;
+		LongArray transitions = this.transitions;
+		transitions.clear();
+		if (minX > 0) entrances(grid, minX, minY, 0, 1, maxY - minY + 1, -1, 0);
+		if (maxX < width - 1) entrances(grid, maxX, minY, 0, 1, maxY - minY + 1, 1, 0);
+		if (minY > 0) entrances(grid, minX, minY, 1, 0, maxX - minX + 1, 0, -1);
+		if (maxY < height - 1) entrances(grid, minX, maxY, 1, 0, maxX - minX + 1, 0, 1);
+
+		// Sorted by the cell inside the cluster, a corner cell can be a transition on two borders.
+		long[] items = transitions.items;
+		Arrays.sort(items, 0, transitions.size);
+		IntArray nodes = this.nodes, linkOffsets = this.linkOffsets, links = this.links;
+		nodes.clear();
+		linkOffsets.clear();
+		links.clear();
+		for (int i = 0, n = transitions.size; i < n; i++) {
+			int node = (int)(items[i] >>> 32);
+			if (nodes.size == 0 || nodes.peek() != node) {
+				nodes.add(node);
+				linkOffsets.add(links.size);
+			}
+			links.add((int)items[i]);
+		}
+		linkOffsets.add(links.size);
+
+		Cluster cluster = new Cluster(minX, minY, maxX, maxY, nodes.toArray(), linkOffsets.toArray(), links.toArray());
+		int count = nodes.size;
+		for (int i = 0; i < count; i++)
+			builder.clusterCosts(grid, cluster, cluster.nodes[i], cluster.costs, i * count);
+		return cluster;
+	}
+
+	/** Adds the transitions of the border that starts at x, y inside the cluster and goes length cells along stepX, stepY. The
+	 * neighbor cluster's cells are offset by offsetX, offsetY. Both clusters find the same transitions. */
+	private void entrances (WalkableGrid grid, int x, int y, int stepX, int stepY, int length, int offsetX, int offsetY) {
+		int start = -1;
+		for (int i = 0; i <= length; i++) {
+			int ax = x + stepX * i, ay = y + stepY * i;
+			boolean open = i < length && grid.isWalkable(ax, ay) && grid.isWalkable(ax + offsetX, ay + offsetY);
+			if (open) {
+				if (start == -1) start = i;
+			} else if (start != -1) {
+				int end = i - 1;
+				if (end - start + 1 < maxEntranceWidth)
+					transition(x, y, stepX, stepY, (start + end) / 2, offsetX, offsetY);
+				else {
+					transition(x, y, stepX, stepY, start, offsetX, offsetY);
+					transition(x, y, stepX, stepY, end, offsetX, offsetY);
+				}
+				start = -1;
+			}
+		}
+	}
+
+	private void transition (int x, int y, int stepX, int stepY, int i, int offsetX, int offsetY) {
+		int ax = x + stepX * i, ay = y + stepY * i;
+		long inside = ay * width + ax, outside = (ay + offsetY) * width + ax + offsetX;
+		transitions.add(inside << 32 | outside);
+	}
+
+	/** @return The number of entrance cells in the abstract graph. */
+	public int getNodeCount () {
+		int count = 0;
+		for (Cluster cluster : snapshot.clusters)
+			count += cluster.nodes.length;
+		return count;
+	}
+
+	/** Returns the grid of the current snapshot, which must not be changed. It can be searched directly with
+	 * {@link GridPathFinder#findPath(WalkableGrid, int, int, int, int, IntArray)} for an optimal path. */
+	public WalkableGrid getGrid () {
+		return snapshot.grid;
+	}
+
+	/** An immutable state of the grid and the abstract graph. */
+	static class Snapshot {
+		final WalkableGrid grid;
+		final Cluster[] clusters;
+
+		Snapshot (WalkableGrid grid, Cluster[] clusters) {
+			this.grid = grid;
+			this.clusters = clusters;
+		}
+	}
+
+	/** The entrance cells of a cluster and the costs between them. Immutable once built. */
+	static class Cluster {
+		final int minX, minY, maxX, maxY;
+		/** The cell index of each node, sorted. */
+		final int[] nodes;
+		/** The cost from each node to each node inside the cluster, infinite when there is no path inside the cluster. */
+		final float[] costs;
+		/** For each node, the range of {@link #links} with the cells of other clusters that are one orthogonal step away. */
+		final int[] linkOffsets, links;
+
+		Cluster (int minX, int minY, int maxX, int maxY, int[] nodes, int[] linkOffsets, int[] links) {
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.nodes = nodes;
+			this.linkOffsets = linkOffsets;
+			this.links = links;
+			costs = new float[nodes.length * nodes.length];
+		}
+
+		/** @return The index of the node, or < 0 if the cell is not a node. */
+		int indexOf (int cell) {
+			return Arrays.binarySearch(nodes, cell);
+		}
+	}
+}
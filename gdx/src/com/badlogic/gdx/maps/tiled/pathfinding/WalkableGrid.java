@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.maps.tiled.pathfinding;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+
+/** Stores whether each cell of a grid is walkable in one bit, eg 128KB for 1024x1024 cells. Each row starts at a new long, so
+ * {@link GridPathFinder} can scan 64 cells of a row at once. Cells outside the grid are not walkable.
+ * <p>
+ * Reading the grid from any number of threads is safe while it is not changed. */
+public class WalkableGrid {
+	final int width, height, rowWords;
+	final long[] bits;
+
+	public WalkableGrid (int width, int height) {
+		if (width <= 0) throw new IllegalArgumentException("width must be > 0: " + width);
+		if (height <= 0) throw new IllegalArgumentException("height must be > 0: " + height);
+		this.width = width;
+		this.height = height;
+		rowWords = (width + 63) >>> 6;
+		bits = new long[rowWords * height];
+	}
+
+	public WalkableGrid (WalkableGrid grid) {
+		width = grid.width;
+		height = grid.height;
+		rowWords = grid.rowWords;
+		bits = new long[grid.bits.length];
+		System.arraycopy(grid.bits, 0, bits, 0, bits.length);
+	}
+
+	/** Creates a grid the size of the layer and sets it from the layer's cells. */
+	public WalkableGrid (TiledMapTileLayer layer, CellFilter filter) {
+		this(layer.getWidth(), layer.getHeight());
+		set(layer, filter);
+	}
+
+	public int getWidth () {
+		return width;
+	}
+
+	public int getHeight () {
+		return height;
+	}
+
+	/** @return False if the cell is outside the grid. */
+	public boolean isWalkable (int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) return false;
+		return (bits[y * rowWords + (x >>> 6)] & 1L << x) != 0;
+	}
+
+	/** @throws IndexOutOfBoundsException if the cell is outside the grid. */
+	public void setWalkable (int x, int y, boolean walkable) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			throw new IndexOutOfBoundsException("Cell outside the grid: " + x + ", " + y);
+		int index = y * rowWords + (x >>> 6);
+		if (walkable)
+			bits[index] |= 1L << x;
+		else
+			bits[index] &= ~(1L << x);
+	}
+
+	/** Sets all cells. */
+	public void fill (boolean walkable) {
+		long[] bits = this.bits;
+		if (!walkable) {
+			for (int i = 0, n = bits.length; i < n; i++)
+				bits[i] = 0;
+			return;
+		}
+		// The bits past the width of each row stay clear.
+		long last = -1L >>> (rowWords * 64 - width);
+		for (int y = 0, i = 0; y < height; y++) {
+			for (int n = i + rowWords - 1; i < n; i++)
+				bits[i] = -1L;
+			bits[i++] = last;
+		}
+	}
+
+	/** Sets the cells from a grid of the same size. */
+	public void set (WalkableGrid grid) {
+		if (grid.width != width || grid.height != height) throw new IllegalArgumentException("The grids must be the same size.");
+		System.arraycopy(grid.bits, 0, bits, 0, bits.length);
+	}
+
+	/** Sets the cells from the layer's cells. Cells outside the layer are not walkable. */
+	public void set (TiledMapTileLayer layer, CellFilter filter) {
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				setWalkable(x, y, x < layer.getWidth() && y < layer.getHeight() && filter.isWalkable(layer.getCell(x, y)));
+	}
+
+	/** @return The number of walkable cells. */
+	public int getWalkableCount () {
+		int count = 0;
+		for (long word : bits)
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	/** Decides whether a cell of a {@link TiledMapTileLayer} is walkable. */
+	static public interface CellFilter {
+		/** @param cell May be null for empty cells. */
+		public boolean isWalkable (Cell cell);
+	}
+
+	/** Decides by a property of the tiles, which is true when it is a Boolean true or the string "true", as Tiled stores it without
+	 * a type. For example, <code>new PropertyFilter("blocked", false)</code> makes tiles with a blocked property that is true not
+	 * walkable and all other cells walkable, including empty cells. */
+	static public class PropertyFilter implements CellFilter {
+		public final String property;
+		public final boolean walkable;
+
+		/** @param walkable Whether cells whose tile has the property set to true are walkable. All other cells are the opposite. */
+		public PropertyFilter (String property, boolean walkable) {
+			this.property = property;
+			this.walkable = walkable;
+		}
+
+		public boolean isWalkable (Cell cell) {
+			if (cell == null) return !walkable;
+			TiledMapTile tile = cell.getTile();
+			if (tile == null) return !walkable;
+			Object value = tile.getProperties().get(property);
+			boolean set = value instanceof Boolean ? (Boolean)value : "true".equals(value);
+			return set == walkable;
+		}
+	}
+}
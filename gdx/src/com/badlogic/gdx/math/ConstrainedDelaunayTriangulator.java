@@ -0,0 +1,850 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Delaunay triangulation of large point sets, optionally with constrained edges. Unlike {@link DelaunayTriangulator}, the
+ * points are indexed with ints and the running time is O(n log n), so millions of points can be triangulated. The points are
+ * inserted in order of their distance to a seed triangle. Each point is outside the triangles so far and is connected to the
+ * edges of the convex hull it sees, then the Delaunay condition is restored by flipping edges. Points equal to an earlier point
+ * are skipped and are not referenced by the triangles.
+ * <p>
+ * With {@link #setExecutor(AsyncExecutor, int)}, large point sets are split into vertical strips that are triangulated in
+ * parallel. The strips are then stitched together from left to right and edges are flipped along each seam until the whole is
+ * Delaunay.
+ * <p>
+ * Constrained edges are inserted after the triangulation by flipping away the edges they cross. Afterward the Delaunay condition
+ * is restored everywhere except across constrained edges. Constrained edges must not cross each other, but may share points.
+ * <p>
+ * The working memory is kept for later calls, so an instance must not be used by multiple threads at once. */
+public class ConstrainedDelaunayTriangulator {
+	static private final int minStripSize = 32 * 1024;
+
+	private final IntArray triangles = new IntArray(false, 16);
+	private final IntArray stack = new IntArray(), crossed = new IntArray(), crossedNext = new IntArray();
+	private final IntArray newEdges = new IntArray();
+	private AsyncExecutor executor;
+	private Sweep[] sweeps = {new Sweep()};
+	private AsyncResult[] results;
+	private int strips;
+	private final Sweep seams = new Sweep();
+
+	private double[] coords = new double[0], sortedCoords = new double[0], dists = new double[0];
+	/** The coordinates used by the predicates. While triangulating, the points are numbered in the order they are inserted, which
+	 * keeps the hull and the triangles around it close together in memory. */
+	private double[] xy;
+	private int[] ids = new int[0], hullNext = new int[0], hullPrev = new int[0], hullTri = new int[0], vertexEdge = new int[0];
+	private int[] vertices = new int[0], halfedges = new int[0], triangleMap = new int[0];
+	private boolean[] constrained = new boolean[0];
+
+	/** Triangulates large point sets in parallel.
+	 * @param executor the executor to use or null to triangulate on the calling thread.
+	 * @param tasks the amount of strips the points are split into, typically the amount of threads of the executor. Each strip
+	 *           has at least 32k points. */
+	public void setExecutor (AsyncExecutor executor, int tasks) {
+		this.executor = executor;
+		tasks = executor == null ? 1 : Math.max(1, tasks);
+		sweeps = new Sweep[tasks];
+		for (int i = 0; i < tasks; i++)
+			sweeps[i] = new Sweep();
+		results = new AsyncResult[tasks];
+	}
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (FloatArray points) {
+		return computeTriangles(points.items, 0, points.size, null);
+	}
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (float[] points) {
+		return computeTriangles(points, 0, points.length, null);
+	}
+
+	/** Triangulates the given point cloud to a list of triangle indices that make up the (constrained) Delaunay triangulation.
+	 * @param points x,y pairs describing points.
+	 * @param count The number of values in points, twice the number of points.
+	 * @param edges Pairs of indices into the points that describe the constrained edges, may be null. Edges to skipped duplicate
+	 *           points are ignored.
+	 * @return triples of indices into the points that describe the triangles in counterclockwise order. Note the returned array
+	 *         is reused for later calls to the same method.
+	 * @throws GdxRuntimeException if constrained edges cross. */
+	public IntArray computeTriangles (float[] points, int offset, int count, IntArray edges) {
+		IntArray triangles = this.triangles;
+		triangles.clear();
+		int n = count / 2;
+		if (n < 3) return triangles;
+		allocate(n);
+
+		double[] coords = this.coords;
+		for (int i = 0, ii = offset, nn = n * 2; i < nn; i++, ii++)
+			coords[i] = points[ii];
+		xy = sortedCoords;
+
+		int triangleCount;
+		if (executor == null || n < minStripSize * 2 || !triangulateParallel(n)) {
+			Sweep sweep = sweeps[0];
+			sweep.start = 0;
+			sweep.end = n;
+			sweep.triangleStart = 0;
+			for (int i = 0; i < n; i++)
+				ids[i] = i;
+			sweep.run();
+			if (sweep.failed) return triangles; // All points are collinear.
+			triangleCount = sweep.trianglesLen / 3;
+			int[] vertices = this.vertices, ids = this.ids;
+			for (int e = 0, end = triangleCount * 3; e < end; e++)
+				vertices[e] = ids[vertices[e]];
+		} else
+			triangleCount = compact();
+		xy = coords;
+
+		if (edges != null && edges.size > 0) insertConstraints(n, triangleCount, edges);
+
+		triangles.ensureCapacity(triangleCount * 3);
+		System.arraycopy(vertices, 0, triangles.items, 0, triangleCount * 3);
+		triangles.size = triangleCount * 3;
+		return triangles;
+	}
+
+	private void allocate (int n) {
+		if (coords.length < n * 2) {
+			coords = new double[n * 2];
+			sortedCoords = new double[n * 2];
+			dists = new double[n];
+			ids = new int[n];
+			hullNext = new int[n];
+			hullPrev = new int[n];
+			hullTri = new int[n];
+			vertexEdge = new int[n];
+		}
+		// A triangulation has at most 2n - 5 triangles. Strips are given space for 2m triangles each and seams for n.
+		int capacity = (executor == null ? 2 * n : 3 * n) * 3;
+		if (vertices.length < capacity) {
+			vertices = new int[capacity];
+			halfedges = new int[capacity];
+			constrained = new boolean[capacity];
+		}
+	}
+
+	/** Splits the points into strips at x coordinates taken from a sample of the points, triangulates the strips in parallel
+	 * and stitches them together.
+	 * @return false if a strip or seam is degenerate and the points have to be triangulated on one thread. */
+	private boolean triangulateParallel (int n) {
+		double[] coords = this.coords;
+		int strips = Math.min(sweeps.length, n / minStripSize);
+		int sampleCount = strips * 64;
+		double[] splits = new double[sampleCount];
+		for (int i = 0; i < sampleCount; i++)
+			splits[i] = coords[(int)((long)i * n / sampleCount) * 2];
+		Arrays.sort(splits);
+		// Points with an x equal to a split go to the right strip, so strips are strictly separated along x.
+		int splitCount = 0;
+		for (int i = 1; i < strips; i++) {
+			double split = splits[i * sampleCount / strips];
+			if (splitCount == 0 || split > splits[splitCount - 1]) splits[splitCount++] = split;
+		}
+		strips = splitCount + 1;
+		if (strips < 2) return false;
+
+		int[] ids = this.ids;
+		int[] counts = new int[strips];
+		for (int i = 0; i < n; i++)
+			counts[strip(coords[i * 2], splits, splitCount)]++;
+		for (int i = 0, start = 0, triangleStart = 0; i < strips; i++) {
+			Sweep sweep = sweeps[i];
+			sweep.start = start;
+			sweep.end = start + counts[i];
+			sweep.triangleStart = triangleStart;
+			counts[i] = start;
+			start = sweep.end;
+			triangleStart += (sweep.end - sweep.start) * 2 * 3;
+			if (sweep.end - sweep.start < 3) return false;
+		}
+		for (int i = 0; i < n; i++)
+			ids[counts[strip(coords[i * 2], splits, splitCount)]++] = i;
+
+		for (int i = 0; i < strips; i++)
+			results[i] = executor.submit(sweeps[i]);
+		for (int i = 0; i < strips; i++)
+			results[i].get();
+		for (int i = 0; i < strips; i++)
+			if (sweeps[i].failed) return false;
+
+		this.strips = strips;
+		Sweep seams = this.seams;
+		seams.triangleStart = seams.trianglesLen = n * 2 * 3;
+		stack.clear();
+		for (int i = 1; i < strips; i++)
+			if (!stitch(sweeps[i - 1].rightmost, sweeps[i].leftmost)) return false;
+		legalizeAll();
+		return true;
+	}
+
+	static private int strip (double x, double[] splits, int splitCount) {
+		int i = 0;
+		while (i < splitCount && x >= splits[i])
+			i++;
+		return i;
+	}
+
+	/** Triangulates the gap between the convex hull left of a vertical line and the convex hull right of it, then queues the new
+	 * edges to be legalized.
+	 * @param l The rightmost point of the left hull.
+	 * @param r The leftmost point of the right hull.
+	 * @return false if the hulls are collinear. */
+	private boolean stitch (int l, int r) {
+		int[] hullNext = this.hullNext, hullPrev = this.hullPrev, hullTri = this.hullTri;
+		// Walk down both hulls to the lower common tangent.
+		while (true) {
+			if (orient(l, r, hullPrev[l]) < 0)
+				l = hullPrev[l];
+			else if (orient(l, r, hullNext[r]) < 0)
+				r = hullNext[r];
+			else
+				break;
+		}
+
+		// Zip the hulls together up to the upper common tangent, choosing the candidate that makes the smaller circle.
+		Sweep seams = this.seams;
+		int l0 = l, r0 = r, first = seams.trianglesLen, base = -1;
+		while (true) {
+			int lc = hullNext[l], rc = hullPrev[r];
+			boolean leftValid = orient(l, r, lc) > 0, rightValid = orient(l, r, rc) > 0;
+			if (!leftValid && !rightValid) break;
+			boolean left = leftValid;
+			if (leftValid && rightValid) {
+				left = !inCircle(l, r, lc, rc);
+				// Don't cut through the other hull.
+				if (left && orient(r, lc, rc) > 0)
+					left = false;
+				else if (!left && orient(l, rc, lc) < 0) left = true;
+			}
+			int t;
+			if (left) {
+				t = addTriangle(seams, l, r, lc, base, -1, hullTri[l]);
+				base = t + 1;
+				l = lc;
+			} else {
+				t = addTriangle(seams, l, r, rc, base, hullTri[rc], -1);
+				base = t + 2;
+				r = rc;
+			}
+		}
+		if (base == -1) return false;
+
+		hullNext[l0] = r0;
+		hullPrev[r0] = l0;
+		hullTri[l0] = first;
+		hullNext[r] = l;
+		hullPrev[l] = r;
+		hullTri[r] = base;
+		for (int e = first, end = seams.trianglesLen; e < end; e++)
+			stack.add(e);
+		return true;
+	}
+
+	/** Moves the triangles of the strips and seams together, so they are at the start of the arrays, and numbers their points
+	 * like the input again.
+	 * @return The number of triangles. */
+	private int compact () {
+		int capacity = vertices.length / 3;
+		if (triangleMap.length < capacity) triangleMap = new int[capacity];
+		int[] triangleMap = this.triangleMap, vertices = this.vertices, halfedges = this.halfedges, ids = this.ids;
+		int count = 0;
+		for (int i = 0; i <= strips; i++) {
+			Sweep sweep = i < strips ? sweeps[i] : seams;
+			for (int t = sweep.triangleStart / 3, end = sweep.trianglesLen / 3; t < end; t++)
+				triangleMap[t] = count++;
+		}
+		// Triangles only move to lower indices, so they can be moved in place.
+		for (int i = 0; i <= strips; i++) {
+			Sweep sweep = i < strips ? sweeps[i] : seams;
+			for (int e = sweep.triangleStart, end = sweep.trianglesLen; e < end; e++) {
+				int ne = triangleMap[e / 3] * 3 + e % 3, twin = halfedges[e];
+				vertices[ne] = ids[vertices[e]];
+				halfedges[ne] = twin == -1 ? -1 : triangleMap[twin / 3] * 3 + twin % 3;
+			}
+		}
+		return count;
+	}
+
+	private void insertConstraints (int n, int triangleCount, IntArray edges) {
+		int[] vertexEdge = this.vertexEdge, vertices = this.vertices;
+		boolean[] constrained = this.constrained;
+		for (int i = 0; i < n; i++)
+			vertexEdge[i] = -1;
+		for (int e = 0, end = triangleCount * 3; e < end; e++) {
+			vertexEdge[vertices[e]] = e;
+			constrained[e] = false;
+		}
+		int[] items = edges.items;
+		for (int i = 0, end = edges.size - 1; i < end; i += 2) {
+			int a = items[i], b = items[i + 1];
+			if (a < 0 || a >= n || b < 0 || b >= n || vertexEdge[a] == -1 || vertexEdge[b] == -1) continue;
+			insertConstraint(a, b);
+		}
+	}
+
+	/** Inserts a constrained edge, splitting it at points that are on it. */
+	private void insertConstraint (int a, int b) {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		IntArray crossed = this.crossed;
+		while (a != b) {
+			// Find the triangle around a that the edge leaves through, or an existing edge along the constrained edge.
+			crossed.clear();
+			int end = b, c = -1;
+			int start = vertexEdge[a], e = start;
+			boolean clockwise = false;
+			while (true) {
+				int next = next(e), prev = prev(e), v1 = vertices[next], v2 = vertices[prev];
+				if (v1 == b || (orient(a, b, v1) == 0 && dot(a, b, v1) > 0)) {
+					end = v1;
+					break;
+				}
+				if (v2 == b || (orient(a, b, v2) == 0 && dot(a, b, v2) > 0)) {
+					end = v2;
+					break;
+				}
+				if (orient(a, b, v1) < 0 && orient(a, b, v2) > 0) {
+					c = next;
+					break;
+				}
+				if (!clockwise) {
+					e = halfedges[prev];
+					if (e == -1) {
+						clockwise = true;
+						e = start;
+					} else if (e == start)
+						throw new GdxRuntimeException("Constrained edge is outside the triangulation: " + a + ", " + b);
+				}
+				if (clockwise) {
+					int twin = halfedges[e];
+					if (twin == -1) throw new GdxRuntimeException("Constrained edge is outside the triangulation: " + a + ", " + b);
+					e = next(twin);
+				}
+			}
+
+			// Walk along the edge, collecting the edges it crosses, until a point on it is reached.
+			newEdges.clear();
+			if (c != -1) {
+				while (true) {
+					if (constrained[c]) throw new GdxRuntimeException("Constrained edges cross: " + a + ", " + b);
+					int right = vertices[c], left = vertices[next(c)];
+					crossed.add(right, left);
+					int twin = halfedges[c], w = vertices[prev(twin)];
+					if (w == b) break;
+					double side = orient(a, b, w);
+					if (side == 0) {
+						end = w;
+						break;
+					}
+					c = side < 0 ? prev(twin) : next(twin);
+				}
+				removeCrossed(a, end);
+			}
+
+			int edge = findEdge(a, end);
+			constrained[edge] = true;
+			if (halfedges[edge] != -1) constrained[halfedges[edge]] = true;
+
+			// Restore the Delaunay condition for the new edges.
+			IntArray stack = this.stack;
+			stack.clear();
+			for (int i = 0; i < newEdges.size; i += 2)
+				stack.add(findEdge(newEdges.get(i), newEdges.get(i + 1)));
+			legalizeAll();
+			a = end;
+		}
+	}
+
+	/** Flips the crossed edges until none crosses the constrained edge from a to b. The new edges that don't cross it are
+	 * collected, except the constrained edge. */
+	private void removeCrossed (int a, int b) {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		IntArray crossed = this.crossed, crossedNext = this.crossedNext, newEdges = this.newEdges;
+		while (crossed.size > 0) {
+			crossedNext.clear();
+			boolean flipped = false;
+			for (int i = 0; i < crossed.size; i += 2) {
+				int e = findEdge(crossed.get(i), crossed.get(i + 1)), twin = halfedges[e];
+				int p = vertices[e], q = vertices[next(e)], r = vertices[prev(e)], s = vertices[prev(twin)];
+				double rsp = orient(r, s, p), rsq = orient(r, s, q);
+				if ((rsp > 0 && rsq < 0) || (rsp < 0 && rsq > 0)) {
+					// The quadrilateral is convex.
+					flip(e, twin);
+					flipped = true;
+					double abr = orient(a, b, r), abs = orient(a, b, s), rsa = orient(r, s, a), rsb = orient(r, s, b);
+					if (((abr > 0 && abs < 0) || (abr < 0 && abs > 0)) && ((rsa > 0 && rsb < 0) || (rsa < 0 && rsb > 0)))
+						crossedNext.add(r, s);
+					else if ((r != a || s != b) && (r != b || s != a))
+						newEdges.add(r, s);
+				} else
+					crossedNext.add(p, q);
+			}
+			if (!flipped) throw new GdxRuntimeException("Unable to insert constrained edge: " + a + ", " + b);
+			crossed.clear();
+			crossed.addAll(crossedNext);
+		}
+	}
+
+	/** @return A half-edge between the points, or -1. */
+	private int findEdge (int u, int v) {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		int start = vertexEdge[u], e = start;
+		do {
+			if (vertices[next(e)] == v) return e;
+			int prev = prev(e);
+			if (vertices[prev] == v) return prev;
+			e = halfedges[prev];
+		} while (e != -1 && e != start);
+		if (e == -1) {
+			e = start;
+			while (true) {
+				int twin = halfedges[e];
+				if (twin == -1) break;
+				e = next(twin);
+				if (vertices[next(e)] == v) return e;
+				int prev = prev(e);
+				if (vertices[prev] == v) return prev;
+			}
+		}
+		return -1;
+	}
+
+	/** Flips illegal edges on the stack, queueing the edges around each flipped edge, until all are legal. Constrained edges are
+	 * never flipped. */
+	private void legalizeAll () {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		boolean[] constrained = this.constrained;
+		IntArray stack = this.stack;
+		while (stack.size > 0) {
+			int a = stack.pop(), b = halfedges[a];
+			if (b == -1 || constrained[a]) continue;
+			int al = next(a), ar = prev(a), bl = next(b);
+			if (!inCircle(vertices[a], vertices[al], vertices[ar], vertices[prev(b)])) continue;
+			flip(a, b);
+			stack.add(a, al, b, bl);
+		}
+	}
+
+	/** Flips the edge between the triangles of half-edge a and its twin b. Half-edge a from p to q in triangle pqr and b in
+	 * triangle qps become the half-edges from s to q and from r to p, in triangles sqr and rps. */
+	private void flip (int a, int b) {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		boolean[] constrained = this.constrained;
+		int al = next(a), ar = prev(a), bl = next(b), br = prev(b);
+		int r = vertices[ar], s = vertices[br];
+		vertices[a] = s;
+		vertices[b] = r;
+
+		int hbr = halfedges[br], har = halfedges[ar];
+		halfedges[a] = hbr;
+		if (hbr != -1)
+			halfedges[hbr] = a;
+		else
+			hullTri[s] = a;
+		halfedges[b] = har;
+		if (har != -1)
+			halfedges[har] = b;
+		else
+			hullTri[r] = b;
+		halfedges[ar] = br;
+		halfedges[br] = ar;
+
+		constrained[a] = constrained[br];
+		constrained[b] = constrained[ar];
+		constrained[ar] = false;
+		constrained[br] = false;
+
+		vertexEdge[s] = a;
+		vertexEdge[vertices[al]] = al;
+		vertexEdge[r] = ar;
+		vertexEdge[vertices[bl]] = bl;
+	}
+
+	/** Adds the triangle abc, which must be counterclockwise, with the twins of its half-edges ab, bc and ca.
+	 * @return The first half-edge of the triangle. */
+	private int addTriangle (Sweep sweep, int a, int b, int c, int ab, int bc, int ca) {
+		int[] vertices = this.vertices, halfedges = this.halfedges;
+		int t = sweep.trianglesLen;
+		vertices[t] = a;
+		vertices[t + 1] = b;
+		vertices[t + 2] = c;
+		halfedges[t] = ab;
+		if (ab != -1) halfedges[ab] = t;
+		halfedges[t + 1] = bc;
+		if (bc != -1) halfedges[bc] = t + 1;
+		halfedges[t + 2] = ca;
+		if (ca != -1) halfedges[ca] = t + 2;
+		constrained[t] = false;
+		constrained[t + 1] = false;
+		constrained[t + 2] = false;
+		sweep.trianglesLen = t + 3;
+		return t;
+	}
+
+	static private int next (int e) {
+		return e % 3 == 2 ? e - 2 : e + 1;
+	}
+
+	static private int prev (int e) {
+		return e % 3 == 0 ? e + 2 : e - 1;
+	}
+
+	/** @return Positive if c is left of the line from a to b, negative if right and 0 if on it. */
+	private double orient (int a, int b, int c) {
+		double[] coords = xy;
+		double ax = coords[a * 2], ay = coords[a * 2 + 1];
+		return (coords[b * 2] - ax) * (coords[c * 2 + 1] - ay) - (coords[b * 2 + 1] - ay) * (coords[c * 2] - ax);
+	}
+
+	/** @return The dot product of the vectors from a to b and from a to c. */
+	private double dot (int a, int b, int c) {
+		double[] coords = xy;
+		double ax = coords[a * 2], ay = coords[a * 2 + 1];
+		return (coords[b * 2] - ax) * (coords[c * 2] - ax) + (coords[b * 2 + 1] - ay) * (coords[c * 2 + 1] - ay);
+	}
+
+	/** Returns true if p is inside the circumcircle of the counterclockwise triangle abc. Nearly cocircular points count as
+	 * outside, so rounding can't flip an edge back and forth. */
+	private boolean inCircle (int a, int b, int c, int p) {
+		double[] coords = xy;
+		double px = coords[p * 2], py = coords[p * 2 + 1];
+		double dx = coords[a * 2] - px, dy = coords[a * 2 + 1] - py;
+		double ex = coords[b * 2] - px, ey = coords[b * 2 + 1] - py;
+		double fx = coords[c * 2] - px, fy = coords[c * 2 + 1] - py;
+		double ap = dx * dx + dy * dy, bp = ex * ex + ey * ey, cp = fx * fx + fy * fy;
+		double det = dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx);
+		if (det <= 0) return false;
+		double bound = (Math.abs(dx) * (Math.abs(ey * cp) + Math.abs(bp * fy)) + Math.abs(dy) * (Math.abs(ex * cp) + Math.abs(bp * fx))
+			+ ap * (Math.abs(ex * fy) + Math.abs(ey * fx)));
+		return det > bound * 1e-12;
+	}
+
+	/** Sorts the ids by their distances, which are in the same order. */
+	static private void sort (int[] ids, double[] dists, int left, int right) {
+		while (right - left > 20) {
+			int median = (left + right) >>> 1, i = left + 1, j = right;
+			swap(ids, dists, median, i);
+			if (dists[left] > dists[right]) swap(ids, dists, left, right);
+			if (dists[i] > dists[right]) swap(ids, dists, i, right);
+			if (dists[left] > dists[i]) swap(ids, dists, left, i);
+			int pivot = ids[i];
+			double pivotDist = dists[i];
+			while (true) {
+				do
+					i++;
+				while (dists[i] < pivotDist);
+				do
+					j--;
+				while (dists[j] > pivotDist);
+				if (j < i) break;
+				swap(ids, dists, i, j);
+			}
+			ids[left + 1] = ids[j];
+			dists[left + 1] = dists[j];
+			ids[j] = pivot;
+			dists[j] = pivotDist;
+			// Recurse into the smaller part, so the stack stays shallow.
+			if (right - i + 1 >= j - left) {
+				sort(ids, dists, left, j - 1);
+				left = i;
+			} else {
+				sort(ids, dists, i, right);
+				right = j - 1;
+			}
+		}
+		for (int i = left + 1; i <= right; i++) {
+			int id = ids[i];
+			double dist = dists[i];
+			int j = i - 1;
+			for (; j >= left && dists[j] > dist; j--) {
+				ids[j + 1] = ids[j];
+				dists[j + 1] = dists[j];
+			}
+			ids[j + 1] = id;
+			dists[j + 1] = dist;
+		}
+	}
+
+	static private void swap (int[] ids, double[] dists, int i, int j) {
+		int id = ids[i];
+		ids[i] = ids[j];
+		ids[j] = id;
+		double dist = dists[i];
+		dists[i] = dists[j];
+		dists[j] = dist;
+	}
+
+	/** Triangulates the points of a range of the ids, writing triangles to its own range of the arrays. The hull is kept as a
+	 * counterclockwise linked list of points, with the half-edge that starts at each hull point. */
+	private class Sweep implements AsyncTask<Void> {
+		int start, end, triangleStart, trianglesLen;
+		boolean failed;
+		int hullStart, leftmost, rightmost;
+		int[] hullHash = new int[0];
+		int hashSize;
+		double cx, cy;
+		final IntArray stack = new IntArray();
+
+		public Void call () {
+			run();
+			return null;
+		}
+
+		void run () {
+			double[] coords = ConstrainedDelaunayTriangulator.this.coords, dists = ConstrainedDelaunayTriangulator.this.dists;
+			double[] sortedCoords = ConstrainedDelaunayTriangulator.this.sortedCoords;
+			int[] ids = ConstrainedDelaunayTriangulator.this.ids;
+			int[] hullNext = ConstrainedDelaunayTriangulator.this.hullNext, hullPrev = ConstrainedDelaunayTriangulator.this.hullPrev;
+			int[] hullTri = ConstrainedDelaunayTriangulator.this.hullTri;
+			int start = this.start, end = this.end;
+			trianglesLen = triangleStart;
+			failed = true;
+
+			double minX = Double.POSITIVE_INFINITY, minY = minX, maxX = Double.NEGATIVE_INFINITY, maxY = maxX;
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				double x = coords[i * 2], y = coords[i * 2 + 1];
+				if (x < minX) minX = x;
+				if (y < minY) minY = y;
+				if (x > maxX) maxX = x;
+				if (y > maxY) maxY = y;
+			}
+
+			// The seed triangle is the point nearest the center, its nearest point and the point making the smallest circle.
+			double centerX = (minX + maxX) / 2, centerY = (minY + maxY) / 2, min = Double.POSITIVE_INFINITY;
+			int i0 = -1, i1 = -1, i2 = -1;
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				double d = dist(centerX, centerY, coords[i * 2], coords[i * 2 + 1]);
+				if (d < min) {
+					i0 = i;
+					min = d;
+				}
+			}
+			double i0x = coords[i0 * 2], i0y = coords[i0 * 2 + 1];
+			min = Double.POSITIVE_INFINITY;
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				double d = dist(i0x, i0y, coords[i * 2], coords[i * 2 + 1]);
+				if (d < min && d > 0) {
+					i1 = i;
+					min = d;
+				}
+			}
+			if (i1 == -1) return;
+			double i1x = coords[i1 * 2], i1y = coords[i1 * 2 + 1];
+			min = Double.POSITIVE_INFINITY;
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				if (i == i0 || i == i1) continue;
+				double r = circumradius(i0x, i0y, i1x, i1y, coords[i * 2], coords[i * 2 + 1]);
+				if (r < min) {
+					i2 = i;
+					min = r;
+				}
+			}
+			if (i2 == -1) return;
+			double i2x = coords[i2 * 2], i2y = coords[i2 * 2 + 1];
+			if ((i1x - i0x) * (i2y - i0y) - (i1y - i0y) * (i2x - i0x) < 0) {
+				int i = i1;
+				i1 = i2;
+				i2 = i;
+				i1x = coords[i1 * 2];
+				i1y = coords[i1 * 2 + 1];
+				i2x = coords[i2 * 2];
+				i2y = coords[i2 * 2 + 1];
+			}
+			circumcenter(i0x, i0y, i1x, i1y, i2x, i2y);
+			double cx = this.cx, cy = this.cy;
+
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				dists[k] = dist(cx, cy, coords[i * 2], coords[i * 2 + 1]);
+			}
+			sort(ids, dists, start, end - 1);
+
+			// Number the points in the order they are inserted.
+			int p0 = -1, p1 = -1, p2 = -1;
+			for (int k = start; k < end; k++) {
+				int i = ids[k];
+				sortedCoords[k * 2] = coords[i * 2];
+				sortedCoords[k * 2 + 1] = coords[i * 2 + 1];
+				if (i == i0)
+					p0 = k;
+				else if (i == i1)
+					p1 = k;
+				else if (i == i2) p2 = k;
+			}
+			coords = sortedCoords;
+			i0 = p0;
+			i1 = p1;
+			i2 = p2;
+
+			hashSize = (int)Math.ceil(Math.sqrt(end - start));
+			if (hullHash.length < hashSize) hullHash = new int[hashSize];
+			int[] hullHash = this.hullHash;
+			for (int i = 0; i < hashSize; i++)
+				hullHash[i] = -1;
+
+			hullStart = i0;
+			hullNext[i0] = i1;
+			hullNext[i1] = i2;
+			hullNext[i2] = i0;
+			hullPrev[i0] = i2;
+			hullPrev[i1] = i0;
+			hullPrev[i2] = i1;
+			int t = addTriangle(this, i0, i1, i2, -1, -1, -1);
+			hullTri[i0] = t;
+			hullTri[i1] = t + 1;
+			hullTri[i2] = t + 2;
+			hullHash[hashKey(i0x, i0y)] = i0;
+			hullHash[hashKey(i1x, i1y)] = i1;
+			hullHash[hashKey(i2x, i2y)] = i2;
+
+			double px = Double.NaN, py = Double.NaN;
+			for (int i = start; i < end; i++) {
+				double x = coords[i * 2], y = coords[i * 2 + 1];
+				if (x == px && y == py) continue; // Duplicate.
+				px = x;
+				py = y;
+				if (i == i0 || i == i1 || i == i2) continue;
+
+				// Find a hull edge the point sees, starting at the hull point nearest in angle. A point that sees none is a duplicate.
+				int key = hashKey(x, y), e = -1;
+				for (int j = 0; j < hashSize; j++) {
+					e = hullHash[(key + j) % hashSize];
+					if (e != -1 && e != hullNext[e]) break;
+				}
+				e = hullPrev[e];
+				int first = e, q;
+				while (orient(e, q = hullNext[e], i) >= 0) {
+					e = q;
+					if (e == first) {
+						e = -1;
+						break;
+					}
+				}
+				if (e == -1) continue;
+
+				q = hullNext[e];
+				t = addTriangle(this, q, e, i, hullTri[e], -1, -1);
+				hullTri[e] = t + 1;
+				hullTri[i] = t + 2;
+				legalize(t);
+
+				// Connect the point to the hull edges it sees after and before the first one.
+				int n = q;
+				while (orient(n, q = hullNext[n], i) < 0) {
+					t = addTriangle(this, q, n, i, hullTri[n], hullTri[i], -1);
+					hullTri[i] = t + 2;
+					legalize(t);
+					hullNext[n] = n; // Removed from the hull.
+					n = q;
+				}
+				while (orient(q = hullPrev[e], e, i) < 0) {
+					t = addTriangle(this, e, q, i, hullTri[q], -1, hullTri[e]);
+					hullTri[q] = t + 1;
+					legalize(t);
+					hullNext[e] = e;
+					e = q;
+				}
+
+				hullStart = e;
+				hullPrev[i] = e;
+				hullNext[e] = i;
+				hullNext[i] = n;
+				hullPrev[n] = i;
+				hullHash[hashKey(x, y)] = i;
+				hullHash[hashKey(coords[e * 2], coords[e * 2 + 1])] = e;
+			}
+
+			int e = hullStart;
+			leftmost = rightmost = e;
+			do {
+				if (compare(e, leftmost) < 0) leftmost = e;
+				if (compare(e, rightmost) > 0) rightmost = e;
+				e = hullNext[e];
+			} while (e != hullStart);
+			failed = false;
+		}
+
+		/** Flips the edge opposite the last inserted point while it is illegal, then the edges opposite the point in the
+		 * triangles made by the flips. */
+		private void legalize (int a) {
+			int[] vertices = ConstrainedDelaunayTriangulator.this.vertices, halfedges = ConstrainedDelaunayTriangulator.this.halfedges;
+			IntArray stack = this.stack;
+			while (true) {
+				int b = halfedges[a];
+				if (b == -1 || !inCircle(vertices[a], vertices[next(a)], vertices[prev(a)], vertices[prev(b)])) {
+					if (stack.size == 0) break;
+					a = stack.pop();
+					continue;
+				}
+				flip(a, b);
+				stack.add(next(b));
+			}
+		}
+
+		private int hashKey (double x, double y) {
+			return (int)Math.floor(pseudoAngle(x - cx, y - cy) * hashSize) % hashSize;
+		}
+
+		private void circumcenter (double ax, double ay, double bx, double by, double cx, double cy) {
+			double dx = bx - ax, dy = by - ay, ex = cx - ax, ey = cy - ay;
+			double bl = dx * dx + dy * dy, cl = ex * ex + ey * ey, d = 0.5 / (dx * ey - dy * ex);
+			this.cx = ax + (ey * bl - dy * cl) * d;
+			this.cy = ay + (dx * cl - ex * bl) * d;
+		}
+	}
+
+	private int compare (int a, int b) {
+		double[] coords = xy;
+		double ax = coords[a * 2], bx = coords[b * 2];
+		if (ax != bx) return ax < bx ? -1 : 1;
+		double ay = coords[a * 2 + 1], by = coords[b * 2 + 1];
+		return ay < by ? -1 : (ay > by ? 1 : 0);
+	}
+
+	static private double dist (double ax, double ay, double bx, double by) {
+		double dx = ax - bx, dy = ay - by;
+		return dx * dx + dy * dy;
+	}
+
+	/** @return The squared radius of the circle through the points, infinite or NaN if they are collinear. */
+	static private double circumradius (double ax, double ay, double bx, double by, double cx, double cy) {
+		double dx = bx - ax, dy = by - ay, ex = cx - ax, ey = cy - ay;
+		double bl = dx * dx + dy * dy, cl = ex * ex + ey * ey, d = 0.5 / (dx * ey - dy * ex);
+		double x = (ey * bl - dy * cl) * d, y = (dx * cl - ex * bl) * d;
+		return x * x + y * y;
+	}
+
+	/** @return A value from 0 to 1 that increases monotonically with the angle of the vector. */
+	static private double pseudoAngle (double dx, double dy) {
+		double p = dx / (Math.abs(dx) + Math.abs(dy));
+		return (dy > 0 ? 3 - p : 1 + p) / 4;
+	}
+}
@@ -22,6 +22,7 @@ import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ShortArray;
 
 /** Delaunay triangulation. Adapted from Paul Bourke's triangulate: http://paulbourke.net/papers/triangulate/
+ * @see ConstrainedDelaunayTriangulator
  * @author Nathan Sweet */
 public class DelaunayTriangulator {
 	static private final float EPSILON = 0.000001f;
@@ -0,0 +1,1037 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/** Computes the union, intersection, difference or exclusive or of polygons, and grows or shrinks polygons by an offset. The
+ * polygons may be concave, self-intersecting and have holes, which are given as further contours and resolved by the
+ * {@link FillRule}. The result is a list of polygons whose contours don't cross: each counterclockwise outer contour is followed
+ * by its clockwise holes, or, when {@link #setBridgeHoles(boolean) bridging} is enabled, the holes are joined to the outer
+ * contour so each polygon can be passed to {@link EarClippingTriangulator} and drawn with a
+ * {@link com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch}.
+ * <p>
+ * The edges are split where they cross, each piece is classified by the winding numbers of the subject and clip polygons on
+ * both of its sides, and the pieces that have the result on only one side are linked into contours. Points closer than about a
+ * millionth of the largest coordinate are treated as touching. All state is kept in arrays that are reused, so once they have
+ * grown to fit, nothing is allocated per call.
+ * <p>
+ * Usage: {@link #addSubject(float[], int, int) add} the subject and clip contours, then call
+ * {@link #execute(Operation, FloatArray, IntArray)} or {@link #offset(float, Join, FloatArray, IntArray)}. The contours are kept
+ * until {@link #clear()}. */
+public class PolygonClipper {
+	private FillRule fillRule = FillRule.EvenOdd;
+	private boolean bridgeHoles;
+	private float miterLimit = 2;
+	private int circleSegments = 32;
+
+	private final FloatArray input = new FloatArray();
+	/** Pairs of the float count of each contour and 0 for the subject or 1 for the clip polygons. */
+	private final IntArray inputContours = new IntArray();
+	private final FloatArray offsetInput = new FloatArray();
+	private final IntArray offsetContours = new IntArray();
+
+	private Operation operation;
+	private FillRule subjectRule, clipRule;
+	private double epsilon, epsilonSq;
+
+	// Edges of the contours from the lesser to the greater end, with the winding of the subject and clip.
+	private int edgeCount;
+	private final FloatArray edgeX1 = new FloatArray(), edgeY1 = new FloatArray();
+	private final FloatArray edgeX2 = new FloatArray(), edgeY2 = new FloatArray();
+	private final IntArray edgeWinds = new IntArray();
+
+	// Points where the edges are split, keyed by edge and position along it.
+	private final LongArray splitKeys = new LongArray();
+	private final FloatArray splitX = new FloatArray(), splitY = new FloatArray();
+
+	// Pieces of the edges between the split points, two points each, and the vertex of each point.
+	private int pointCount;
+	private final FloatArray pointX = new FloatArray(), pointY = new FloatArray();
+	private final IntArray pieceWinds = new IntArray();
+	private final IntArray pointVertices = new IntArray();
+
+	// Distinct vertices, sorted by x then y.
+	private int vertexCount;
+	private final FloatArray vertexX = new FloatArray(), vertexY = new FloatArray();
+
+	// Distinct edges from the lesser to the greater vertex, and the edges of the result with the result on their left.
+	private int uniqueCount, boundaryCount;
+	private final IntArray uniqueStarts = new IntArray(), uniqueEnds = new IntArray(), uniqueWinds = new IntArray();
+	private final IntArray boundaryStarts = new IntArray(), boundaryEnds = new IntArray(), boundaryNext = new IntArray();
+	private final IntArray outgoingStarts = new IntArray(), outgoing = new IntArray();
+	private final IntArray columnStarts = new IntArray(), columnEdges = new IntArray();
+	private final FloatArray columnX1 = new FloatArray(), columnY1 = new FloatArray();
+	private final FloatArray columnX2 = new FloatArray(), columnY2 = new FloatArray();
+
+	// Contours of the result as vertex indices, with pairs of the start and count, the area and the outer contour of holes.
+	private final IntArray rings = new IntArray(), ringRanges = new IntArray();
+	private final FloatArray ringAreas = new FloatArray();
+	private final IntArray ringParents = new IntArray();
+
+	// Linked list of vertices to bridge holes.
+	private final IntArray nodeVertices = new IntArray(), nodeNext = new IntArray(), nodePrevious = new IntArray();
+	private final IntArray holes = new IntArray();
+
+	private final LongArray keys = new LongArray();
+	private final IntArray values = new IntArray(), active = new IntArray();
+	private final FloatArray activeX2 = new FloatArray(), activeMinY = new FloatArray(), activeMaxY = new FloatArray();
+
+	/** Removes all subject and clip contours. */
+	public void clear () {
+		input.clear();
+		inputContours.clear();
+	}
+
+	/** @see #addSubject(float[], int, int) */
+	public void addSubject (FloatArray vertices) {
+		add(vertices.items, 0, vertices.size, 0);
+	}
+
+	/** Adds a contour of the subject polygons. The first and last vertices are connected.
+	 * @param count The number of floats, two per vertex. */
+	public void addSubject (float[] vertices, int offset, int count) {
+		add(vertices, offset, count, 0);
+	}
+
+	/** @see #addClip(float[], int, int) */
+	public void addClip (FloatArray vertices) {
+		add(vertices.items, 0, vertices.size, 1);
+	}
+
+	/** Adds a contour of the clip polygons. The first and last vertices are connected.
+	 * @param count The number of floats, two per vertex. */
+	public void addClip (float[] vertices, int offset, int count) {
+		add(vertices, offset, count, 1);
+	}
+
+	private void add (float[] vertices, int offset, int count, int owner) {
+		if (count < 6) return;
+		input.addAll(vertices, offset, count & ~1);
+		inputContours.add(count & ~1, owner);
+	}
+
+	/** Sets how the subject and clip contours are filled. Default is {@link FillRule#EvenOdd}. */
+	public void setFillRule (FillRule fillRule) {
+		if (fillRule == null) throw new IllegalArgumentException("fillRule cannot be null.");
+		this.fillRule = fillRule;
+	}
+
+	public FillRule getFillRule () {
+		return fillRule;
+	}
+
+	/** If true, the holes of each polygon in the result are joined to its outer contour by a cut, so each polygon is a single
+	 * contour which can be passed to {@link EarClippingTriangulator}. Default is false. */
+	public void setBridgeHoles (boolean bridgeHoles) {
+		this.bridgeHoles = bridgeHoles;
+	}
+
+	public boolean getBridgeHoles () {
+		return bridgeHoles;
+	}
+
+	/** Sets how far a {@link Join#Miter} corner may reach, as a multiple of the offset, before it is squared off. Default is 2. */
+	public void setMiterLimit (float miterLimit) {
+		this.miterLimit = miterLimit;
+	}
+
+	/** Sets the number of segments a full circle would have for {@link Join#Round} corners. Default is 32. */
+	public void setCircleSegments (int circleSegments) {
+		this.circleSegments = Math.max(3, circleSegments);
+	}
+
+	/** Computes the operation on the subject and clip polygons.
+	 * @param vertices Cleared and set to the vertices of the result, two floats each.
+	 * @param counts Cleared and set to the number of floats of each contour, or of each polygon when
+	 *           {@link #setBridgeHoles(boolean) bridging} holes. */
+	public void execute (Operation operation, FloatArray vertices, IntArray counts) {
+		if (operation == null) throw new IllegalArgumentException("operation cannot be null.");
+		vertices.clear();
+		counts.clear();
+		compute(input, inputContours, operation, fillRule, fillRule);
+		output(vertices, counts);
+	}
+
+	/** Grows the union of the subject and clip polygons by the offset, or shrinks it if the offset is negative. Holes shrink or
+	 * grow the other way.
+	 * @param join How the corners that the offset moves apart are filled.
+	 * @param vertices Cleared and set to the vertices of the result, two floats each.
+	 * @param counts Cleared and set to the number of floats of each contour, or of each polygon when
+	 *           {@link #setBridgeHoles(boolean) bridging} holes. */
+	public void offset (float offset, Join join, FloatArray vertices, IntArray counts) {
+		if (join == null) throw new IllegalArgumentException("join cannot be null.");
+		vertices.clear();
+		counts.clear();
+		compute(input, inputContours, Operation.Union, fillRule, fillRule);
+		if (offset != 0) {
+			// The raw offset contours overlap themselves at corners and where the polygon gets thinner than the offset. The loops
+			// that wind the wrong way are removed by filling the union with the positive rule.
+			offsetContours(offset, join);
+			compute(offsetInput, offsetContours, Operation.Union, FillRule.Positive, FillRule.Positive);
+		}
+		output(vertices, counts);
+	}
+
+	private void compute (FloatArray coords, IntArray contours, Operation operation, FillRule subjectRule, FillRule clipRule) {
+		this.operation = operation;
+		this.subjectRule = subjectRule;
+		this.clipRule = clipRule;
+		addEdges(coords, contours);
+		findSplits();
+		splitEdges();
+		mergeVertices();
+		mergeEdges();
+		classify();
+		link();
+		nest();
+	}
+
+	private void addEdges (FloatArray coords, IntArray contours) {
+		int total = coords.size / 2;
+		float[] x1s = edgeX1.setSize(total), y1s = edgeY1.setSize(total);
+		float[] x2s = edgeX2.setSize(total), y2s = edgeY2.setSize(total);
+		int[] winds = edgeWinds.setSize(total * 2);
+		float[] c = coords.items;
+		float max = 0;
+		int edges = 0;
+		for (int i = 0, start = 0, n = contours.size; i < n; i += 2) {
+			int count = contours.get(i), owner = contours.get(i + 1);
+			for (int ii = 0; ii < count; ii += 2) {
+				int next = ii + 2 == count ? start : start + ii + 2;
+				// Adding zero turns negative zero into zero, so equal points have equal bits.
+				float x1 = c[start + ii] + 0f, y1 = c[start + ii + 1] + 0f, x2 = c[next] + 0f, y2 = c[next + 1] + 0f;
+				max = Math.max(max, Math.max(Math.abs(x1), Math.abs(y1)));
+				int wind = 1;
+				if (x2 < x1 || (x2 == x1 && y2 < y1)) {
+					float t = x1;
+					x1 = x2;
+					x2 = t;
+					t = y1;
+					y1 = y2;
+					y2 = t;
+					wind = -1;
+				} else if (x2 == x1 && y2 == y1) //
+					continue;
+				x1s[edges] = x1;
+				y1s[edges] = y1;
+				x2s[edges] = x2;
+				y2s[edges] = y2;
+				winds[edges * 2 + owner] = wind;
+				winds[edges * 2 + 1 - owner] = 0;
+				edges++;
+			}
+			start += count;
+		}
+		edgeCount = edges;
+		// Several times the rounding error of floats at the largest coordinate.
+		epsilon = max * 5e-7;
+		epsilonSq = epsilon * epsilon;
+	}
+
+	/** Finds where the edges cross or touch by sweeping over them from left to right. */
+	private void findSplits () {
+		int edges = edgeCount;
+		long[] keys = this.keys.setSize(edges);
+		int[] values = this.values.setSize(edges);
+		float[] x1s = edgeX1.items, y1s = edgeY1.items, x2s = edgeX2.items, y2s = edgeY2.items;
+		for (int i = 0; i < edges; i++) {
+			keys[i] = (long)sortable(x1s[i]) << 32;
+			values[i] = i;
+		}
+		sort(keys, values, 0, edges - 1);
+
+		splitKeys.clear();
+		splitX.clear();
+		splitY.clear();
+		// The active edges' bounds are kept with them, so most pairs are rejected without looking up the edges.
+		int[] active = this.active.setSize(edges);
+		float[] activeX2 = this.activeX2.setSize(edges);
+		float[] activeMinY = this.activeMinY.setSize(edges), activeMaxY = this.activeMaxY.setSize(edges);
+		int activeCount = 0;
+		for (int s = 0; s < edges; s++) {
+			int edge = values[s];
+			float y1 = y1s[edge], y2 = y2s[edge];
+			double left = x1s[edge] - epsilon, minY = (y1 < y2 ? y1 : y2) - epsilon, maxY = (y1 > y2 ? y1 : y2) + epsilon;
+			int kept = 0;
+			for (int i = 0; i < activeCount; i++) {
+				float x2 = activeX2[i];
+				if (x2 < left) continue; // Ends before this edge starts.
+				int other = active[i];
+				float otherMinY = activeMinY[i], otherMaxY = activeMaxY[i];
+				active[kept] = other;
+				activeX2[kept] = x2;
+				activeMinY[kept] = otherMinY;
+				activeMaxY[kept++] = otherMaxY;
+				if (otherMaxY >= minY && otherMinY <= maxY) intersect(edge, other);
+			}
+			active[kept] = edge;
+			activeX2[kept] = x2s[edge];
+			activeMinY[kept] = y1 < y2 ? y1 : y2;
+			activeMaxY[kept] = y1 > y2 ? y1 : y2;
+			activeCount = kept + 1;
+		}
+	}
+
+	private void intersect (int edge1, int edge2) {
+		float[] x1s = edgeX1.items, y1s = edgeY1.items, x2s = edgeX2.items, y2s = edgeY2.items;
+		float ax = x1s[edge1], ay = y1s[edge1], bx = x2s[edge1], by = y2s[edge1];
+		float cx = x1s[edge2], cy = y1s[edge2], dx = x2s[edge2], dy = y2s[edge2];
+
+		// An end touching the other edge splits it there. Touching edges can't also cross.
+		if (touches(edge1, cx, cy) | touches(edge1, dx, dy) | touches(edge2, ax, ay) | touches(edge2, bx, by)) return;
+
+		double rx = bx - ax, ry = by - ay, sx = dx - cx, sy = dy - cy;
+		double denominator = rx * sy - ry * sx;
+		if (denominator == 0) return;
+		double t = ((cx - ax) * sy - (cy - ay) * sx) / denominator;
+		double u = ((cx - ax) * ry - (cy - ay) * rx) / denominator;
+		if (t <= 0 || t >= 1 || u <= 0 || u >= 1) return;
+		float x = (float)(ax + rx * t) + 0f, y = (float)(ay + ry * t) + 0f;
+		addSplit(edge1, t, x, y);
+		addSplit(edge2, u, x, y);
+	}
+
+	/** Splits the edge at the point if the point is on the edge but not at its ends.
+	 * @return True if the point is on the edge, including its ends. */
+	private boolean touches (int edge, float x, float y) {
+		double ax = edgeX1.items[edge], ay = edgeY1.items[edge];
+		double dx = edgeX2.items[edge] - ax, dy = edgeY2.items[edge] - ay;
+		double px = x - ax, py = y - ay;
+		double t = (px * dx + py * dy) / (dx * dx + dy * dy);
+		double clamped = t < 0 ? 0 : (t > 1 ? 1 : t);
+		double ex = px - dx * clamped, ey = py - dy * clamped;
+		if (ex * ex + ey * ey > epsilonSq) return false;
+		if (px * px + py * py <= epsilonSq) return true;
+		ex = px - dx;
+		ey = py - dy;
+		if (ex * ex + ey * ey <= epsilonSq) return true;
+		addSplit(edge, clamped, x, y);
+		return true;
+	}
+
+	private void addSplit (int edge, double t, float x, float y) {
+		splitKeys.add((long)edge << 32 | (long)(t * Integer.MAX_VALUE));
+		splitX.add(x);
+		splitY.add(y);
+	}
+
+	/** Cuts the edges into pieces at the split points, in order along each edge. */
+	private void splitEdges () {
+		int edges = edgeCount, splits = splitKeys.size;
+		long[] keys = this.keys.setSize(splits);
+		int[] values = this.values.setSize(splits);
+		System.arraycopy(splitKeys.items, 0, keys, 0, splits);
+		for (int i = 0; i < splits; i++)
+			values[i] = i;
+		sort(keys, values, 0, splits - 1);
+
+		int points = (edges + splits) * 2;
+		float[] xs = pointX.setSize(points), ys = pointY.setSize(points);
+		int[] winds = pieceWinds.setSize(points);
+		float[] x1s = edgeX1.items, y1s = edgeY1.items, x2s = edgeX2.items, y2s = edgeY2.items;
+		float[] splitXs = splitX.items, splitYs = splitY.items;
+		int[] edgeWinds = this.edgeWinds.items;
+		int p = 0;
+		for (int edge = 0, s = 0; edge < edges; edge++) {
+			float x = x1s[edge], y = y1s[edge];
+			int subjectWind = edgeWinds[edge * 2], clipWind = edgeWinds[edge * 2 + 1];
+			for (; s < splits && (int)(keys[s] >>> 32) == edge; s++) {
+				int split = values[s];
+				float sx = splitXs[split], sy = splitYs[split];
+				if (sx == x && sy == y) continue;
+				xs[p] = x;
+				ys[p] = y;
+				xs[p + 1] = sx;
+				ys[p + 1] = sy;
+				winds[p] = subjectWind;
+				winds[p + 1] = clipWind;
+				p += 2;
+				x = sx;
+				y = sy;
+			}
+			if (x == x2s[edge] && y == y2s[edge]) continue;
+			xs[p] = x;
+			ys[p] = y;
+			xs[p + 1] = x2s[edge];
+			ys[p + 1] = y2s[edge];
+			winds[p] = subjectWind;
+			winds[p + 1] = clipWind;
+			p += 2;
+		}
+		pointCount = p;
+	}
+
+	/** Gives points with the same coordinates the same vertex, numbered in order of x then y. */
+	private void mergeVertices () {
+		int points = pointCount;
+		long[] keys = this.keys.setSize(points);
+		int[] values = this.values.setSize(points);
+		float[] xs = pointX.items, ys = pointY.items;
+		for (int i = 0; i < points; i++) {
+			keys[i] = (long)sortable(xs[i]) << 32 | (sortable(ys[i]) ^ 0x80000000L) & 0xffffffffL;
+			values[i] = i;
+		}
+		sort(keys, values, 0, points - 1);
+
+		int[] pointVertices = this.pointVertices.setSize(points);
+		float[] vertexXs = vertexX.setSize(points), vertexYs = vertexY.setSize(points);
+		int vertex = -1;
+		for (int i = 0; i < points; i++) {
+			int point = values[i];
+			if (i == 0 || keys[i] != keys[i - 1]) {
+				vertex++;
+				vertexXs[vertex] = xs[point];
+				vertexYs[vertex] = ys[point];
+			}
+			pointVertices[point] = vertex;
+		}
+		vertexCount = vertex + 1;
+	}
+
+	/** Combines pieces between the same vertices, summing their winding. Pieces that cancel out are removed. */
+	private void mergeEdges () {
+		int pieces = pointCount / 2;
+		long[] keys = this.keys.setSize(pieces);
+		int[] values = this.values.setSize(pieces);
+		int[] pointVertices = this.pointVertices.items;
+		int n = 0;
+		for (int i = 0; i < pieces; i++) {
+			int a = pointVertices[i * 2], b = pointVertices[i * 2 + 1];
+			if (a == b) continue;
+			if (a < b) {
+				keys[n] = (long)a << 32 | b;
+				values[n++] = i;
+			} else {
+				keys[n] = (long)b << 32 | a;
+				values[n++] = ~i; // Reversed.
+			}
+		}
+		sort(keys, values, 0, n - 1);
+
+		int[] starts = uniqueStarts.setSize(n), ends = uniqueEnds.setSize(n), winds = uniqueWinds.setSize(n * 2);
+		int[] pieceWinds = this.pieceWinds.items;
+		int unique = 0;
+		for (int i = 0; i < n;) {
+			long key = keys[i];
+			int subjectWind = 0, clipWind = 0;
+			do {
+				int piece = values[i];
+				if (piece >= 0) {
+					subjectWind += pieceWinds[piece * 2];
+					clipWind += pieceWinds[piece * 2 + 1];
+				} else {
+					subjectWind -= pieceWinds[~piece * 2];
+					clipWind -= pieceWinds[~piece * 2 + 1];
+				}
+				i++;
+			} while (i < n && keys[i] == key);
+			if (subjectWind == 0 && clipWind == 0) continue;
+			starts[unique] = (int)(key >>> 32);
+			ends[unique] = (int)key;
+			winds[unique * 2] = subjectWind;
+			winds[unique * 2 + 1] = clipWind;
+			unique++;
+		}
+		uniqueCount = unique;
+	}
+
+	/** Computes the winding numbers on both sides of each edge and keeps the edges between the inside and outside of the result,
+	 * directed so the inside is on their left. The winding number on the right is the sum of the edges below the middle of the
+	 * edge, found in vertical columns. */
+	private void classify () {
+		int edges = uniqueCount;
+		int[] starts = uniqueStarts.items, ends = uniqueEnds.items, winds = uniqueWinds.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		int[] boundaryStarts = this.boundaryStarts.setSize(edges), boundaryEnds = this.boundaryEnds.setSize(edges);
+		boundaryCount = 0;
+		if (edges == 0) return;
+
+		// About two edges per column, fewer columns if long edges would be in too many of them.
+		float minX = xs[0], maxX = xs[vertexCount - 1];
+		int columns = Math.max(1, Math.min(4096, edges / 2)), entries;
+		double scale;
+		while (true) {
+			scale = maxX > minX ? columns / ((double)maxX - minX) : 0;
+			entries = 0;
+			for (int i = 0; i < edges; i++) {
+				float x1 = xs[starts[i]], x2 = xs[ends[i]];
+				if (x1 != x2) entries += column(x2, minX, scale, columns) - column(x1, minX, scale, columns) + 1;
+			}
+			if (entries <= edges * 8 || columns == 1) break;
+			columns = Math.max(1, columns / 4);
+		}
+		int[] columnStarts = this.columnStarts.setSize(columns + 1);
+		for (int i = 0; i <= columns; i++)
+			columnStarts[i] = 0;
+		for (int i = 0; i < edges; i++) {
+			float x1 = xs[starts[i]], x2 = xs[ends[i]];
+			if (x1 == x2) continue; // Vertical edges are never below a point.
+			for (int c = column(x1, minX, scale, columns), last = column(x2, minX, scale, columns); c <= last; c++)
+				columnStarts[c + 1]++;
+		}
+		for (int i = 0; i < columns; i++)
+			columnStarts[i + 1] += columnStarts[i];
+		// The ends of the edges are copied to each column, so the columns are read in order.
+		int[] columnEdges = this.columnEdges.setSize(entries);
+		float[] columnX1 = this.columnX1.setSize(entries), columnY1 = this.columnY1.setSize(entries);
+		float[] columnX2 = this.columnX2.setSize(entries), columnY2 = this.columnY2.setSize(entries);
+		for (int i = 0; i < edges; i++) {
+			float x1 = xs[starts[i]], x2 = xs[ends[i]];
+			if (x1 == x2) continue;
+			float y1 = ys[starts[i]], y2 = ys[ends[i]];
+			for (int c = column(x1, minX, scale, columns), last = column(x2, minX, scale, columns); c <= last; c++) {
+				int entry = columnStarts[c]++;
+				columnEdges[entry] = i;
+				columnX1[entry] = x1;
+				columnY1[entry] = y1;
+				columnX2[entry] = x2;
+				columnY2[entry] = y2;
+			}
+		}
+		for (int i = columns; i > 0; i--)
+			columnStarts[i] = columnStarts[i - 1];
+		columnStarts[0] = 0;
+
+		int boundaries = 0;
+		for (int i = 0; i < edges; i++) {
+			int start = starts[i], end = ends[i];
+			// For a vertical edge the point is just right of it, because edges below count from their left end.
+			double x = ((double)xs[start] + xs[end]) / 2, y = ((double)ys[start] + ys[end]) / 2;
+			int subjectWinding = 0, clipWinding = 0;
+			int c = column((float)x, minX, scale, columns);
+			for (int ii = columnStarts[c], n = columnStarts[c + 1]; ii < n; ii++) {
+				double x1 = columnX1[ii], x2 = columnX2[ii];
+				if (x < x1 || x >= x2) continue;
+				double y1 = columnY1[ii];
+				if ((y1 - y) * (x2 - x1) + (columnY2[ii] - y1) * (x - x1) >= 0) continue; // Not below.
+				int other = columnEdges[ii];
+				if (other == i) continue;
+				subjectWinding += winds[other * 2];
+				clipWinding += winds[other * 2 + 1];
+			}
+			boolean right = contains(subjectWinding, clipWinding);
+			boolean left = contains(subjectWinding + winds[i * 2], clipWinding + winds[i * 2 + 1]);
+			if (left == right) continue;
+			boundaryStarts[boundaries] = left ? start : end;
+			boundaryEnds[boundaries] = left ? end : start;
+			boundaries++;
+		}
+		boundaryCount = boundaries;
+	}
+
+	static private int column (float x, float minX, double scale, int columns) {
+		return Math.min(columns - 1, (int)((x - (double)minX) * scale));
+	}
+
+	private boolean contains (int subjectWinding, int clipWinding) {
+		boolean subject = subjectRule.contains(subjectWinding), clip = clipRule.contains(clipWinding);
+		switch (operation) {
+		case Union:
+			return subject || clip;
+		case Intersection:
+			return subject && clip;
+		case Difference:
+			return subject && !clip;
+		default:
+			return subject != clip;
+		}
+	}
+
+	/** Links the boundary edges into contours. Where contours touch, each turns as far right as it can, so the contours don't
+	 * cross. */
+	private void link () {
+		int boundaries = boundaryCount, vertices = vertexCount;
+		int[] starts = boundaryStarts.items, ends = boundaryEnds.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		int[] outgoingStarts = this.outgoingStarts.setSize(vertices + 1);
+		for (int i = 0; i <= vertices; i++)
+			outgoingStarts[i] = 0;
+		for (int i = 0; i < boundaries; i++)
+			outgoingStarts[starts[i] + 1]++;
+		for (int i = 0; i < vertices; i++)
+			outgoingStarts[i + 1] += outgoingStarts[i];
+		int[] outgoing = this.outgoing.setSize(boundaries);
+		for (int i = 0; i < boundaries; i++)
+			outgoing[outgoingStarts[starts[i]]++] = i;
+		for (int i = vertices; i > 0; i--)
+			outgoingStarts[i] = outgoingStarts[i - 1];
+		outgoingStarts[0] = 0;
+
+		int[] next = boundaryNext.setSize(boundaries);
+		for (int i = 0; i < boundaries; i++) {
+			int vertex = ends[i], first = outgoingStarts[vertex], last = outgoingStarts[vertex + 1];
+			if (last - first == 1)
+				next[i] = outgoing[first];
+			else if (last == first)
+				next[i] = -1;
+			else {
+				// The first outgoing edge clockwise from the incoming edge.
+				float x = xs[vertex], y = ys[vertex];
+				double back = Math.atan2(ys[starts[i]] - y, xs[starts[i]] - x), bestTurn = Double.MAX_VALUE;
+				int best = -1;
+				for (int ii = first; ii < last; ii++) {
+					int edge = outgoing[ii];
+					double turn = back - Math.atan2(ys[ends[edge]] - y, xs[ends[edge]] - x);
+					if (turn <= 0) turn += MathUtils.PI2;
+					if (turn < bestTurn) {
+						bestTurn = turn;
+						best = edge;
+					}
+				}
+				next[i] = best;
+			}
+		}
+
+		rings.clear();
+		ringRanges.clear();
+		ringAreas.clear();
+		int[] visited = values.setSize(boundaries);
+		for (int i = 0; i < boundaries; i++)
+			visited[i] = 0;
+		for (int i = 0; i < boundaries; i++) {
+			if (visited[i] != 0) continue;
+			int start = rings.size, edge = i;
+			boolean closed = false;
+			while (true) {
+				visited[edge] = 1;
+				rings.add(starts[edge]);
+				edge = next[edge];
+				if (edge == i) {
+					closed = true;
+					break;
+				}
+				if (edge == -1 || visited[edge] != 0) break; // Broken by rounding.
+			}
+			int count = closed ? clean(start, rings.size - start) : 0;
+			double area = count < 3 ? 0 : area(start, count);
+			if (area == 0) {
+				rings.size = start;
+				continue;
+			}
+			rings.size = start + count;
+			ringRanges.add(start, count);
+			ringAreas.add((float)area);
+		}
+	}
+
+	/** Removes vertices where the contour goes straight on.
+	 * @return The new number of vertices. */
+	private int clean (int offset, int count) {
+		int[] ring = rings.items;
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			int vertex = ring[offset + i];
+			while (n >= 2 && collinear(ring[offset + n - 2], ring[offset + n - 1], vertex))
+				n--;
+			ring[offset + n++] = vertex;
+		}
+		int first = 0;
+		while (n - first >= 3) {
+			if (collinear(ring[offset + n - 2], ring[offset + n - 1], ring[offset + first]))
+				n--;
+			else if (collinear(ring[offset + n - 1], ring[offset + first], ring[offset + first + 1]))
+				first++;
+			else
+				break;
+		}
+		if (first > 0) System.arraycopy(ring, offset + first, ring, offset, n - first);
+		return n - first;
+	}
+
+	private boolean collinear (int a, int b, int c) {
+		float[] xs = vertexX.items, ys = vertexY.items;
+		double ax = xs[a], ay = ys[a];
+		return (xs[b] - ax) * (ys[c] - ay) - (ys[b] - ay) * (xs[c] - ax) == 0;
+	}
+
+	private double area (int offset, int count) {
+		int[] ring = rings.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		double area = 0;
+		for (int i = 0, previous = ring[offset + count - 1]; i < count; i++) {
+			int vertex = ring[offset + i];
+			area += (double)xs[previous] * ys[vertex] - (double)xs[vertex] * ys[previous];
+			previous = vertex;
+		}
+		return area / 2;
+	}
+
+	/** Finds the outer contour of each hole, the smallest that contains the middle of its first edge. */
+	private void nest () {
+		int ringCount = ringAreas.size;
+		int[] parents = ringParents.setSize(ringCount);
+		float[] areas = ringAreas.items;
+		int[] ranges = ringRanges.items, ring = rings.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		for (int i = 0; i < ringCount; i++) {
+			if (areas[i] > 0) {
+				parents[i] = -1;
+				continue;
+			}
+			int a = ring[ranges[i * 2]], b = ring[ranges[i * 2] + 1];
+			double x = ((double)xs[a] + xs[b]) / 2, y = ((double)ys[a] + ys[b]) / 2;
+			int parent = -2;
+			for (int ii = 0; ii < ringCount; ii++) {
+				if (areas[ii] <= 0 || (parent >= 0 && areas[ii] >= areas[parent])) continue;
+				if (contains(ii, x, y)) parent = ii;
+			}
+			parents[i] = parent;
+		}
+	}
+
+	private boolean contains (int ringIndex, double x, double y) {
+		int[] ring = rings.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		int offset = ringRanges.items[ringIndex * 2], count = ringRanges.items[ringIndex * 2 + 1];
+		boolean inside = false;
+		for (int i = 0, previous = ring[offset + count - 1]; i < count; i++) {
+			int vertex = ring[offset + i];
+			double y1 = ys[vertex], y2 = ys[previous];
+			if ((y1 > y) != (y2 > y)) {
+				double x1 = xs[vertex];
+				if (x < x1 + (y - y1) * (xs[previous] - x1) / (y2 - y1)) inside = !inside;
+			}
+			previous = vertex;
+		}
+		return inside;
+	}
+
+	private void output (FloatArray vertices, IntArray counts) {
+		int ringCount = ringAreas.size;
+		int[] parents = ringParents.items;
+		for (int i = 0; i < ringCount; i++) {
+			if (parents[i] != -1) continue;
+			if (bridgeHoles)
+				outputBridged(i, vertices, counts);
+			else {
+				outputRing(i, vertices, counts);
+				for (int ii = 0; ii < ringCount; ii++)
+					if (parents[ii] == i) outputRing(ii, vertices, counts);
+			}
+		}
+	}
+
+	private void outputRing (int ringIndex, FloatArray vertices, IntArray counts) {
+		int offset = ringRanges.get(ringIndex * 2), count = ringRanges.get(ringIndex * 2 + 1);
+		float[] items = vertices.ensureCapacity(count * 2);
+		int[] ring = rings.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		for (int i = 0, v = vertices.size; i < count; i++, v += 2) {
+			items[v] = xs[ring[offset + i]];
+			items[v + 1] = ys[ring[offset + i]];
+		}
+		vertices.size += count * 2;
+		counts.add(count * 2);
+	}
+
+	/** Joins each hole to the outer contour with a cut from its leftmost vertex to a visible vertex on the left, as in
+	 * <a href="https://github.com/mapbox/earcut">earcut</a>. */
+	private void outputBridged (int outer, FloatArray vertices, IntArray counts) {
+		nodeVertices.clear();
+		nodeNext.clear();
+		nodePrevious.clear();
+		holes.clear();
+		int outerNode = addNodes(outer);
+		int[] parents = ringParents.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		for (int i = 0, n = ringAreas.size; i < n; i++) {
+			if (parents[i] != outer) continue;
+			int first = addNodes(i), leftmost = first;
+			for (int node = nodeNext.get(first); node != first; node = nodeNext.get(node)) {
+				float x = xs[nodeVertices.get(node)], lx = xs[nodeVertices.get(leftmost)];
+				if (x < lx || (x == lx && ys[nodeVertices.get(node)] < ys[nodeVertices.get(leftmost)])) leftmost = node;
+			}
+			holes.add(leftmost);
+		}
+		// Bridge the holes from left to right, so later bridges can't cross earlier ones.
+		int[] holeNodes = holes.items;
+		for (int i = 1, n = holes.size; i < n; i++) {
+			int node = holeNodes[i];
+			float x = xs[nodeVertices.get(node)];
+			int ii = i - 1;
+			for (; ii >= 0 && xs[nodeVertices.get(holeNodes[ii])] > x; ii--)
+				holeNodes[ii + 1] = holeNodes[ii];
+			holeNodes[ii + 1] = node;
+		}
+		for (int i = 0, n = holes.size; i < n; i++) {
+			int hole = holes.get(i), bridge = findBridge(hole, outerNode);
+			if (bridge != -1) split(bridge, hole);
+		}
+
+		int start = vertices.size, node = outerNode;
+		do {
+			int vertex = nodeVertices.get(node);
+			vertices.add(xs[vertex], ys[vertex]);
+			node = nodeNext.get(node);
+		} while (node != outerNode);
+		counts.add(vertices.size - start);
+	}
+
+	/** @return The first node of the ring. */
+	private int addNodes (int ringIndex) {
+		int offset = ringRanges.get(ringIndex * 2), count = ringRanges.get(ringIndex * 2 + 1);
+		int first = nodeVertices.size;
+		for (int i = 0; i < count; i++) {
+			nodeVertices.add(rings.get(offset + i));
+			nodeNext.add(first + (i + 1) % count);
+			nodePrevious.add(first + (i + count - 1) % count);
+		}
+		return first;
+	}
+
+	private int findBridge (int hole, int outerNode) {
+		int[] nodeVertices = this.nodeVertices.items, next = nodeNext.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		int holeVertex = nodeVertices[hole];
+		double hx = xs[holeVertex], hy = ys[holeVertex], qx = Double.NEGATIVE_INFINITY;
+		int m = -1, p = outerNode;
+		// Find the nearest edge on the left crossing a horizontal ray from the hole, and its end with the lesser x.
+		do {
+			if (nodeVertices[p] == holeVertex) return p;
+			int n = next[p];
+			double px = xs[nodeVertices[p]], py = ys[nodeVertices[p]], nx = xs[nodeVertices[n]], ny = ys[nodeVertices[n]];
+			if (hy <= py && hy >= ny && ny != py) {
+				double x = px + (hy - py) * (nx - px) / (ny - py);
+				if (x <= hx && x > qx) {
+					qx = x;
+					m = px < nx ? p : n;
+					if (x == hx) return m; // The hole touches the edge.
+				}
+			}
+			p = n;
+		} while (p != outerNode);
+		if (m == -1) return -1;
+
+		// If vertices are inside the triangle of the hole vertex, the crossing and that end, use the one closest to the ray.
+		int stop = m;
+		double mx = xs[nodeVertices[m]], my = ys[nodeVertices[m]], tanMin = Double.POSITIVE_INFINITY;
+		p = m;
+		do {
+			double px = xs[nodeVertices[p]], py = ys[nodeVertices[p]];
+			if (hx >= px && px >= mx && hx != px
+				&& pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, px, py)) {
+				double tan = Math.abs(hy - py) / (hx - px), bestX = xs[nodeVertices[m]];
+				if (locallyInside(p, hole)
+					&& (tan < tanMin || (tan == tanMin && (px > bestX || (px == bestX && sectorContainsSector(m, p)))))) {
+					m = p;
+					tanMin = tan;
+				}
+			}
+			p = next[p];
+		} while (p != stop);
+		return m;
+	}
+
+	/** Links a to b, and a copy of b back to a copy of a. */
+	private void split (int a, int b) {
+		int a2 = nodeVertices.size, b2 = a2 + 1;
+		nodeVertices.add(nodeVertices.get(a), nodeVertices.get(b));
+		nodeNext.add(0, 0);
+		nodePrevious.add(0, 0);
+		int[] next = nodeNext.items, previous = nodePrevious.items;
+		int an = next[a], bp = previous[b];
+		next[a] = b;
+		previous[b] = a;
+		next[a2] = an;
+		previous[an] = a2;
+		next[b2] = a2;
+		previous[a2] = b2;
+		next[bp] = b2;
+		previous[b2] = bp;
+	}
+
+	private boolean locallyInside (int a, int b) {
+		int previous = nodePrevious.get(a), next = nodeNext.get(a);
+		return turn(previous, a, next) < 0 ? turn(a, b, next) >= 0 && turn(a, previous, b) >= 0
+			: turn(a, b, previous) < 0 || turn(a, next, b) < 0;
+	}
+
+	private boolean sectorContainsSector (int m, int p) {
+		return turn(nodePrevious.get(m), m, nodePrevious.get(p)) < 0 && turn(nodeNext.get(p), m, nodeNext.get(m)) < 0;
+	}
+
+	/** @return Negative if the nodes turn counterclockwise. */
+	private double turn (int p, int q, int r) {
+		float[] xs = vertexX.items, ys = vertexY.items;
+		int[] nodeVertices = this.nodeVertices.items;
+		double px = xs[nodeVertices[p]], py = ys[nodeVertices[p]];
+		double qx = xs[nodeVertices[q]], qy = ys[nodeVertices[q]];
+		double rx = xs[nodeVertices[r]], ry = ys[nodeVertices[r]];
+		return (qy - py) * (rx - qx) - (qx - px) * (ry - qy);
+	}
+
+	static private boolean pointInTriangle (double ax, double ay, double bx, double by, double cx, double cy, double px,
+		double py) {
+		return (cx - px) * (ay - py) >= (ax - px) * (cy - py) && (ax - px) * (by - py) >= (bx - px) * (ay - py)
+			&& (bx - px) * (cy - py) >= (cx - px) * (by - py);
+	}
+
+	/** Writes the raw offset of each contour of the result to the offset input. */
+	private void offsetContours (float offset, Join join) {
+		offsetInput.clear();
+		offsetContours.clear();
+		int[] parents = ringParents.items, ranges = ringRanges.items, ring = rings.items;
+		float[] xs = vertexX.items, ys = vertexY.items;
+		double limitSq = miterLimit * miterLimit, step = MathUtils.PI2 / circleSegments;
+		for (int i = 0, n = ringAreas.size; i < n; i++) {
+			if (parents[i] == -2) continue;
+			int start = ranges[i * 2], count = ranges[i * 2 + 1], size = offsetInput.size;
+			for (int ii = 0; ii < count; ii++) {
+				int previous = ring[start + (ii + count - 1) % count], vertex = ring[start + ii], next = ring[start + (ii + 1) % count];
+				double x = xs[vertex], y = ys[vertex];
+				double d0x = x - xs[previous], d0y = y - ys[previous], d1x = xs[next] - x, d1y = ys[next] - y;
+				double length = Math.sqrt(d0x * d0x + d0y * d0y);
+				d0x /= length;
+				d0y /= length;
+				length = Math.sqrt(d1x * d1x + d1y * d1y);
+				d1x /= length;
+				d1y /= length;
+				// The normals point right, away from the inside.
+				double n0x = d0y * offset, n0y = -d0x * offset, n1x = d1y * offset, n1y = -d1x * offset;
+				double sin = d0x * d1y - d0y * d1x, cos = d0x * d1x + d0y * d1y;
+				if (cos > 0 && Math.abs(sin) < 1e-9) // Straight on.
+					addOffset(x + n0x, y + n0y);
+				else if (sin * offset <= 0) {
+					// The offset edges overlap. Going through the vertex makes a loop that winds the wrong way.
+					addOffset(x + n0x, y + n0y);
+					addOffset(x, y);
+					addOffset(x + n1x, y + n1y);
+				} else if (join == Join.Round) {
+					double angle = Math.atan2(sin, cos);
+					int steps = Math.max(1, (int)Math.ceil(Math.abs(angle) / step));
+					double stepSin = Math.sin(angle / steps), stepCos = Math.cos(angle / steps);
+					addOffset(x + n0x, y + n0y);
+					for (int s = 0; s < steps; s++) {
+						double t = n0x * stepCos - n0y * stepSin;
+						n0y = n0x * stepSin + n0y * stepCos;
+						n0x = t;
+						addOffset(x + n0x, y + n0y);
+					}
+				} else if (join == Join.Miter && (1 + cos) * limitSq >= 2) {
+					double scale = 1 / (1 + cos);
+					addOffset(x + (n0x + n1x) * scale, y + (n0y + n1y) * scale);
+				} else {
+					// Cut the corner at the offset distance from the vertex.
+					double distance = cos < -0.999999 ? Math.abs(offset) : offset * (Math.sqrt(2 + 2 * cos) - 1 - cos) / sin;
+					addOffset(x + n0x + d0x * distance, y + n0y + d0y * distance);
+					addOffset(x + n1x - d1x * distance, y + n1y - d1y * distance);
+				}
+			}
+			offsetContours.add(offsetInput.size - size, 0);
+		}
+	}
+
+	private void addOffset (double x, double y) {
+		offsetInput.add((float)x, (float)y);
+	}
+
+	/** @return A value that sorts as the float does when compared as a signed int. */
+	static private int sortable (float value) {
+		int bits = NumberUtils.floatToRawIntBits(value);
+		return bits ^ (bits >> 31 & 0x7fffffff);
+	}
+
+	/** Sorts the keys and moves the values with them. */
+	static private void sort (long[] keys, int[] values, int low, int high) {
+		while (high - low > 16) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle] < keys[low]) swap(keys, values, middle, low);
+			if (keys[high] < keys[low]) swap(keys, values, high, low);
+			if (keys[high] < keys[middle]) swap(keys, values, high, middle);
+			long pivot = keys[middle];
+			int i = low, j = high;
+			while (i <= j) {
+				while (keys[i] < pivot)
+					i++;
+				while (keys[j] > pivot)
+					j--;
+				if (i <= j) swap(keys, values, i++, j--);
+			}
+			// Recurse into the smaller part to bound the depth.
+			if (j - low < high - i) {
+				sort(keys, values, low, j);
+				low = i;
+			} else {
+				sort(keys, values, i, high);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			long key = keys[i];
+			int value = values[i], j = i - 1;
+			for (; j >= low && keys[j] > key; j--) {
+				keys[j + 1] = keys[j];
+				values[j + 1] = values[j];
+			}
+			keys[j + 1] = key;
+			values[j + 1] = value;
+		}
+	}
+
+	static private void swap (long[] keys, int[] values, int a, int b) {
+		long key = keys[a];
+		keys[a] = keys[b];
+		keys[b] = key;
+		int value = values[a];
+		values[a] = values[b];
+		values[b] = value;
+	}
+
+	static public enum Operation {
+		Union, Intersection,
+		/** The subject polygons minus the clip polygons. */
+		Difference,
+		/** The parts covered by either the subject or the clip polygons, but not both. */
+		Xor
+	}
+
+	/** Decides which parts of overlapping contours are inside, from the number of times the contours wind around each part.
+	 * Counterclockwise contours count positive. */
+	static public enum FillRule {
+		/** Inside where the winding number is odd, so holes may have either orientation. */
+		EvenOdd,
+		/** Inside where the winding number is not zero. Holes must have the opposite orientation of their outer contour. */
+		NonZero,
+		/** Inside where the winding number is positive. Holes must be clockwise. */
+		Positive;
+
+		boolean contains (int winding) {
+			switch (this) {
+			case EvenOdd:
+				return (winding & 1) != 0;
+			case NonZero:
+				return winding != 0;
+			default:
+				return winding > 0;
+			}
+		}
+	}
+
+	/** How an {@link PolygonClipper#offset(float, Join, FloatArray, IntArray) offset} fills the corners it moves apart. */
+	static public enum Join {
+		/** Extends the edges until they meet, or cuts the corner if that is further than the miter limit. */
+		Miter,
+		/** An arc around the corner. */
+		Round,
+		/** Cuts the corner at the offset distance from it. */
+		Square
+	}
+}
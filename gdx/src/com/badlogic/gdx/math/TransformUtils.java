@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import java.nio.FloatBuffer;
+
+/** Transforms many vectors stored in a float array or buffer with one matrix. This is the same as calling
+ * {@link Vector3#mul(Matrix4)}, {@link Vector3#prj(Matrix4)} or {@link Vector3#rot(Matrix4)} for each vector, but the matrix is
+ * only read once and there is no call per vector. Unlike {@link Matrix4#mulVec(float[], float[], int, int, int)} these methods
+ * don't use JNI, so they also work where the natives are not available and are faster for small counts.
+ * <p>
+ * Vectors are 3 floats (x, y, z) and the stride is the number of floats from the start of one vector to the start of the next,
+ * eg the vertex size of a mesh. Separate x, y and z arrays, see {@link #mul(Matrix4, float[], float[], float[], int, int)}, are
+ * fastest because the JIT can use SIMD instructions for them. */
+public class TransformUtils {
+	/** Multiplies the vectors with the matrix, in place.
+	 * @param offset The index of the x component of the first vector.
+	 * @param count The number of vectors.
+	 * @param stride The number of floats between the start of subsequent vectors, >= 3. */
+	static public void mul (Matrix4 matrix, float[] vectors, int offset, int count, int stride) {
+		mul(matrix, vectors, offset, stride, vectors, offset, stride, count);
+	}
+
+	/** Multiplies the source vectors with the matrix and stores the results in the destination vectors. The source and destination
+	 * may be the same array, but then they must not overlap unless they have the same offset and stride. */
+	static public void mul (Matrix4 matrix, float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride,
+		int count) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			dst[d] = x * m00 + y * m01 + z * m02 + m03;
+			dst[d + 1] = x * m10 + y * m11 + z * m12 + m13;
+			dst[d + 2] = x * m20 + y * m21 + z * m22 + m23;
+		}
+	}
+
+	/** Multiplies the vectors stored as separate x, y and z arrays with the matrix, in place. The loop has no dependencies between
+	 * vectors and unit stride, so the JIT can compile it to SIMD instructions.
+	 * @param offset The index of the first vector in each array. */
+	static public void mul (Matrix4 matrix, float[] x, float[] y, float[] z, int offset, int count) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		for (int i = offset, n = offset + count; i < n; i++) {
+			float vx = x[i], vy = y[i], vz = z[i];
+			x[i] = vx * m00 + vy * m01 + vz * m02 + m03;
+			y[i] = vx * m10 + vy * m11 + vz * m12 + m13;
+			z[i] = vx * m20 + vy * m21 + vz * m22 + m23;
+		}
+	}
+
+	/** Multiplies the vectors with the matrix and divides by w, in place. */
+	static public void prj (Matrix4 matrix, float[] vectors, int offset, int count, int stride) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		float m30 = m[Matrix4.M30], m31 = m[Matrix4.M31], m32 = m[Matrix4.M32], m33 = m[Matrix4.M33];
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = vectors[v], y = vectors[v + 1], z = vectors[v + 2];
+			float invW = 1f / (x * m30 + y * m31 + z * m32 + m33);
+			vectors[v] = (x * m00 + y * m01 + z * m02 + m03) * invW;
+			vectors[v + 1] = (x * m10 + y * m11 + z * m12 + m13) * invW;
+			vectors[v + 2] = (x * m20 + y * m21 + z * m22 + m23) * invW;
+		}
+	}
+
+	/** Multiplies the vectors with the upper left 3x3 part of the matrix, in place, eg to transform normals by a matrix without
+	 * scale. */
+	static public void rot (Matrix4 matrix, float[] vectors, int offset, int count, int stride) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22];
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = vectors[v], y = vectors[v + 1], z = vectors[v + 2];
+			vectors[v] = x * m00 + y * m01 + z * m02;
+			vectors[v + 1] = x * m10 + y * m11 + z * m12;
+			vectors[v + 2] = x * m20 + y * m21 + z * m22;
+		}
+	}
+
+	/** Multiplies the vectors with the matrix, in place. The buffer's position and limit are ignored and not changed.
+	 * @param offset The index in floats of the x component of the first vector. */
+	static public void mul (Matrix4 matrix, FloatBuffer vectors, int offset, int count, int stride) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = vectors.get(v), y = vectors.get(v + 1), z = vectors.get(v + 2);
+			vectors.put(v, x * m00 + y * m01 + z * m02 + m03);
+			vectors.put(v + 1, x * m10 + y * m11 + z * m12 + m13);
+			vectors.put(v + 2, x * m20 + y * m21 + z * m22 + m23);
+		}
+	}
+
+	/** Multiplies the vectors with the matrix and divides by w, in place. The buffer's position and limit are ignored and not
+	 * changed. */
+	static public void prj (Matrix4 matrix, FloatBuffer vectors, int offset, int count, int stride) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02], m03 = m[Matrix4.M03];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12], m13 = m[Matrix4.M13];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22], m23 = m[Matrix4.M23];
+		float m30 = m[Matrix4.M30], m31 = m[Matrix4.M31], m32 = m[Matrix4.M32], m33 = m[Matrix4.M33];
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = vectors.get(v), y = vectors.get(v + 1), z = vectors.get(v + 2);
+			float invW = 1f / (x * m30 + y * m31 + z * m32 + m33);
+			vectors.put(v, (x * m00 + y * m01 + z * m02 + m03) * invW);
+			vectors.put(v + 1, (x * m10 + y * m11 + z * m12 + m13) * invW);
+			vectors.put(v + 2, (x * m20 + y * m21 + z * m22 + m23) * invW);
+		}
+	}
+
+	/** Multiplies the vectors with the upper left 3x3 part of the matrix, in place. The buffer's position and limit are ignored
+	 * and not changed. */
+	static public void rot (Matrix4 matrix, FloatBuffer vectors, int offset, int count, int stride) {
+		float[] m = matrix.val;
+		float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m02 = m[Matrix4.M02];
+		float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m12 = m[Matrix4.M12];
+		float m20 = m[Matrix4.M20], m21 = m[Matrix4.M21], m22 = m[Matrix4.M22];
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = vectors.get(v), y = vectors.get(v + 1), z = vectors.get(v + 2);
+			vectors.put(v, x * m00 + y * m01 + z * m02);
+			vectors.put(v + 1, x * m10 + y * m11 + z * m12);
+			vectors.put(v + 2, x * m20 + y * m21 + z * m22);
+		}
+	}
+
+	/** Multiplies 2D points (x, y) with the affine transformation, in place. This is the same as
+	 * {@link Affine2#applyTo(Vector2)} for each point.
+	 * @param stride The number of floats between the start of subsequent points, >= 2. */
+	static public void mul (Affine2 affine, float[] points, int offset, int count, int stride) {
+		float m00 = affine.m00, m01 = affine.m01, m02 = affine.m02;
+		float m10 = affine.m10, m11 = affine.m11, m12 = affine.m12;
+		for (int i = 0, v = offset; i < count; i++, v += stride) {
+			float x = points[v], y = points[v + 1];
+			points[v] = x * m00 + y * m01 + m02;
+			points[v + 1] = x * m10 + y * m11 + m12;
+		}
+	}
+}
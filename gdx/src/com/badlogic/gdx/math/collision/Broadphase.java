@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+/** Finds the axis aligned boxes, called proxies, that may be hit by a query without testing every box. Proxies are identified by
+ * a non-negative int which is reused after the proxy is removed. 2D boxes use a z range of 0 to 0. The exact tests are done by
+ * the callbacks, see {@link ShapeIndex}.
+ * @see DynamicAabbTree
+ * @see UniformGrid */
+public interface Broadphase {
+	/** Adds a proxy with the bounds.
+	 * @return The id of the proxy. */
+	public int add (float minX, float minY, float minZ, float maxX, float maxY, float maxZ);
+
+	/** Sets the bounds of a proxy.
+	 * @return true if the proxy was moved in the broadphase, false if its old place still covers the new bounds. */
+	public boolean update (int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ);
+
+	public void remove (int proxy);
+
+	/** Removes all proxies. */
+	public void clear ();
+
+	/** Reports each proxy that may overlap the box once. */
+	public void query (float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback);
+
+	/** Reports each proxy that may be hit by the segment from (x, y, z) to (x + dx * maxFraction, y + dy * maxFraction, z + dz *
+	 * maxFraction) once, roughly from near to far. The callback can shorten the segment. */
+	public void raycast (float x, float y, float z, float dx, float dy, float dz, float maxFraction, RayCallback callback);
+
+	/** Reports the proxies that may be nearer to the point than the maxDistance, or than the smallest distance returned by the
+	 * callback so far.
+	 * @return The proxy with the smallest distance, or -1. */
+	public int nearest (float x, float y, float z, float maxDistance, DistanceCallback callback);
+
+	static public interface QueryCallback {
+		/** @return false to stop the query. */
+		public boolean report (int proxy);
+	}
+
+	static public interface RayCallback {
+		/** @param maxFraction The current end of the segment.
+		 * @return The new end of the segment, eg the fraction where the proxy was hit or maxFraction if it was missed. 0 stops the
+		 *         raycast. */
+		public float report (int proxy, float maxFraction);
+	}
+
+	static public interface DistanceCallback {
+		/** @param maxDistance The smallest distance found so far.
+		 * @return The distance from the point to the proxy, or a value >= maxDistance if it is not nearer. */
+		public float distance (int proxy, float maxDistance);
+	}
+}
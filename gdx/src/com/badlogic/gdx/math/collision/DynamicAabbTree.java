@@ -0,0 +1,538 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+/** A {@link Broadphase} that keeps the proxies in a balanced binary tree of bounding boxes, as in Box2D. Works well for shapes of
+ * any size and for sparse or clustered scenes.
+ * <p>
+ * Each proxy is stored with its bounds enlarged by a margin. Moving a proxy within its enlarged bounds changes nothing in the
+ * tree, so shapes that move a little each frame are not reinserted every frame. A larger margin means fewer reinsertions but
+ * more proxies reported that are then missed by the exact tests. The margin should be about the distance shapes move between
+ * updates.
+ * <p>
+ * Callbacks must not add, update or remove proxies and must not start another query on the same tree. */
+public class DynamicAabbTree implements Broadphase {
+	private final float margin;
+
+	// Nodes are stored as parallel arrays. Leaves are proxies, a node is a leaf if it has no children.
+	private float[] bounds; // minX, minY, minZ, maxX, maxY, maxZ per node.
+	private int[] parent; // Also the next free node for free nodes.
+	private int[] child1, child2, height;
+	private int root = -1, freeList = -1, capacity, proxyCount;
+
+	private int[] stack = new int[64];
+	private float[] stackValues = new float[64];
+
+	/** Creates a tree with no margin, so every update of a proxy that moved reinserts it. */
+	public DynamicAabbTree () {
+		this(0);
+	}
+
+	/** @param margin The distance the bounds of the proxies are enlarged in each direction. */
+	public DynamicAabbTree (float margin) {
+		if (margin < 0) throw new IllegalArgumentException("margin must be >= 0: " + margin);
+		this.margin = margin;
+		bounds = new float[16 * 6];
+		parent = new int[16];
+		child1 = new int[16];
+		child2 = new int[16];
+		height = new int[16];
+		capacity = 16;
+		linkFreeNodes(0);
+	}
+
+	public int add (float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int proxy = allocateNode();
+		setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(proxy);
+		proxyCount++;
+		return proxy;
+	}
+
+	public boolean update (int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float[] bounds = this.bounds;
+		int o = proxy * 6;
+		float fatMinX = bounds[o], fatMinY = bounds[o + 1], fatMinZ = bounds[o + 2];
+		float fatMaxX = bounds[o + 3], fatMaxY = bounds[o + 4], fatMaxZ = bounds[o + 5];
+		if (fatMinX <= minX && fatMinY <= minY && fatMinZ <= minZ && fatMaxX >= maxX && fatMaxY >= maxY && fatMaxZ >= maxZ) {
+			// Still inside. Only reinsert if the proxy has shrunk a lot, so its enlarged bounds don't grow stale.
+			float shrink = margin * 4;
+			if (minX - fatMinX <= shrink && minY - fatMinY <= shrink && minZ - fatMinZ <= shrink && fatMaxX - maxX <= shrink
+				&& fatMaxY - maxY <= shrink && fatMaxZ - maxZ <= shrink) return false;
+		}
+		removeLeaf(proxy);
+		setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(proxy);
+		return true;
+	}
+
+	public void remove (int proxy) {
+		if (proxy < 0 || proxy >= capacity || child1[proxy] != -1 || height[proxy] != 0)
+			throw new IllegalArgumentException("Invalid proxy: " + proxy);
+		removeLeaf(proxy);
+		freeNode(proxy);
+		proxyCount--;
+	}
+
+	public void clear () {
+		root = -1;
+		proxyCount = 0;
+		linkFreeNodes(0);
+	}
+
+	public void query (float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback) {
+		if (root == -1) return;
+		float[] bounds = this.bounds;
+		int[] child1 = this.child1, child2 = this.child2;
+		int[] stack = this.stack;
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			int o = node * 6;
+			if (bounds[o] > maxX || bounds[o + 1] > maxY || bounds[o + 2] > maxZ || bounds[o + 3] < minX || bounds[o + 4] < minY
+				|| bounds[o + 5] < minZ) continue;
+			if (child1[node] == -1) {
+				if (!callback.report(node)) return;
+				continue;
+			}
+			if (top + 2 > stack.length) stack = growStack(top + 2);
+			stack[top++] = child1[node];
+			stack[top++] = child2[node];
+		}
+	}
+
+	public void raycast (float x, float y, float z, float dx, float dy, float dz, float maxFraction, RayCallback callback) {
+		if (root == -1) return;
+		float invDx = 1 / dx, invDy = 1 / dy, invDz = 1 / dz;
+		float[] bounds = this.bounds;
+		int[] child1 = this.child1, child2 = this.child2;
+		float enter = rayEnter(bounds, root * 6, x, y, z, invDx, invDy, invDz, maxFraction);
+		if (enter < 0) return;
+		int[] stack = this.stack;
+		float[] enters = stackValues;
+		int top = 0;
+		stack[top] = root;
+		enters[top++] = enter;
+		while (top > 0) {
+			int node = stack[--top];
+			if (enters[top] > maxFraction) continue; // The segment was shortened since the node was pushed.
+			if (child1[node] == -1) {
+				maxFraction = callback.report(node, maxFraction);
+				if (maxFraction <= 0) return;
+				continue;
+			}
+			// Push the nearer child last so it is visited first, which shortens the segment sooner.
+			int c1 = child1[node], c2 = child2[node];
+			float enter1 = rayEnter(bounds, c1 * 6, x, y, z, invDx, invDy, invDz, maxFraction);
+			float enter2 = rayEnter(bounds, c2 * 6, x, y, z, invDx, invDy, invDz, maxFraction);
+			if (enter1 > enter2) {
+				int swap = c1;
+				c1 = c2;
+				c2 = swap;
+				float swapEnter = enter1;
+				enter1 = enter2;
+				enter2 = swapEnter;
+			}
+			if (top + 2 > stack.length) {
+				stack = growStack(top + 2);
+				enters = stackValues;
+			}
+			if (enter2 >= 0) {
+				stack[top] = c2;
+				enters[top++] = enter2;
+			}
+			if (enter1 >= 0) {
+				stack[top] = c1;
+				enters[top++] = enter1;
+			}
+		}
+	}
+
+	public int nearest (float x, float y, float z, float maxDistance, DistanceCallback callback) {
+		if (root == -1) return -1;
+		float[] bounds = this.bounds;
+		int[] child1 = this.child1, child2 = this.child2;
+		int[] stack = this.stack;
+		float[] distances = stackValues;
+		int top = 0, nearest = -1;
+		stack[top] = root;
+		distances[top++] = boxDistance2(bounds, root * 6, x, y, z);
+		while (top > 0) {
+			int node = stack[--top];
+			if (distances[top] >= maxDistance * maxDistance) continue;
+			if (child1[node] == -1) {
+				float distance = callback.distance(node, maxDistance);
+				if (distance < maxDistance) {
+					maxDistance = distance;
+					nearest = node;
+				}
+				continue;
+			}
+			int c1 = child1[node], c2 = child2[node];
+			float distance1 = boxDistance2(bounds, c1 * 6, x, y, z), distance2 = boxDistance2(bounds, c2 * 6, x, y, z);
+			if (distance1 > distance2) {
+				int swap = c1;
+				c1 = c2;
+				c2 = swap;
+				float swapDistance = distance1;
+				distance1 = distance2;
+				distance2 = swapDistance;
+			}
+			if (top + 2 > stack.length) {
+				stack = growStack(top + 2);
+				distances = stackValues;
+			}
+			stack[top] = c2;
+			distances[top++] = distance2;
+			stack[top] = c1;
+			distances[top++] = distance1;
+		}
+		return nearest;
+	}
+
+	/** Returns the number of proxies. */
+	public int getProxyCount () {
+		return proxyCount;
+	}
+
+	/** Returns the number of levels of the tree, 0 if it is empty. */
+	public int getHeight () {
+		return root == -1 ? 0 : height[root] + 1;
+	}
+
+	public float getMargin () {
+		return margin;
+	}
+
+	/** Sets the box to the enlarged bounds of the proxy.
+	 * @return The box. */
+	public BoundingBox getFatBounds (int proxy, BoundingBox box) {
+		int o = proxy * 6;
+		box.min.set(bounds[o], bounds[o + 1], bounds[o + 2]);
+		box.max.set(bounds[o + 3], bounds[o + 4], bounds[o + 5]);
+		return box.set(box.min, box.max);
+	}
+
+	private void setFatBounds (int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float margin = this.margin;
+		float[] bounds = this.bounds;
+		int o = node * 6;
+		bounds[o] = minX - margin;
+		bounds[o + 1] = minY - margin;
+		bounds[o + 2] = minZ - margin;
+		bounds[o + 3] = maxX + margin;
+		bounds[o + 4] = maxY + margin;
+		bounds[o + 5] = maxZ + margin;
+	}
+
+	private void insertLeaf (int leaf) {
+		if (root == -1) {
+			root = leaf;
+			parent[leaf] = -1;
+			return;
+		}
+		float[] bounds = this.bounds;
+		int[] child1 = this.child1, child2 = this.child2;
+
+		// Find the best sibling by the cost of the enlarged bounds, using the sum of the box sides like Box2D uses the perimeter.
+		int l = leaf * 6;
+		int index = root;
+		while (child1[index] != -1) {
+			int o = index * 6;
+			float size = size(bounds, o);
+			float combinedSize = combinedSize(bounds, o, l);
+			// Cost of creating a new parent for this node and the new leaf.
+			float cost = 2 * combinedSize;
+			// Minimum cost of pushing the leaf further down the tree.
+			float inheritanceCost = 2 * (combinedSize - size);
+			int c1 = child1[index], c2 = child2[index];
+			float cost1 = combinedSize(bounds, c1 * 6, l) + inheritanceCost;
+			if (child1[c1] != -1) cost1 -= size(bounds, c1 * 6);
+			float cost2 = combinedSize(bounds, c2 * 6, l) + inheritanceCost;
+			if (child1[c2] != -1) cost2 -= size(bounds, c2 * 6);
+			if (cost < cost1 && cost < cost2) break;
+			index = cost1 < cost2 ? c1 : c2;
+		}
+		int sibling = index;
+
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		bounds = this.bounds;
+		child1 = this.child1;
+		child2 = this.child2;
+		int[] parent = this.parent;
+		parent[newParent] = oldParent;
+		union(bounds, newParent * 6, l, sibling * 6);
+		height[newParent] = height[sibling] + 1;
+		if (oldParent != -1) {
+			if (child1[oldParent] == sibling)
+				child1[oldParent] = newParent;
+			else
+				child2[oldParent] = newParent;
+		} else
+			root = newParent;
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refitAncestors(parent[leaf]);
+	}
+
+	private void removeLeaf (int leaf) {
+		if (leaf == root) {
+			root = -1;
+			return;
+		}
+		int[] parent = this.parent, child1 = this.child1, child2 = this.child2;
+		int oldParent = parent[leaf], grandParent = parent[oldParent];
+		int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+		if (grandParent != -1) {
+			if (child1[grandParent] == oldParent)
+				child1[grandParent] = sibling;
+			else
+				child2[grandParent] = sibling;
+			parent[sibling] = grandParent;
+			freeNode(oldParent);
+			refitAncestors(grandParent);
+		} else {
+			root = sibling;
+			parent[sibling] = -1;
+			freeNode(oldParent);
+		}
+	}
+
+	/** Balances the nodes from the index to the root and recomputes their bounds and heights. */
+	private void refitAncestors (int index) {
+		float[] bounds = this.bounds;
+		int[] parent = this.parent, child1 = this.child1, child2 = this.child2, height = this.height;
+		while (index != -1) {
+			index = balance(index);
+			int c1 = child1[index], c2 = child2[index];
+			height[index] = 1 + Math.max(height[c1], height[c2]);
+			union(bounds, index * 6, c1 * 6, c2 * 6);
+			index = parent[index];
+		}
+	}
+
+	/** Performs a left or right rotation if the node is imbalanced.
+	 * @return The new root of the subtree. */
+	private int balance (int a) {
+		int[] parent = this.parent, child1 = this.child1, child2 = this.child2, height = this.height;
+		float[] bounds = this.bounds;
+		if (child1[a] == -1 || height[a] < 2) return a;
+		int b = child1[a], c = child2[a];
+		int balance = height[c] - height[b];
+
+		if (balance > 1) { // Rotate c up.
+			int f = child1[c], g = child2[c];
+			child1[c] = a;
+			parent[c] = parent[a];
+			parent[a] = c;
+			replaceChild(parent[c], a, c);
+			if (height[f] > height[g]) {
+				child2[c] = f;
+				child2[a] = g;
+				parent[g] = a;
+				union(bounds, a * 6, b * 6, g * 6);
+				union(bounds, c * 6, a * 6, f * 6);
+				height[a] = 1 + Math.max(height[b], height[g]);
+				height[c] = 1 + Math.max(height[a], height[f]);
+			} else {
+				child2[c] = g;
+				child2[a] = f;
+				parent[f] = a;
+				union(bounds, a * 6, b * 6, f * 6);
+				union(bounds, c * 6, a * 6, g * 6);
+				height[a] = 1 + Math.max(height[b], height[f]);
+				height[c] = 1 + Math.max(height[a], height[g]);
+			}
+			return c;
+		}
+
+		if (balance < -1) { // Rotate b up.
+			int d = child1[b], e = child2[b];
+			child1[b] = a;
+			parent[b] = parent[a];
+			parent[a] = b;
+			replaceChild(parent[b], a, b);
+			if (height[d] > height[e]) {
+				child2[b] = d;
+				child1[a] = e;
+				parent[e] = a;
+				union(bounds, a * 6, c * 6, e * 6);
+				union(bounds, b * 6, a * 6, d * 6);
+				height[a] = 1 + Math.max(height[c], height[e]);
+				height[b] = 1 + Math.max(height[a], height[d]);
+			} else {
+				child2[b] = e;
+				child1[a] = d;
+				parent[d] = a;
+				union(bounds, a * 6, c * 6, d * 6);
+				union(bounds, b * 6, a * 6, e * 6);
+				height[a] = 1 + Math.max(height[c], height[d]);
+				height[b] = 1 + Math.max(height[a], height[e]);
+			}
+			return b;
+		}
+		return a;
+	}
+
+	private void replaceChild (int node, int oldChild, int newChild) {
+		if (node == -1)
+			root = newChild;
+		else if (child1[node] == oldChild)
+			child1[node] = newChild;
+		else
+			child2[node] = newChild;
+	}
+
+	private int allocateNode () {
+		if (freeList == -1) {
+			int oldCapacity = capacity;
+			capacity = oldCapacity * 2;
+			bounds = copy(bounds, capacity * 6);
+			parent = copy(parent, capacity);
+			child1 = copy(child1, capacity);
+			child2 = copy(child2, capacity);
+			height = copy(height, capacity);
+			linkFreeNodes(oldCapacity);
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = -1;
+		child1[node] = -1;
+		child2[node] = -1;
+		height[node] = 0;
+		return node;
+	}
+
+	private void freeNode (int node) {
+		parent[node] = freeList;
+		child1[node] = -1;
+		height[node] = -1;
+		freeList = node;
+	}
+
+	/** Adds the nodes from the start index to the end of the arrays to the free list. */
+	private void linkFreeNodes (int start) {
+		int[] parent = this.parent, child1 = this.child1, height = this.height;
+		for (int i = start, n = capacity - 1; i < n; i++) {
+			parent[i] = i + 1;
+			child1[i] = -1;
+			height[i] = -1;
+		}
+		parent[capacity - 1] = -1;
+		child1[capacity - 1] = -1;
+		height[capacity - 1] = -1;
+		freeList = start;
+	}
+
+	private int[] growStack (int minSize) {
+		int size = Math.max(minSize, stack.length * 2);
+		stack = copy(stack, size);
+		stackValues = copy(stackValues, size);
+		return stack;
+	}
+
+	static private float size (float[] bounds, int o) {
+		return bounds[o + 3] - bounds[o] + bounds[o + 4] - bounds[o + 1] + bounds[o + 5] - bounds[o + 2];
+	}
+
+	static private float combinedSize (float[] bounds, int a, int b) {
+		return Math.max(bounds[a + 3], bounds[b + 3]) - Math.min(bounds[a], bounds[b]) //
+			+ Math.max(bounds[a + 4], bounds[b + 4]) - Math.min(bounds[a + 1], bounds[b + 1]) //
+			+ Math.max(bounds[a + 5], bounds[b + 5]) - Math.min(bounds[a + 2], bounds[b + 2]);
+	}
+
+	static private void union (float[] bounds, int out, int a, int b) {
+		bounds[out] = Math.min(bounds[a], bounds[b]);
+		bounds[out + 1] = Math.min(bounds[a + 1], bounds[b + 1]);
+		bounds[out + 2] = Math.min(bounds[a + 2], bounds[b + 2]);
+		bounds[out + 3] = Math.max(bounds[a + 3], bounds[b + 3]);
+		bounds[out + 4] = Math.max(bounds[a + 4], bounds[b + 4]);
+		bounds[out + 5] = Math.max(bounds[a + 5], bounds[b + 5]);
+	}
+
+	/** Returns the squared distance from the point to the box at the offset, 0 if the point is inside. */
+	static float boxDistance2 (float[] bounds, int o, float x, float y, float z) {
+		float dx = Math.max(Math.max(bounds[o] - x, x - bounds[o + 3]), 0);
+		float dy = Math.max(Math.max(bounds[o + 1] - y, y - bounds[o + 4]), 0);
+		float dz = Math.max(Math.max(bounds[o + 2] - z, z - bounds[o + 5]), 0);
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/** Returns the fraction where the segment from (x, y, z) with the inverse direction enters the box at the offset, or -1 if it
+	 * misses the box before the maxFraction. An infinite inverse means the segment is parallel to that axis. */
+	static float rayEnter (float[] bounds, int o, float x, float y, float z, float invDx, float invDy, float invDz,
+		float maxFraction) {
+		float enter = 0, exit = maxFraction;
+		if (Float.isInfinite(invDx)) {
+			if (x < bounds[o] || x > bounds[o + 3]) return -1;
+		} else {
+			float t1 = (bounds[o] - x) * invDx, t2 = (bounds[o + 3] - x) * invDx;
+			if (t1 > t2) {
+				enter = Math.max(enter, t2);
+				exit = Math.min(exit, t1);
+			} else {
+				enter = Math.max(enter, t1);
+				exit = Math.min(exit, t2);
+			}
+			if (enter > exit) return -1;
+		}
+		if (Float.isInfinite(invDy)) {
+			if (y < bounds[o + 1] || y > bounds[o + 4]) return -1;
+		} else {
+			float t1 = (bounds[o + 1] - y) * invDy, t2 = (bounds[o + 4] - y) * invDy;
+			if (t1 > t2) {
+				enter = Math.max(enter, t2);
+				exit = Math.min(exit, t1);
+			} else {
+				enter = Math.max(enter, t1);
+				exit = Math.min(exit, t2);
+			}
+			if (enter > exit) return -1;
+		}
+		if (Float.isInfinite(invDz)) {
+			if (z < bounds[o + 2] || z > bounds[o + 5]) return -1;
+		} else {
+			float t1 = (bounds[o + 2] - z) * invDz, t2 = (bounds[o + 5] - z) * invDz;
+			if (t1 > t2) {
+				enter = Math.max(enter, t2);
+				exit = Math.min(exit, t1);
+			} else {
+				enter = Math.max(enter, t1);
+				exit = Math.min(exit, t2);
+			}
+			if (enter > exit) return -1;
+		}
+		return enter;
+	}
+
+	static private float[] copy (float[] array, int size) {
+		float[] newArray = new float[size];
+		System.arraycopy(array, 0, newArray, 0, Math.min(array.length, size));
+		return newArray;
+	}
+
+	static private int[] copy (int[] array, int size) {
+		int[] newArray = new int[size];
+		System.arraycopy(array, 0, newArray, 0, Math.min(array.length, size));
+		return newArray;
+	}
+}
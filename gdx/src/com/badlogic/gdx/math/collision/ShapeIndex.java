@@ -0,0 +1,559 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Broadphase.DistanceCallback;
+import com.badlogic.gdx.math.collision.Broadphase.QueryCallback;
+import com.badlogic.gdx.math.collision.Broadphase.RayCallback;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Stores {@link Rectangle}, {@link Circle}, {@link Polygon} and {@link BoundingBox} shapes in a {@link Broadphase} and finds the
+ * shapes hit by rays, overlapping other shapes or nearest to points without testing every shape. The exact tests use
+ * {@link Intersector}. Many queries can be done with one call, eg to cast the rays of all bullets in a frame.
+ * <p>
+ * Shapes are identified by the id returned when they are added, which is reused after the shape is removed. 2D shapes and 2D
+ * queries lie in the plane z = 0, so a bounding box is only found by 2D queries if it contains z = 0 and a 2D shape is only hit
+ * by a 3D ray that crosses it at z = 0.
+ * <p>
+ * The shapes are not copied, {@link #update(int)} must be called after a shape is changed. Overlap tests between two polygons or
+ * a polygon and a rectangle expect convex polygons, see {@link Intersector#overlapConvexPolygons(Polygon, Polygon)}. The other
+ * tests work for any simple polygon.
+ * <p>
+ * Queries reuse internal state, so an index must not be used by multiple threads at once. */
+public class ShapeIndex<T> {
+	static private final byte RECTANGLE = 1, CIRCLE = 2, POLYGON = 3, BOUNDING_BOX = 4;
+
+	private final Broadphase broadphase;
+	private Object[] shapes = new Object[16];
+	private Object[] userObjects = new Object[16];
+	private byte[] types = new byte[16];
+	private int size;
+
+	// The state of the current query, used by the callbacks.
+	private final float[] bounds = new float[6], tmpBounds = new float[6];
+	private final float[] tmpVertices = new float[8];
+	private final Rectangle tmpRectangle = new Rectangle();
+	private final Vector2 tmp = new Vector2();
+	private byte queryType;
+	private Object queryShape;
+	private IntArray queryResults;
+	private int queryId, hitId;
+	private float rayX, rayY, rayZ, rayDx, rayDy, rayDz, hitFraction;
+	private float pointX, pointY, pointZ;
+
+	private final QueryCallback overlapCallback = new QueryCallback() {
+		public boolean report (int id) {
+			if (overlaps(queryType, queryShape, types[id], shapes[id])) queryResults.add(id);
+			return true;
+		}
+	};
+
+	private final QueryCallback pairCallback = new QueryCallback() {
+		public boolean report (int id) {
+			int queryId = ShapeIndex.this.queryId;
+			if (id > queryId && overlaps(types[queryId], shapes[queryId], types[id], shapes[id])) {
+				queryResults.add(queryId);
+				queryResults.add(id);
+			}
+			return true;
+		}
+	};
+
+	private final RayCallback segmentCallback = new RayCallback() {
+		public float report (int id, float maxFraction) {
+			float fraction = segmentFraction(types[id], shapes[id], maxFraction);
+			if (fraction >= maxFraction) return maxFraction;
+			hitId = id;
+			hitFraction = fraction;
+			return fraction;
+		}
+	};
+
+	private final RayCallback rayCallback = new RayCallback() {
+		public float report (int id, float maxDistance) {
+			float distance = rayDistance(types[id], shapes[id], maxDistance);
+			if (distance >= maxDistance) return maxDistance;
+			hitId = id;
+			hitFraction = distance;
+			return distance;
+		}
+	};
+
+	private final DistanceCallback distanceCallback = new DistanceCallback() {
+		public float distance (int id, float maxDistance) {
+			return ShapeIndex.this.distance(types[id], shapes[id]);
+		}
+	};
+
+	/** Creates an index that uses a {@link DynamicAabbTree} with no margin. */
+	public ShapeIndex () {
+		this(new DynamicAabbTree());
+	}
+
+	/** @param broadphase An empty broadphase. It must not be used for other proxies. */
+	public ShapeIndex (Broadphase broadphase) {
+		if (broadphase == null) throw new IllegalArgumentException("broadphase cannot be null.");
+		this.broadphase = broadphase;
+	}
+
+	/** @param userObject May be null.
+	 * @return The id of the shape. */
+	public int add (Rectangle rectangle, T userObject) {
+		return add(RECTANGLE, rectangle, userObject);
+	}
+
+	/** @param userObject May be null.
+	 * @return The id of the shape. */
+	public int add (Circle circle, T userObject) {
+		return add(CIRCLE, circle, userObject);
+	}
+
+	/** @param userObject May be null.
+	 * @return The id of the shape. */
+	public int add (Polygon polygon, T userObject) {
+		return add(POLYGON, polygon, userObject);
+	}
+
+	/** @param userObject May be null.
+	 * @return The id of the shape. */
+	public int add (BoundingBox box, T userObject) {
+		return add(BOUNDING_BOX, box, userObject);
+	}
+
+	private int add (byte type, Object shape, T userObject) {
+		if (shape == null) throw new IllegalArgumentException("shape cannot be null.");
+		float[] bounds = computeBounds(type, shape, this.bounds);
+		int id = broadphase.add(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+		if (id >= shapes.length) {
+			int capacity = Math.max(id + 1, shapes.length * 2);
+			Object[] newShapes = new Object[capacity];
+			System.arraycopy(shapes, 0, newShapes, 0, shapes.length);
+			shapes = newShapes;
+			Object[] newUserObjects = new Object[capacity];
+			System.arraycopy(userObjects, 0, newUserObjects, 0, userObjects.length);
+			userObjects = newUserObjects;
+			byte[] newTypes = new byte[capacity];
+			System.arraycopy(types, 0, newTypes, 0, types.length);
+			types = newTypes;
+		}
+		shapes[id] = shape;
+		userObjects[id] = userObject;
+		types[id] = type;
+		size++;
+		return id;
+	}
+
+	/** Updates the index after the shape was moved or changed. */
+	public void update (int id) {
+		checkId(id);
+		float[] bounds = computeBounds(types[id], shapes[id], this.bounds);
+		broadphase.update(id, bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+	}
+
+	public void remove (int id) {
+		checkId(id);
+		broadphase.remove(id);
+		shapes[id] = null;
+		userObjects[id] = null;
+		types[id] = 0;
+		size--;
+	}
+
+	public void clear () {
+		broadphase.clear();
+		for (int i = 0, n = shapes.length; i < n; i++) {
+			shapes[i] = null;
+			userObjects[i] = null;
+			types[i] = 0;
+		}
+		size = 0;
+	}
+
+	/** Returns the {@link Rectangle}, {@link Circle}, {@link Polygon} or {@link BoundingBox} with the id. */
+	public Object getShape (int id) {
+		checkId(id);
+		return shapes[id];
+	}
+
+	public T getUserObject (int id) {
+		checkId(id);
+		return (T)userObjects[id];
+	}
+
+	/** Returns the number of shapes. */
+	public int getSize () {
+		return size;
+	}
+
+	public Broadphase getBroadphase () {
+		return broadphase;
+	}
+
+	/** Returns the first shape hit by the 2D segment.
+	 * @param intersection Set to the point where the segment enters the shape, or to the start if it starts inside the shape. May
+	 *           be null.
+	 * @return The id of the shape, or -1. */
+	public int raycast (float startX, float startY, float endX, float endY, Vector2 intersection) {
+		rayX = startX;
+		rayY = startY;
+		rayZ = 0;
+		rayDx = endX - startX;
+		rayDy = endY - startY;
+		rayDz = 0;
+		hitId = -1;
+		broadphase.raycast(startX, startY, 0, rayDx, rayDy, 0, 1, segmentCallback);
+		if (hitId != -1 && intersection != null) intersection.set(startX + rayDx * hitFraction, startY + rayDy * hitFraction);
+		return hitId;
+	}
+
+	/** Casts many 2D segments and adds the id of the first shape hit by each segment to the hits, or -1 for segments that hit
+	 * nothing.
+	 * @param segments The start x, start y, end x and end y of each segment.
+	 * @param count The number of segments. */
+	public void raycast (float[] segments, int offset, int count, IntArray hits) {
+		hits.ensureCapacity(count);
+		for (int i = offset, n = offset + count * 4; i < n; i += 4)
+			hits.add(raycast(segments[i], segments[i + 1], segments[i + 2], segments[i + 3], null));
+	}
+
+	/** Returns the first shape hit by the ray within the maxDistance from its origin.
+	 * @param intersection Set to the point where the ray enters the shape. May be null.
+	 * @return The id of the shape, or -1. */
+	public int raycast (Ray ray, float maxDistance, Vector3 intersection) {
+		Vector3 origin = ray.origin, direction = ray.direction;
+		rayX = origin.x;
+		rayY = origin.y;
+		rayZ = origin.z;
+		rayDx = direction.x;
+		rayDy = direction.y;
+		rayDz = direction.z;
+		hitId = -1;
+		broadphase.raycast(rayX, rayY, rayZ, rayDx, rayDy, rayDz, maxDistance, rayCallback);
+		if (hitId != -1 && intersection != null) ray.getEndPoint(intersection, hitFraction);
+		return hitId;
+	}
+
+	/** Casts many rays and adds the id of the first shape hit by each ray to the hits, or -1 for rays that hit nothing. */
+	public void raycast (Array<Ray> rays, float maxDistance, IntArray hits) {
+		hits.ensureCapacity(rays.size);
+		for (int i = 0, n = rays.size; i < n; i++)
+			hits.add(raycast(rays.get(i), maxDistance, null));
+	}
+
+	/** Adds the ids of the shapes that overlap the rectangle to the results. */
+	public void overlaps (Rectangle rectangle, IntArray results) {
+		overlaps(RECTANGLE, rectangle, results);
+	}
+
+	/** Adds the ids of the shapes that overlap the circle to the results. */
+	public void overlaps (Circle circle, IntArray results) {
+		overlaps(CIRCLE, circle, results);
+	}
+
+	/** Adds the ids of the shapes that overlap the polygon to the results. */
+	public void overlaps (Polygon polygon, IntArray results) {
+		overlaps(POLYGON, polygon, results);
+	}
+
+	/** Adds the ids of the shapes that overlap the box to the results. */
+	public void overlaps (BoundingBox box, IntArray results) {
+		overlaps(BOUNDING_BOX, box, results);
+	}
+
+	private void overlaps (byte type, Object shape, IntArray results) {
+		float[] bounds = computeBounds(type, shape, this.bounds);
+		queryType = type;
+		queryShape = shape;
+		queryResults = results;
+		broadphase.query(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5], overlapCallback);
+		queryShape = null;
+		queryResults = null;
+	}
+
+	/** Adds the ids of each pair of overlapping shapes to the pairs, the lower id first. */
+	public void findPairs (IntArray pairs) {
+		queryResults = pairs;
+		Object[] shapes = this.shapes;
+		for (int id = 0, n = shapes.length; id < n; id++) {
+			if (shapes[id] == null) continue;
+			float[] bounds = computeBounds(types[id], shapes[id], this.bounds);
+			queryId = id;
+			broadphase.query(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5], pairCallback);
+		}
+		queryResults = null;
+	}
+
+	/** Returns the shape nearest to the 2D point. The distance to a shape that contains the point is 0.
+	 * @return The id of the shape, or -1 if no shape is nearer than the maxDistance. */
+	public int nearest (float x, float y, float maxDistance) {
+		pointX = x;
+		pointY = y;
+		pointZ = 0;
+		return broadphase.nearest(x, y, 0, maxDistance, distanceCallback);
+	}
+
+	/** Finds the nearest shape for many 2D points and adds the id of each to the results, or -1 for points that have no shape
+	 * nearer than the maxDistance.
+	 * @param points The x and y of each point.
+	 * @param count The number of points. */
+	public void nearest (float[] points, int offset, int count, float maxDistance, IntArray results) {
+		results.ensureCapacity(count);
+		for (int i = offset, n = offset + count * 2; i < n; i += 2)
+			results.add(nearest(points[i], points[i + 1], maxDistance));
+	}
+
+	/** Returns the shape nearest to the point. The distance to a shape that contains the point is 0.
+	 * @return The id of the shape, or -1 if no shape is nearer than the maxDistance. */
+	public int nearest (Vector3 point, float maxDistance) {
+		pointX = point.x;
+		pointY = point.y;
+		pointZ = point.z;
+		return broadphase.nearest(point.x, point.y, point.z, maxDistance, distanceCallback);
+	}
+
+	/** Returns the distance from a shape to the point of the last {@link #nearest(float, float, float)} query. */
+	float distance (byte type, Object shape) {
+		float x = pointX, y = pointY, z = pointZ;
+		switch (type) {
+		case RECTANGLE: {
+			Rectangle rectangle = (Rectangle)shape;
+			float dx = Math.max(Math.max(rectangle.x - x, x - rectangle.x - rectangle.width), 0);
+			float dy = Math.max(Math.max(rectangle.y - y, y - rectangle.y - rectangle.height), 0);
+			return (float)Math.sqrt(dx * dx + dy * dy + z * z);
+		}
+		case CIRCLE: {
+			Circle circle = (Circle)shape;
+			float dx = x - circle.x, dy = y - circle.y;
+			float distance = Math.max((float)Math.sqrt(dx * dx + dy * dy) - circle.radius, 0);
+			return (float)Math.sqrt(distance * distance + z * z);
+		}
+		case POLYGON: {
+			float[] vertices = ((Polygon)shape).getTransformedVertices();
+			float distance = 0;
+			if (!Intersector.isPointInPolygon(vertices, 0, vertices.length, x, y)) {
+				distance = Float.POSITIVE_INFINITY;
+				for (int i = 0, n = vertices.length; i < n; i += 2) {
+					int j = (i + 2) % n;
+					distance = Math.min(distance,
+						Intersector.distanceSegmentPoint(vertices[i], vertices[i + 1], vertices[j], vertices[j + 1], x, y));
+				}
+			}
+			return (float)Math.sqrt(distance * distance + z * z);
+		}
+		default: {
+			BoundingBox box = (BoundingBox)shape;
+			float dx = Math.max(Math.max(box.min.x - x, x - box.max.x), 0);
+			float dy = Math.max(Math.max(box.min.y - y, y - box.max.y), 0);
+			float dz = Math.max(Math.max(box.min.z - z, z - box.max.z), 0);
+			return (float)Math.sqrt(dx * dx + dy * dy + dz * dz);
+		}
+		}
+	}
+
+	/** Returns the fraction of the current 2D segment where it enters the shape, or maxFraction if it doesn't before. */
+	float segmentFraction (byte type, Object shape, float maxFraction) {
+		float x = rayX, y = rayY, dx = rayDx, dy = rayDy;
+		switch (type) {
+		case RECTANGLE: {
+			Rectangle rectangle = (Rectangle)shape;
+			return boxFraction(rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height, 0,
+				maxFraction);
+		}
+		case CIRCLE: {
+			Circle circle = (Circle)shape;
+			float fx = x - circle.x, fy = y - circle.y;
+			float c = fx * fx + fy * fy - circle.radius * circle.radius;
+			if (c <= 0) return 0; // Starts inside.
+			float a = dx * dx + dy * dy, b = 2 * (fx * dx + fy * dy);
+			float discriminant = b * b - 4 * a * c;
+			if (a == 0 || discriminant < 0) return maxFraction;
+			float fraction = (-b - (float)Math.sqrt(discriminant)) / (2 * a);
+			return fraction >= 0 && fraction < maxFraction ? fraction : maxFraction;
+		}
+		case POLYGON: {
+			float[] vertices = ((Polygon)shape).getTransformedVertices();
+			if (Intersector.isPointInPolygon(vertices, 0, vertices.length, x, y)) return 0;
+			float endX = x + dx * maxFraction, endY = y + dy * maxFraction;
+			boolean alongX = Math.abs(dx) > Math.abs(dy);
+			Vector2 intersection = tmp;
+			for (int i = 0, n = vertices.length; i < n; i += 2) {
+				int j = (i + 2) % n;
+				if (!Intersector.intersectSegments(x, y, endX, endY, vertices[i], vertices[i + 1], vertices[j], vertices[j + 1],
+					intersection)) continue;
+				float fraction = alongX ? (intersection.x - x) / dx : (intersection.y - y) / dy;
+				if (fraction < maxFraction) {
+					maxFraction = fraction;
+					endX = intersection.x;
+					endY = intersection.y;
+				}
+			}
+			return maxFraction;
+		}
+		default: {
+			BoundingBox box = (BoundingBox)shape;
+			if (box.min.z > 0 || box.max.z < 0) return maxFraction;
+			return boxFraction(box.min.x, box.min.y, 0, box.max.x, box.max.y, 0, maxFraction);
+		}
+		}
+	}
+
+	/** Returns the distance along the current 3D ray where it enters the shape, or maxDistance if it doesn't before. */
+	float rayDistance (byte type, Object shape, float maxDistance) {
+		if (type == BOUNDING_BOX) {
+			BoundingBox box = (BoundingBox)shape;
+			return boxFraction(box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z, maxDistance);
+		}
+		// 2D shapes are hit where the ray crosses z = 0.
+		if (rayDz == 0) return maxDistance;
+		float distance = -rayZ / rayDz;
+		if (distance < 0 || distance >= maxDistance) return maxDistance;
+		float x = rayX + rayDx * distance, y = rayY + rayDy * distance;
+		switch (type) {
+		case RECTANGLE:
+			return ((Rectangle)shape).contains(x, y) ? distance : maxDistance;
+		case CIRCLE:
+			return ((Circle)shape).contains(x, y) ? distance : maxDistance;
+		default:
+			return ((Polygon)shape).contains(x, y) ? distance : maxDistance;
+		}
+	}
+
+	/** Returns the fraction of the current ray where it enters the box, or maxFraction if it doesn't before. */
+	private float boxFraction (float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float maxFraction) {
+		float[] box = tmpBounds;
+		box[0] = minX;
+		box[1] = minY;
+		box[2] = minZ;
+		box[3] = maxX;
+		box[4] = maxY;
+		box[5] = maxZ;
+		float fraction = DynamicAabbTree.rayEnter(box, 0, rayX, rayY, rayZ, 1 / rayDx, 1 / rayDy, 1 / rayDz, maxFraction);
+		return fraction < 0 ? maxFraction : fraction;
+	}
+
+	boolean overlaps (byte typeA, Object a, byte typeB, Object b) {
+		if (typeA == BOUNDING_BOX) {
+			BoundingBox box = (BoundingBox)a;
+			if (typeB == BOUNDING_BOX) {
+				BoundingBox box2 = (BoundingBox)b;
+				return box.min.x <= box2.max.x && box.min.y <= box2.max.y && box.min.z <= box2.max.z && box.max.x >= box2.min.x
+					&& box.max.y >= box2.min.y && box.max.z >= box2.min.z;
+			}
+			if (box.min.z > 0 || box.max.z < 0) return false;
+			Rectangle rectangle = tmpRectangle.set(box.min.x, box.min.y, box.max.x - box.min.x, box.max.y - box.min.y);
+			return overlaps(RECTANGLE, rectangle, typeB, b);
+		}
+		if (typeB == BOUNDING_BOX) return overlaps(typeB, b, typeA, a);
+
+		switch (typeA) {
+		case RECTANGLE:
+			switch (typeB) {
+			case RECTANGLE:
+				return Intersector.overlaps((Rectangle)a, (Rectangle)b);
+			case CIRCLE:
+				return Intersector.overlaps((Circle)b, (Rectangle)a);
+			default:
+				return overlaps((Polygon)b, (Rectangle)a);
+			}
+		case CIRCLE:
+			switch (typeB) {
+			case RECTANGLE:
+				return Intersector.overlaps((Circle)a, (Rectangle)b);
+			case CIRCLE:
+				return Intersector.overlaps((Circle)a, (Circle)b);
+			default:
+				return overlaps((Polygon)b, (Circle)a);
+			}
+		default:
+			switch (typeB) {
+			case RECTANGLE:
+				return overlaps((Polygon)a, (Rectangle)b);
+			case CIRCLE:
+				return overlaps((Polygon)a, (Circle)b);
+			default:
+				return Intersector.overlapConvexPolygons((Polygon)a, (Polygon)b);
+			}
+		}
+	}
+
+	private boolean overlaps (Polygon polygon, Rectangle rectangle) {
+		float[] vertices = tmpVertices;
+		vertices[0] = rectangle.x;
+		vertices[1] = rectangle.y;
+		vertices[2] = rectangle.x + rectangle.width;
+		vertices[3] = rectangle.y;
+		vertices[4] = rectangle.x + rectangle.width;
+		vertices[5] = rectangle.y + rectangle.height;
+		vertices[6] = rectangle.x;
+		vertices[7] = rectangle.y + rectangle.height;
+		return Intersector.overlapConvexPolygons(polygon.getTransformedVertices(), vertices, null);
+	}
+
+	private boolean overlaps (Polygon polygon, Circle circle) {
+		float[] vertices = polygon.getTransformedVertices();
+		if (Intersector.isPointInPolygon(vertices, 0, vertices.length, circle.x, circle.y)) return true;
+		for (int i = 0, n = vertices.length; i < n; i += 2) {
+			int j = (i + 2) % n;
+			if (Intersector.distanceSegmentPoint(vertices[i], vertices[i + 1], vertices[j], vertices[j + 1], circle.x,
+				circle.y) <= circle.radius) return true;
+		}
+		return false;
+	}
+
+	static private float[] computeBounds (byte type, Object shape, float[] bounds) {
+		switch (type) {
+		case RECTANGLE: {
+			Rectangle rectangle = (Rectangle)shape;
+			return set(bounds, rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height, 0);
+		}
+		case CIRCLE: {
+			Circle circle = (Circle)shape;
+			float radius = circle.radius;
+			return set(bounds, circle.x - radius, circle.y - radius, 0, circle.x + radius, circle.y + radius, 0);
+		}
+		case POLYGON: {
+			Rectangle rectangle = ((Polygon)shape).getBoundingRectangle();
+			return set(bounds, rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height, 0);
+		}
+		default: {
+			BoundingBox box = (BoundingBox)shape;
+			return set(bounds, box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z);
+		}
+		}
+	}
+
+	static private float[] set (float[] bounds, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		bounds[0] = minX;
+		bounds[1] = minY;
+		bounds[2] = minZ;
+		bounds[3] = maxX;
+		bounds[4] = maxY;
+		bounds[5] = maxZ;
+		return bounds;
+	}
+
+	private void checkId (int id) {
+		if (id < 0 || id >= shapes.length || shapes[id] == null) throw new IllegalArgumentException("Invalid id: " + id);
+	}
+}
@@ -0,0 +1,495 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/** Finds the pairs of 2D boxes that overlap and reports when pairs begin and end to overlap, using less work when the boxes
+ * move a little each frame. The minimum and maximum of the boxes on each axis are kept in sorted lists between frames. The lists
+ * are sorted with an insertion sort, which is fast for nearly sorted lists, and boxes are only tested for a new pair when the
+ * min of one moves before the max of the other. Existing pairs are tested each update. This works best when most boxes move
+ * every frame but not far, eg game objects that are tested with {@link Rectangle#overlaps(Rectangle)} against every other
+ * object. {@link DynamicAabbTree} is better to query regions and cast rays.
+ * <p>
+ * Boxes overlap as for {@link Rectangle#overlaps(Rectangle)}, so boxes that only touch don't overlap. The pairs are of the boxes,
+ * a pair of {@link Circle circles} may not overlap.
+ * <p>
+ * Adding, updating and removing proxies only stores the change, the pairs are found by {@link #updatePairs(PairListener)}. Many
+ * proxies added at once are sorted and inserted together, so filling a level with proxies doesn't take quadratic time. Proxy ids
+ * are reused after the proxy is removed and pairs are updated. The listener must not add, update or remove proxies. */
+public class SweepAndPrune {
+	static private final byte FREE = 0, ADDED = 1, ACTIVE = 2, REMOVED = 3;
+	static private final byte CURRENT = 1, REPORTED = 2, CHANGED = 4;
+
+	private float[] bounds = new float[16 * 4]; // minX, minY, maxX, maxY per proxy.
+	private byte[] states = new byte[16];
+	private int capacity, proxyCount;
+	private final IntArray freeIds = new IntArray(), added = new IntArray(), removed = new IntArray();
+
+	// The sorted endpoints per axis. The data is the proxy shifted left by 1, with the lowest bit set for the max. Ends with
+	// the same value are sorted with the maxes first, so a min is before a max exactly when the boxes overlap on the axis.
+	private final float[][] values = {new float[32], new float[32]};
+	private final int[][] data = {new int[32], new int[32]};
+	private int endpointCount;
+
+	// The pairs of proxies, the lower id in the high bits, with linear probing. A key of 0 is an empty slot.
+	private long[] pairKeys = new long[64];
+	private byte[] pairStates = new byte[64];
+	private int pairShift = 64 - 6, pairSlots, pairCount;
+	private final LongArray changed = new LongArray();
+
+	private long[] sortKeys = new long[0];
+	private int[] activeOld = new int[0], activeNew = new int[0], activeIndex = new int[0];
+
+	/** @return The id of the proxy. */
+	public int add (float minX, float minY, float maxX, float maxY) {
+		int proxy;
+		if (freeIds.size > 0)
+			proxy = freeIds.pop();
+		else {
+			proxy = capacity++;
+			if (states.length < capacity) {
+				int size = capacity * 2;
+				bounds = copy(bounds, size * 4);
+				byte[] newStates = new byte[size];
+				System.arraycopy(states, 0, newStates, 0, states.length);
+				states = newStates;
+			}
+		}
+		states[proxy] = ADDED;
+		setBounds(proxy, minX, minY, maxX, maxY);
+		added.add(proxy);
+		proxyCount++;
+		return proxy;
+	}
+
+	/** @return The id of the proxy. */
+	public int add (Rectangle rectangle) {
+		return add(rectangle.x, rectangle.y, rectangle.x + rectangle.width, rectangle.y + rectangle.height);
+	}
+
+	/** @return The id of the proxy. */
+	public int add (Circle circle) {
+		return add(circle.x - circle.radius, circle.y - circle.radius, circle.x + circle.radius, circle.y + circle.radius);
+	}
+
+	/** Sets the bounds of a proxy. The pairs are updated by the next {@link #updatePairs(PairListener)}. */
+	public void update (int proxy, float minX, float minY, float maxX, float maxY) {
+		byte state = proxy >= 0 && proxy < capacity ? states[proxy] : FREE;
+		if (state != ACTIVE && state != ADDED) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+		setBounds(proxy, minX, minY, maxX, maxY);
+	}
+
+	public void update (int proxy, Rectangle rectangle) {
+		update(proxy, rectangle.x, rectangle.y, rectangle.x + rectangle.width, rectangle.y + rectangle.height);
+	}
+
+	public void update (int proxy, Circle circle) {
+		update(proxy, circle.x - circle.radius, circle.y - circle.radius, circle.x + circle.radius, circle.y + circle.radius);
+	}
+
+	/** Removes a proxy. The pairs of the proxy are ended by the next {@link #updatePairs(PairListener)}. */
+	public void remove (int proxy) {
+		if (proxy < 0 || proxy >= capacity) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+		byte state = states[proxy];
+		if (state != ACTIVE && state != ADDED) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+		states[proxy] = REMOVED;
+		removed.add(proxy);
+		proxyCount--;
+	}
+
+	/** Removes all proxies and pairs without reporting the end of the pairs. */
+	public void clear () {
+		Arrays.fill(states, 0, capacity, FREE);
+		capacity = 0;
+		proxyCount = 0;
+		freeIds.clear();
+		added.clear();
+		removed.clear();
+		endpointCount = 0;
+		Arrays.fill(pairKeys, 0);
+		Arrays.fill(pairStates, (byte)0);
+		pairSlots = 0;
+		pairCount = 0;
+		changed.clear();
+	}
+
+	/** Applies the changes since the last call and reports the pairs that began and ended to overlap.
+	 * @param listener May be null. */
+	public void updatePairs (PairListener listener) {
+		endPairs();
+		updateEndpoints();
+		sort(0);
+		sort(1);
+		if (added.size > 0) addEndpoints();
+
+		int[] removed = this.removed.items;
+		for (int i = 0, n = this.removed.size; i < n; i++) {
+			states[removed[i]] = FREE;
+			freeIds.add(removed[i]);
+		}
+		this.removed.clear();
+
+		long[] changed = this.changed.items;
+		for (int i = 0, n = this.changed.size; i < n; i++) {
+			long key = changed[i];
+			int slot = find(key);
+			byte state = pairStates[slot];
+			if ((state & CURRENT) != 0) {
+				pairStates[slot] = CURRENT | REPORTED;
+				if ((state & REPORTED) == 0 && listener != null) listener.begin((int)(key >>> 32), (int)key);
+			} else {
+				deleteSlot(slot);
+				if ((state & REPORTED) != 0 && listener != null) listener.end((int)(key >>> 32), (int)key);
+			}
+		}
+		this.changed.clear();
+	}
+
+	/** Ends the pairs that no longer overlap or have a removed proxy. Testing the pairs is cheaper than looking up the pair each
+	 * time a max moves before a min, which is mostly for boxes that didn't overlap on the other axis. */
+	private void endPairs () {
+		byte[] states = this.states;
+		long[] pairKeys = this.pairKeys;
+		byte[] pairStates = this.pairStates;
+		for (int i = 0, n = pairKeys.length; i < n; i++) {
+			long key = pairKeys[i];
+			if (key == 0 || (pairStates[i] & CURRENT) == 0) continue;
+			int proxyA = (int)(key >>> 32), proxyB = (int)key;
+			if (states[proxyA] == REMOVED || states[proxyB] == REMOVED || !overlaps(proxyA, proxyB)) clearPair(i, key);
+		}
+	}
+
+	/** Moves the endpoints that are out of order, adding pairs when a min moves before the max of a box that overlaps. */
+	private void sort (int axis) {
+		float[] values = this.values[axis];
+		int[] data = this.data[axis];
+		for (int i = 1, n = endpointCount; i < n; i++) {
+			float value = values[i], previous = values[i - 1];
+			int d = data[i];
+			if (previous < value || (previous == value && ((data[i - 1] & 1) != 0 || (d & 1) == 0))) continue;
+			int proxy = d >>> 1, j = i - 1;
+			boolean max = (d & 1) != 0;
+			do {
+				int other = data[j];
+				int otherProxy = other >>> 1;
+				if (!max && (other & 1) != 0 && otherProxy != proxy && overlaps(proxy, otherProxy)) addPair(proxy, otherProxy);
+				values[j + 1] = values[j];
+				data[j + 1] = other;
+				j--;
+			} while (j >= 0 && (values[j] > value || (values[j] == value && max && (data[j] & 1) == 0)));
+			values[j + 1] = value;
+			data[j + 1] = d;
+		}
+	}
+
+	/** Sets the endpoint values from the bounds and removes the endpoints of removed proxies. Copying the values once is cheaper
+	 * than keeping the index of each endpoint while sorting. */
+	private void updateEndpoints () {
+		byte[] states = this.states;
+		float[] bounds = this.bounds;
+		boolean removed = this.removed.size > 0;
+		for (int axis = 0; axis < 2; axis++) {
+			float[] values = this.values[axis];
+			int[] data = this.data[axis];
+			int count = 0;
+			for (int i = 0, n = endpointCount; i < n; i++) {
+				int d = data[i];
+				if (removed && states[d >>> 1] == REMOVED) continue;
+				values[count] = bounds[((d >>> 1) << 2) + ((d & 1) << 1) + axis];
+				data[count++] = d;
+			}
+			if (axis == 1) endpointCount = count;
+		}
+	}
+
+	/** Sorts the endpoints of added proxies, merges them into the sorted endpoints and sweeps the x axis to find the pairs of the
+	 * added proxies. */
+	private void addEndpoints () {
+		byte[] states = this.states;
+		float[] bounds = this.bounds;
+		int[] added = this.added.items;
+		int addedCount = 0;
+		for (int i = 0, n = this.added.size; i < n; i++)
+			if (states[added[i]] == ADDED) added[addedCount++] = added[i];
+		this.added.clear();
+		if (addedCount == 0) return;
+
+		int oldCount = endpointCount, newCount = oldCount + addedCount * 2;
+		if (sortKeys.length < addedCount * 2) sortKeys = new long[addedCount * 2];
+		long[] keys = sortKeys;
+		for (int axis = 0; axis < 2; axis++) {
+			if (data[axis].length < newCount) {
+				values[axis] = copy(values[axis], newCount + (newCount >> 1));
+				data[axis] = copy(data[axis], newCount + (newCount >> 1));
+			}
+			float[] values = this.values[axis];
+			int[] data = this.data[axis];
+
+			// The keys sort by value, then maxes before mins.
+			for (int i = 0, k = 0; i < addedCount; i++) {
+				int proxy = added[i];
+				keys[k++] = (long)sortable(bounds[(proxy << 2) + axis]) << 32 | 0x80000000L | proxy;
+				keys[k++] = (long)sortable(bounds[(proxy << 2) + 2 + axis]) << 32 | proxy;
+			}
+			Arrays.sort(keys, 0, addedCount * 2);
+
+			// Merge from the end, moving the old endpoints that are after each new endpoint.
+			for (int i = oldCount - 1, j = addedCount * 2 - 1, w = newCount - 1; j >= 0; j--, w--) {
+				long key = keys[j];
+				int proxy = (int)key & 0x7fffffff, max = (key & 0x80000000L) == 0 ? 1 : 0;
+				float value = bounds[(proxy << 2) + (max << 1) + axis];
+				for (; i >= 0 && (values[i] > value || (values[i] == value && max == 1 && (data[i] & 1) == 0)); i--, w--) {
+					values[w] = values[i];
+					data[w] = data[i];
+				}
+				values[w] = value;
+				data[w] = proxy << 1 | max;
+			}
+		}
+		endpointCount = newCount;
+
+		// Sweep the x axis, keeping the proxies whose min was passed and max was not.
+		if (activeIndex.length < capacity) {
+			activeOld = new int[capacity];
+			activeNew = new int[capacity];
+			activeIndex = new int[capacity];
+			Arrays.fill(activeIndex, -1);
+		}
+		int[] activeOld = this.activeOld, activeNew = this.activeNew, activeIndex = this.activeIndex;
+		int oldActive = 0, newActive = 0;
+		int[] data = this.data[0];
+		for (int i = 0; i < newCount; i++) {
+			int d = data[i], proxy = d >>> 1;
+			boolean isNew = states[proxy] == ADDED;
+			if ((d & 1) == 0) {
+				for (int ii = 0; ii < newActive; ii++)
+					if (overlaps(proxy, activeNew[ii])) addPair(proxy, activeNew[ii]);
+				if (isNew) {
+					for (int ii = 0; ii < oldActive; ii++)
+						if (overlaps(proxy, activeOld[ii])) addPair(proxy, activeOld[ii]);
+				}
+				// A box without width can't overlap boxes whose min is after its max.
+				int o = proxy << 2;
+				if (bounds[o + 2] > bounds[o]) {
+					if (isNew) {
+						activeIndex[proxy] = newActive;
+						activeNew[newActive++] = proxy;
+					} else {
+						activeIndex[proxy] = oldActive;
+						activeOld[oldActive++] = proxy;
+					}
+				}
+			} else {
+				int index = activeIndex[proxy];
+				if (index == -1) continue;
+				int last;
+				if (isNew) {
+					last = activeNew[--newActive];
+					activeNew[index] = last;
+				} else {
+					last = activeOld[--oldActive];
+					activeOld[index] = last;
+				}
+				activeIndex[last] = index;
+				activeIndex[proxy] = -1;
+			}
+		}
+		for (int i = 0; i < addedCount; i++)
+			states[added[i]] = ACTIVE;
+	}
+
+	private boolean overlaps (int proxyA, int proxyB) {
+		float[] bounds = this.bounds;
+		int a = proxyA << 2, b = proxyB << 2;
+		return bounds[a] < bounds[b + 2] && bounds[b] < bounds[a + 2] && bounds[a + 1] < bounds[b + 3]
+			&& bounds[b + 1] < bounds[a + 3];
+	}
+
+	private void addPair (int proxyA, int proxyB) {
+		long key = proxyA < proxyB ? (long)proxyA << 32 | proxyB : (long)proxyB << 32 | proxyA;
+		long[] pairKeys = this.pairKeys;
+		int mask = pairKeys.length - 1;
+		for (int i = place(key);; i = (i + 1) & mask) {
+			long other = pairKeys[i];
+			if (other == key) {
+				byte state = pairStates[i];
+				if ((state & CURRENT) != 0) return;
+				pairCount++;
+				if ((state & CHANGED) != 0)
+					pairStates[i] = (byte)(state | CURRENT);
+				else {
+					pairStates[i] = (byte)(state | CURRENT | CHANGED);
+					changed.add(key);
+				}
+				return;
+			}
+			if (other == 0) {
+				pairKeys[i] = key;
+				pairStates[i] = CURRENT | CHANGED;
+				changed.add(key);
+				pairCount++;
+				if (++pairSlots > pairKeys.length >> 1) resize(pairKeys.length << 1);
+				return;
+			}
+		}
+	}
+
+	private void clearPair (int slot, long key) {
+		byte state = pairStates[slot];
+		pairCount--;
+		if ((state & CHANGED) != 0)
+			pairStates[slot] = (byte)(state & ~CURRENT);
+		else {
+			pairStates[slot] = (byte)((state & ~CURRENT) | CHANGED);
+			changed.add(key);
+		}
+	}
+
+	/** @return The slot of the key, or -1. */
+	private int find (long key) {
+		long[] pairKeys = this.pairKeys;
+		int mask = pairKeys.length - 1;
+		for (int i = place(key);; i = (i + 1) & mask) {
+			long other = pairKeys[i];
+			if (other == key) return i;
+			if (other == 0) return -1;
+		}
+	}
+
+	/** Empties a slot and moves the following keys back that would no longer be found. */
+	private void deleteSlot (int slot) {
+		long[] pairKeys = this.pairKeys;
+		byte[] pairStates = this.pairStates;
+		int mask = pairKeys.length - 1;
+		for (int i = (slot + 1) & mask;; i = (i + 1) & mask) {
+			long key = pairKeys[i];
+			if (key == 0) break;
+			if (((i - place(key)) & mask) >= ((i - slot) & mask)) {
+				pairKeys[slot] = key;
+				pairStates[slot] = pairStates[i];
+				slot = i;
+			}
+		}
+		pairKeys[slot] = 0;
+		pairStates[slot] = 0;
+		pairSlots--;
+	}
+
+	private void resize (int size) {
+		long[] oldKeys = pairKeys;
+		byte[] oldStates = pairStates;
+		long[] pairKeys = new long[size];
+		byte[] pairStates = new byte[size];
+		this.pairKeys = pairKeys;
+		this.pairStates = pairStates;
+		pairShift = 64 - Integer.numberOfTrailingZeros(size);
+		int mask = size - 1;
+		for (int i = 0, n = oldKeys.length; i < n; i++) {
+			long key = oldKeys[i];
+			if (key == 0) continue;
+			int slot = place(key);
+			while (pairKeys[slot] != 0)
+				slot = (slot + 1) & mask;
+			pairKeys[slot] = key;
+			pairStates[slot] = oldStates[i];
+		}
+	}
+
+	private int place (long key) {
+		return (int)(key * 0x9E3779B97F4A7C15L >>> pairShift);
+	}
+
+	/** Returns true if the proxies overlapped when pairs were last updated. */
+	public boolean overlapping (int proxyA, int proxyB) {
+		if (proxyA == proxyB) return false;
+		long key = proxyA < proxyB ? (long)proxyA << 32 | proxyB : (long)proxyB << 32 | proxyA;
+		int slot = find(key);
+		return slot != -1 && (pairStates[slot] & CURRENT) != 0;
+	}
+
+	/** Adds the pairs of proxies that overlapped when pairs were last updated, the lower id of each pair first.
+	 * @param pairs Two ids per pair. */
+	public void getPairs (IntArray pairs) {
+		long[] pairKeys = this.pairKeys;
+		byte[] pairStates = this.pairStates;
+		for (int i = 0, n = pairKeys.length; i < n; i++) {
+			long key = pairKeys[i];
+			if (key != 0 && (pairStates[i] & CURRENT) != 0) pairs.add((int)(key >>> 32), (int)key);
+		}
+	}
+
+	/** Returns the number of pairs that overlapped when pairs were last updated. */
+	public int getPairCount () {
+		return pairCount;
+	}
+
+	/** Returns the number of proxies. */
+	public int getProxyCount () {
+		return proxyCount;
+	}
+
+	/** @param rectangle Set to the bounds of the proxy.
+	 * @return The rectangle. */
+	public Rectangle getBounds (int proxy, Rectangle rectangle) {
+		int o = proxy << 2;
+		return rectangle.set(bounds[o], bounds[o + 1], bounds[o + 2] - bounds[o], bounds[o + 3] - bounds[o + 1]);
+	}
+
+	private void setBounds (int proxy, float minX, float minY, float maxX, float maxY) {
+		float[] bounds = this.bounds;
+		int o = proxy << 2;
+		bounds[o] = minX;
+		bounds[o + 1] = minY;
+		bounds[o + 2] = maxX;
+		bounds[o + 3] = maxY;
+	}
+
+	/** @return A value that sorts as the float does when compared as a signed int, with -0 the same as 0. */
+	static private int sortable (float value) {
+		int bits = NumberUtils.floatToRawIntBits(value + 0f);
+		return bits ^ (bits >> 31 & 0x7fffffff);
+	}
+
+	static private float[] copy (float[] array, int size) {
+		float[] newArray = new float[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	static private int[] copy (int[] array, int size) {
+		int[] newArray = new int[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/** Receives the pairs of proxies that began or ended to overlap. The lower id of each pair is first. */
+	static public interface PairListener {
+		/** Called when the bounds of two proxies begin to overlap. */
+		public void begin (int proxyA, int proxyB);
+
+		/** Called when the bounds of two proxies no longer overlap or one of the proxies was removed. A removed proxy's id is not
+		 * reused until this returns. */
+		public void end (int proxyA, int proxyB);
+	}
+}
@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/** A {@link Broadphase} that stores each proxy in the cells of a uniform grid that its bounds overlap. Only cells that contain
+ * proxies use memory. Adding, updating and removing proxies is cheaper than with a {@link DynamicAabbTree} and rays are traced
+ * through the cells in order, so this works best when many proxies of about the same size move every frame, eg bullets. The
+ * cell size should be about the size of the typical proxy. Proxies much larger than a cell are stored in many cells, which is
+ * slow.
+ * <p>
+ * Cells are identified by their coordinates wrapped to 21 bits per axis, so proxies more than about a million cells apart can
+ * share a cell, which is correct but slower.
+ * <p>
+ * Callbacks must not add, update or remove proxies and must not start another query on the same grid. */
+public class UniformGrid implements Broadphase {
+	private final float cellSize, invCellSize;
+	private final LongMap<IntArray> cells = new LongMap();
+	private final Array<IntArray> freeCells = new Array();
+
+	private float[] bounds = new float[16 * 6]; // minX, minY, minZ, maxX, maxY, maxZ per proxy.
+	private int[] cellRanges = new int[16 * 6]; // First and last cell per axis per proxy.
+	private int[] stamps = new int[16]; // The last query each proxy was reported in, -1 for free ids.
+	private final IntArray freeIds = new IntArray();
+	private int capacity, proxyCount;
+	private int stamp;
+
+	// The range of cells that may contain proxies. Only grows until the grid is cleared.
+	private int minCellX, minCellY, minCellZ, maxCellX = -1, maxCellY = -1, maxCellZ = -1;
+
+	private final float[] tmpRange = new float[6];
+	private int nearest;
+	private float nearestDistance;
+
+	public UniformGrid (float cellSize) {
+		if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+		this.cellSize = cellSize;
+		invCellSize = 1 / cellSize;
+	}
+
+	public int add (float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int proxy;
+		if (freeIds.size > 0)
+			proxy = freeIds.pop();
+		else {
+			proxy = capacity++;
+			if (stamps.length < capacity) {
+				int size = capacity * 2;
+				bounds = copy(bounds, size * 6);
+				cellRanges = copy(cellRanges, size * 6);
+				stamps = copy(stamps, size);
+			}
+		}
+		stamps[proxy] = 0;
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		int o = proxy * 6;
+		int[] cellRanges = this.cellRanges;
+		cellRanges[o] = cell(minX);
+		cellRanges[o + 1] = cell(minY);
+		cellRanges[o + 2] = cell(minZ);
+		cellRanges[o + 3] = cell(maxX);
+		cellRanges[o + 4] = cell(maxY);
+		cellRanges[o + 5] = cell(maxZ);
+		addToCells(proxy);
+		proxyCount++;
+		return proxy;
+	}
+
+	public boolean update (int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		int[] cellRanges = this.cellRanges;
+		int o = proxy * 6;
+		int cellMinX = cell(minX), cellMinY = cell(minY), cellMinZ = cell(minZ);
+		int cellMaxX = cell(maxX), cellMaxY = cell(maxY), cellMaxZ = cell(maxZ);
+		if (cellRanges[o] == cellMinX && cellRanges[o + 1] == cellMinY && cellRanges[o + 2] == cellMinZ
+			&& cellRanges[o + 3] == cellMaxX && cellRanges[o + 4] == cellMaxY && cellRanges[o + 5] == cellMaxZ) return false;
+		removeFromCells(proxy);
+		cellRanges[o] = cellMinX;
+		cellRanges[o + 1] = cellMinY;
+		cellRanges[o + 2] = cellMinZ;
+		cellRanges[o + 3] = cellMaxX;
+		cellRanges[o + 4] = cellMaxY;
+		cellRanges[o + 5] = cellMaxZ;
+		addToCells(proxy);
+		return true;
+	}
+
+	public void remove (int proxy) {
+		if (proxy < 0 || proxy >= capacity || stamps[proxy] == -1) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+		removeFromCells(proxy);
+		stamps[proxy] = -1;
+		freeIds.add(proxy);
+		proxyCount--;
+	}
+
+	public void clear () {
+		for (IntArray cell : cells.values()) {
+			cell.clear();
+			freeCells.add(cell);
+		}
+		cells.clear();
+		freeIds.clear();
+		capacity = 0;
+		proxyCount = 0;
+		minCellX = minCellY = minCellZ = 0;
+		maxCellX = maxCellY = maxCellZ = -1;
+	}
+
+	public void query (float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback) {
+		int x1 = Math.max(cell(minX), minCellX), x2 = Math.min(cell(maxX), maxCellX);
+		int y1 = Math.max(cell(minY), minCellY), y2 = Math.min(cell(maxY), maxCellY);
+		int z1 = Math.max(cell(minZ), minCellZ), z2 = Math.min(cell(maxZ), maxCellZ);
+		if (x1 > x2 || y1 > y2 || z1 > z2) return;
+		int stamp = nextStamp();
+		float[] bounds = this.bounds;
+		int[] stamps = this.stamps;
+		for (int x = x1; x <= x2; x++) {
+			for (int y = y1; y <= y2; y++) {
+				for (int z = z1; z <= z2; z++) {
+					IntArray cell = cells.get(key(x, y, z));
+					if (cell == null) continue;
+					int[] items = cell.items;
+					for (int i = 0, n = cell.size; i < n; i++) {
+						int proxy = items[i];
+						if (stamps[proxy] == stamp) continue;
+						stamps[proxy] = stamp;
+						int o = proxy * 6;
+						if (bounds[o] > maxX || bounds[o + 1] > maxY || bounds[o + 2] > maxZ || bounds[o + 3] < minX
+							|| bounds[o + 4] < minY || bounds[o + 5] < minZ) continue;
+						if (!callback.report(proxy)) return;
+					}
+				}
+			}
+		}
+	}
+
+	public void raycast (float x, float y, float z, float dx, float dy, float dz, float maxFraction, RayCallback callback) {
+		if (proxyCount == 0) return;
+		float cellSize = this.cellSize;
+		float invDx = 1 / dx, invDy = 1 / dy, invDz = 1 / dz;
+
+		// Clip the segment to the cells that may contain proxies.
+		float[] range = tmpRange;
+		range[0] = minCellX * cellSize;
+		range[1] = minCellY * cellSize;
+		range[2] = minCellZ * cellSize;
+		range[3] = (maxCellX + 1) * cellSize;
+		range[4] = (maxCellY + 1) * cellSize;
+		range[5] = (maxCellZ + 1) * cellSize;
+		float enter = DynamicAabbTree.rayEnter(range, 0, x, y, z, invDx, invDy, invDz, maxFraction);
+		if (enter < 0) return;
+
+		// Walk the cells along the segment, see "A Fast Voxel Traversal Algorithm for Ray Tracing" by Amanatides and Woo.
+		int cellX = clamp(cell(x + dx * enter), minCellX, maxCellX);
+		int cellY = clamp(cell(y + dy * enter), minCellY, maxCellY);
+		int cellZ = clamp(cell(z + dz * enter), minCellZ, maxCellZ);
+		int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1, stepZ = dz > 0 ? 1 : -1;
+		float deltaX = Math.abs(cellSize * invDx), deltaY = Math.abs(cellSize * invDy), deltaZ = Math.abs(cellSize * invDz);
+		float nextX = Float.isInfinite(invDx) ? Float.POSITIVE_INFINITY : ((cellX + (dx > 0 ? 1 : 0)) * cellSize - x) * invDx;
+		float nextY = Float.isInfinite(invDy) ? Float.POSITIVE_INFINITY : ((cellY + (dy > 0 ? 1 : 0)) * cellSize - y) * invDy;
+		float nextZ = Float.isInfinite(invDz) ? Float.POSITIVE_INFINITY : ((cellZ + (dz > 0 ? 1 : 0)) * cellSize - z) * invDz;
+
+		int stamp = nextStamp();
+		float[] bounds = this.bounds;
+		int[] stamps = this.stamps;
+		while (true) {
+			IntArray cell = cells.get(key(cellX, cellY, cellZ));
+			if (cell != null) {
+				int[] items = cell.items;
+				for (int i = 0, n = cell.size; i < n; i++) {
+					int proxy = items[i];
+					if (stamps[proxy] == stamp) continue;
+					stamps[proxy] = stamp;
+					if (DynamicAabbTree.rayEnter(bounds, proxy * 6, x, y, z, invDx, invDy, invDz, maxFraction) < 0) continue;
+					maxFraction = callback.report(proxy, maxFraction);
+					if (maxFraction <= 0) return;
+				}
+			}
+			// Step to the next cell along the axis whose cell boundary is nearest.
+			if (nextX <= nextY && nextX <= nextZ) {
+				if (nextX > maxFraction) return;
+				cellX += stepX;
+				if (cellX < minCellX || cellX > maxCellX) return;
+				nextX += deltaX;
+			} else if (nextY <= nextZ) {
+				if (nextY > maxFraction) return;
+				cellY += stepY;
+				if (cellY < minCellY || cellY > maxCellY) return;
+				nextY += deltaY;
+			} else {
+				if (nextZ > maxFraction) return;
+				cellZ += stepZ;
+				if (cellZ < minCellZ || cellZ > maxCellZ) return;
+				nextZ += deltaZ;
+			}
+		}
+	}
+
+	public int nearest (float x, float y, float z, float maxDistance, DistanceCallback callback) {
+		if (proxyCount == 0) return -1;
+		int centerX = cell(x), centerY = cell(y), centerZ = cell(z);
+		// The first ring of cells around the center cell that contains cells in range, and the ring that contains all of them.
+		int first = Math.max(Math.max(Math.max(minCellX - centerX, centerX - maxCellX), Math.max(minCellY - centerY,
+			centerY - maxCellY)), Math.max(Math.max(minCellZ - centerZ, centerZ - maxCellZ), 0));
+		int last = Math.max(Math.max(Math.max(centerX - minCellX, maxCellX - centerX), Math.max(centerY - minCellY,
+			maxCellY - centerY)), Math.max(centerZ - minCellZ, maxCellZ - centerZ));
+
+		int stamp = nextStamp();
+		nearest = -1;
+		nearestDistance = maxDistance;
+		for (int ring = first; ring <= last; ring++) {
+			// Cells in the ring are at least ring - 1 cells away from the point.
+			if ((ring - 1) * cellSize >= nearestDistance) break;
+			int x1 = Math.max(centerX - ring, minCellX), x2 = Math.min(centerX + ring, maxCellX);
+			int y1 = Math.max(centerY - ring, minCellY), y2 = Math.min(centerY + ring, maxCellY);
+			int z1 = Math.max(centerZ - ring, minCellZ), z2 = Math.min(centerZ + ring, maxCellZ);
+			for (int cellX = x1; cellX <= x2; cellX++) {
+				boolean edgeX = cellX == centerX - ring || cellX == centerX + ring;
+				for (int cellY = y1; cellY <= y2; cellY++) {
+					if (edgeX || cellY == centerY - ring || cellY == centerY + ring) {
+						for (int cellZ = z1; cellZ <= z2; cellZ++)
+							nearest(cellX, cellY, cellZ, x, y, z, stamp, callback);
+					} else {
+						// Inside the ring in x and y, only the cells at both ends in z are on the ring.
+						if (centerZ - ring >= z1) nearest(cellX, cellY, centerZ - ring, x, y, z, stamp, callback);
+						if (ring > 0 && centerZ + ring <= z2) nearest(cellX, cellY, centerZ + ring, x, y, z, stamp, callback);
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	private void nearest (int cellX, int cellY, int cellZ, float x, float y, float z, int stamp, DistanceCallback callback) {
+		IntArray cell = cells.get(key(cellX, cellY, cellZ));
+		if (cell == null) return;
+		float[] bounds = this.bounds;
+		int[] stamps = this.stamps;
+		int[] items = cell.items;
+		for (int i = 0, n = cell.size; i < n; i++) {
+			int proxy = items[i];
+			if (stamps[proxy] == stamp) continue;
+			stamps[proxy] = stamp;
+			if (DynamicAabbTree.boxDistance2(bounds, proxy * 6, x, y, z) >= nearestDistance * nearestDistance) continue;
+			float distance = callback.distance(proxy, nearestDistance);
+			if (distance < nearestDistance) {
+				nearestDistance = distance;
+				nearest = proxy;
+			}
+		}
+	}
+
+	/** Returns the number of proxies. */
+	public int getProxyCount () {
+		return proxyCount;
+	}
+
+	/** Returns the number of cells that contain proxies. */
+	public int getCellCount () {
+		return cells.size;
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	private void setBounds (int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float[] bounds = this.bounds;
+		int o = proxy * 6;
+		bounds[o] = minX;
+		bounds[o + 1] = minY;
+		bounds[o + 2] = minZ;
+		bounds[o + 3] = maxX;
+		bounds[o + 4] = maxY;
+		bounds[o + 5] = maxZ;
+	}
+
+	private void addToCells (int proxy) {
+		int[] cellRanges = this.cellRanges;
+		int o = proxy * 6;
+		int x1 = cellRanges[o], y1 = cellRanges[o + 1], z1 = cellRanges[o + 2];
+		int x2 = cellRanges[o + 3], y2 = cellRanges[o + 4], z2 = cellRanges[o + 5];
+		if (maxCellX < minCellX) {
+			minCellX = x1;
+			minCellY = y1;
+			minCellZ = z1;
+			maxCellX = x2;
+			maxCellY = y2;
+			maxCellZ = z2;
+		} else {
+			minCellX = Math.min(minCellX, x1);
+			minCellY = Math.min(minCellY, y1);
+			minCellZ = Math.min(minCellZ, z1);
+			maxCellX = Math.max(maxCellX, x2);
+			maxCellY = Math.max(maxCellY, y2);
+			maxCellZ = Math.max(maxCellZ, z2);
+		}
+		for (int x = x1; x <= x2; x++) {
+			for (int y = y1; y <= y2; y++) {
+				for (int z = z1; z <= z2; z++) {
+					long key = key(x, y, z);
+					IntArray cell = cells.get(key);
+					if (cell == null) {
+						cell = freeCells.size > 0 ? freeCells.pop() : new IntArray(4);
+						cells.put(key, cell);
+					}
+					cell.add(proxy);
+				}
+			}
+		}
+	}
+
+	private void removeFromCells (int proxy) {
+		int[] cellRanges = this.cellRanges;
+		int o = proxy * 6;
+		int x1 = cellRanges[o], y1 = cellRanges[o + 1], z1 = cellRanges[o + 2];
+		int x2 = cellRanges[o + 3], y2 = cellRanges[o + 4], z2 = cellRanges[o + 5];
+		for (int x = x1; x <= x2; x++) {
+			for (int y = y1; y <= y2; y++) {
+				for (int z = z1; z <= z2; z++) {
+					long key = key(x, y, z);
+					IntArray cell = cells.get(key);
+					if (cell == null) continue; // Cells that wrapped to the same key were already removed.
+					cell.removeValue(proxy);
+					if (cell.size == 0) freeCells.add(cells.remove(key));
+				}
+			}
+		}
+	}
+
+	private int nextStamp () {
+		if (++stamp == Integer.MAX_VALUE) {
+			int[] stamps = this.stamps;
+			for (int i = 0; i < capacity; i++)
+				if (stamps[i] != -1) stamps[i] = 0;
+			stamp = 1;
+		}
+		return stamp;
+	}
+
+	private int cell (float value) {
+		return (int)Math.floor(value * invCellSize);
+	}
+
+	static private long key (int x, int y, int z) {
+		return ((long)(x & 0x1fffff) << 42) | ((long)(y & 0x1fffff) << 21) | (z & 0x1fffff);
+	}
+
+	static private int clamp (int value, int min, int max) {
+		return value < min ? min : value > max ? max : value;
+	}
+
+	static private float[] copy (float[] array, int size) {
+		float[] newArray = new float[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	static private int[] copy (int[] array, int size) {
+		int[] newArray = new int[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.fixed;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+/** Math on 16.16 fixed point numbers, stored in an int with 16 bits for the fraction. The results only use int and long
+ * arithmetic, so they are the same on every JVM, Android and GWT, unlike float math with {@link MathUtils} or {@link Math}. This
+ * is needed for lockstep multiplayer and replays, where every machine has to compute exactly the same simulation.
+ * <p>
+ * Values range from -32768 to 32767.99998 with a precision of 1 / 65536. Results out of range wrap around as int arithmetic
+ * does. Products are rounded to nearest, quotients are rounded toward zero.
+ * <p>
+ * The sin and atan tables are computed with series that only use double addition, multiplication and division, which give the
+ * same results everywhere, unlike {@link Math#sin(double)}. Trigonometry is accurate to 2 / 65536 over the whole range.
+ * @see FixedVector2
+ * @see FixedMatrix3 */
+public final class FixedMath {
+	static public final int FRACTION_BITS = 16;
+	static public final int ONE = 1 << FRACTION_BITS;
+	static public final int HALF = ONE >> 1;
+	static public final int PI = 205887;
+	static public final int PI2 = 411775;
+	static public final int HALF_PI = 102944;
+	static public final int E = 178145;
+
+	static private final int SIN_BITS = 12; // 16KB, accurate with interpolation.
+	static private final int SIN_COUNT = 1 << SIN_BITS;
+	static private final int SIN_MASK = SIN_COUNT - 1;
+	static private final int RAD_TO_INDEX_BITS = 22; // More bits would overflow the product with the largest radians.
+	static private final long radToIndex = 2734261102L; // SIN_COUNT / 2pi, rounded, 10.22
+	static private final int ATAN_BITS = 10;
+	static private final int ATAN_COUNT = 1 << ATAN_BITS;
+
+	static private final int[] sinTable = new int[SIN_COUNT + 1];
+	static private final int[] atanTable = new int[ATAN_COUNT + 1];
+	static {
+		// The first quarter is mirrored, so the table is exactly symmetric.
+		int quarter = SIN_COUNT / 4;
+		for (int i = 0; i <= quarter; i++) {
+			int value = (int)Math.round(sinSeries(i * Math.PI * 2 / SIN_COUNT) * ONE);
+			sinTable[i] = value;
+			sinTable[quarter * 2 - i] = value;
+			sinTable[quarter * 2 + i] = -value;
+			sinTable[SIN_COUNT - i] = -value;
+		}
+		for (int i = 0; i <= ATAN_COUNT; i++)
+			atanTable[i] = (int)Math.round(atanSeries(i / (double)ATAN_COUNT) * ONE);
+	}
+
+	private FixedMath () {
+	}
+
+	static public int fromInt (int value) {
+		return value << FRACTION_BITS;
+	}
+
+	/** Converts a float to fixed point. The same float always gives the same value, so floats from data files or the network can
+	 * be used. */
+	static public int fromFloat (float value) {
+		return Math.round(value * ONE);
+	}
+
+	static public int fromDouble (double value) {
+		return (int)Math.round(value * ONE);
+	}
+
+	/** Converts to float, eg to draw the simulation. The result must not be used by the simulation. */
+	static public float toFloat (int value) {
+		return value * (1f / ONE);
+	}
+
+	static public double toDouble (int value) {
+		return value * (1d / ONE);
+	}
+
+	/** Returns the largest integer less than or equal to the value. */
+	static public int floor (int value) {
+		return value >> FRACTION_BITS;
+	}
+
+	/** Returns the smallest integer greater than or equal to the value. */
+	static public int ceil (int value) {
+		return (value + ONE - 1) >> FRACTION_BITS;
+	}
+
+	/** Returns the closest integer to the value, rounding halves up. */
+	static public int round (int value) {
+		return (value + HALF) >> FRACTION_BITS;
+	}
+
+	static public int mul (int a, int b) {
+		return (int)((long)a * b + HALF >> FRACTION_BITS);
+	}
+
+	/** @throws ArithmeticException if b is 0. */
+	static public int div (int a, int b) {
+		return (int)(((long)a << FRACTION_BITS) / b);
+	}
+
+	/** @param value Must be >= 0. */
+	static public int sqrt (int value) {
+		if (value < 0) throw new IllegalArgumentException("value must be >= 0: " + value);
+		return (int)sqrt((long)value << FRACTION_BITS);
+	}
+
+	/** Returns the largest long whose square is less than or equal to the value. Math.sqrt only gives a guess that is corrected
+	 * with long arithmetic, so the result is exact everywhere.
+	 * @param value Must be >= 0. */
+	static long sqrt (long value) {
+		long root = (long)Math.sqrt(value);
+		while (root * root > value)
+			root--;
+		while (root < 3037000499L && (root + 1) * (root + 1) <= value)
+			root++;
+		return root;
+	}
+
+	static public int abs (int value) {
+		return value < 0 ? -value : value;
+	}
+
+	static public int clamp (int value, int min, int max) {
+		if (value < min) return min;
+		if (value > max) return max;
+		return value;
+	}
+
+	/** Linearly interpolates between two values. */
+	static public int lerp (int fromValue, int toValue, int progress) {
+		return fromValue + mul(toValue - fromValue, progress);
+	}
+
+	/** @param degrees Fixed point degrees.
+	 * @return Fixed point radians. */
+	static public int toRadians (int degrees) {
+		return (int)((long)degrees * 74961321 + 0x80000000L >> 32);
+	}
+
+	/** @param radians Fixed point radians.
+	 * @return Fixed point degrees. */
+	static public int toDegrees (int radians) {
+		return (int)((long)radians * 3754936 + HALF >> FRACTION_BITS);
+	}
+
+	/** Returns the sine in radians from a lookup table with linear interpolation. */
+	static public int sin (int radians) {
+		return lookup(toIndex(radians));
+	}
+
+	/** Returns the cosine in radians from a lookup table with linear interpolation. */
+	static public int cos (int radians) {
+		return lookup(toIndex(radians) + ((long)SIN_COUNT << FRACTION_BITS >> 2));
+	}
+
+	/** @return The table index of the radians, 16.16. */
+	static private long toIndex (int radians) {
+		return (long)radians * radToIndex >> RAD_TO_INDEX_BITS;
+	}
+
+	/** @param index The table index, 16.16. */
+	static private int lookup (long index) {
+		int i = (int)(index >> FRACTION_BITS) & SIN_MASK, fraction = (int)index & (ONE - 1);
+		int a = sinTable[i];
+		return a + ((sinTable[i + 1] - a) * fraction + HALF >> FRACTION_BITS);
+	}
+
+	/** Returns the arc tangent in radians from a lookup table with linear interpolation, between -HALF_PI and HALF_PI. */
+	static public int atan (int value) {
+		long abs = value < 0 ? -(long)value : value; // The negation of Integer.MIN_VALUE is only positive in a long.
+		int angle = abs <= ONE ? atanUnit((int)abs) : HALF_PI - atanUnit((int)(((long)ONE << FRACTION_BITS) / abs));
+		return value < 0 ? -angle : angle;
+	}
+
+	/** Returns the angle in radians of the point, between -PI and PI. Returns 0 for 0, 0. */
+	static public int atan2 (int y, int x) {
+		if (x == 0 && y == 0) return 0;
+		long ax = x < 0 ? -(long)x : x, ay = y < 0 ? -(long)y : y;
+		int angle;
+		if (ay <= ax)
+			angle = atanUnit((int)((ay << FRACTION_BITS) / ax));
+		else
+			angle = HALF_PI - atanUnit((int)((ax << FRACTION_BITS) / ay));
+		if (x < 0) angle = PI - angle;
+		return y < 0 ? -angle : angle;
+	}
+
+	/** @param value Between 0 and ONE. */
+	static private int atanUnit (int value) {
+		int shift = FRACTION_BITS - ATAN_BITS;
+		int i = value >> shift, fraction = value & ((1 << shift) - 1);
+		if (i == ATAN_COUNT) return atanTable[ATAN_COUNT];
+		int a = atanTable[i];
+		return a + ((atanTable[i + 1] - a) * fraction + (1 << shift - 1) >> shift);
+	}
+
+	/** @param x Between 0 and pi / 2. */
+	static private double sinSeries (double x) {
+		double term = x, sum = x;
+		for (int i = 1; i < 16; i++) {
+			term *= -x * x / ((2 * i) * (2 * i + 1));
+			sum += term;
+		}
+		return sum;
+	}
+
+	/** @param x Between 0 and 1. */
+	static private double atanSeries (double x) {
+		// atan(x) = pi / 4 + atan((x - 1) / (x + 1)) keeps the series argument below tan(pi / 8).
+		double offset = 0;
+		if (x > 0.4142135) {
+			offset = Math.PI / 4;
+			x = (x - 1) / (x + 1);
+		}
+		double x2 = x * x, term = x, sum = x;
+		for (int i = 1; i < 32; i++) {
+			term *= -x2;
+			sum += term / (2 * i + 1);
+		}
+		return offset + sum;
+	}
+
+	/** Returns a random number between 0 (inclusive) and ONE (exclusive). A random with the same seed gives the same numbers
+	 * everywhere. */
+	static public int random (RandomXS128 random) {
+		return (int)(random.nextLong() >>> 48);
+	}
+
+	/** Returns a random number between start (inclusive) and end (exclusive). */
+	static public int random (RandomXS128 random, int start, int end) {
+		return start + (int)(((long)end - start) * (random.nextLong() >>> 48) >> FRACTION_BITS);
+	}
+}
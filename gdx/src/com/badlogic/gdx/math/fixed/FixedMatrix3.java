@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.fixed;
+
+import static com.badlogic.gdx.math.fixed.FixedMath.*;
+
+import java.io.Serializable;
+
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** A 3x3 column major matrix of {@link FixedMath fixed point} numbers for 2D transforms, with the same results everywhere. The
+ * layout and methods are as for {@link Matrix3}. Each element of a product is summed with long arithmetic and rounded once. */
+public class FixedMatrix3 implements Serializable {
+	private static final long serialVersionUID = 3362183620483549710L;
+	public static final int M00 = 0;
+	public static final int M01 = 3;
+	public static final int M02 = 6;
+	public static final int M10 = 1;
+	public static final int M11 = 4;
+	public static final int M12 = 7;
+	public static final int M20 = 2;
+	public static final int M21 = 5;
+	public static final int M22 = 8;
+	public int[] val = new int[9];
+	private int[] tmp = new int[9];
+
+	public FixedMatrix3 () {
+		idt();
+	}
+
+	public FixedMatrix3 (FixedMatrix3 matrix) {
+		set(matrix);
+	}
+
+	/** Sets this matrix to the identity matrix. */
+	public FixedMatrix3 idt () {
+		int[] val = this.val;
+		val[M00] = ONE;
+		val[M10] = 0;
+		val[M20] = 0;
+		val[M01] = 0;
+		val[M11] = ONE;
+		val[M21] = 0;
+		val[M02] = 0;
+		val[M12] = 0;
+		val[M22] = ONE;
+		return this;
+	}
+
+	public FixedMatrix3 set (FixedMatrix3 matrix) {
+		System.arraycopy(matrix.val, 0, val, 0, 9);
+		return this;
+	}
+
+	/** Sets this matrix from a float matrix, see {@link FixedMath#fromFloat(float)}. */
+	public FixedMatrix3 set (Matrix3 matrix) {
+		for (int i = 0; i < 9; i++)
+			val[i] = fromFloat(matrix.val[i]);
+		return this;
+	}
+
+	/** Sets the float matrix to this matrix, eg to draw the simulation.
+	 * @return The float matrix. */
+	public Matrix3 toMatrix3 (Matrix3 matrix) {
+		for (int i = 0; i < 9; i++)
+			matrix.val[i] = toFloat(val[i]);
+		return matrix;
+	}
+
+	/** Postmultiplies this matrix with the provided matrix and stores the result in this matrix. For example:
+	 *
+	 * <pre>
+	 * A.mul(B) results in A := AB
+	 * </pre>
+	 * @param m Matrix to multiply by.
+	 * @return This matrix for the purpose of chaining operations together. */
+	public FixedMatrix3 mul (FixedMatrix3 m) {
+		mul(val, m.val);
+		return this;
+	}
+
+	/** Premultiplies this matrix with the provided matrix and stores the result in this matrix. For example:
+	 *
+	 * <pre>
+	 * A.mulLeft(B) results in A := BA
+	 * </pre>
+	 * @param m The other matrix
+	 * @return This matrix for the purpose of chaining operations. */
+	public FixedMatrix3 mulLeft (FixedMatrix3 m) {
+		int[] tmp = this.tmp;
+		System.arraycopy(m.val, 0, tmp, 0, 9);
+		mul(tmp, val);
+		System.arraycopy(tmp, 0, val, 0, 9);
+		return this;
+	}
+
+	/** Sets this matrix to a rotation matrix that will rotate any vector in counter-clockwise direction around the z-axis.
+	 * @param radians The angle in fixed point radians. */
+	public FixedMatrix3 setToRotationRad (int radians) {
+		int cos = cos(radians), sin = sin(radians);
+		int[] val = this.val;
+		val[M00] = cos;
+		val[M10] = sin;
+		val[M20] = 0;
+		val[M01] = -sin;
+		val[M11] = cos;
+		val[M21] = 0;
+		val[M02] = 0;
+		val[M12] = 0;
+		val[M22] = ONE;
+		return this;
+	}
+
+	public FixedMatrix3 setToTranslation (int x, int y) {
+		idt();
+		val[M02] = x;
+		val[M12] = y;
+		return this;
+	}
+
+	public FixedMatrix3 setToTranslation (FixedVector2 translation) {
+		return setToTranslation(translation.x, translation.y);
+	}
+
+	public FixedMatrix3 setToScaling (int scaleX, int scaleY) {
+		idt();
+		val[M00] = scaleX;
+		val[M11] = scaleY;
+		return this;
+	}
+
+	/** Postmultiplies this matrix by a translation matrix. */
+	public FixedMatrix3 translate (int x, int y) {
+		int[] tmp = this.tmp;
+		tmp[M00] = ONE;
+		tmp[M10] = 0;
+		tmp[M20] = 0;
+		tmp[M01] = 0;
+		tmp[M11] = ONE;
+		tmp[M21] = 0;
+		tmp[M02] = x;
+		tmp[M12] = y;
+		tmp[M22] = ONE;
+		mul(val, tmp);
+		return this;
+	}
+
+	/** Postmultiplies this matrix by a translation matrix. */
+	public FixedMatrix3 translate (FixedVector2 translation) {
+		return translate(translation.x, translation.y);
+	}
+
+	/** Adds a translation to this matrix. */
+	public FixedMatrix3 trn (int x, int y) {
+		val[M02] += x;
+		val[M12] += y;
+		return this;
+	}
+
+	/** Postmultiplies this matrix with a counter-clockwise rotation matrix.
+	 * @param radians The angle in fixed point radians. */
+	public FixedMatrix3 rotateRad (int radians) {
+		if (radians == 0) return this;
+		int cos = cos(radians), sin = sin(radians);
+		int[] tmp = this.tmp;
+		tmp[M00] = cos;
+		tmp[M10] = sin;
+		tmp[M20] = 0;
+		tmp[M01] = -sin;
+		tmp[M11] = cos;
+		tmp[M21] = 0;
+		tmp[M02] = 0;
+		tmp[M12] = 0;
+		tmp[M22] = ONE;
+		mul(val, tmp);
+		return this;
+	}
+
+	/** Postmultiplies this matrix with a scale matrix. */
+	public FixedMatrix3 scale (int scaleX, int scaleY) {
+		int[] tmp = this.tmp;
+		tmp[M00] = scaleX;
+		tmp[M10] = 0;
+		tmp[M20] = 0;
+		tmp[M01] = 0;
+		tmp[M11] = scaleY;
+		tmp[M21] = 0;
+		tmp[M02] = 0;
+		tmp[M12] = 0;
+		tmp[M22] = ONE;
+		mul(val, tmp);
+		return this;
+	}
+
+	/** @return The determinant of this matrix. */
+	public int det () {
+		int[] val = this.val;
+		long m0 = (long)val[M11] * val[M22] - (long)val[M21] * val[M12] + HALF >> FRACTION_BITS;
+		long m1 = (long)val[M20] * val[M12] - (long)val[M10] * val[M22] + HALF >> FRACTION_BITS;
+		long m2 = (long)val[M10] * val[M21] - (long)val[M20] * val[M11] + HALF >> FRACTION_BITS;
+		return (int)(val[M00] * m0 + val[M01] * m1 + val[M02] * m2 + HALF >> FRACTION_BITS);
+	}
+
+	/** Inverts this matrix given that the determinant is != 0.
+	 * @return This matrix for the purpose of chaining operations.
+	 * @throws GdxRuntimeException if the matrix is singular (not invertible) */
+	public FixedMatrix3 inv () {
+		int det = det();
+		if (det == 0) throw new GdxRuntimeException("Can't invert a singular matrix");
+		int[] val = this.val;
+		// The cofactors have 32 fraction bits, so dividing by the determinant gives 16.
+		long c00 = (long)val[M11] * val[M22] - (long)val[M21] * val[M12];
+		long c10 = (long)val[M20] * val[M12] - (long)val[M10] * val[M22];
+		long c20 = (long)val[M10] * val[M21] - (long)val[M20] * val[M11];
+		long c01 = (long)val[M21] * val[M02] - (long)val[M01] * val[M22];
+		long c11 = (long)val[M00] * val[M22] - (long)val[M20] * val[M02];
+		long c21 = (long)val[M20] * val[M01] - (long)val[M00] * val[M21];
+		long c02 = (long)val[M01] * val[M12] - (long)val[M11] * val[M02];
+		long c12 = (long)val[M10] * val[M02] - (long)val[M00] * val[M12];
+		long c22 = (long)val[M00] * val[M11] - (long)val[M10] * val[M01];
+		val[M00] = (int)(c00 / det);
+		val[M10] = (int)(c10 / det);
+		val[M20] = (int)(c20 / det);
+		val[M01] = (int)(c01 / det);
+		val[M11] = (int)(c11 / det);
+		val[M21] = (int)(c21 / det);
+		val[M02] = (int)(c02 / det);
+		val[M12] = (int)(c12 / det);
+		val[M22] = (int)(c22 / det);
+		return this;
+	}
+
+	public FixedVector2 getTranslation (FixedVector2 position) {
+		position.x = val[M02];
+		position.y = val[M12];
+		return position;
+	}
+
+	/** @return The rotation in fixed point radians, between -PI and PI. */
+	public int getRotationRad () {
+		return atan2(val[M10], val[M00]);
+	}
+
+	public String toString () {
+		int[] val = this.val;
+		return "[" + toFloat(val[M00]) + "|" + toFloat(val[M01]) + "|" + toFloat(val[M02]) + "]\n" //
+			+ "[" + toFloat(val[M10]) + "|" + toFloat(val[M11]) + "|" + toFloat(val[M12]) + "]\n" //
+			+ "[" + toFloat(val[M20]) + "|" + toFloat(val[M21]) + "|" + toFloat(val[M22]) + "]";
+	}
+
+	/** Multiplies matrix a with matrix b in the following manner:
+	 *
+	 * <pre>
+	 * mul(A, B) => A := AB
+	 * </pre> */
+	static private void mul (int[] a, int[] b) {
+		long v00 = (long)a[M00] * b[M00] + (long)a[M01] * b[M10] + (long)a[M02] * b[M20] + HALF >> FRACTION_BITS;
+		long v01 = (long)a[M00] * b[M01] + (long)a[M01] * b[M11] + (long)a[M02] * b[M21] + HALF >> FRACTION_BITS;
+		long v02 = (long)a[M00] * b[M02] + (long)a[M01] * b[M12] + (long)a[M02] * b[M22] + HALF >> FRACTION_BITS;
+
+		long v10 = (long)a[M10] * b[M00] + (long)a[M11] * b[M10] + (long)a[M12] * b[M20] + HALF >> FRACTION_BITS;
+		long v11 = (long)a[M10] * b[M01] + (long)a[M11] * b[M11] + (long)a[M12] * b[M21] + HALF >> FRACTION_BITS;
+		long v12 = (long)a[M10] * b[M02] + (long)a[M11] * b[M12] + (long)a[M12] * b[M22] + HALF >> FRACTION_BITS;
+
+		long v20 = (long)a[M20] * b[M00] + (long)a[M21] * b[M10] + (long)a[M22] * b[M20] + HALF >> FRACTION_BITS;
+		long v21 = (long)a[M20] * b[M01] + (long)a[M21] * b[M11] + (long)a[M22] * b[M21] + HALF >> FRACTION_BITS;
+		long v22 = (long)a[M20] * b[M02] + (long)a[M21] * b[M12] + (long)a[M22] * b[M22] + HALF >> FRACTION_BITS;
+
+		a[M00] = (int)v00;
+		a[M10] = (int)v10;
+		a[M20] = (int)v20;
+		a[M01] = (int)v01;
+		a[M11] = (int)v11;
+		a[M21] = (int)v21;
+		a[M02] = (int)v02;
+		a[M12] = (int)v12;
+		a[M22] = (int)v22;
+	}
+}
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.fixed;
+
+import static com.badlogic.gdx.math.fixed.FixedMath.*;
+
+import java.io.Serializable;
+
+import com.badlogic.gdx.math.Vector2;
+
+/** A 2D vector of {@link FixedMath fixed point} numbers, with the same results everywhere. The methods are named as for
+ * {@link Vector2}. Lengths and distances are computed with long arithmetic, so they only overflow when the result is out of
+ * range. */
+public class FixedVector2 implements Serializable {
+	private static final long serialVersionUID = -2914652335467069012L;
+
+	/** the x-component of this vector **/
+	public int x;
+	/** the y-component of this vector **/
+	public int y;
+
+	public FixedVector2 () {
+	}
+
+	/** @param x Fixed point x.
+	 * @param y Fixed point y. */
+	public FixedVector2 (int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	public FixedVector2 (FixedVector2 v) {
+		set(v);
+	}
+
+	public FixedVector2 cpy () {
+		return new FixedVector2(this);
+	}
+
+	public FixedVector2 set (FixedVector2 v) {
+		x = v.x;
+		y = v.y;
+		return this;
+	}
+
+	public FixedVector2 set (int x, int y) {
+		this.x = x;
+		this.y = y;
+		return this;
+	}
+
+	/** Sets this vector from a float vector, see {@link FixedMath#fromFloat(float)}. */
+	public FixedVector2 set (Vector2 v) {
+		x = fromFloat(v.x);
+		y = fromFloat(v.y);
+		return this;
+	}
+
+	/** Sets the float vector to this vector, eg to draw the simulation.
+	 * @return The float vector. */
+	public Vector2 toVector2 (Vector2 v) {
+		return v.set(toFloat(x), toFloat(y));
+	}
+
+	public FixedVector2 setZero () {
+		x = 0;
+		y = 0;
+		return this;
+	}
+
+	public FixedVector2 add (FixedVector2 v) {
+		x += v.x;
+		y += v.y;
+		return this;
+	}
+
+	public FixedVector2 add (int x, int y) {
+		this.x += x;
+		this.y += y;
+		return this;
+	}
+
+	public FixedVector2 sub (FixedVector2 v) {
+		x -= v.x;
+		y -= v.y;
+		return this;
+	}
+
+	public FixedVector2 sub (int x, int y) {
+		this.x -= x;
+		this.y -= y;
+		return this;
+	}
+
+	public FixedVector2 scl (int scalar) {
+		x = FixedMath.mul(x, scalar);
+		y = FixedMath.mul(y, scalar);
+		return this;
+	}
+
+	public FixedVector2 scl (int x, int y) {
+		this.x = FixedMath.mul(this.x, x);
+		this.y = FixedMath.mul(this.y, y);
+		return this;
+	}
+
+	public FixedVector2 scl (FixedVector2 v) {
+		x = FixedMath.mul(x, v.x);
+		y = FixedMath.mul(y, v.y);
+		return this;
+	}
+
+	/** Adds the vector multiplied by the scalar, eg to move by the velocity times the time step. */
+	public FixedVector2 mulAdd (FixedVector2 v, int scalar) {
+		x += FixedMath.mul(v.x, scalar);
+		y += FixedMath.mul(v.y, scalar);
+		return this;
+	}
+
+	public int dot (FixedVector2 v) {
+		return (int)((long)x * v.x + (long)y * v.y + HALF >> FRACTION_BITS);
+	}
+
+	public int dot (int x, int y) {
+		return (int)((long)this.x * x + (long)this.y * y + HALF >> FRACTION_BITS);
+	}
+
+	public int crs (FixedVector2 v) {
+		return (int)((long)x * v.y - (long)y * v.x + HALF >> FRACTION_BITS);
+	}
+
+	public int crs (int x, int y) {
+		return (int)((long)this.x * y - (long)this.y * x + HALF >> FRACTION_BITS);
+	}
+
+	public int len () {
+		return (int)FixedMath.sqrt((long)x * x + (long)y * y);
+	}
+
+	/** Returns the squared length, which may overflow for lengths over 181. {@link #len()} does not overflow. */
+	public int len2 () {
+		return (int)((long)x * x + (long)y * y + HALF >> FRACTION_BITS);
+	}
+
+	public int dst (FixedVector2 v) {
+		long dx = (long)v.x - x, dy = (long)v.y - y;
+		return (int)FixedMath.sqrt(dx * dx + dy * dy);
+	}
+
+	public int dst (int x, int y) {
+		long dx = (long)x - this.x, dy = (long)y - this.y;
+		return (int)FixedMath.sqrt(dx * dx + dy * dy);
+	}
+
+	/** Returns the squared distance, which may overflow for distances over 181. */
+	public int dst2 (FixedVector2 v) {
+		long dx = (long)v.x - x, dy = (long)v.y - y;
+		return (int)(dx * dx + dy * dy + HALF >> FRACTION_BITS);
+	}
+
+	/** Normalizes this vector. Does nothing if it is zero. */
+	public FixedVector2 nor () {
+		int len = len();
+		if (len != 0) {
+			x = div(x, len);
+			y = div(y, len);
+		}
+		return this;
+	}
+
+	/** Sets the length of this vector. Does nothing if it is zero. */
+	public FixedVector2 setLength (int len) {
+		int oldLen = len();
+		if (oldLen != 0 && oldLen != len) {
+			x = (int)((long)x * len / oldLen);
+			y = (int)((long)y * len / oldLen);
+		}
+		return this;
+	}
+
+	/** Limits the length of this vector. */
+	public FixedVector2 limit (int limit) {
+		if (len() > limit) setLength(limit);
+		return this;
+	}
+
+	/** @return The angle in radians of this vector relative to the x-axis, between -PI and PI. */
+	public int angleRad () {
+		return atan2(y, x);
+	}
+
+	/** Sets the angle of this vector in radians, keeping the length. */
+	public FixedVector2 setAngleRad (int radians) {
+		int len = len();
+		x = FixedMath.mul(len, cos(radians));
+		y = FixedMath.mul(len, sin(radians));
+		return this;
+	}
+
+	/** Rotates this vector by the angle in radians, counter-clockwise. */
+	public FixedVector2 rotateRad (int radians) {
+		int cos = cos(radians), sin = sin(radians);
+		int newX = (int)((long)x * cos - (long)y * sin + HALF >> FRACTION_BITS);
+		int newY = (int)((long)x * sin + (long)y * cos + HALF >> FRACTION_BITS);
+		x = newX;
+		y = newY;
+		return this;
+	}
+
+	/** Rotates this vector by 90 degrees in the specified direction, where >= 0 is counter-clockwise and < 0 is clockwise. */
+	public FixedVector2 rotate90 (int dir) {
+		int x = this.x;
+		if (dir >= 0) {
+			this.x = -y;
+			y = x;
+		} else {
+			this.x = y;
+			y = -x;
+		}
+		return this;
+	}
+
+	/** Left-multiplies this vector by the given matrix. */
+	public FixedVector2 mul (FixedMatrix3 matrix) {
+		int[] val = matrix.val;
+		int newX = (int)((long)x * val[0] + (long)y * val[3] + HALF >> FRACTION_BITS) + val[6];
+		int newY = (int)((long)x * val[1] + (long)y * val[4] + HALF >> FRACTION_BITS) + val[7];
+		x = newX;
+		y = newY;
+		return this;
+	}
+
+	/** Linearly interpolates between this vector and the target vector by alpha, between 0 and ONE. */
+	public FixedVector2 lerp (FixedVector2 target, int alpha) {
+		x += FixedMath.mul(target.x - x, alpha);
+		y += FixedMath.mul(target.y - y, alpha);
+		return this;
+	}
+
+	public boolean isZero () {
+		return x == 0 && y == 0;
+	}
+
+	public int hashCode () {
+		return 31 * x + y;
+	}
+
+	public boolean equals (Object obj) {
+		if (this == obj) return true;
+		if (obj == null || getClass() != obj.getClass()) return false;
+		FixedVector2 other = (FixedVector2)obj;
+		return x == other.x && y == other.y;
+	}
+
+	public String toString () {
+		return "(" + toFloat(x) + "," + toFloat(y) + ")";
+	}
+}
@@ -418,6 +418,7 @@ public class Actor {
 		if (this.x != x) {
 			this.x = x;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -433,6 +434,7 @@ public class Actor {
 		if (this.x != x) {
 			this.x = x;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -445,6 +447,7 @@ public class Actor {
 		if (this.y != y) {
 			this.y = y;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -460,6 +463,7 @@ public class Actor {
 		if (this.y != y) {
 			this.y = y;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -479,6 +483,7 @@ public class Actor {
 			this.x = x;
 			this.y = y;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -499,6 +504,7 @@ public class Actor {
 			this.x = x;
 			this.y = y;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -508,6 +514,7 @@ public class Actor {
 			this.x += x;
 			this.y += y;
 			positionChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -519,6 +526,7 @@ public class Actor {
 		if (this.width != width) {
 			this.width = width;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -530,6 +538,7 @@ public class Actor {
 		if (this.height != height) {
 			this.height = height;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -555,12 +564,22 @@ public class Actor {
 	protected void rotationChanged () {
 	}
 
+	/** Updates the bounds of this actor in the {@link Group#setHitIndex(float) hit index} of the parent, if it has one, and
+	 * invalidates the parent's {@link Group#setChildrenOrder(int) children order} data. */
+	private void updateParentIndex () {
+		Group parent = this.parent;
+		if (parent == null) return;
+		if (parent.hitIndex != null) parent.hitIndex.update(this);
+		parent.orderValid = false;
+	}
+
 	/** Sets the width and height. */
 	public void setSize (float width, float height) {
 		if (this.width != width || this.height != height) {
 			this.width = width;
 			this.height = height;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -570,6 +589,7 @@ public class Actor {
 			width += size;
 			height += size;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -579,6 +599,7 @@ public class Actor {
 			this.width += width;
 			this.height += height;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -588,11 +609,13 @@ public class Actor {
 			this.x = x;
 			this.y = y;
 			positionChanged();
+			updateParentIndex();
 		}
 		if (this.width != width || this.height != height) {
 			this.width = width;
 			this.height = height;
 			sizeChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -602,6 +625,7 @@ public class Actor {
 
 	public void setOriginX (float originX) {
 		this.originX = originX;
+		updateParentIndex();
 	}
 
 	public float getOriginY () {
@@ -610,12 +634,14 @@ public class Actor {
 
 	public void setOriginY (float originY) {
 		this.originY = originY;
+		updateParentIndex();
 	}
 
 	/** Sets the origin position which is relative to the actor's bottom left corner. */
 	public void setOrigin (float originX, float originY) {
 		this.originX = originX;
 		this.originY = originY;
+		updateParentIndex();
 	}
 
 	/** Sets the origin position to the specified {@link Align alignment}. */
@@ -633,6 +659,7 @@ public class Actor {
 			originY = height;
 		else
 			originY = height / 2;
+		updateParentIndex();
 	}
 
 	public float getScaleX () {
@@ -641,6 +668,7 @@ public class Actor {
 
 	public void setScaleX (float scaleX) {
 		this.scaleX = scaleX;
+		updateParentIndex();
 	}
 
 	public float getScaleY () {
@@ -649,30 +677,35 @@ public class Actor {
 
 	public void setScaleY (float scaleY) {
 		this.scaleY = scaleY;
+		updateParentIndex();
 	}
 
 	/** Sets the scale for both X and Y */
 	public void setScale (float scaleXY) {
 		this.scaleX = scaleXY;
 		this.scaleY = scaleXY;
+		updateParentIndex();
 	}
 
 	/** Sets the scale X and scale Y. */
 	public void setScale (float scaleX, float scaleY) {
 		this.scaleX = scaleX;
 		this.scaleY = scaleY;
+		updateParentIndex();
 	}
 
 	/** Adds the specified scale to the current scale. */
 	public void scaleBy (float scale) {
 		scaleX += scale;
 		scaleY += scale;
+		updateParentIndex();
 	}
 
 	/** Adds the specified scale to the current scale. */
 	public void scaleBy (float scaleX, float scaleY) {
 		this.scaleX += scaleX;
 		this.scaleY += scaleY;
+		updateParentIndex();
 	}
 
 	public float getRotation () {
@@ -683,6 +716,7 @@ public class Actor {
 		if (this.rotation != degrees) {
 			this.rotation = degrees;
 			rotationChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -691,6 +725,7 @@ public class Actor {
 		if (amountInDegrees != 0) {
 			rotation += amountInDegrees;
 			rotationChanged();
+			updateParentIndex();
 		}
 	}
 
@@ -744,6 +779,8 @@ public class Actor {
 		if (children.get(index) == this) return false;
 		if (!children.removeValue(this, true)) return false;
 		children.insert(index, this);
+		if (parent.hitIndex != null) parent.hitIndex.invalidate();
+		parent.orderValid = false;
 		return true;
 	}
 
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.scenes.scene2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.HdpiUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.ui.Button;
+import com.badlogic.gdx.scenes.scene2d.ui.Container;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Slider;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/** A group that draws its children once into a {@link FrameBuffer} and then draws only the frame buffer texture, until the
+ * children change. This makes a complex panel that rarely changes, eg a HUD, cost a single quad per frame.
+ * <p>
+ * Each frame the position, size, rotation, scale, origin, color, visibility and order of all descendants are compared to the
+ * last frame, which is much cheaper than drawing them. A widget that needs layout, eg a label after
+ * {@link com.badlogic.gdx.scenes.scene2d.ui.Label#setText(CharSequence) setText}, also causes the children to be drawn again.
+ * So do a different drawable of an {@link Image} or the background of a {@link Table} or {@link Container}, the pressed, over,
+ * checked, disabled and focused state of a {@link Button}, and the visual value of a {@link ProgressBar} or {@link Slider}.
+ * Actors that change what they draw in other ways, eg a text field with a blinking cursor, an animated drawable or a custom
+ * actor, must call {@link #invalidateCache()}. The group's own position, rotation, scale and alpha can change without
+ * redrawing the children.
+ * <p>
+ * Only the part of the children within the group's bounds is drawn. Children must not use clipping, eg a
+ * {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane}, because scissors are calculated for the stage and not the frame
+ * buffer. The frame buffer has the resolution of the stage's viewport and is disposed when the group is removed from the stage.
+ * The frame buffer content is lost with the GL context, call {@link #invalidateCache()} on resume.
+ * <p>
+ * A cached group can contain other cached groups. After drawing its children, it binds the default frame buffer again, or the
+ * frame buffer of the cached group it is inside of. It must not be drawn while another frame buffer is bound, eg when the whole
+ * stage is drawn into a {@link FrameBuffer}, because the GL state can't be queried on all backends to restore that frame
+ * buffer. */
+public class CachedGroup extends Group implements Disposable {
+	static private final int STATE_SIZE = 12;
+	/** The cached group whose frame buffer is bound, or null. */
+	static private CachedGroup drawingCache;
+
+	private FrameBuffer frameBuffer;
+	private final TextureRegion region = new TextureRegion();
+	private boolean cacheInvalid = true;
+	private int redraws;
+
+	private final Matrix4 cacheProjection = new Matrix4(), cacheTransform = new Matrix4();
+	private final Matrix4 oldProjection = new Matrix4(), oldTransform = new Matrix4();
+
+	private final Array<Actor> stateActors = new Array();
+	private float[] state = new float[0];
+	private Object[] drawables = new Object[0];
+	private int stateCount;
+	private boolean stateChanged;
+
+	public void draw (Batch batch, float parentAlpha) {
+		Stage stage = getStage();
+		if (stage == null) {
+			super.draw(batch, parentAlpha);
+			return;
+		}
+
+		// Size of the group in back buffer pixels.
+		Viewport viewport = stage.getViewport();
+		int bufferWidth = 0, bufferHeight = 0;
+		if (Gdx.graphics.getWidth() > 0 && Gdx.graphics.getHeight() > 0) {
+			float pixelsX = viewport.getScreenWidth() / viewport.getWorldWidth() * Gdx.graphics.getBackBufferWidth()
+				/ Gdx.graphics.getWidth();
+			float pixelsY = viewport.getScreenHeight() / viewport.getWorldHeight() * Gdx.graphics.getBackBufferHeight()
+				/ Gdx.graphics.getHeight();
+			bufferWidth = (int)Math.ceil(getWidth() * pixelsX);
+			bufferHeight = (int)Math.ceil(getHeight() * pixelsY);
+		}
+		if (bufferWidth <= 0 || bufferHeight <= 0) {
+			super.draw(batch, parentAlpha);
+			return;
+		}
+
+		if (frameBuffer == null || frameBuffer.getWidth() != bufferWidth || frameBuffer.getHeight() != bufferHeight) {
+			if (frameBuffer != null) frameBuffer.dispose();
+			frameBuffer = new FrameBuffer(Format.RGBA8888, bufferWidth, bufferHeight, false);
+			Texture texture = frameBuffer.getColorBufferTexture();
+			texture.setFilter(TextureFilter.Linear, TextureFilter.Linear);
+			region.setRegion(texture);
+			region.flip(false, true);
+			cacheInvalid = true;
+		}
+
+		if (updateState() || cacheInvalid) {
+			drawCache(batch, viewport);
+			updateState(); // Drawing validates widgets, which may change their state.
+			cacheInvalid = false;
+		}
+
+		int srcFunc = batch.getBlendSrcFunc(), dstFunc = batch.getBlendDstFunc();
+		int srcFuncAlpha = batch.getBlendSrcFuncAlpha(), dstFuncAlpha = batch.getBlendDstFuncAlpha();
+		float oldColor = batch.getPackedColor();
+		float a = color.a * parentAlpha;
+		batch.setColor(a, a, a, a); // The frame buffer has premultiplied alpha.
+		batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		if (transform) {
+			applyTransform(batch, computeTransform());
+			batch.draw(region, 0, 0, getWidth(), getHeight());
+			resetTransform(batch);
+		} else
+			batch.draw(region, getX(), getY(), getWidth(), getHeight());
+		batch.setBlendFunctionSeparate(srcFunc, dstFunc, srcFuncAlpha, dstFuncAlpha);
+		batch.setPackedColor(oldColor);
+	}
+
+	/** Draws the children into the frame buffer, in the group's coordinate system and without the group's alpha. */
+	private void drawCache (Batch batch, Viewport viewport) {
+		redraws++;
+		batch.flush();
+		oldProjection.set(batch.getProjectionMatrix());
+		oldTransform.set(batch.getTransformMatrix());
+		int srcFunc = batch.getBlendSrcFunc(), dstFunc = batch.getBlendDstFunc();
+		int srcFuncAlpha = batch.getBlendSrcFuncAlpha(), dstFuncAlpha = batch.getBlendDstFuncAlpha();
+		boolean scissors = Gdx.gl.glIsEnabled(GL20.GL_SCISSOR_TEST);
+		if (scissors) Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+
+		CachedGroup outerCache = drawingCache;
+		drawingCache = this;
+		frameBuffer.begin();
+		Gdx.gl.glClearColor(0, 0, 0, 0);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		batch.setProjectionMatrix(cacheProjection.setToOrtho2D(0, 0, getWidth(), getHeight()));
+		batch.setTransformMatrix(cacheTransform);
+		// Blending the alpha separately leaves premultiplied alpha in the frame buffer, so it can be blended over the stage once.
+		batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+		// Children that transform multiply with this group's transform, which is the identity in the frame buffer.
+		boolean oldTransformEnabled = transform;
+		Rectangle oldCullingArea = getCullingArea();
+		float oldAlpha = color.a;
+		transform = true;
+		worldTransform.idt();
+		setCullingArea(null);
+		color.a = 1;
+		drawChildren(batch, 1);
+		color.a = oldAlpha;
+		setCullingArea(oldCullingArea);
+		transform = oldTransformEnabled;
+		batch.flush();
+
+		drawingCache = outerCache;
+		if (outerCache != null)
+			outerCache.frameBuffer.begin(); // Binds the outer frame buffer and sets its viewport.
+		else {
+			frameBuffer.end();
+			HdpiUtils.glViewport(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+		}
+		if (scissors) Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+		batch.setBlendFunctionSeparate(srcFunc, dstFunc, srcFuncAlpha, dstFuncAlpha);
+		batch.setProjectionMatrix(oldProjection);
+		batch.setTransformMatrix(oldTransform);
+	}
+
+	/** Stores the state of all descendants that affects drawing.
+	 * @return true if the state changed since the last call. */
+	boolean updateState () {
+		stateCount = 0;
+		stateChanged = false;
+		updateState(this);
+		if (stateCount != stateActors.size) {
+			stateActors.truncate(stateCount);
+			stateChanged = true;
+		}
+		return stateChanged;
+	}
+
+	private void updateState (Group group) {
+		Array<Actor> stateActors = this.stateActors;
+		Actor[] actors = group.children.items;
+		for (int i = 0, n = group.children.size; i < n; i++) {
+			Actor actor = actors[i];
+			int index = stateCount++;
+			if (index == stateActors.size) {
+				stateActors.add(actor);
+				stateChanged = true;
+			} else if (stateActors.get(index) != actor) {
+				stateActors.set(index, actor);
+				stateChanged = true;
+			}
+
+			int offset = index * STATE_SIZE;
+			if (offset + STATE_SIZE > state.length) {
+				float[] newState = new float[Math.max(offset + STATE_SIZE, state.length * 2)];
+				System.arraycopy(state, 0, newState, 0, state.length);
+				state = newState;
+				Object[] newDrawables = new Object[newState.length / STATE_SIZE];
+				System.arraycopy(drawables, 0, newDrawables, 0, drawables.length);
+				drawables = newDrawables;
+			}
+			float[] state = this.state;
+			boolean changed = false;
+			changed |= set(state, offset, actor.x);
+			changed |= set(state, offset + 1, actor.y);
+			changed |= set(state, offset + 2, actor.width);
+			changed |= set(state, offset + 3, actor.height);
+			changed |= set(state, offset + 4, actor.rotation);
+			changed |= set(state, offset + 5, actor.scaleX);
+			changed |= set(state, offset + 6, actor.scaleY);
+			changed |= set(state, offset + 7, actor.originX);
+			changed |= set(state, offset + 8, actor.originY);
+			changed |= set(state, offset + 9, actor.color.toFloatBits());
+			changed |= set(state, offset + 10, actor.isVisible() ? 1 : 0);
+			changed |= set(state, offset + 11, widgetState(actor));
+			Object drawable = drawable(actor);
+			if (drawables[index] != drawable) {
+				drawables[index] = drawable;
+				changed = true;
+			}
+			if (changed) stateChanged = true;
+
+			if (!actor.isVisible()) continue;
+			if (actor instanceof Widget) {
+				if (((Widget)actor).needsLayout()) stateChanged = true;
+			} else if (actor instanceof WidgetGroup) {
+				if (((WidgetGroup)actor).needsLayout()) stateChanged = true;
+			}
+			if (actor instanceof Group) updateState((Group)actor);
+		}
+	}
+
+	/** Returns the drawable that is drawn by widgets which don't need layout when it changes, or null. */
+	static private Object drawable (Actor actor) {
+		if (actor instanceof Image) return ((Image)actor).getDrawable();
+		if (actor instanceof Table) return ((Table)actor).getBackground();
+		if (actor instanceof Container) return ((Container)actor).getBackground();
+		return null;
+	}
+
+	/** Returns the state that changes what widgets draw without needing layout, or 0. */
+	private float widgetState (Actor actor) {
+		if (actor instanceof Button) {
+			Button button = (Button)actor;
+			Stage stage = getStage();
+			int state = 0;
+			if (button.isPressed()) state |= 1;
+			if (button.isOver()) state |= 2;
+			if (button.isChecked()) state |= 4;
+			if (button.isDisabled()) state |= 8;
+			if (stage != null && stage.getKeyboardFocus() == button) state |= 16;
+			return state;
+		}
+		if (actor instanceof ProgressBar) {
+			ProgressBar bar = (ProgressBar)actor;
+			float state = bar.getVisualPercent();
+			if (bar.isDisabled()) state += 2;
+			if (actor instanceof Slider) {
+				Slider slider = (Slider)actor;
+				if (slider.isDragging()) state += 4;
+				if (slider.isOver()) state += 8;
+			}
+			return state;
+		}
+		return 0;
+	}
+
+	static private boolean set (float[] state, int index, float value) {
+		if (state[index] == value) return false;
+		state[index] = value;
+		return true;
+	}
+
+	/** Causes the children to be drawn into the frame buffer again the next time this group is drawn. */
+	public void invalidateCache () {
+		cacheInvalid = true;
+	}
+
+	/** Returns the number of times the children were drawn into the frame buffer. */
+	public int getCacheRedraws () {
+		return redraws;
+	}
+
+	protected void setStage (Stage stage) {
+		super.setStage(stage);
+		if (stage == null) dispose();
+	}
+
+	/** Disposes the frame buffer. It is created again if the group is drawn. */
+	public void dispose () {
+		if (frameBuffer == null) return;
+		frameBuffer.dispose();
+		frameBuffer = null;
+		stateActors.clear();
+		drawables = new Object[0];
+		state = new float[0];
+		cacheInvalid = true;
+	}
+}
@@ -23,7 +23,10 @@ import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.SnapshotArray;
 
 /** 2D scene graph node that may contain other actors.
@@ -36,11 +39,15 @@ public class Group extends Actor implements Cullable {
 	static private final Vector2 tmp = new Vector2();
 
 	final SnapshotArray<Actor> children = new SnapshotArray(true, 4, Actor.class);
-	private final Affine2 worldTransform = new Affine2();
+	final Affine2 worldTransform = new Affine2();
 	private final Matrix4 computedTransform = new Matrix4();
 	private final Matrix4 oldTransform = new Matrix4();
 	boolean transform = true;
 	private Rectangle cullingArea;
+	HitIndex hitIndex;
+	private int childrenOrder;
+	private float[] orderStarts, orderEnds;
+	boolean orderValid;
 
 	public void act (float delta) {
 		super.act(delta);
@@ -73,8 +80,13 @@ public class Group extends Actor implements Cullable {
 			float cullRight = cullLeft + cullingArea.width;
 			float cullBottom = cullingArea.y;
 			float cullTop = cullBottom + cullingArea.height;
+			int start = 0, end = children.size;
+			if (childrenOrder != 0) {
+				start = orderedStart(cullingArea);
+				end = orderedEnd(cullingArea);
+			}
 			if (transform) {
-				for (int i = 0, n = children.size; i < n; i++) {
+				for (int i = start; i < end; i++) {
 					Actor child = actors[i];
 					if (!child.isVisible()) continue;
 					float cx = child.x, cy = child.y;
@@ -86,7 +98,7 @@ public class Group extends Actor implements Cullable {
 				float offsetX = x, offsetY = y;
 				x = 0;
 				y = 0;
-				for (int i = 0, n = children.size; i < n; i++) {
+				for (int i = start; i < end; i++) {
 					Actor child = actors[i];
 					if (!child.isVisible()) continue;
 					float cx = child.x, cy = child.y;
@@ -240,6 +252,11 @@ public class Group extends Actor implements Cullable {
 	public Actor hit (float x, float y, boolean touchable) {
 		if (touchable && getTouchable() == Touchable.disabled) return null;
 		if (!isVisible()) return null;
+		if (hitIndex != null) {
+			Actor hit = hitIndex.hit(this, x, y, touchable);
+			if (hit != null) return hit;
+			return super.hit(x, y, touchable);
+		}
 		Vector2 point = tmp;
 		Actor[] childrenArray = children.items;
 		for (int i = children.size - 1; i >= 0; i--) {
@@ -251,6 +268,112 @@ public class Group extends Actor implements Cullable {
 		return super.hit(x, y, touchable);
 	}
 
+	/** Enables a spatial index over the bounds of the children, so {@link #hit(float, float, boolean)} only tests the children near
+	 * the point instead of all of them. The result is the same as without the index, as long as children only hit points inside
+	 * their own bounds, which is true for {@link Actor#hit(float, float, boolean) the default implementation}. Children that are
+	 * groups can hit anywhere and are always tested, so the index helps most for groups with many leaf actors, like an inventory or
+	 * a map. Nested groups can have their own index.
+	 * <p>
+	 * The index is a uniform grid in this group's coordinates. It is updated when a child is moved, resized, rotated or scaled, or
+	 * appended with {@link #addActor(Actor)}. Other changes to the order of the children rebuild it on the next hit.
+	 * @param cellSize The size of a grid cell, a few times the size of a typical child works well. 0 disables the index. */
+	public void setHitIndex (float cellSize) {
+		if (cellSize < 0) throw new IllegalArgumentException("cellSize cannot be < 0: " + cellSize);
+		hitIndex = cellSize == 0 ? null : new HitIndex(cellSize);
+	}
+
+	/** @return The cell size of the hit index, or 0 if this group has none.
+	 * @see #setHitIndex(float) */
+	public float getHitIndexCellSize () {
+		return hitIndex == null ? 0 : hitIndex.cellSize;
+	}
+
+	/** Declares the order of the children, so drawing with a {@link #setCullingArea(Rectangle) culling area} can find the
+	 * children inside it with a binary search instead of testing every child. This helps long scrolled groups, eg the widget of a
+	 * {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane}. Only drawing uses the order, {@link #hit(float, float, boolean)}
+	 * always tests every child because the culling area may be stale, eg it is only updated when a scroll pane is drawn.
+	 * <p>
+	 * The search is exact for any order. The closer the children are to the declared order, the fewer children are tested, eg
+	 * table cells in the same row may overlap vertically and only the cells of rows near the culling area are tested. The search
+	 * data is rebuilt when a child is added, removed, moved or resized.
+	 * @param order {@link Align#top} if the first child is at the top and later children are below it, {@link Align#bottom},
+	 *           {@link Align#left} or {@link Align#right} for the other directions, or 0 if the children have no order. */
+	public void setChildrenOrder (int order) {
+		if (order != 0 && order != Align.top && order != Align.bottom && order != Align.left && order != Align.right)
+			throw new IllegalArgumentException("order must be 0, top, bottom, left or right: " + order);
+		childrenOrder = order;
+		orderValid = false;
+	}
+
+	/** @see #setChildrenOrder(int) */
+	public int getChildrenOrder () {
+		return childrenOrder;
+	}
+
+	/** Returns the index of the first child that may overlap the area along the {@link #setChildrenOrder(int) order}. */
+	int orderedStart (Rectangle area) {
+		validateOrder();
+		boolean vertical = childrenOrder == Align.top || childrenOrder == Align.bottom;
+		float min = vertical ? area.y : area.x, max = min + (vertical ? area.height : area.width);
+		if (childrenOrder == Align.top || childrenOrder == Align.right) return search(orderStarts, max, true, true);
+		return search(orderStarts, min, false, true);
+	}
+
+	/** Returns the index after the last child that may overlap the area along the {@link #setChildrenOrder(int) order}. */
+	int orderedEnd (Rectangle area) {
+		validateOrder();
+		boolean vertical = childrenOrder == Align.top || childrenOrder == Align.bottom;
+		float min = vertical ? area.y : area.x, max = min + (vertical ? area.height : area.width);
+		if (childrenOrder == Align.top || childrenOrder == Align.right) return search(orderEnds, min, true, false);
+		return search(orderEnds, max, false, false);
+	}
+
+	/** Returns the first index where descending values are < the value, or ascending values are > the value.
+	 * @param inclusive If true, the first index where the value is reached is returned instead. */
+	private int search (float[] values, float value, boolean descending, boolean inclusive) {
+		int low = 0, high = children.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			float v = values[mid];
+			if (v == value ? inclusive : (descending ? v < value : v > value))
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		return low;
+	}
+
+	/** For a descending order, orderStarts holds the smallest start of the children up to each index and orderEnds the largest
+	 * end of the children from each index on. Both are descending, so a binary search finds the range of children that may
+	 * overlap an area. Ascending orders use the largest end and smallest start instead. */
+	void validateOrder () {
+		if (orderValid) return;
+		orderValid = true;
+		int n = children.size;
+		if (orderStarts == null || orderStarts.length < n) {
+			orderStarts = new float[Math.max(n, 16)];
+			orderEnds = new float[Math.max(n, 16)];
+		}
+		float[] orderStarts = this.orderStarts, orderEnds = this.orderEnds;
+		boolean vertical = childrenOrder == Align.top || childrenOrder == Align.bottom;
+		boolean descending = childrenOrder == Align.top || childrenOrder == Align.right;
+		Actor[] actors = children.items;
+		float limit = descending ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			Actor child = actors[i];
+			float start = vertical ? child.y : child.x, end = start + (vertical ? child.height : child.width);
+			limit = descending ? Math.min(limit, start) : Math.max(limit, end);
+			orderStarts[i] = limit;
+		}
+		limit = descending ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+		for (int i = n - 1; i >= 0; i--) {
+			Actor child = actors[i];
+			float start = vertical ? child.y : child.x, end = start + (vertical ? child.height : child.width);
+			limit = descending ? Math.max(limit, end) : Math.min(limit, start);
+			orderEnds[i] = limit;
+		}
+	}
+
 	/** Called when actors are added to or removed from the group. */
 	protected void childrenChanged () {
 	}
@@ -265,6 +388,8 @@ public class Group extends Actor implements Cullable {
 		children.add(actor);
 		actor.setParent(this);
 		actor.setStage(getStage());
+		if (hitIndex != null) hitIndex.add(actor);
+		orderValid = false;
 		childrenChanged();
 	}
 
@@ -282,6 +407,8 @@ public class Group extends Actor implements Cullable {
 			children.insert(index, actor);
 		actor.setParent(this);
 		actor.setStage(getStage());
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		childrenChanged();
 	}
 
@@ -296,6 +423,8 @@ public class Group extends Actor implements Cullable {
 		children.insert(index, actor);
 		actor.setParent(this);
 		actor.setStage(getStage());
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		childrenChanged();
 	}
 
@@ -313,6 +442,8 @@ public class Group extends Actor implements Cullable {
 			children.insert(index + 1, actor);
 		actor.setParent(this);
 		actor.setStage(getStage());
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		childrenChanged();
 	}
 
@@ -334,6 +465,8 @@ public class Group extends Actor implements Cullable {
 		}
 		actor.setParent(null);
 		actor.setStage(null);
+		if (hitIndex != null) hitIndex.remove(actor);
+		orderValid = false;
 		childrenChanged();
 		return true;
 	}
@@ -348,6 +481,8 @@ public class Group extends Actor implements Cullable {
 		}
 		children.end();
 		children.clear();
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		childrenChanged();
 	}
 
@@ -386,6 +521,8 @@ public class Group extends Actor implements Cullable {
 		if (first < 0 || first >= maxIndex) return false;
 		if (second < 0 || second >= maxIndex) return false;
 		children.swap(first, second);
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		return true;
 	}
 
@@ -395,6 +532,8 @@ public class Group extends Actor implements Cullable {
 		int secondIndex = children.indexOf(second, true);
 		if (firstIndex == -1 || secondIndex == -1) return false;
 		children.swap(firstIndex, secondIndex);
+		if (hitIndex != null) hitIndex.invalidate();
+		orderValid = false;
 		return true;
 	}
 
@@ -478,4 +617,225 @@ public class Group extends Actor implements Cullable {
 		}
 		children.end();
 	}
+
+	/** Uniform grid over the bounds of the children of a group, in the group's coordinates.
+	 * @see Group#setHitIndex(float) */
+	static class HitIndex {
+		/** Children covering more cells are kept in {@link #unbounded} instead. */
+		static private final int maxCells = 16;
+		static private final Vector2 corner = new Vector2();
+
+		final float cellSize;
+		private final LongMap<Array<Entry>> cells = new LongMap();
+		private final ObjectMap<Actor, Entry> entries = new ObjectMap();
+		private final Array<Entry> unbounded = new Array(false, 16, Entry.class);
+		private final Array<Entry> candidates = new Array(false, 16, Entry.class);
+		private final Entry bounds = new Entry();
+		private int nextOrder;
+		private boolean dirty = true;
+
+		HitIndex (float cellSize) {
+			this.cellSize = cellSize;
+		}
+
+		/** Rebuilds the index on the next hit. */
+		void invalidate () {
+			if (dirty) return;
+			dirty = true;
+			cells.clear();
+			entries.clear();
+			unbounded.clear();
+		}
+
+		Actor hit (Group group, float x, float y, boolean touchable) {
+			if (dirty) rebuild(group);
+			Array<Entry> candidates = this.candidates;
+			Array<Entry> cell = cells.get(key(cell(x), cell(y)));
+			if (cell != null) {
+				Entry[] items = cell.items;
+				for (int i = 0, n = cell.size; i < n; i++) {
+					Entry entry = items[i];
+					if (x >= entry.x1 && x <= entry.x2 && y >= entry.y1 && y <= entry.y2) candidates.add(entry);
+				}
+			}
+			candidates.addAll(unbounded);
+
+			// Topmost first: insertion sort by descending z-order, there are usually only a few candidates.
+			Entry[] items = candidates.items;
+			for (int i = 1, n = candidates.size; i < n; i++) {
+				Entry entry = items[i];
+				int j = i - 1;
+				for (; j >= 0 && items[j].order < entry.order; j--)
+					items[j + 1] = items[j];
+				items[j + 1] = entry;
+			}
+
+			Vector2 point = tmp;
+			Actor hit = null;
+			for (int i = 0, n = candidates.size; i < n; i++) {
+				Actor child = items[i].actor;
+				child.parentToLocalCoordinates(point.set(x, y));
+				hit = child.hit(point.x, point.y, touchable);
+				if (hit != null) break;
+			}
+			candidates.clear();
+			return hit;
+		}
+
+		void add (Actor actor) {
+			if (dirty) return;
+			Entry entry = new Entry();
+			entry.actor = actor;
+			entry.order = nextOrder++;
+			entries.put(actor, entry);
+			insert(entry);
+		}
+
+		void remove (Actor actor) {
+			if (dirty) return;
+			Entry entry = entries.remove(actor);
+			if (entry != null) erase(entry);
+		}
+
+		void update (Actor actor) {
+			if (dirty) return;
+			Entry entry = entries.get(actor);
+			if (entry == null) return;
+			Entry bounds = this.bounds;
+			bounds.actor = actor;
+			computeBounds(bounds);
+			bounds.actor = null;
+			if (bounds.unbounded != entry.unbounded || (!bounds.unbounded && (bounds.cellX1 != entry.cellX1
+				|| bounds.cellY1 != entry.cellY1 || bounds.cellX2 != entry.cellX2 || bounds.cellY2 != entry.cellY2))) {
+				erase(entry);
+				entry.set(bounds);
+				link(entry);
+			} else
+				entry.set(bounds);
+		}
+
+		private void rebuild (Group group) {
+			dirty = false;
+			Actor[] actors = group.children.items;
+			int n = group.children.size;
+			for (int i = 0; i < n; i++) {
+				Entry entry = new Entry();
+				entry.actor = actors[i];
+				entry.order = i;
+				entries.put(entry.actor, entry);
+				insert(entry);
+			}
+			nextOrder = n;
+		}
+
+		private void insert (Entry entry) {
+			computeBounds(entry);
+			link(entry);
+		}
+
+		private void link (Entry entry) {
+			if (entry.unbounded) {
+				unbounded.add(entry);
+				return;
+			}
+			for (int cx = entry.cellX1; cx <= entry.cellX2; cx++) {
+				for (int cy = entry.cellY1; cy <= entry.cellY2; cy++) {
+					long key = key(cx, cy);
+					Array<Entry> cell = cells.get(key);
+					if (cell == null) {
+						cell = new Array(false, 4, Entry.class);
+						cells.put(key, cell);
+					}
+					cell.add(entry);
+				}
+			}
+		}
+
+		private void erase (Entry entry) {
+			if (entry.unbounded) {
+				unbounded.removeValue(entry, true);
+				return;
+			}
+			for (int cx = entry.cellX1; cx <= entry.cellX2; cx++) {
+				for (int cy = entry.cellY1; cy <= entry.cellY2; cy++) {
+					long key = key(cx, cy);
+					Array<Entry> cell = cells.get(key);
+					if (cell == null) continue;
+					cell.removeValue(entry, true);
+					if (cell.size == 0) cells.remove(key);
+				}
+			}
+		}
+
+		/** Computes the axis aligned bounds of the entry's actor in the parent's coordinates, and the cells they cover. */
+		private void computeBounds (Entry entry) {
+			Actor actor = entry.actor;
+			if (actor instanceof Group) {
+				entry.unbounded = true;
+				return;
+			}
+			float x1, y1, x2, y2;
+			if (actor.rotation == 0 && actor.scaleX == 1 && actor.scaleY == 1) {
+				x1 = Math.min(actor.x, actor.x + actor.width);
+				x2 = Math.max(actor.x, actor.x + actor.width);
+				y1 = Math.min(actor.y, actor.y + actor.height);
+				y2 = Math.max(actor.y, actor.y + actor.height);
+			} else {
+				actor.localToParentCoordinates(corner.set(0, 0));
+				x1 = x2 = corner.x;
+				y1 = y2 = corner.y;
+				for (int i = 1; i < 4; i++) {
+					actor.localToParentCoordinates(corner.set(i == 1 || i == 2 ? actor.width : 0, i >= 2 ? actor.height : 0));
+					x1 = Math.min(x1, corner.x);
+					x2 = Math.max(x2, corner.x);
+					y1 = Math.min(y1, corner.y);
+					y2 = Math.max(y2, corner.y);
+				}
+			}
+			entry.x1 = x1;
+			entry.y1 = y1;
+			entry.x2 = x2;
+			entry.y2 = y2;
+			// Also catches NaN and infinite bounds.
+			float cells = ((x2 - x1) / cellSize + 1) * ((y2 - y1) / cellSize + 1);
+			if (!(cells <= maxCells)) {
+				entry.unbounded = true;
+				return;
+			}
+			entry.unbounded = false;
+			entry.cellX1 = cell(x1);
+			entry.cellY1 = cell(y1);
+			entry.cellX2 = cell(x2);
+			entry.cellY2 = cell(y2);
+		}
+
+		private int cell (float value) {
+			return (int)Math.floor(value / cellSize);
+		}
+
+		static private long key (int cellX, int cellY) {
+			return (long)cellX << 32 | cellY & 0xFFFFFFFFL;
+		}
+
+		static class Entry {
+			Actor actor;
+			int order;
+			float x1, y1, x2, y2;
+			int cellX1, cellY1, cellX2, cellY2;
+			boolean unbounded;
+
+			/** Copies the bounds and cells of the specified entry. */
+			void set (Entry bounds) {
+				x1 = bounds.x1;
+				y1 = bounds.y1;
+				x2 = bounds.x2;
+				y2 = bounds.y2;
+				cellX1 = bounds.cellX1;
+				cellY1 = bounds.cellY1;
+				cellX2 = bounds.cellX2;
+				cellY2 = bounds.cellY2;
+				unbounded = bounds.unbounded;
+			}
+		}
+	}
 }
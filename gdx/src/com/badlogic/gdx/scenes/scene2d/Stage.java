@@ -707,7 +707,8 @@ public class Stage extends InputAdapter implements Disposable {
 
 	/** Returns the {@link Actor} at the specified location in stage coordinates. Hit testing is performed in the order the actors
 	 * were inserted into the stage, last inserted actors being tested first. To get stage coordinates from screen coordinates, use
-	 * {@link #screenToStageCoordinates(Vector2)}.
+	 * {@link #screenToStageCoordinates(Vector2)}. Stages with many actors can use {@link Group#setHitIndex(float)} on the
+	 * {@link #getRoot() root} or other large groups so only the actors near the point are tested.
 	 * @param touchable If true, the hit detection will respect the {@link Actor#setTouchable(Touchable) touchability}.
 	 * @return May be null if no actor was hit. */
 	public Actor hit (float stageX, float stageY, boolean touchable) {
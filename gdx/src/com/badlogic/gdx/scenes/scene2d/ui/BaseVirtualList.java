@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.scenes.scene2d.ui;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.scenes.scene2d.utils.ArraySelection;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener.ChangeEvent;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+import com.badlogic.gdx.scenes.scene2d.utils.UIUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/** The rows of a {@link VirtualList} or {@link VirtualTree}. Only actors for the rows inside its
+ * {@link #setCullingArea(Rectangle) culling area} are created. It is meant to be the widget of a {@link ScrollPane}, which sets
+ * the culling area. Without a culling area a row actor is created for every item.
+ * <p>
+ * Subclasses decide which items are shown, create row actors in {@link #newRow()} and show an item in a row in
+ * {@link #updateRow(Actor, int, Object, boolean)}. Rows that leave the culling area are pooled and reused for other items. Rows
+ * are as wide as the list.
+ * <p>
+ * By default all rows have the {@link #setRowHeight(float) row height}. With {@link #setVariableRowHeight(boolean)} the row
+ * height is only an estimate for items that have not been shown yet. When a row is shown its preferred height (or height, if it
+ * is not a {@link Layout}) is used for the item from then on. The preferred width of the list is the largest preferred width of
+ * the rows shown so far, so items are never measured before they are visible.
+ * <p>
+ * The {@link #getSelection() selection} is for all items, not only the visible ones. {@link ChangeEvent} is fired when the
+ * selection changes. */
+abstract public class BaseVirtualList<T, A extends Actor> extends WidgetGroup implements Cullable {
+	final Array<T> items = new Array();
+	final ArraySelection<T> selection = new ArraySelection<T>(items) {
+		protected void changed () {
+			super.changed();
+			invalidate(); // Update the selected state of the rows.
+		}
+	};
+	private final Pool<A> rowPool = new Pool<A>() {
+		protected A newObject () {
+			return newRow();
+		}
+	};
+	private Array<A> rows = new Array(), newRows = new Array();
+	private int firstIndex;
+	private float rowHeight;
+	private boolean variableRowHeight;
+	private float[] heights, heightTree; // Heights of all items and a Fenwick tree of them, only used for variable row heights.
+	private Rectangle cullingArea;
+	private float prefWidth;
+
+	/** @param rowHeight The height of every row, or the estimated height if {@link #setVariableRowHeight(boolean)} is used. */
+	public BaseVirtualList (float rowHeight) {
+		setRowHeight(rowHeight);
+		selection.setActor(this);
+
+		addListener(new InputListener() {
+			public boolean keyDown (InputEvent event, int keycode) {
+				if (keycode == Keys.A && UIUtils.ctrl() && selection.getMultiple()) {
+					selection.clear();
+					selection.addAll(items);
+					return true;
+				}
+				return false;
+			}
+
+			public boolean touchDown (InputEvent event, float x, float y, int pointer, int button) {
+				if (pointer != 0 || button != 0) return true;
+				if (selection.isDisabled()) return true;
+				if (getStage() != null) getStage().setKeyboardFocus(BaseVirtualList.this);
+				int index = getItemIndexAt(y);
+				if (index != -1) selection.choose(items.get(index));
+				return true;
+			}
+		});
+	}
+
+	/** Returns a new actor used to show items. */
+	abstract protected A newRow ();
+
+	/** Shows an item in a row. Called when the row starts showing the item and whenever the list is laid out, eg when the
+	 * selection changes. */
+	abstract protected void updateRow (A row, int index, T item, boolean selected);
+
+	public void layout () {
+		Array<T> items = this.items;
+		int first = 0, last = items.size - 1;
+		if (cullingArea != null && last != -1) {
+			first = rowAt(cullingArea.y + cullingArea.height);
+			last = rowAt(cullingArea.y);
+		}
+
+		// Free rows that are no longer visible and keep the others for the same index.
+		Array<A> rows = this.rows, newRows = this.newRows;
+		newRows.clear();
+		newRows.setSize(Math.max(0, last - first + 1));
+		for (int i = 0, n = rows.size; i < n; i++) {
+			A row = rows.get(i);
+			int index = firstIndex + i;
+			if (index >= first && index <= last)
+				newRows.set(index - first, row);
+			else {
+				removeActor(row);
+				rowPool.free(row);
+			}
+		}
+		this.rows = newRows;
+		this.newRows = rows;
+		rows.clear();
+		rows = newRows;
+		firstIndex = first;
+
+		boolean sizeChanged = false;
+		for (int i = 0, n = rows.size; i < n; i++) {
+			A row = rows.get(i);
+			if (row == null) {
+				row = rowPool.obtain();
+				rows.set(i, row);
+				addActor(row);
+			}
+			int index = first + i;
+			T item = items.get(index);
+			updateRow(row, index, item, selection.contains(item));
+
+			float rowWidth;
+			if (row instanceof Layout) {
+				Layout layout = (Layout)row;
+				rowWidth = layout.getPrefWidth();
+				if (variableRowHeight) sizeChanged |= setHeight(index, layout.getPrefHeight());
+			} else {
+				rowWidth = row.getWidth();
+				if (variableRowHeight) sizeChanged |= setHeight(index, row.getHeight());
+			}
+			if (rowWidth > prefWidth) {
+				prefWidth = rowWidth;
+				sizeChanged = true;
+			}
+		}
+
+		float width = getWidth(), top = getHeight();
+		for (int i = 0, n = rows.size; i < n; i++) {
+			int index = first + i;
+			float height = getItemHeight(index);
+			rows.get(i).setBounds(0, top - heightBefore(index) - height, width, height);
+		}
+
+		if (sizeChanged) invalidateHierarchy();
+	}
+
+	/** Rows are added and removed when scrolling, which doesn't change the preferred size. */
+	protected void childrenChanged () {
+	}
+
+	/** Returns the row index at the y coordinate, clamped to the rows. */
+	private int rowAt (float y) {
+		int n = items.size;
+		float offset = getHeight() - y;
+		if (offset <= 0) return 0;
+		int index;
+		if (variableRowHeight) {
+			// Find the last index where the height before it is <= offset.
+			float[] heightTree = this.heightTree;
+			index = 0;
+			for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+				int next = index + step;
+				if (next <= n && heightTree[next] <= offset) {
+					index = next;
+					offset -= heightTree[next];
+				}
+			}
+		} else
+			index = (int)(offset / rowHeight);
+		return Math.min(index, n - 1);
+	}
+
+	/** Returns the total height of the items before the index. */
+	private float heightBefore (int index) {
+		if (!variableRowHeight) return index * rowHeight;
+		float[] heightTree = this.heightTree;
+		float height = 0;
+		for (int i = index; i > 0; i -= i & -i)
+			height += heightTree[i];
+		return height;
+	}
+
+	/** @return true if the height changed. */
+	private boolean setHeight (int index, float height) {
+		float delta = height - heights[index];
+		if (delta == 0) return false;
+		heights[index] = height;
+		float[] heightTree = this.heightTree;
+		for (int i = index + 1, n = items.size; i <= n; i += i & -i)
+			heightTree[i] += delta;
+		return true;
+	}
+
+	private void resetHeights () {
+		if (!variableRowHeight) {
+			heights = null;
+			heightTree = null;
+			return;
+		}
+		int n = items.size;
+		if (heights == null || heights.length < n) {
+			heights = new float[n];
+			heightTree = new float[n + 1];
+		}
+		float[] heights = this.heights;
+		float rowHeight = this.rowHeight;
+		for (int i = 0; i < n; i++)
+			heights[i] = rowHeight;
+		buildHeightTree();
+	}
+
+	/** Builds the Fenwick tree of the heights in linear time. */
+	private void buildHeightTree () {
+		int n = items.size;
+		float[] heights = this.heights, heightTree = this.heightTree;
+		heightTree[0] = 0;
+		for (int i = 1; i <= n; i++)
+			heightTree[i] = heights[i - 1];
+		for (int i = 1; i <= n; i++) {
+			int parent = i + (i & -i);
+			if (parent <= n) heightTree[parent] += heightTree[i];
+		}
+	}
+
+	/** Called when the items change. The default implementation forgets measured row heights and invalidates the list. */
+	protected void itemsChanged () {
+		resetHeights();
+		invalidateHierarchy();
+	}
+
+	/** Called after count items were inserted at the index. Unlike {@link #itemsChanged()}, the measured heights of the other
+	 * items are kept. */
+	protected void itemsInserted (int index, int count) {
+		if (variableRowHeight) {
+			int n = items.size;
+			float[] heights = this.heights;
+			if (heights.length < n) {
+				this.heights = new float[Math.max(n, heights.length * 7 / 4)];
+				heightTree = new float[this.heights.length + 1];
+				System.arraycopy(heights, 0, this.heights, 0, index);
+			}
+			System.arraycopy(heights, index, this.heights, index + count, n - count - index);
+			heights = this.heights;
+			float rowHeight = this.rowHeight;
+			for (int i = index, end = index + count; i < end; i++)
+				heights[i] = rowHeight;
+			buildHeightTree();
+		}
+		invalidateHierarchy();
+	}
+
+	/** Called after count items were removed at the index. Unlike {@link #itemsChanged()}, the measured heights of the other
+	 * items are kept. */
+	protected void itemsRemoved (int index, int count) {
+		if (variableRowHeight) {
+			System.arraycopy(heights, index + count, heights, index, items.size - index);
+			buildHeightTree();
+		}
+		invalidateHierarchy();
+	}
+
+	public ArraySelection<T> getSelection () {
+		return selection;
+	}
+
+	/** Returns the first selected item, or null. */
+	public T getSelected () {
+		return selection.first();
+	}
+
+	/** Returns the internal array of the items of the rows, in order. How it may be changed depends on the subclass, eg
+	 * {@link VirtualList#setItems(Array)}. */
+	public Array<T> getItems () {
+		return items;
+	}
+
+	/** @return null if not over an item. */
+	public T getItemAt (float y) {
+		int index = getItemIndexAt(y);
+		if (index == -1) return null;
+		return items.get(index);
+	}
+
+	/** @return -1 if not over an item. */
+	public int getItemIndexAt (float y) {
+		if (items.size == 0 || y > getHeight()) return -1;
+		int index = rowAt(y);
+		if (getHeight() - y >= heightBefore(index) + getItemHeight(index)) return -1; // Below the last item.
+		return index;
+	}
+
+	/** Returns the y coordinate of the bottom of the item, eg for {@link ScrollPane#scrollTo(float, float, float, float)}. */
+	public float getItemY (int index) {
+		return getHeight() - heightBefore(index) - getItemHeight(index);
+	}
+
+	/** Returns the height of the item, which is an estimate if variable row heights are used and the item has not been shown. */
+	public float getItemHeight (int index) {
+		return variableRowHeight ? heights[index] : rowHeight;
+	}
+
+	/** Returns the row actor showing the item, or null if the item is not visible. */
+	public A getRow (int index) {
+		index -= firstIndex;
+		if (index < 0 || index >= rows.size) return null;
+		return rows.get(index);
+	}
+
+	/** Sets the height of every row, or the estimated height for rows that have not been shown if variable row heights are used.
+	 * This forgets the measured row heights. */
+	public void setRowHeight (float rowHeight) {
+		if (rowHeight <= 0) throw new IllegalArgumentException("rowHeight must be > 0: " + rowHeight);
+		this.rowHeight = rowHeight;
+		resetHeights();
+		invalidateHierarchy();
+	}
+
+	public float getRowHeight () {
+		return rowHeight;
+	}
+
+	/** If true, rows use their preferred height once they have been shown. Default is false. */
+	public void setVariableRowHeight (boolean variableRowHeight) {
+		if (this.variableRowHeight == variableRowHeight) return;
+		this.variableRowHeight = variableRowHeight;
+		resetHeights();
+		invalidateHierarchy();
+	}
+
+	public boolean getVariableRowHeight () {
+		return variableRowHeight;
+	}
+
+	public void setCullingArea (Rectangle cullingArea) {
+		this.cullingArea = cullingArea;
+		if (cullingArea == null) {
+			if (rows.size != items.size) invalidate();
+			return;
+		}
+		if (items.size == 0) return;
+		int first = rowAt(cullingArea.y + cullingArea.height), last = rowAt(cullingArea.y);
+		if (first != firstIndex || last != firstIndex + rows.size - 1) invalidate();
+	}
+
+	public float getPrefWidth () {
+		return prefWidth;
+	}
+
+	public float getPrefHeight () {
+		return heightBefore(items.size);
+	}
+}
@@ -48,6 +48,7 @@ public class HorizontalGroup extends WidgetGroup {
 
 	public HorizontalGroup () {
 		setTouchable(Touchable.childrenOnly);
+		setChildrenOrder(Align.left);
 	}
 
 	public void invalidate () {
@@ -306,12 +307,14 @@ public class HorizontalGroup extends WidgetGroup {
 	/** The children will be displayed last to first. */
 	public HorizontalGroup reverse () {
 		this.reverse = true;
+		setChildrenOrder(Align.right);
 		return this;
 	}
 
 	/** If true, the children will be displayed last to first. */
 	public HorizontalGroup reverse (boolean reverse) {
 		this.reverse = reverse;
+		setChildrenOrder(reverse ? Align.right : Align.left);
 		return this;
 	}
 
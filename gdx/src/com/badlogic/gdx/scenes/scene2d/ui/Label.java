@@ -23,6 +23,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.LayoutStats;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.StringBuilder;
 
@@ -104,14 +105,30 @@ public class Label extends Widget {
 		if (newText == null) newText = "";
 		if (newText instanceof StringBuilder) {
 			if (text.equals(newText)) return;
-			text.setLength(0);
-			text.append((StringBuilder)newText);
 		} else {
 			if (textEquals(newText)) return;
-			text.setLength(0);
-			text.append(newText);
 		}
+		// The parent only needs layout if the preferred size changes. A wrapped label's preferred height depends on its width, so
+		// it always invalidates the parent.
+		boolean checkPrefSize = !prefSizeInvalid && !(wrap && ellipsis == null);
+		float oldPrefWidth = 0, oldPrefHeight = 0;
+		if (checkPrefSize) {
+			oldPrefWidth = getPrefWidth();
+			oldPrefHeight = getPrefHeight();
+		}
+		text.setLength(0);
+		if (newText instanceof StringBuilder)
+			text.append((StringBuilder)newText);
+		else
+			text.append(newText);
 		intValue = Integer.MIN_VALUE;
+		if (checkPrefSize) {
+			invalidate();
+			if (getPrefWidth() == oldPrefWidth && getPrefHeight() == oldPrefHeight) {
+				LayoutStats.skippedInvalidations++;
+				return;
+			}
+		}
 		invalidateHierarchy();
 	}
 
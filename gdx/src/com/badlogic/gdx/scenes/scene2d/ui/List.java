@@ -41,6 +41,7 @@ import com.badlogic.gdx.utils.Pools;
  * {@link ChangeEvent} is fired when the list selection changes.
  * <p>
  * The preferred size of the list is determined by the text bounds of the items and the size of the {@link ListStyle#selection}.
+ * Measuring all items is slow for a very large number of items, see {@link VirtualList}.
  * @author mzechner
  * @author Nathan Sweet */
 public class List<T> extends Widget implements Cullable {
@@ -175,8 +176,15 @@ public class List<T> extends Widget implements Cullable {
 		float textOffsetX = selectedDrawable.getLeftWidth(), textWidth = width - textOffsetX - selectedDrawable.getRightWidth();
 		float textOffsetY = selectedDrawable.getTopHeight() - font.getDescent();
 
+		// Skip the items above the culling area.
+		int first = 0;
+		if (cullingArea != null && itemHeight > 0) {
+			first = Math.max(0, (int)((itemY - cullingArea.y - cullingArea.height) / itemHeight));
+			itemY -= first * itemHeight;
+		}
+
 		font.setColor(fontColorUnselected.r, fontColorUnselected.g, fontColorUnselected.b, fontColorUnselected.a * parentAlpha);
-		for (int i = 0; i < items.size; i++) {
+		for (int i = first; i < items.size; i++) {
 			if (cullingArea == null || (itemY - itemHeight <= cullingArea.y + cullingArea.height && itemY >= cullingArea.y)) {
 				T item = items.get(i);
 				boolean selected = selection.contains(item);
@@ -184,6 +184,11 @@ public class Slider extends ProgressBar {
 		return draggingPointer != -1;
 	}
 
+	/** Returns true if the mouse is over the slider. */
+	public boolean isOver () {
+		return mouseOver;
+	}
+
 	/** Sets the inverse interpolation to use for display. This should perform the inverse of the
 	 * {@link #setVisualInterpolation(Interpolation) visual interpolation}. */
 	public void setVisualInterpolationInverse (Interpolation interpolation) {
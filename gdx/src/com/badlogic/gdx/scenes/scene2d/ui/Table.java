@@ -27,6 +27,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 import com.badlogic.gdx.scenes.scene2d.ui.Value.Fixed;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+import com.badlogic.gdx.scenes.scene2d.utils.LayoutStats;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
@@ -89,6 +90,7 @@ public class Table extends WidgetGroup {
 
 		setTransform(false);
 		setTouchable(Touchable.childrenOnly);
+		setChildrenOrder(Align.top); // Rows are added top to bottom.
 	}
 
 	private Cell obtainCell () {
@@ -845,6 +847,12 @@ public class Table extends WidgetGroup {
 			if (prefHeight < minHeight) prefHeight = minHeight;
 			if (maxWidth > 0 && prefWidth > maxWidth) prefWidth = maxWidth;
 			if (maxHeight > 0 && prefHeight > maxHeight) prefHeight = maxHeight;
+			c.computedMinWidth = minWidth;
+			c.computedMinHeight = minHeight;
+			c.computedPrefWidth = prefWidth;
+			c.computedPrefHeight = prefHeight;
+			c.computedMaxWidth = maxWidth;
+			c.computedMaxHeight = maxHeight;
 
 			if (colspan == 1) { // Spanned column min and pref width is added later.
 				float hpadding = c.computedPadLeft + c.computedPadRight;
@@ -910,13 +918,7 @@ public class Table extends WidgetGroup {
 			if (colspan == 1) continue;
 			int column = c.column;
 
-			Actor a = c.actor;
-			float minWidth = c.minWidth.get(a);
-			float prefWidth = c.prefWidth.get(a);
-			float maxWidth = c.maxWidth.get(a);
-			if (prefWidth < minWidth) prefWidth = minWidth;
-			if (maxWidth > 0 && prefWidth > maxWidth) prefWidth = maxWidth;
-
+			float minWidth = c.computedMinWidth, prefWidth = c.computedPrefWidth;
 			float spannedMinWidth = -(c.computedPadLeft + c.computedPadRight), spannedPrefWidth = spannedMinWidth;
 			float totalExpandWidth = 0;
 			for (int ii = column, nn = ii + colspan; ii < nn; ii++) {
@@ -962,6 +964,7 @@ public class Table extends WidgetGroup {
 		int cellCount = cells.size;
 
 		if (sizeInvalid) computeSize();
+		LayoutStats.cellLayouts += cellCount;
 
 		float padLeft = this.padLeft.get(this);
 		float hpadding = padLeft + padRight.get(this);
@@ -1013,7 +1016,6 @@ public class Table extends WidgetGroup {
 		for (int i = 0; i < cellCount; i++) {
 			Cell c = cells.get(i);
 			int column = c.column, row = c.row;
-			Actor a = c.actor;
 
 			float spannedWeightedWidth = 0;
 			int colspan = c.colspan;
@@ -1021,19 +1023,9 @@ public class Table extends WidgetGroup {
 				spannedWeightedWidth += columnWeightedWidth[ii];
 			float weightedHeight = rowWeightedHeight[row];
 
-			float prefWidth = c.prefWidth.get(a);
-			float prefHeight = c.prefHeight.get(a);
-			float minWidth = c.minWidth.get(a);
-			float minHeight = c.minHeight.get(a);
-			float maxWidth = c.maxWidth.get(a);
-			float maxHeight = c.maxHeight.get(a);
-			if (prefWidth < minWidth) prefWidth = minWidth;
-			if (prefHeight < minHeight) prefHeight = minHeight;
-			if (maxWidth > 0 && prefWidth > maxWidth) prefWidth = maxWidth;
-			if (maxHeight > 0 && prefHeight > maxHeight) prefHeight = maxHeight;
-
-			c.actorWidth = Math.min(spannedWeightedWidth - c.computedPadLeft - c.computedPadRight, prefWidth);
-			c.actorHeight = Math.min(weightedHeight - c.computedPadTop - c.computedPadBottom, prefHeight);
+			// The cell sizes were evaluated by computeSize, which runs whenever the table or a child is invalidated.
+			c.actorWidth = Math.min(spannedWeightedWidth - c.computedPadLeft - c.computedPadRight, c.computedPrefWidth);
+			c.actorHeight = Math.min(weightedHeight - c.computedPadTop - c.computedPadBottom, c.computedPrefHeight);
 
 			if (colspan == 1) columnWidth[column] = Math.max(columnWidth[column], spannedWeightedWidth);
 			rowHeight[row] = Math.max(rowHeight[row], weightedHeight);
@@ -1128,13 +1120,13 @@ public class Table extends WidgetGroup {
 
 			float fillX = c.fillX, fillY = c.fillY;
 			if (fillX > 0) {
-				c.actorWidth = Math.max(spannedCellWidth * fillX, c.minWidth.get(c.actor));
-				float maxWidth = c.maxWidth.get(c.actor);
+				c.actorWidth = Math.max(spannedCellWidth * fillX, c.computedMinWidth);
+				float maxWidth = c.computedMaxWidth;
 				if (maxWidth > 0) c.actorWidth = Math.min(c.actorWidth, maxWidth);
 			}
 			if (fillY > 0) {
-				c.actorHeight = Math.max(rowHeight[c.row] * fillY - c.computedPadTop - c.computedPadBottom, c.minHeight.get(c.actor));
-				float maxHeight = c.maxHeight.get(c.actor);
+				c.actorHeight = Math.max(rowHeight[c.row] * fillY - c.computedPadTop - c.computedPadBottom, c.computedMinHeight);
+				float maxHeight = c.computedMaxHeight;
 				if (maxHeight > 0) c.actorHeight = Math.min(c.actorHeight, maxHeight);
 			}
 
@@ -48,6 +48,7 @@ public class VerticalGroup extends WidgetGroup {
 
 	public VerticalGroup () {
 		setTouchable(Touchable.childrenOnly);
+		setChildrenOrder(Align.top);
 	}
 
 	public void invalidate () {
@@ -309,12 +310,14 @@ public class VerticalGroup extends WidgetGroup {
 	/** The children will be displayed last to first. */
 	public VerticalGroup reverse () {
 		this.reverse = true;
+		setChildrenOrder(Align.bottom);
 		return this;
 	}
 
 	/** If true, the children will be displayed last to first. */
 	public VerticalGroup reverse (boolean reverse) {
 		this.reverse = reverse;
+		setChildrenOrder(reverse ? Align.bottom : Align.top);
 		return this;
 	}
 
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.scenes.scene2d.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+
+/** A {@link BaseVirtualList} that shows an array of items, set with {@link #setItems(Array)}. Setting the items forgets the
+ * measured row heights. */
+abstract public class VirtualList<T, A extends Actor> extends BaseVirtualList<T, A> {
+	/** @param rowHeight The height of every row, or the estimated height if {@link #setVariableRowHeight(boolean)} is used. */
+	public VirtualList (float rowHeight) {
+		super(rowHeight);
+	}
+
+	/** Sets the items, clearing the selection if it is no longer valid. This can safely be called with a (modified) array returned
+	 * from {@link #getItems()}, which must be called to reflect changes to that array. */
+	public void setItems (Array newItems) {
+		if (newItems == null) throw new IllegalArgumentException("newItems cannot be null.");
+		if (newItems != items) {
+			items.clear();
+			items.addAll(newItems);
+		}
+		selection.validate();
+		itemsChanged();
+	}
+
+	public void setItems (T... newItems) {
+		if (newItems == null) throw new IllegalArgumentException("newItems cannot be null.");
+		items.clear();
+		items.addAll(newItems);
+		selection.validate();
+		itemsChanged();
+	}
+
+	public void clearItems () {
+		if (items.size == 0) return;
+		items.clear();
+		selection.clear();
+		itemsChanged();
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.scenes.scene2d.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/** A tree that can hold a very large number of items by showing the expanded items as rows, like a {@link VirtualList}. Unlike
+ * {@link Tree}, no actor exists for an item unless its row is visible.
+ * <p>
+ * Subclasses provide the children of an item with {@link #getChildren(Object)}. {@link #getItems()} returns the items of the
+ * visible rows, in order, and {@link #getDepth(int)} returns how deeply a row is nested so {@link #updateRow(Actor, int, Object,
+ * boolean)} can indent it. Expanding or collapsing an item only inserts or removes the rows of its descendants, the other rows keep
+ * their measured heights. Collapsing an item does not deselect its descendants. */
+abstract public class VirtualTree<T, A extends Actor> extends BaseVirtualList<T, A> {
+	final Array<T> rootItems = new Array();
+	private final ObjectSet<T> expanded = new ObjectSet();
+	private final IntArray depths = new IntArray();
+	private final Array<T> newItems = new Array();
+	private final IntArray newDepths = new IntArray();
+
+	public VirtualTree (float rowHeight) {
+		super(rowHeight);
+	}
+
+	/** Returns the children of the item, or null if the item has no children. */
+	abstract protected Array<T> getChildren (T item);
+
+	/** Sets the top level items and clears the selection. Expanded items stay expanded. */
+	public void setRootItems (Array<T> newRootItems) {
+		if (newRootItems == null) throw new IllegalArgumentException("newRootItems cannot be null.");
+		if (newRootItems != rootItems) {
+			rootItems.clear();
+			rootItems.addAll(newRootItems);
+		}
+		selection.clear();
+		rebuild();
+	}
+
+	/** Returns the internal top level items array. If modified, {@link #setRootItems(Array)} must be called to reflect the
+	 * changes. */
+	public Array<T> getRootItems () {
+		return rootItems;
+	}
+
+	/** Updates the rows after the children of an expanded item have changed. */
+	public void updateChildren (T item) {
+		if (!expanded.contains(item)) return;
+		int index = items.indexOf(item, false);
+		if (index == -1) return;
+		removeRows(index);
+		addRows(index);
+	}
+
+	public void setExpanded (T item, boolean expanded) {
+		if (item == null) throw new IllegalArgumentException("item cannot be null.");
+		if (expanded) {
+			if (!this.expanded.add(item)) return;
+		} else if (!this.expanded.remove(item)) //
+			return;
+		int index = items.indexOf(item, false);
+		if (index == -1) return; // Not visible, its rows are added when its parent is expanded.
+		if (expanded)
+			addRows(index);
+		else
+			removeRows(index);
+	}
+
+	public boolean isExpanded (T item) {
+		return expanded.contains(item);
+	}
+
+	public void collapseAll () {
+		if (expanded.size == 0) return;
+		expanded.clear();
+		rebuild();
+	}
+
+	/** Returns the number of ancestors of the item in the row. */
+	public int getDepth (int index) {
+		return depths.get(index);
+	}
+
+	private void rebuild () {
+		items.clear();
+		depths.clear();
+		Array<T> rootItems = this.rootItems;
+		for (int i = 0, n = rootItems.size; i < n; i++)
+			add(rootItems.get(i), 0, items, depths);
+		itemsChanged();
+	}
+
+	/** Inserts the rows of the descendants of the expanded item in the row at the index. */
+	private void addRows (int index) {
+		Array<T> children = getChildren(items.get(index));
+		if (children == null || children.size == 0) return;
+		Array<T> newItems = this.newItems;
+		IntArray newDepths = this.newDepths;
+		int depth = depths.get(index) + 1;
+		for (int i = 0, n = children.size; i < n; i++)
+			add(children.get(i), depth, newItems, newDepths);
+
+		int start = index + 1, count = newItems.size, moved = items.size - start;
+		T[] items = this.items.ensureCapacity(count);
+		System.arraycopy(items, start, items, start + count, moved);
+		System.arraycopy(newItems.items, 0, items, start, count);
+		this.items.size += count;
+		int[] depths = this.depths.ensureCapacity(count);
+		System.arraycopy(depths, start, depths, start + count, moved);
+		System.arraycopy(newDepths.items, 0, depths, start, count);
+		this.depths.size += count;
+		newItems.clear();
+		newDepths.clear();
+		itemsInserted(start, count);
+	}
+
+	/** Removes the rows of the descendants of the item in the row at the index. */
+	private void removeRows (int index) {
+		int[] depths = this.depths.items;
+		int depth = depths[index], start = index + 1, end = start, n = items.size;
+		while (end < n && depths[end] > depth)
+			end++;
+		if (end == start) return;
+		items.removeRange(start, end - 1);
+		this.depths.removeRange(start, end - 1);
+		itemsRemoved(start, end - start);
+	}
+
+	private void add (T item, int depth, Array<T> items, IntArray depths) {
+		items.add(item);
+		depths.add(depth);
+		if (!expanded.contains(item)) return;
+		Array<T> children = getChildren(item);
+		if (children == null) return;
+		for (int i = 0, n = children.size; i < n; i++)
+			add(children.get(i), depth + 1, items, depths);
+	}
+}
@@ -21,6 +21,7 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+import com.badlogic.gdx.scenes.scene2d.utils.LayoutStats;
 
 /** An {@link Actor} that participates in layout and provides a minimum, preferred, and maximum size.
  * <p>
@@ -85,6 +86,7 @@ public class Widget extends Actor implements Layout {
 
 		if (!needsLayout) return;
 		needsLayout = false;
+		LayoutStats.layouts++;
 		layout();
 	}
 
@@ -100,6 +102,7 @@ public class Widget extends Actor implements Layout {
 	public void invalidateHierarchy () {
 		if (!layoutEnabled) return;
 		invalidate();
+		LayoutStats.hierarchyInvalidations++;
 		Group parent = getParent();
 		if (parent instanceof Layout) ((Layout)parent).invalidateHierarchy();
 	}
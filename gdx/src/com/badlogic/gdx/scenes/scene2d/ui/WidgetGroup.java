@@ -21,6 +21,7 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+import com.badlogic.gdx.scenes.scene2d.utils.LayoutStats;
 import com.badlogic.gdx.utils.SnapshotArray;
 
 /** A {@link Group} that participates in layout and provides a minimum, preferred, and maximum size.
@@ -111,6 +112,7 @@ public class WidgetGroup extends Group implements Layout {
 
 		if (!needsLayout) return;
 		needsLayout = false;
+		LayoutStats.layouts++;
 		layout();
 
 		// Widgets may call invalidateHierarchy during layout (eg, a wrapped label). The root-most widget group retries layout a
@@ -122,6 +124,7 @@ public class WidgetGroup extends Group implements Layout {
 			}
 			for (int i = 0; i < 5; i++) {
 				needsLayout = false;
+				LayoutStats.layouts++;
 				layout();
 				if (!needsLayout) break;
 			}
@@ -139,6 +142,7 @@ public class WidgetGroup extends Group implements Layout {
 
 	public void invalidateHierarchy () {
 		invalidate();
+		LayoutStats.hierarchyInvalidations++;
 		Group parent = getParent();
 		if (parent instanceof Layout) ((Layout)parent).invalidateHierarchy();
 	}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.scenes.scene2d.utils;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+
+/** Counts the layout work done by the scene2d.ui widgets, to find UIs that lay out more than needed. The counters are never
+ * reset automatically: call {@link #reset()} once per frame, eg after {@link com.badlogic.gdx.scenes.scene2d.Stage#draw()},
+ * to read them per frame. */
+public class LayoutStats {
+	/** The number of times {@link Layout#validate()} called {@link Layout#layout()}. */
+	static public int layouts;
+	/** The number of widgets reached by {@link Layout#invalidateHierarchy()}, including the parents it propagated to. */
+	static public int hierarchyInvalidations;
+	/** The number of changes that only invalidated the widget itself because its preferred size did not change, eg
+	 * {@link Label#setText(CharSequence)} with a text of the same size. */
+	static public int skippedInvalidations;
+	/** The number of {@link Table} cells sized and positioned by {@link Table#layout()}. */
+	static public int cellLayouts;
+
+	static public void reset () {
+		layouts = 0;
+		hierarchyInvalidations = 0;
+		skippedInvalidations = 0;
+		cellLayouts = 0;
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** A {@link Pool} that can be used from any number of threads without locking. Each thread obtains from and frees to its own
+ * small cache. When a cache runs full, half of it is moved to a shared lock-free stack as one batch, and an empty cache takes a
+ * whole batch back, so the shared stack is only touched once per batch of objects. Objects freed on one thread can be obtained
+ * on another.
+ * <p>
+ * {@link #max} limits the number of objects on the shared stack, the thread caches hold at most {@link #getBatchSize()} * 2
+ * objects each on top of that. {@link #getFree()} only counts the shared stack and the cache of the calling thread. The
+ * statistics fields are only updated when the shared stack is used and are not exact while other threads use the pool.
+ * <p>
+ * Register it with {@link Pools#set(Class, Pool)} to make the static pool of a type thread safe, eg:
+ * <code>Pools.set(Vector3.class, ConcurrentPool.of(Vector3.class, 1000));</code> */
+abstract public class ConcurrentPool<T> extends Pool<T> {
+	private final int batchSize;
+	private final AtomicReference<Batch> shared = new AtomicReference<Batch>();
+	private final AtomicInteger sharedFree = new AtomicInteger();
+	private final ThreadLocal<Cache> caches = new ThreadLocal<Cache>() {
+		@Override
+		protected Cache initialValue () {
+			return new Cache(batchSize * 2);
+		}
+	};
+
+	/** Creates a pool with a batch size of 16 and no maximum. */
+	public ConcurrentPool () {
+		this(16, Integer.MAX_VALUE);
+	}
+
+	/** @param batchSize The number of objects moved between a thread cache and the shared stack at once.
+	 * @param max The maximum number of free objects to store on the shared stack. */
+	public ConcurrentPool (int batchSize, int max) {
+		super(0, max);
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be > 0: " + batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/** Returns a new pool that creates instances of the specified type using reflection, see {@link ReflectionPool}. */
+	static public <T> ConcurrentPool<T> of (Class<T> type, int max) {
+		final ReflectionPool<T> factory = new ReflectionPool(type, 0, 0);
+		return new ConcurrentPool<T>(16, max) {
+			@Override
+			protected T newObject () {
+				return factory.newObject();
+			}
+		};
+	}
+
+	@Override
+	public T obtain () {
+		Cache cache = caches.get();
+		if (cache.size == 0 && !refill(cache)) {
+			synchronized (this) {
+				misses++;
+			}
+			return newObject();
+		}
+		Object[] items = cache.items;
+		T object = (T)items[--cache.size];
+		items[cache.size] = null;
+		return object;
+	}
+
+	@Override
+	public void free (T object) {
+		if (object == null) throw new IllegalArgumentException("object cannot be null.");
+		reset(object);
+		Cache cache = caches.get();
+		if (cache.size == cache.items.length) spill(cache);
+		cache.items[cache.size++] = object;
+	}
+
+	@Override
+	public void freeAll (Array<T> objects) {
+		if (objects == null) throw new IllegalArgumentException("objects cannot be null.");
+		Cache cache = caches.get();
+		for (int i = 0, n = objects.size; i < n; i++) {
+			T object = objects.get(i);
+			if (object == null) continue;
+			reset(object);
+			if (cache.size == cache.items.length) spill(cache);
+			cache.items[cache.size++] = object;
+		}
+	}
+
+	/** Removes all free objects from the shared stack and the cache of the calling thread. Caches of other threads are kept. */
+	@Override
+	public void clear () {
+		Cache cache = caches.get();
+		for (int i = 0; i < cache.size; i++)
+			cache.items[i] = null;
+		cache.size = 0;
+		Batch batch = shared.getAndSet(null);
+		for (; batch != null; batch = batch.next)
+			sharedFree.addAndGet(-batch.items.length);
+	}
+
+	/** The number of objects on the shared stack plus the number of objects in the cache of the calling thread. */
+	@Override
+	public int getFree () {
+		return sharedFree.get() + caches.get().size;
+	}
+
+	public int getBatchSize () {
+		return batchSize;
+	}
+
+	/** Moves the oldest half of the cache to the shared stack, or discards it when the shared stack is full. */
+	private void spill (Cache cache) {
+		int batchSize = this.batchSize;
+		Object[] items = cache.items;
+		int free = sharedFree.addAndGet(batchSize);
+		if (free <= max) {
+			Object[] batchItems = new Object[batchSize];
+			System.arraycopy(items, 0, batchItems, 0, batchSize);
+			Batch batch = new Batch(batchItems);
+			do {
+				batch.next = shared.get();
+			} while (!shared.compareAndSet(batch.next, batch));
+			synchronized (this) {
+				peak = Math.max(peak, free);
+			}
+		} else {
+			sharedFree.addAndGet(-batchSize);
+			synchronized (this) {
+				discarded += batchSize;
+			}
+		}
+		System.arraycopy(items, batchSize, items, 0, cache.size - batchSize);
+		for (int i = cache.size - batchSize; i < cache.size; i++)
+			items[i] = null;
+		cache.size -= batchSize;
+	}
+
+	/** Takes a batch from the shared stack into the empty cache.
+	 * @return false if the shared stack is empty */
+	private boolean refill (Cache cache) {
+		Batch batch;
+		do {
+			batch = shared.get();
+			if (batch == null) return false;
+		} while (!shared.compareAndSet(batch, batch.next));
+		Object[] items = batch.items;
+		sharedFree.addAndGet(-items.length);
+		System.arraycopy(items, 0, cache.items, 0, items.length);
+		cache.size = items.length;
+		return true;
+	}
+
+	/** A node of the shared stack. Nodes are never reused, which keeps the stack free of ABA problems. */
+	static private class Batch {
+		final Object[] items;
+		Batch next;
+
+		Batch (Object[] items) {
+			this.items = items;
+		}
+	}
+
+	static private class Cache {
+		final Object[] items;
+		int size;
+
+		Cache (int capacity) {
+			items = new Object[capacity];
+		}
+	}
+}
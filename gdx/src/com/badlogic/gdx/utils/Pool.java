@@ -24,6 +24,11 @@ abstract public class Pool<T> {
 	public final int max;
 	/** The highest number of free objects. Can be reset any time. */
 	public int peak;
+	/** The number of times {@link #obtain()} found no free object and had to create a new one. Can be reset any time. */
+	public int misses;
+	/** The number of freed objects that were not pooled because the pool already held {@link #max} free objects. Can be reset any
+	 * time. */
+	public int discarded;
 
 	private final Array<T> freeObjects;
 
@@ -48,7 +53,11 @@ abstract public class Pool<T> {
 	/** Returns an object from this pool. The object may be new (from {@link #newObject()}) or reused (previously
 	 * {@link #free(Object) freed}). */
 	public T obtain () {
-		return freeObjects.size == 0 ? newObject() : freeObjects.pop();
+		if (freeObjects.size == 0) {
+			misses++;
+			return newObject();
+		}
+		return freeObjects.pop();
 	}
 
 	/** Puts the specified object in the pool, making it eligible to be returned by {@link #obtain()}. If the pool already contains
@@ -60,7 +69,8 @@ abstract public class Pool<T> {
 		if (freeObjects.size < max) {
 			freeObjects.add(object);
 			peak = Math.max(peak, freeObjects.size);
-		}
+		} else
+			discarded++;
 		reset(object);
 	}
 
@@ -81,7 +91,10 @@ abstract public class Pool<T> {
 		for (int i = 0; i < objects.size; i++) {
 			T object = objects.get(i);
 			if (object == null) continue;
-			if (freeObjects.size < max) freeObjects.add(object);
+			if (freeObjects.size < max)
+				freeObjects.add(object);
+			else
+				discarded++;
 			reset(object);
 		}
 		peak = Math.max(peak, freeObjects.size);
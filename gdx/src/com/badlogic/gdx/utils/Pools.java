@@ -17,17 +17,26 @@
 package com.badlogic.gdx.utils;
 
 /** Stores a map of {@link Pool}s (usually {@link ReflectionPool}s) by type for convenient static access.
+ * <p>
+ * Looking up pools is safe from any thread: the map is copied on write, so reads never lock. The default pools are not thread
+ * safe though, {@link #set(Class, Pool) set} a {@link ConcurrentPool} for the types that are obtained and freed from other
+ * threads.
  * @author Nathan Sweet */
 public class Pools {
-	static private final ObjectMap<Class, Pool> typePools = new ObjectMap();
+	static private volatile ObjectMap<Class, Pool> typePools = new ObjectMap();
 
 	/** Returns a new or existing pool for the specified type, stored in a Class to {@link Pool} map. Note the max size is ignored
 	 * if this is not the first time this pool has been requested. */
 	static public <T> Pool<T> get (Class<T> type, int max) {
 		Pool pool = typePools.get(type);
 		if (pool == null) {
-			pool = new ReflectionPool(type, 4, max);
-			typePools.put(type, pool);
+			synchronized (Pools.class) {
+				pool = typePools.get(type);
+				if (pool == null) {
+					pool = new ReflectionPool(type, 4, max);
+					put(type, pool);
+				}
+			}
 		}
 		return pool;
 	}
@@ -40,7 +49,15 @@ public class Pools {
 
 	/** Sets an existing pool for the specified type, stored in a Class to {@link Pool} map. */
 	static public <T> void set (Class<T> type, Pool<T> pool) {
-		typePools.put(type, pool);
+		synchronized (Pools.class) {
+			put(type, pool);
+		}
+	}
+
+	static private void put (Class type, Pool pool) {
+		ObjectMap<Class, Pool> pools = new ObjectMap(typePools);
+		pools.put(type, pool);
+		typePools = pools;
 	}
 
 	/** Obtains an object from the {@link #get(Class) pool}. */
@@ -0,0 +1,168 @@
+package com.badlogic.gdx.graphics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.PixmapUtils.Composite;
+import com.badlogic.gdx.math.RandomXS128;
+
+public class PixmapUtilsTest {
+	static final int red = 0xff0000ff, green = 0x00ff00ff, blue = 0x0000ffff, transparent = 0;
+
+	@Test
+	public void testOpaque () {
+		assertEquals(0, composite(red, green, Composite.Clear));
+		assertEquals(red, composite(red, green, Composite.Src));
+		assertEquals(green, composite(red, green, Composite.Dst));
+		assertEquals(red, composite(red, green, Composite.SrcOver));
+		assertEquals(green, composite(red, green, Composite.DstOver));
+		assertEquals(red, composite(red, green, Composite.SrcIn));
+		assertEquals(green, composite(red, green, Composite.DstIn));
+		assertEquals(0, composite(red, green, Composite.SrcOut));
+		assertEquals(0, composite(red, green, Composite.DstOut));
+		assertEquals(red, composite(red, green, Composite.SrcAtop));
+		assertEquals(green, composite(red, green, Composite.DstAtop));
+		assertEquals(0, composite(red, green, Composite.Xor));
+		assertEquals(0xffff00ff, composite(red, green, Composite.Add));
+		assertEquals(0xffffffff, composite(0xffff00ff, blue, Composite.Add));
+	}
+
+	@Test
+	public void testTransparent () {
+		// Transparent over red.
+		assertEquals(0, composite(transparent, red, Composite.Clear));
+		assertEquals(0, composite(transparent, red, Composite.Src));
+		assertEquals(red, composite(transparent, red, Composite.Dst));
+		assertEquals(red, composite(transparent, red, Composite.SrcOver));
+		assertEquals(red, composite(transparent, red, Composite.DstOver));
+		assertEquals(0, composite(transparent, red, Composite.SrcIn));
+		assertEquals(0, composite(transparent, red, Composite.DstIn));
+		assertEquals(0, composite(transparent, red, Composite.SrcOut));
+		assertEquals(red, composite(transparent, red, Composite.DstOut));
+		assertEquals(red, composite(transparent, red, Composite.SrcAtop));
+		assertEquals(0, composite(transparent, red, Composite.DstAtop));
+		assertEquals(red, composite(transparent, red, Composite.Xor));
+		assertEquals(red, composite(transparent, red, Composite.Add));
+		// Red over transparent.
+		assertEquals(red, composite(red, transparent, Composite.SrcOver));
+		assertEquals(0, composite(red, transparent, Composite.SrcIn));
+		assertEquals(red, composite(red, transparent, Composite.SrcOut));
+		assertEquals(red, composite(red, transparent, Composite.Xor));
+	}
+
+	@Test
+	public void testHalfAlpha () {
+		// Half red over opaque blue.
+		assertColor(0x800080ff, composite(0xff000080, blue, Composite.SrcOver));
+		// Adding two half alphas gives an opaque sum of the premultiplied colors, not their average.
+		assertColor(0x808000ff, composite(0xff000080, 0x00ff0080, Composite.Add));
+		assertColor(0xff0000ff, composite(0xff000080, 0xff000080, Composite.Add));
+		assertColor(0xc0c000ff, composite(0xff0000c0, 0x00ff00c0, Composite.Add));
+	}
+
+	@Test
+	public void testReference () {
+		RandomXS128 random = new RandomXS128(1);
+		int[] src = new int[1000], dst = new int[1000];
+		for (Composite composite : Composite.values()) {
+			for (int i = 0; i < src.length; i++) {
+				src[i] = random.nextInt();
+				dst[i] = random.nextInt();
+				// Also opaque and transparent pixels, which take other paths.
+				if (i % 10 == 0) src[i] |= 0xff;
+				if (i % 10 == 1) dst[i] |= 0xff;
+				if (i % 10 == 2) src[i] &= 0xffffff00;
+				if (i % 10 == 3) dst[i] &= 0xffffff00;
+			}
+			int[] result = dst.clone();
+			PixmapUtils.compositeRow(src, result, src.length, composite);
+			for (int i = 0; i < src.length; i++)
+				assertColor(composite.name(), reference(src[i], dst[i], composite), result[i]);
+		}
+	}
+
+	static int composite (int src, int dst, Composite composite) {
+		int[] row = {dst};
+		PixmapUtils.compositeRow(new int[] {src}, row, 1, composite);
+		return row[0];
+	}
+
+	/** Porter-Duff with floats on premultiplied colors. */
+	static int reference (int src, int dst, Composite composite) {
+		float sa = (src & 0xff) / 255f, da = (dst & 0xff) / 255f, fa, fb;
+		switch (composite) {
+		case Clear:
+			fa = 0;
+			fb = 0;
+			break;
+		case Src:
+			fa = 1;
+			fb = 0;
+			break;
+		case Dst:
+			fa = 0;
+			fb = 1;
+			break;
+		case SrcOver:
+			fa = 1;
+			fb = 1 - sa;
+			break;
+		case DstOver:
+			fa = 1 - da;
+			fb = 1;
+			break;
+		case SrcIn:
+			fa = da;
+			fb = 0;
+			break;
+		case DstIn:
+			fa = 0;
+			fb = sa;
+			break;
+		case SrcOut:
+			fa = 1 - da;
+			fb = 0;
+			break;
+		case DstOut:
+			fa = 0;
+			fb = 1 - sa;
+			break;
+		case SrcAtop:
+			fa = da;
+			fb = 1 - sa;
+			break;
+		case DstAtop:
+			fa = 1 - da;
+			fb = sa;
+			break;
+		case Xor:
+			fa = 1 - da;
+			fb = 1 - sa;
+			break;
+		default:
+			fa = 1;
+			fb = 1;
+		}
+		float alpha = Math.min(sa * fa + da * fb, 1);
+		if (alpha == 0) return 0;
+		int color = Math.round(alpha * 255);
+		for (int shift = 8; shift < 32; shift += 8) {
+			float premultiplied = sa * fa * (src >>> shift & 0xff) + da * fb * (dst >>> shift & 0xff);
+			color |= Math.round(Math.min(premultiplied, 255 * alpha) / alpha) << shift;
+		}
+		return color;
+	}
+
+	static void assertColor (int expected, int actual) {
+		assertColor("", expected, actual);
+	}
+
+	/** Checks each component within 1. */
+	static void assertColor (String message, int expected, int actual) {
+		for (int shift = 0; shift < 32; shift += 8) {
+			if (Math.abs((expected >>> shift & 0xff) - (actual >>> shift & 0xff)) > 1)
+				fail(message + " expected: " + Integer.toHexString(expected) + ", actual: " + Integer.toHexString(actual));
+		}
+	}
+}
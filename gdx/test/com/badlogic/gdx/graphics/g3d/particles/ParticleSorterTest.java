@@ -0,0 +1,146 @@
+package com.badlogic.gdx.graphics.g3d.particles;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+
+public class ParticleSorterTest {
+	private final RandomXS128 random = new RandomXS128(5);
+	private final Array<ParticleControllerRenderData> renderData = new Array();
+	private FloatChannel positions;
+
+	/** Creates particles whose distance to the camera is their z coordinate, the camera's view is the identity. */
+	private void particles (float... z) {
+		ParticleController controller = new ParticleController();
+		controller.particles = new ParallelArray(z.length);
+		positions = controller.particles.addChannel(ParticleChannels.Position);
+		controller.particles.size = z.length;
+		ParticleControllerRenderData data = new ParticleControllerRenderData() {
+		};
+		data.controller = controller;
+		data.positionChannel = positions;
+		renderData.clear();
+		renderData.add(data);
+		setZ(z);
+	}
+
+	private void setZ (float... z) {
+		for (int i = 0; i < z.length; i++)
+			positions.data[i * positions.strideSize + ParticleChannels.ZOffset] = z[i];
+	}
+
+	private ParticleSorter sorter (ParticleSorter sorter, int capacity) {
+		sorter.setCamera(new OrthographicCamera());
+		sorter.ensureCapacity(capacity);
+		return sorter;
+	}
+
+	private float[] randomZ (int count) {
+		// Distinct quantized depths: the values are spread further apart than the 16 bit key resolution.
+		float[] z = new float[count];
+		for (int i = 0; i < count; i++)
+			z[i] = i * 100;
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			float t = z[i];
+			z[i] = z[j];
+			z[j] = t;
+		}
+		return z;
+	}
+
+	private int[] sort (ParticleSorter sorter, int count) {
+		return Arrays.copyOf(sorter.sort(renderData), count);
+	}
+
+	@Test
+	public void testMatchesDistance () {
+		int count = 1000;
+		ParticleSorter radix = sorter(new ParticleSorter.Radix(), count);
+		ParticleSorter distance = sorter(new ParticleSorter.Distance(), count);
+		particles(randomZ(count));
+		assertArrayEquals(sort(distance, count), sort(radix, count));
+
+		// A new order with the same count is too far from the last order for the insertion sort.
+		setZ(randomZ(count));
+		assertArrayEquals(sort(distance, count), sort(radix, count));
+		assertFalse(((ParticleSorter.Radix)radix).isCoherent());
+	}
+
+	@Test
+	public void testStableTies () {
+		ParticleSorter.Radix radix = (ParticleSorter.Radix)sorter(new ParticleSorter.Radix(), 8);
+		particles(5, 1, 5, 1, 9, 5, 1, 9);
+		assertArrayEquals(new int[] {3, 0, 4, 1, 6, 5, 2, 7}, sort(radix, 8));
+
+		// Ties keep the order of the last frame instead of the particle order.
+		particles(0, 2, 1);
+		assertArrayEquals(new int[] {0, 2, 1}, sort(radix, 3));
+		setZ(0, 2, 2);
+		assertArrayEquals(new int[] {0, 2, 1}, sort(radix, 3));
+		assertTrue(radix.isCoherent());
+	}
+
+	@Test
+	public void testRepair () {
+		int count = 1000;
+		ParticleSorter.Radix radix = (ParticleSorter.Radix)sorter(new ParticleSorter.Radix(), count);
+		ParticleSorter distance = sorter(new ParticleSorter.Distance(), count);
+		float[] z = randomZ(count);
+		particles(z);
+		sort(radix, count);
+
+		int[] byDepth = new int[count];
+		for (int i = 0; i < count; i++)
+			byDepth[(int)(z[i] / 100)] = i;
+
+		// Swapping a few neighbors in depth is repaired by the insertion sort.
+		for (int frame = 0; frame < 5; frame++) {
+			for (int swaps = 0; swaps < 50; swaps++) {
+				int depth = random.nextInt(count - 1), a = byDepth[depth], b = byDepth[depth + 1];
+				float t = z[a];
+				z[a] = z[b];
+				z[b] = t;
+				byDepth[depth] = b;
+				byDepth[depth + 1] = a;
+			}
+			setZ(z);
+			assertArrayEquals(sort(distance, count), sort(radix, count));
+			assertTrue(radix.isCoherent());
+		}
+	}
+
+	@Test
+	public void testAbort () {
+		int count = 200;
+		ParticleSorter.Radix radix = (ParticleSorter.Radix)sorter(new ParticleSorter.Radix(), count);
+		ParticleSorter distance = sorter(new ParticleSorter.Distance(), count);
+		float[] z = new float[count];
+		for (int i = 0; i < count; i++)
+			z[i] = i;
+		particles(z);
+		sort(radix, count);
+
+		// Reversing needs count * (count - 1) / 2 shifts, the insertion sort gives up after count * 2 and must leave a
+		// permutation for the radix sort.
+		for (int i = 0; i < count; i++)
+			z[i] = count - i;
+		setZ(z);
+		int[] offsets = sort(radix, count);
+		assertFalse(radix.isCoherent());
+		assertArrayEquals(sort(distance, count), offsets);
+		boolean[] seen = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			assertFalse(seen[offsets[i]]);
+			seen[offsets[i]] = true;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.badlogic.gdx.graphics.g3d.particles;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.Channel;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.ObjectChannel;
+import com.badlogic.gdx.graphics.g3d.particles.emitters.RegularEmitter;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier.BrownianAcceleration;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.ModelInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.ParticleControllerFinalizerInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.ParticleControllerInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.RegionInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.RegionInfluencer.AspectTextureRegion;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.ScaleInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.SpawnInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.BillboardRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ModelInstanceRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerControllerRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.values.CylinderSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.particles.values.EllipseSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.particles.values.PointSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.particles.values.PrimitiveSpawnShapeValue;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+public class ParticleSystemTest {
+	private final Model[] models = {new Model(), new Model(), new Model()};
+
+	/** The seeded simulation must give the same particles whether the controllers are updated serially or concurrently. */
+	@Test
+	public void testExecutorDeterminism () {
+		ParticleEffect template = effect();
+		ParticleEffect serial = effect(template), concurrent = effect(template);
+		ParticleSystem serialSystem = new ParticleSystem(), concurrentSystem = new ParticleSystem();
+		serialSystem.add(serial);
+		concurrentSystem.add(concurrent);
+		AsyncExecutor executor = new AsyncExecutor(4);
+		concurrentSystem.setExecutor(executor, 16);
+		try {
+			for (int frame = 0; frame < 90; frame++) {
+				serialSystem.update(1 / 60f);
+				concurrentSystem.update(1 / 60f);
+				Array<ParticleController> expected = serial.getControllers(), actual = concurrent.getControllers();
+				assertEquals(expected.size, actual.size);
+				for (int i = 0; i < expected.size; i++)
+					assertControllerEquals(expected.get(i), actual.get(i));
+			}
+		} finally {
+			executor.dispose();
+		}
+
+		// Each random choice must actually have been made, or the comparison proves nothing.
+		Array<ParticleController> controllers = serial.getControllers();
+		FloatChannel regions = controllers.get(0).particles.getChannel(ParticleChannels.TextureRegion);
+		boolean[] regionUsed = new boolean[3];
+		for (int i = 0; i < controllers.get(0).particles.size; i++)
+			regionUsed[(int)(regions.data[i * regions.strideSize + ParticleChannels.UOffset] * 3)] = true;
+		assertTrue(regionUsed[0] && regionUsed[1] && regionUsed[2]);
+		assertTrue(controllers.get(0).particles.size >= 64); // Also updated on the calling thread, with chunked dynamics.
+
+		ObjectChannel<ModelInstance> instances = controllers.get(1).particles.getChannel(ParticleChannels.ModelInstance);
+		boolean[] modelUsed = new boolean[3];
+		for (int i = 0; i < controllers.get(1).particles.size; i++)
+			modelUsed[indexOf(models, instances.data[i].model)] = true;
+		assertTrue(modelUsed[0] && modelUsed[1] && modelUsed[2]);
+
+		ObjectChannel<ParticleController> children = controllers.get(2).particles.getChannel(ParticleChannels.ParticleController);
+		boolean small = false, large = false;
+		for (int i = 0; i < controllers.get(2).particles.size; i++) {
+			small |= children.data[i].name.equals("small");
+			large |= children.data[i].name.equals("large");
+		}
+		assertTrue(small && large);
+	}
+
+	private ParticleEffect effect (ParticleEffect template) {
+		ParticleEffect effect = new ParticleEffect(template);
+		effect.setSeed(42);
+		effect.init();
+		effect.start();
+		return effect;
+	}
+
+	private ParticleEffect effect () {
+		RegionInfluencer.Random regionInfluencer = new RegionInfluencer.Random();
+		regionInfluencer.clear();
+		for (int i = 0; i < 3; i++) {
+			AspectTextureRegion region = new AspectTextureRegion();
+			region.u = i / 3f;
+			region.u2 = (i + 1) / 3f;
+			region.v2 = 1;
+			region.halfInvAspectRatio = 0.5f;
+			regionInfluencer.regions.add(region);
+		}
+		ScaleInfluencer scaleInfluencer = new ScaleInfluencer();
+		scaleInfluencer.value.setLow(0.5f, 1);
+		scaleInfluencer.value.setHigh(1, 2);
+		DynamicsInfluencer dynamicsInfluencer = new DynamicsInfluencer();
+		BrownianAcceleration brownian = new BrownianAcceleration();
+		brownian.strengthValue.setHigh(10, 20);
+		dynamicsInfluencer.velocities.add(brownian);
+		ParticleController regions = new ParticleController("regions", emitter(200), new BillboardRenderer(),
+			new SpawnInfluencer(randomWidth(new EllipseSpawnShapeValue())), regionInfluencer, scaleInfluencer, dynamicsInfluencer);
+
+		PointSpawnShapeValue point = new PointSpawnShapeValue();
+		point.xOffsetValue.setActive(true);
+		point.xOffsetValue.setLow(-1, 1);
+		ParticleController models = new ParticleController("models", emitter(50), new ModelInstanceRenderer(),
+			new SpawnInfluencer(point), new ModelInfluencer.Random(this.models));
+
+		ParticleController controllers = new ParticleController("controllers", emitter(12),
+			new ParticleControllerControllerRenderer(), new SpawnInfluencer(randomWidth(new EllipseSpawnShapeValue())),
+			new ParticleControllerInfluencer.Random(child("small", 8), child("large", 40)),
+			new ParticleControllerFinalizerInfluencer());
+		return new ParticleEffect(regions, models, controllers);
+	}
+
+	private ParticleController child (String name, int maxParticleCount) {
+		return new ParticleController(name, emitter(maxParticleCount), new BillboardRenderer(),
+			new SpawnInfluencer(randomWidth(new CylinderSpawnShapeValue())));
+	}
+
+	private RegularEmitter emitter (int maxParticleCount) {
+		RegularEmitter emitter = new RegularEmitter();
+		emitter.getDuration().setLow(500);
+		emitter.getEmission().setHigh(maxParticleCount * 2);
+		emitter.getLife().setLow(200, 400);
+		emitter.getLife().setHigh(600, 1000);
+		emitter.setMaxParticleCount(maxParticleCount);
+		return emitter;
+	}
+
+	/** The width is picked when the shape starts, the other dimensions are fixed. */
+	private <T extends PrimitiveSpawnShapeValue> T randomWidth (T shape) {
+		shape.setDimensions(1, 2, 3);
+		shape.getSpawnWidth().setLow(0, 1);
+		shape.getSpawnWidth().setHigh(2, 5);
+		return shape;
+	}
+
+	private void assertControllerEquals (ParticleController expected, ParticleController actual) {
+		assertEquals(expected.name, actual.name);
+		ParallelArray expectedParticles = expected.particles, actualParticles = actual.particles;
+		assertEquals(expected.name, expectedParticles.size, actualParticles.size);
+		assertEquals(expectedParticles.arrays.size, actualParticles.arrays.size);
+		for (int i = 0; i < expectedParticles.arrays.size; i++) {
+			Channel expectedChannel = expectedParticles.arrays.get(i), actualChannel = actualParticles.arrays.get(i);
+			assertEquals(expectedChannel.id, actualChannel.id);
+			if (expectedChannel.data instanceof float[]) {
+				float[] expectedData = (float[])expectedChannel.data, actualData = (float[])actualChannel.data;
+				for (int k = 0, n = expectedParticles.size * expectedChannel.strideSize; k < n; k++)
+					assertEquals(Float.floatToIntBits(expectedData[k]), Float.floatToIntBits(actualData[k]));
+			} else if (expectedChannel.data instanceof ModelInstance[]) {
+				ModelInstance[] expectedData = (ModelInstance[])expectedChannel.data, actualData = (ModelInstance[])actualChannel.data;
+				for (int k = 0; k < expectedParticles.size; k++)
+					assertSame(expectedData[k].model, actualData[k].model);
+			} else if (expectedChannel.data instanceof ParticleController[]) {
+				ParticleController[] expectedData = (ParticleController[])expectedChannel.data,
+					actualData = (ParticleController[])actualChannel.data;
+				for (int k = 0; k < expectedParticles.size; k++)
+					assertControllerEquals(expectedData[k], actualData[k]);
+			} else
+				fail("Unexpected channel " + expectedChannel.id);
+		}
+	}
+
+	private static int indexOf (Object[] array, Object value) {
+		for (int i = 0; i < array.length; i++)
+			if (array[i] == value) return i;
+		return -1;
+	}
+}
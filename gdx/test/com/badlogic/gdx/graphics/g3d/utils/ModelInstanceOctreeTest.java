@@ -0,0 +1,194 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+public class ModelInstanceOctreeTest {
+	private final RandomXS128 random = new RandomXS128(5);
+	private final Model model = new Model();
+	private final Array<ModelInstance> instances = new Array();
+	private final Array<BoundingBox> localBounds = new Array();
+	private final ObjectIntMap<ModelInstance> ids = new ObjectIntMap();
+
+	@Test
+	public void testSimple () {
+		ModelInstanceOctree octree = new ModelInstanceOctree(new BoundingBox(new Vector3(-10, -10, -10), new Vector3(10, 10, 10)));
+		BoundingBox unit = new BoundingBox(new Vector3(-0.5f, -0.5f, -0.5f), new Vector3(0.5f, 0.5f, 0.5f));
+		ModelInstance near = new ModelInstance(model, 0, 0, -5), far = new ModelInstance(model, 0, 0, 5),
+			outside = new ModelInstance(model, 50, 0, 0);
+		assertTrue(octree.add(near, unit));
+		assertTrue(octree.add(far, unit));
+		assertTrue(octree.add(outside, unit));
+		assertFalse(octree.add(near, unit));
+		assertEquals(3, octree.size());
+
+		// Looking down -z from the origin sees only the near instance.
+		Frustum frustum = frustum(new Vector3(), new Vector3(0, 0, -1), 0.1f, 100, 60);
+		Array<ModelInstance> out = octree.cull(frustum, new Array<ModelInstance>());
+		assertEquals(1, out.size);
+		assertSame(near, out.first());
+		assertEquals(1, octree.getVisibleCount());
+		assertEquals(2, octree.getCulledCount());
+
+		// Instances outside the bounds of the tree are still found.
+		out.clear();
+		octree.raycast(new Ray(new Vector3(0, 0, 0), new Vector3(1, 0, 0)), out);
+		assertEquals(1, out.size);
+		assertSame(outside, out.first());
+
+		// Moved instances are found at their new location.
+		far.transform.setTranslation(0, 0, -20);
+		assertTrue(octree.update(far));
+		out.clear();
+		octree.raycast(new Ray(new Vector3(0, 0, 10), new Vector3(0, 0, -1)), out);
+		assertEquals(2, out.size);
+
+		assertTrue(octree.remove(near));
+		assertFalse(octree.remove(near));
+		assertFalse(octree.contains(near));
+		out.clear();
+		assertEquals(1, octree.cull(frustum, out).size);
+		octree.clear();
+		assertEquals(0, octree.size());
+	}
+
+	@Test
+	public void testDeep () {
+		compare(new ModelInstanceOctree(new BoundingBox(new Vector3(-100, -100, -100), new Vector3(100, 100, 100))));
+	}
+
+	@Test
+	public void testShallow () {
+		compare(new ModelInstanceOctree(new BoundingBox(new Vector3(-100, -50, -100), new Vector3(100, 50, 100)), 2));
+	}
+
+	/** Compares the results of the octree with testing every instance. */
+	private void compare (ModelInstanceOctree octree) {
+		for (int i = 0; i < 500; i++)
+			add(octree);
+
+		for (int round = 0; round < 5; round++) {
+			compareQueries(octree);
+
+			// Move some instances, remove some and add new ones.
+			for (int i = instances.size - 1; i >= 0; i--) {
+				ModelInstance instance = instances.get(i);
+				int action = random.nextInt(10);
+				if (action < 3) {
+					// Most moves are small, so the instances often stay in their nodes.
+					if (random.nextBoolean())
+						instance.transform.trn(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+					else
+						instance.transform.setToTranslation(position());
+					assertTrue(octree.update(instance));
+				} else if (action == 3) {
+					assertTrue(octree.remove(instance));
+					instances.removeIndex(i);
+					localBounds.removeIndex(i);
+				}
+			}
+			for (int i = 0; i < 50; i++)
+				add(octree);
+			assertEquals(instances.size, octree.size());
+		}
+	}
+
+	private void compareQueries (ModelInstanceOctree octree) {
+		Array<BoundingBox> bounds = new Array();
+		for (int i = 0; i < instances.size; i++)
+			bounds.add(new BoundingBox(localBounds.get(i)).mul(instances.get(i).transform));
+
+		Array<ModelInstance> out = new Array(), expected = new Array();
+		for (int i = 0; i < 100; i++) {
+			float near = 0.1f + random.nextFloat() * 10;
+			Frustum frustum = frustum(position(), direction(), near, near + random.nextFloat() * 200, 10 + random.nextFloat() * 100);
+			expected.clear();
+			for (int ii = 0; ii < instances.size; ii++)
+				if (frustum.boundsInFrustum(bounds.get(ii))) expected.add(instances.get(ii));
+			out.clear();
+			octree.cull(frustum, out);
+			assertEquals(ids(expected), ids(out));
+			assertEquals(expected.size, octree.getVisibleCount());
+			assertEquals(instances.size - expected.size, octree.getCulledCount());
+		}
+
+		for (int i = 0; i < 300; i++) {
+			Ray ray = new Ray(position(), direction());
+			expected.clear();
+			for (int ii = 0; ii < instances.size; ii++)
+				if (Intersector.intersectRayBoundsFast(ray, bounds.get(ii))) expected.add(instances.get(ii));
+			out.clear();
+			octree.raycast(ray, out);
+			assertEquals(ids(expected), ids(out));
+		}
+	}
+
+	private void add (ModelInstanceOctree octree) {
+		ModelInstance instance = new ModelInstance(model, position());
+		// Mostly small instances, some large ones which stay in the upper nodes.
+		float size = random.nextInt(10) == 0 ? random.nextFloat() * 80 : random.nextFloat() * 5;
+		Vector3 min = new Vector3(-random.nextFloat(), -random.nextFloat(), -random.nextFloat()).scl(size);
+		Vector3 max = new Vector3(random.nextFloat(), random.nextFloat(), random.nextFloat()).scl(size);
+		BoundingBox bounds = new BoundingBox(min, max);
+		ids.put(instance, ids.size);
+		instances.add(instance);
+		localBounds.add(bounds);
+		assertTrue(octree.add(instance, bounds));
+	}
+
+	/** Returns the frustum of a perspective camera with a square viewport. Like {@link Frustum#update(Matrix4)}, but without the
+	 * native matrix functions. */
+	private Frustum frustum (Vector3 position, Vector3 direction, float near, float far, float fieldOfView) {
+		Frustum frustum = new Frustum();
+		Vector3 right = new Vector3(direction).crs(Vector3.Y).nor(), up = new Vector3(right).crs(direction).nor();
+		float tan = (float)Math.tan(Math.toRadians(fieldOfView / 2));
+		Vector3[] points = frustum.planePoints;
+		for (int i = 0; i < 8; i++) {
+			// Counter clockwise from the bottom left, the near rectangle first.
+			float distance = i < 4 ? near : far, x = (i & 3) == 1 || (i & 3) == 2 ? 1 : -1, y = (i & 2) != 0 ? 1 : -1;
+			points[i].set(position).mulAdd(direction, distance).mulAdd(right, x * distance * tan).mulAdd(up, y * distance * tan);
+		}
+		Plane[] planes = frustum.planes;
+		planes[0].set(points[1], points[0], points[2]);
+		planes[1].set(points[4], points[5], points[7]);
+		planes[2].set(points[0], points[4], points[3]);
+		planes[3].set(points[5], points[1], points[6]);
+		planes[4].set(points[2], points[3], points[6]);
+		planes[5].set(points[4], points[0], points[1]);
+		return frustum;
+	}
+
+	/** Returns a position in or around the bounds of the tree. */
+	private Vector3 position () {
+		return new Vector3(random.nextFloat() * 300 - 150, random.nextFloat() * 300 - 150, random.nextFloat() * 300 - 150);
+	}
+
+	private Vector3 direction () {
+		return new Vector3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f).nor();
+	}
+
+	/** Returns the sorted ids of the instances. */
+	private String ids (Array<ModelInstance> instances) {
+		int[] result = new int[instances.size];
+		for (int i = 0; i < result.length; i++)
+			result[i] = ids.get(instances.get(i), -1);
+		Arrays.sort(result);
+		return Arrays.toString(result);
+	}
+}
@@ -0,0 +1,252 @@
+package com.badlogic.gdx.maps.tiled.pathfinding;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.pathfinding.WalkableGrid.PropertyFilter;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+
+public class GridPathFinderTest {
+	static private final float SQRT2 = 1.4142135f;
+
+	@Test
+	public void testGrid () {
+		WalkableGrid grid = new WalkableGrid(70, 3);
+		grid.fill(true);
+		assertEquals(210, grid.getWalkableCount());
+		assertFalse(grid.isWalkable(70, 0));
+		assertFalse(grid.isWalkable(-1, 0));
+		grid.setWalkable(65, 1, false);
+		assertFalse(grid.isWalkable(65, 1));
+		assertTrue(grid.isWalkable(64, 1));
+		assertEquals(209, new WalkableGrid(grid).getWalkableCount());
+
+		StaticTiledMapTile wall = new StaticTiledMapTile((TextureRegion)null);
+		wall.getProperties().put("blocked", "true");
+		StaticTiledMapTile floor = new StaticTiledMapTile((TextureRegion)null);
+		floor.getProperties().put("blocked", Boolean.FALSE);
+		TiledMapTileLayer layer = new TiledMapTileLayer(3, 2, 16, 16);
+		layer.setCell(0, 0, new Cell().setTile(wall));
+		layer.setCell(1, 0, new Cell().setTile(floor));
+		WalkableGrid fromLayer = new WalkableGrid(layer, new PropertyFilter("blocked", false));
+		assertFalse(fromLayer.isWalkable(0, 0));
+		assertTrue(fromLayer.isWalkable(1, 0));
+		assertTrue(fromLayer.isWalkable(2, 1)); // Empty.
+		fromLayer.set(layer, new PropertyFilter("blocked", true));
+		assertEquals(1, fromLayer.getWalkableCount());
+	}
+
+	@Test
+	public void testSimple () {
+		WalkableGrid grid = new WalkableGrid(10, 10);
+		grid.fill(true);
+		for (int y = 0; y < 9; y++)
+			grid.setWalkable(5, y, false);
+		GridPathFinder finder = new GridPathFinder();
+		IntArray path = new IntArray();
+		assertTrue(finder.findPath(grid, 0, 0, 9, 0, path));
+		// Through the gap without cutting its corners.
+		assertEquals(13 + 7 * SQRT2, finder.getPathCost(), 0.001f);
+		checkPath(grid, path, 0, 0, 9, 0, finder.getPathCost());
+		IntArray cells = new IntArray();
+		GridPathFinder.expand(path, cells);
+		assertEquals(21, cells.size / 2);
+
+		grid.setWalkable(5, 9, false);
+		assertFalse(finder.findPath(grid, 0, 0, 9, 0, path));
+		assertEquals(0, path.size);
+		assertTrue(finder.findPath(grid, 3, 3, 3, 3, path));
+		assertEquals(2, path.size);
+		assertFalse(finder.findPath(grid, 5, 0, 0, 0, path));
+	}
+
+	@Test
+	public void testJumpPointSearch () {
+		RandomXS128 random = new RandomXS128(1);
+		GridPathFinder finder = new GridPathFinder();
+		IntArray path = new IntArray();
+		for (int test = 0; test < 40; test++) {
+			// Widths around 64 test the bit scanning across words.
+			WalkableGrid grid = randomGrid(random, 40 + random.nextInt(100), 20 + random.nextInt(40), 0.1f + random.nextFloat() * 0.3f);
+			for (int query = 0; query < 20; query++) {
+				int startX = random.nextInt(grid.width), startY = random.nextInt(grid.height);
+				int endX = random.nextInt(grid.width), endY = random.nextInt(grid.height);
+				float expected = dijkstra(grid, startX, startY, endX, endY);
+				boolean found = finder.findPath(grid, startX, startY, endX, endY, path);
+				assertEquals(expected != Float.POSITIVE_INFINITY, found);
+				if (!found) continue;
+				assertEquals(expected, finder.getPathCost(), 0.001f);
+				checkPath(grid, path, startX, startY, endX, endY, finder.getPathCost());
+			}
+		}
+	}
+
+	@Test
+	public void testHierarchical () {
+		RandomXS128 random = new RandomXS128(2);
+		GridPathFinder finder = new GridPathFinder(), optimal = new GridPathFinder();
+		IntArray path = new IntArray();
+		for (int test = 0; test < 10; test++) {
+			WalkableGrid grid = randomGrid(random, 50 + random.nextInt(100), 50 + random.nextInt(100), 0.25f);
+			HierarchicalGrid graph = new HierarchicalGrid(grid, 4 + random.nextInt(16));
+			float total = 0, totalOptimal = 0;
+			for (int frame = 0; frame < 10; frame++) {
+				for (int query = 0; query < 20; query++) {
+					int startX = random.nextInt(grid.width), startY = random.nextInt(grid.height);
+					int endX = random.nextInt(grid.width), endY = random.nextInt(grid.height);
+					boolean expected = optimal.findPath(grid, startX, startY, endX, endY, path);
+					boolean found = finder.findPath(graph, startX, startY, endX, endY, path);
+					assertEquals(expected, found);
+					if (!found) continue;
+					checkPath(grid, path, startX, startY, endX, endY, finder.getPathCost());
+					assertTrue(finder.getPathCost() >= optimal.getPathCost() - 0.001f);
+					total += finder.getPathCost();
+					totalOptimal += optimal.getPathCost();
+				}
+
+				// Change cells, the graph only sees them after the update.
+				for (int i = 0, n = random.nextInt(50); i < n; i++) {
+					int x = random.nextInt(grid.width), y = random.nextInt(grid.height);
+					boolean walkable = random.nextFloat() > 0.25f;
+					grid.setWalkable(x, y, walkable);
+					graph.setWalkable(x, y, walkable);
+				}
+				graph.update();
+			}
+			assertTrue("Paths too long: " + total / totalOptimal, total < totalOptimal * 1.1f);
+
+			// Incremental updates give the same graph as building it again.
+			HierarchicalGrid built = new HierarchicalGrid(grid, graph.getClusterSize());
+			HierarchicalGrid.Cluster[] clusters = graph.snapshot.clusters, builtClusters = built.snapshot.clusters;
+			for (int i = 0; i < clusters.length; i++) {
+				assertArrayEquals(builtClusters[i].nodes, clusters[i].nodes);
+				assertArrayEquals(builtClusters[i].links, clusters[i].links);
+				assertTrue(Arrays.equals(builtClusters[i].costs, clusters[i].costs));
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentQueries () throws InterruptedException {
+		RandomXS128 random = new RandomXS128(3);
+		final WalkableGrid grid = randomGrid(random, 200, 200, 0.2f);
+		final HierarchicalGrid graph = new HierarchicalGrid(grid, 16);
+		final boolean[] failed = new boolean[1];
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread() {
+				public void run () {
+					RandomXS128 random = new RandomXS128(seed);
+					GridPathFinder finder = new GridPathFinder();
+					IntArray path = new IntArray();
+					for (int i = 0; i < 300; i++) {
+						int startX = random.nextInt(200), startY = random.nextInt(200);
+						int endX = random.nextInt(200), endY = random.nextInt(200);
+						WalkableGrid snapshot = graph.getGrid();
+						// The snapshot may be replaced during the search, so only check the path when it wasn't.
+						if (finder.findPath(graph, startX, startY, endX, endY, path) && snapshot == graph.getGrid()) {
+							try {
+								checkPath(snapshot, path, startX, startY, endX, endY, finder.getPathCost());
+							} catch (AssertionError ex) {
+								failed[0] = true;
+							}
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (int i = 0; i < 200; i++) {
+			for (int ii = 0; ii < 20; ii++)
+				graph.setWalkable(random.nextInt(200), random.nextInt(200), random.nextFloat() > 0.2f);
+			graph.update();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertFalse(failed[0]);
+	}
+
+	static private WalkableGrid randomGrid (RandomXS128 random, int width, int height, float blocked) {
+		WalkableGrid grid = new WalkableGrid(width, height);
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				grid.setWalkable(x, y, random.nextFloat() >= blocked);
+		// Some walls make long detours.
+		for (int i = 0; i < 4; i++) {
+			int x = random.nextInt(width), y = random.nextInt(height), length = random.nextInt(Math.max(width, height));
+			boolean horizontal = random.nextBoolean();
+			for (int ii = 0; ii < length; ii++)
+				if (horizontal && x + ii < width)
+					grid.setWalkable(x + ii, y, false);
+				else if (!horizontal && y + ii < height) grid.setWalkable(x, y + ii, false);
+		}
+		return grid;
+	}
+
+	/** Checks every cell of the path is walkable, no corners are cut and the cost matches. */
+	static void checkPath (WalkableGrid grid, IntArray path, int startX, int startY, int endX, int endY, float cost) {
+		assertEquals(startX, path.get(0));
+		assertEquals(startY, path.get(1));
+		assertEquals(endX, path.get(path.size - 2));
+		assertEquals(endY, path.get(path.size - 1));
+		IntArray cells = new IntArray();
+		GridPathFinder.expand(path, cells);
+		float total = 0;
+		for (int i = 2; i < cells.size; i += 2) {
+			int x = cells.get(i), y = cells.get(i + 1), px = cells.get(i - 2), py = cells.get(i - 1);
+			assertTrue(grid.isWalkable(x, y));
+			assertTrue(Math.abs(x - px) <= 1 && Math.abs(y - py) <= 1);
+			if (x != px && y != py) {
+				assertTrue("Corner cut", grid.isWalkable(px, y) && grid.isWalkable(x, py));
+				total += SQRT2;
+			} else
+				total += 1;
+		}
+		assertEquals(cost, total, 0.01f);
+	}
+
+	static private float dijkstra (WalkableGrid grid, int startX, int startY, int endX, int endY) {
+		if (!grid.isWalkable(startX, startY) || !grid.isWalkable(endX, endY)) return Float.POSITIVE_INFINITY;
+		int width = grid.width;
+		double[] costs = new double[width * grid.height];
+		Arrays.fill(costs, Double.POSITIVE_INFINITY);
+		PriorityQueue<double[]> open = new PriorityQueue<double[]>(11, new Comparator<double[]>() {
+			public int compare (double[] a, double[] b) {
+				return Double.compare(a[0], b[0]);
+			}
+		});
+		costs[startY * width + startX] = 0;
+		open.add(new double[] {0, startX, startY});
+		while (!open.isEmpty()) {
+			double[] item = open.poll();
+			int x = (int)item[1], y = (int)item[2];
+			if (item[0] > costs[y * width + x]) continue;
+			if (x == endX && y == endY) return (float)item[0];
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					if (dx == 0 && dy == 0) continue;
+					if (!grid.isWalkable(x + dx, y + dy)) continue;
+					if (dx != 0 && dy != 0 && (!grid.isWalkable(x + dx, y) || !grid.isWalkable(x, y + dy))) continue;
+					double cost = item[0] + (dx != 0 && dy != 0 ? Math.sqrt(2) : 1);
+					int cell = (y + dy) * width + x + dx;
+					if (cost < costs[cell]) {
+						costs[cell] = cost;
+						open.add(new double[] {cost, x + dx, y + dy});
+					}
+				}
+			}
+		}
+		return Float.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,183 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+public class ConstrainedDelaunayTriangulatorTest {
+	@Test
+	public void testRandomPoints () {
+		float[] points = random(1000, 1);
+		IntArray triangles = new ConstrainedDelaunayTriangulator().computeTriangles(points);
+		assertValid(points, triangles, 1000);
+		for (int i = 0; i < triangles.size; i += 3) {
+			int a = triangles.get(i), b = triangles.get(i + 1), c = triangles.get(i + 2);
+			for (int p = 0; p < 1000; p++)
+				if (p != a && p != b && p != c) assertFalse("Point in circumcircle: " + p, inCircle(points, a, b, c, p));
+		}
+	}
+
+	@Test
+	public void testGrid () {
+		// Collinear and cocircular points.
+		float[] points = new float[20 * 20 * 2];
+		for (int y = 0, i = 0; y < 20; y++) {
+			for (int x = 0; x < 20; x++) {
+				points[i++] = x;
+				points[i++] = y;
+			}
+		}
+		IntArray triangles = new ConstrainedDelaunayTriangulator().computeTriangles(points);
+		assertEquals(19 * 19 * 2, triangles.size / 3);
+		assertValid(points, triangles, 400);
+	}
+
+	@Test
+	public void testDegenerate () {
+		ConstrainedDelaunayTriangulator triangulator = new ConstrainedDelaunayTriangulator();
+		assertEquals(0, triangulator.computeTriangles(new float[] {0, 0, 1, 1}).size);
+		assertEquals(0, triangulator.computeTriangles(new float[] {0, 0, 1, 1, 2, 2, 3, 3}).size);
+		// Duplicates are skipped.
+		IntArray triangles = triangulator.computeTriangles(new float[] {0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 0, 0});
+		assertEquals(6, triangles.size);
+		assertFalse(triangles.contains(3));
+		assertFalse(triangles.contains(5));
+	}
+
+	@Test
+	public void testConstrainedEdges () {
+		float[] points = random(2000, 2);
+		// A polyline from left to right through the first 100 points doesn't cross itself.
+		Integer[] order = new Integer[100];
+		for (int i = 0; i < 100; i++)
+			order[i] = i;
+		final float[] sortPoints = points;
+		Arrays.sort(order, new java.util.Comparator<Integer>() {
+			public int compare (Integer a, Integer b) {
+				return Float.compare(sortPoints[a * 2], sortPoints[b * 2]);
+			}
+		});
+		IntArray edges = new IntArray();
+		for (int i = 0; i < 99; i++)
+			edges.add(order[i], order[i + 1]);
+
+		IntArray triangles = new ConstrainedDelaunayTriangulator().computeTriangles(points, 0, points.length, edges);
+		assertValid(points, triangles, 2000);
+		HashSet<Long> halfEdges = new HashSet();
+		for (int i = 0; i < triangles.size; i += 3)
+			for (int ii = 0; ii < 3; ii++)
+				halfEdges.add(key(triangles.get(i + ii), triangles.get(i + (ii + 1) % 3)));
+		for (int i = 0; i < edges.size; i += 2) {
+			int a = edges.get(i), b = edges.get(i + 1);
+			assertTrue("Missing edge: " + a + ", " + b, halfEdges.contains(key(a, b)) || halfEdges.contains(key(b, a)));
+		}
+	}
+
+	@Test
+	public void testConstrainedEdgeThroughPoint () {
+		// The diagonal goes through the center point and is split there.
+		float[] points = {0, 0, 10, 0, 10, 10, 0, 10, 5, 5, 2, 7, 7, 2};
+		IntArray edges = new IntArray();
+		edges.add(0, 2);
+		IntArray triangles = new ConstrainedDelaunayTriangulator().computeTriangles(points, 0, points.length, edges);
+		assertValid(points, triangles, 7);
+		HashSet<Long> halfEdges = new HashSet();
+		for (int i = 0; i < triangles.size; i += 3)
+			for (int ii = 0; ii < 3; ii++)
+				halfEdges.add(key(triangles.get(i + ii), triangles.get(i + (ii + 1) % 3)));
+		assertTrue(halfEdges.contains(key(0, 4)) || halfEdges.contains(key(4, 0)));
+		assertTrue(halfEdges.contains(key(4, 2)) || halfEdges.contains(key(2, 4)));
+	}
+
+	@Test
+	public void testCrossingEdges () {
+		float[] points = {0, 0, 10, 0, 10, 10, 0, 10, 5, 1, 5, 9};
+		IntArray edges = new IntArray();
+		edges.add(0, 2);
+		edges.add(1, 3);
+		try {
+			new ConstrainedDelaunayTriangulator().computeTriangles(points, 0, points.length, edges);
+			fail("Crossing edges were inserted.");
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	@Test
+	public void testParallel () {
+		float[] points = random(70000, 3);
+		IntArray serial = new IntArray(new ConstrainedDelaunayTriangulator().computeTriangles(points));
+		AsyncExecutor executor = new AsyncExecutor(2);
+		try {
+			ConstrainedDelaunayTriangulator triangulator = new ConstrainedDelaunayTriangulator();
+			triangulator.setExecutor(executor, 2);
+			IntArray parallel = triangulator.computeTriangles(points);
+			assertValid(points, parallel, 70000);
+			assertEquals(triangleSet(serial), triangleSet(parallel));
+		} finally {
+			executor.dispose();
+		}
+	}
+
+	private float[] random (int count, long seed) {
+		RandomXS128 random = new RandomXS128(seed);
+		float[] points = new float[count * 2];
+		for (int i = 0; i < points.length; i++)
+			points[i] = random.nextFloat() * 1000;
+		return points;
+	}
+
+	/** Checks the triangles are counterclockwise, each half-edge is used once and the count matches the hull. */
+	private void assertValid (float[] points, IntArray triangles, int count) {
+		HashMap<Long, Integer> halfEdges = new HashMap();
+		for (int i = 0; i < triangles.size; i += 3) {
+			int a = triangles.get(i), b = triangles.get(i + 1), c = triangles.get(i + 2);
+			assertTrue("Triangle not counterclockwise: " + i / 3, orient(points, a, b, c) > 0);
+			assertNull(halfEdges.put(key(a, b), i));
+			assertNull(halfEdges.put(key(b, c), i));
+			assertNull(halfEdges.put(key(c, a), i));
+		}
+		int hull = 0;
+		for (long key : halfEdges.keySet())
+			if (!halfEdges.containsKey((key & 0xffffffffL) << 32 | key >>> 32)) hull++;
+		HashSet<Integer> used = new HashSet();
+		for (int i = 0; i < triangles.size; i++)
+			used.add(triangles.get(i));
+		assertEquals(used.size() * 2 - 2 - hull, triangles.size / 3);
+	}
+
+	private HashSet<String> triangleSet (IntArray triangles) {
+		HashSet<String> set = new HashSet();
+		for (int i = 0; i < triangles.size; i += 3) {
+			int[] triangle = {triangles.get(i), triangles.get(i + 1), triangles.get(i + 2)};
+			Arrays.sort(triangle);
+			set.add(triangle[0] + "," + triangle[1] + "," + triangle[2]);
+		}
+		return set;
+	}
+
+	static private long key (int a, int b) {
+		return (long)a << 32 | b;
+	}
+
+	static private double orient (float[] points, int a, int b, int c) {
+		double ax = points[a * 2], ay = points[a * 2 + 1];
+		return (points[b * 2] - ax) * (points[c * 2 + 1] - ay) - (points[b * 2 + 1] - ay) * (points[c * 2] - ax);
+	}
+
+	static private boolean inCircle (float[] points, int a, int b, int c, int p) {
+		double px = points[p * 2], py = points[p * 2 + 1];
+		double dx = points[a * 2] - px, dy = points[a * 2 + 1] - py;
+		double ex = points[b * 2] - px, ey = points[b * 2 + 1] - py;
+		double fx = points[c * 2] - px, fy = points[c * 2 + 1] - py;
+		double ap = dx * dx + dy * dy, bp = ex * ex + ey * ey, cp = fx * fx + fy * fy;
+		return dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx) > 1e-3;
+	}
+}
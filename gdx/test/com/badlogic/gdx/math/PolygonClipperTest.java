@@ -0,0 +1,331 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.PolygonClipper.FillRule;
+import com.badlogic.gdx.math.PolygonClipper.Join;
+import com.badlogic.gdx.math.PolygonClipper.Operation;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+public class PolygonClipperTest {
+	private final FloatArray vertices = new FloatArray();
+	private final IntArray counts = new IntArray();
+
+	@Test
+	public void testSquares () {
+		PolygonClipper clipper = new PolygonClipper();
+		clipper.addSubject(new float[] {0, 0, 10, 0, 10, 10, 0, 10}, 0, 8);
+		clipper.addClip(new float[] {5, 5, 15, 5, 15, 15, 5, 15}, 0, 8);
+		clipper.execute(Operation.Union, vertices, counts);
+		assertEquals(1, counts.size);
+		assertEquals(16, counts.get(0)); // 8 vertices.
+		assertEquals(175, area(), 0.001f);
+		clipper.execute(Operation.Intersection, vertices, counts);
+		assertEquals(1, counts.size);
+		assertEquals(8, counts.get(0));
+		assertEquals(25, area(), 0.001f);
+		clipper.execute(Operation.Difference, vertices, counts);
+		assertEquals(1, counts.size);
+		assertEquals(75, area(), 0.001f);
+		clipper.execute(Operation.Xor, vertices, counts);
+		assertEquals(2, counts.size);
+		assertEquals(150, area(), 0.001f);
+	}
+
+	@Test
+	public void testSharedEdges () {
+		// Squares sharing an edge merge, squares touching at a corner stay apart.
+		PolygonClipper clipper = new PolygonClipper();
+		clipper.addSubject(new float[] {0, 0, 10, 0, 10, 10, 0, 10}, 0, 8);
+		clipper.addSubject(new float[] {10, 0, 20, 0, 20, 10, 10, 10}, 0, 8);
+		clipper.addSubject(new float[] {20, 10, 30, 10, 30, 20, 20, 20}, 0, 8);
+		clipper.setFillRule(FillRule.NonZero);
+		clipper.execute(Operation.Union, vertices, counts);
+		assertEquals(2, counts.size);
+		assertEquals(300, area(), 0.001f);
+		assertEquals(8, Math.min(counts.get(0), counts.get(1)));
+	}
+
+	@Test
+	public void testHoles () {
+		PolygonClipper clipper = new PolygonClipper();
+		clipper.addSubject(new float[] {0, 0, 10, 0, 10, 10, 0, 10}, 0, 8);
+		clipper.addSubject(new float[] {2, 2, 4, 2, 4, 4, 2, 4}, 0, 8); // Same orientation, a hole by the even-odd rule.
+		clipper.addClip(new float[] {6, 6, 8, 6, 8, 8, 6, 8}, 0, 8);
+		clipper.execute(Operation.Difference, vertices, counts);
+		assertEquals(3, counts.size);
+		assertTrue(area(0) > 0);
+		assertTrue(area(1) < 0);
+		assertTrue(area(2) < 0);
+		assertEquals(92, area(), 0.001f);
+
+		// Bridged holes triangulate to the same area.
+		clipper.setBridgeHoles(true);
+		clipper.execute(Operation.Difference, vertices, counts);
+		assertEquals(1, counts.size);
+		assertEquals(92, triangulatedArea(), 0.001f);
+	}
+
+	@Test
+	public void testSelfIntersecting () {
+		// A bow tie and a pentagram.
+		float[] bowTie = {0, 0, 10, 10, 10, 0, 0, 10};
+		float[] star = new float[10];
+		for (int i = 0; i < 5; i++) {
+			star[i * 2] = 20 + (float)Math.cos(Math.toRadians(90 + i * 144)) * 10;
+			star[i * 2 + 1] = 5 + (float)Math.sin(Math.toRadians(90 + i * 144)) * 10;
+		}
+		PolygonClipper clipper = new PolygonClipper();
+		clipper.addSubject(bowTie, 0, 8);
+		clipper.addSubject(star, 0, 10);
+		clipper.execute(Operation.Union, vertices, counts);
+		float evenOdd = area();
+		clipper.setFillRule(FillRule.NonZero);
+		clipper.execute(Operation.Union, vertices, counts);
+		float nonZero = area();
+		// The tips of the star and the inner pentagon, which is covered twice and left out by even-odd.
+		double inner = 10 * Math.sin(Math.toRadians(18)) / Math.sin(Math.toRadians(126));
+		float full = (float)(5 * 10 * inner * Math.sin(Math.toRadians(36)));
+		float pentagon = (float)(2.5f * inner * inner * Math.sin(Math.toRadians(72)));
+		assertEquals(50 + full - pentagon, evenOdd, 0.01f);
+		assertEquals(50 + full, nonZero, 0.01f);
+		assertRandomPoints(clipper, Operation.Union, FillRule.NonZero, concat(bowTie, star), new int[] {8, 10}, new float[0],
+			new int[0]);
+	}
+
+	@Test
+	public void testRandomPolygons () {
+		RandomXS128 random = new RandomXS128(1);
+		for (int round = 0; round < 20; round++) {
+			float[] subject = randomPolygon(random, 12), clip = randomPolygon(random, 9);
+			for (FillRule rule : FillRule.values()) {
+				for (Operation operation : Operation.values()) {
+					PolygonClipper clipper = new PolygonClipper();
+					clipper.setFillRule(rule);
+					assertRandomPoints(clipper, operation, rule, subject, new int[] {subject.length}, clip, new int[] {clip.length});
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAreas () {
+		// |A u B| + |A n B| = |A| + |B| for simple polygons.
+		RandomXS128 random = new RandomXS128(2);
+		PolygonClipper clipper = new PolygonClipper();
+		for (int round = 0; round < 50; round++) {
+			float[] subject = starPolygon(random, 50, 50), clip = starPolygon(random, 60, 40);
+			clipper.clear();
+			clipper.addSubject(subject, 0, subject.length);
+			clipper.addClip(clip, 0, clip.length);
+			clipper.execute(Operation.Union, vertices, counts);
+			float union = area();
+			clipper.execute(Operation.Intersection, vertices, counts);
+			float intersection = area();
+			float sum = Math.abs(GeometryUtils.polygonArea(subject, 0, subject.length))
+				+ Math.abs(GeometryUtils.polygonArea(clip, 0, clip.length));
+			assertEquals(sum, union + intersection, sum * 1e-4f);
+			clipper.execute(Operation.Difference, vertices, counts);
+			float difference = area();
+			clipper.execute(Operation.Xor, vertices, counts);
+			assertEquals(union - intersection, area(), sum * 1e-4f);
+			assertEquals(union - Math.abs(GeometryUtils.polygonArea(clip, 0, clip.length)), difference, sum * 1e-4f);
+
+			clipper.setBridgeHoles(true);
+			clipper.execute(Operation.Xor, vertices, counts);
+			assertEquals(union - intersection, triangulatedArea(), sum * 1e-3f);
+			clipper.setBridgeHoles(false);
+		}
+	}
+
+	@Test
+	public void testOffset () {
+		PolygonClipper clipper = new PolygonClipper();
+		clipper.addSubject(new float[] {0, 0, 10, 0, 10, 10, 0, 10}, 0, 8);
+		clipper.offset(1, Join.Miter, vertices, counts);
+		assertEquals(1, counts.size);
+		assertEquals(8, counts.get(0));
+		assertEquals(144, area(), 0.001f);
+		clipper.offset(1, Join.Square, vertices, counts);
+		assertEquals(144 - 4 * ((float)Math.sqrt(2) - 1) * ((float)Math.sqrt(2) - 1), area(), 0.001f);
+		clipper.offset(1, Join.Round, vertices, counts);
+		assertEquals(140 + MathUtils.PI, area(), 0.05f);
+		clipper.offset(-1, Join.Round, vertices, counts);
+		assertEquals(64, area(), 0.001f);
+		clipper.offset(-6, Join.Miter, vertices, counts);
+		assertEquals(0, counts.size);
+
+		// An L shape with a hole, grown: the inner corner fills, the hole shrinks.
+		clipper.clear();
+		clipper.addSubject(new float[] {0, 0, 20, 0, 20, 10, 10, 10, 10, 20, 0, 20}, 0, 12);
+		clipper.addSubject(new float[] {2, 2, 6, 2, 6, 6, 2, 6}, 0, 8);
+		clipper.offset(1, Join.Miter, vertices, counts);
+		assertEquals(2, counts.size);
+		assertEquals(22 * 22 - 10 * 10 - 2 * 2, area(), 0.001f);
+		// Shrunk, the grown hole cuts the L in two.
+		clipper.offset(-3, Join.Miter, vertices, counts);
+		assertEquals(2, counts.size);
+		assertEquals(8 * 4 * 2, area(), 0.001f);
+	}
+
+	private void assertRandomPoints (PolygonClipper clipper, Operation operation, FillRule rule, float[] subject,
+		int[] subjectCounts, float[] clip, int[] clipCounts) {
+		clipper.clear();
+		for (int i = 0, offset = 0; i < subjectCounts.length; offset += subjectCounts[i++])
+			clipper.addSubject(subject, offset, subjectCounts[i]);
+		for (int i = 0, offset = 0; i < clipCounts.length; offset += clipCounts[i++])
+			clipper.addClip(clip, offset, clipCounts[i]);
+		clipper.execute(operation, vertices, counts);
+		assertNoCrossings();
+
+		RandomXS128 random = new RandomXS128(3);
+		for (int i = 0; i < 2000; i++) {
+			float x = random.nextFloat() * 120 - 10, y = random.nextFloat() * 120 - 10;
+			if (nearEdge(subject, subjectCounts, x, y) || nearEdge(clip, clipCounts, x, y)) continue;
+			boolean inSubject = inside(rule, winding(subject, subjectCounts, x, y));
+			boolean inClip = inside(rule, winding(clip, clipCounts, x, y));
+			boolean expected;
+			switch (operation) {
+			case Union:
+				expected = inSubject || inClip;
+				break;
+			case Intersection:
+				expected = inSubject && inClip;
+				break;
+			case Difference:
+				expected = inSubject && !inClip;
+				break;
+			default:
+				expected = inSubject != inClip;
+			}
+			int[] resultCounts = counts.toArray();
+			int winding = winding(vertices.toArray(), resultCounts, x, y);
+			assertTrue("Result winding: " + winding, winding == 0 || winding == 1);
+			assertTrue(operation + " " + rule + " at " + x + ", " + y, expected == (winding == 1));
+		}
+	}
+
+	/** Checks that no two edges of the result cross. */
+	private void assertNoCrossings () {
+		float[] items = vertices.items;
+		int edges = vertices.size / 2;
+		int[] next = new int[edges];
+		for (int i = 0, offset = 0; i < counts.size; offset += counts.get(i++) / 2)
+			for (int ii = 0, n = counts.get(i) / 2; ii < n; ii++)
+				next[offset + ii] = offset + (ii + 1) % n;
+		for (int a = 0; a < edges; a++) {
+			for (int b = a + 1; b < edges; b++) {
+				float ax = items[a * 2], ay = items[a * 2 + 1], bx = items[next[a] * 2], by = items[next[a] * 2 + 1];
+				float cx = items[b * 2], cy = items[b * 2 + 1], dx = items[next[b] * 2], dy = items[next[b] * 2 + 1];
+				double d1 = orient(ax, ay, bx, by, cx, cy), d2 = orient(ax, ay, bx, by, dx, dy);
+				double d3 = orient(cx, cy, dx, dy, ax, ay), d4 = orient(cx, cy, dx, dy, bx, by);
+				assertFalse("Edges cross: " + a + ", " + b, d1 * d2 < 0 && d3 * d4 < 0);
+			}
+		}
+	}
+
+	private float[] randomPolygon (RandomXS128 random, int count) {
+		float[] polygon = new float[count * 2];
+		for (int i = 0; i < polygon.length; i++)
+			polygon[i] = random.nextFloat() * 100;
+		return polygon;
+	}
+
+	private float[] starPolygon (RandomXS128 random, float x, float y) {
+		int count = 10 + random.nextInt(30);
+		float[] polygon = new float[count * 2];
+		for (int i = 0; i < count; i++) {
+			float angle = i * MathUtils.PI2 / count, radius = 10 + random.nextFloat() * 30;
+			polygon[i * 2] = x + MathUtils.cos(angle) * radius;
+			polygon[i * 2 + 1] = y + MathUtils.sin(angle) * radius;
+		}
+		return polygon;
+	}
+
+	private float[] concat (float[] a, float[] b) {
+		float[] result = new float[a.length + b.length];
+		System.arraycopy(a, 0, result, 0, a.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+
+	/** @return The sum of the signed areas of the result's contours. */
+	private float area () {
+		float area = 0;
+		for (int i = 0; i < counts.size; i++)
+			area += area(i);
+		return area;
+	}
+
+	private float area (int contour) {
+		int offset = 0;
+		for (int i = 0; i < contour; i++)
+			offset += counts.get(i);
+		float[] items = vertices.items;
+		double area = 0;
+		for (int i = 0, n = counts.get(contour); i < n; i += 2) {
+			int next = offset + (i + 2) % n;
+			area += (double)items[offset + i] * items[next + 1] - (double)items[next] * items[offset + i + 1];
+		}
+		return (float)area / 2;
+	}
+
+	private float triangulatedArea () {
+		EarClippingTriangulator triangulator = new EarClippingTriangulator();
+		float[] items = vertices.items;
+		float area = 0;
+		for (int i = 0, offset = 0; i < counts.size; offset += counts.get(i++)) {
+			ShortArray triangles = triangulator.computeTriangles(items, offset, counts.get(i));
+			for (int ii = 0; ii < triangles.size; ii += 3) {
+				int a = triangles.get(ii) * 2, b = triangles.get(ii + 1) * 2, c = triangles.get(ii + 2) * 2;
+				area += Math.abs(orient(items[a], items[a + 1], items[b], items[b + 1], items[c], items[c + 1])) / 2;
+			}
+		}
+		return area;
+	}
+
+	static private boolean inside (FillRule rule, int winding) {
+		switch (rule) {
+		case EvenOdd:
+			return (winding & 1) != 0;
+		case NonZero:
+			return winding != 0;
+		default:
+			return winding > 0;
+		}
+	}
+
+	static private int winding (float[] polygons, int[] counts, float x, float y) {
+		int winding = 0;
+		for (int i = 0, offset = 0; i < counts.length; offset += counts[i++]) {
+			for (int ii = 0, n = counts[i]; ii < n; ii += 2) {
+				int next = offset + (ii + 2) % n;
+				float x1 = polygons[offset + ii], y1 = polygons[offset + ii + 1], x2 = polygons[next], y2 = polygons[next + 1];
+				if (y1 <= y) {
+					if (y2 > y && orient(x1, y1, x2, y2, x, y) > 0) winding++;
+				} else if (y2 <= y && orient(x1, y1, x2, y2, x, y) < 0) //
+					winding--;
+			}
+		}
+		return winding;
+	}
+
+	static private boolean nearEdge (float[] polygons, int[] counts, float x, float y) {
+		for (int i = 0, offset = 0; i < counts.length; offset += counts[i++]) {
+			for (int ii = 0, n = counts[i]; ii < n; ii += 2) {
+				int next = offset + (ii + 2) % n;
+				if (Intersector.distanceSegmentPoint(polygons[offset + ii], polygons[offset + ii + 1], polygons[next],
+					polygons[next + 1], x, y) < 0.01f) return true;
+			}
+		}
+		return false;
+	}
+
+	static private double orient (float ax, float ay, float bx, float by, float cx, float cy) {
+		return ((double)bx - ax) * ((double)cy - ay) - ((double)by - ay) * ((double)cx - ax);
+	}
+}
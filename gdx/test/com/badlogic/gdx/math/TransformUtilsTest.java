@@ -0,0 +1,143 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.BufferUtils;
+
+public class TransformUtilsTest {
+	static private final int count = 50, stride = 5, offset = 2;
+
+	/** A full matrix with a projective last row, set without {@link Matrix4#mul(Matrix4)}, which needs the natives. */
+	private Matrix4 matrix () {
+		Matrix4 matrix = new Matrix4();
+		RandomXS128 random = new RandomXS128(2);
+		for (int i = 0; i < 16; i++)
+			matrix.val[i] = random.nextFloat() * 4 - 2;
+		matrix.val[Matrix4.M33] = 10; // Keeps w away from 0 for prj.
+		return matrix;
+	}
+
+	private float[] vectors () {
+		RandomXS128 random = new RandomXS128(1);
+		float[] vectors = new float[offset + count * stride];
+		for (int i = 0; i < vectors.length; i++)
+			vectors[i] = random.nextFloat() * 20 - 10;
+		return vectors;
+	}
+
+	/** Computes the expected result one row at a time.
+	 * @param rows 3 to multiply, 4 to also divide by w.
+	 * @param translate False to only use the upper left 3x3 part. */
+	private float[] expected (Matrix4 matrix, float[] vectors, int index, int rows, boolean translate) {
+		float[] m = matrix.val, result = new float[4];
+		for (int row = 0; row < rows; row++) {
+			float sum = translate ? m[12 + row] : 0;
+			for (int column = 0; column < 3; column++)
+				sum += m[column * 4 + row] * vectors[index + column];
+			result[row] = sum;
+		}
+		if (rows == 4) {
+			for (int row = 0; row < 3; row++)
+				result[row] /= result[3];
+		}
+		return result;
+	}
+
+	private void assertVector (float[] expected, float[] vectors, int index) {
+		float epsilon = Math.max(1, Math.abs(expected[0]) + Math.abs(expected[1]) + Math.abs(expected[2])) * 0.00001f;
+		assertEquals(expected[0], vectors[index], epsilon);
+		assertEquals(expected[1], vectors[index + 1], epsilon);
+		assertEquals(expected[2], vectors[index + 2], epsilon);
+	}
+
+	@Test
+	public void testMul () {
+		Matrix4 matrix = matrix();
+		float[] original = vectors(), vectors = original.clone();
+		TransformUtils.mul(matrix, vectors, offset, count, stride);
+		for (int i = offset; i < vectors.length; i += stride) {
+			assertVector(expected(matrix, original, i, 3, true), vectors, i);
+			assertEquals(original[i + 3], vectors[i + 3], 0); // Other vertex attributes are kept.
+		}
+		assertEquals(original[0], vectors[0], 0);
+	}
+
+	@Test
+	public void testMulToDestination () {
+		Matrix4 matrix = matrix();
+		float[] src = vectors(), dst = new float[count * 3];
+		TransformUtils.mul(matrix, src, offset, stride, dst, 0, 3, count);
+		for (int i = 0; i < count; i++) {
+			int s = offset + i * stride;
+			assertVector(expected(matrix, src, s, 3, true), dst, i * 3);
+		}
+	}
+
+	@Test
+	public void testMulSeparateArrays () {
+		Matrix4 matrix = matrix();
+		float[] vectors = vectors(), x = new float[count], y = new float[count], z = new float[count];
+		for (int i = 0; i < count; i++) {
+			x[i] = vectors[offset + i * stride];
+			y[i] = vectors[offset + i * stride + 1];
+			z[i] = vectors[offset + i * stride + 2];
+		}
+		TransformUtils.mul(matrix, x, y, z, 1, count - 1);
+		assertEquals(vectors[offset], x[0], 0);
+		for (int i = 1; i < count; i++) {
+			int v = offset + i * stride;
+			float[] expected = expected(matrix, vectors, v, 3, true);
+			assertEquals(expected[0], x[i], 0.0001f);
+			assertEquals(expected[1], y[i], 0.0001f);
+			assertEquals(expected[2], z[i], 0.0001f);
+		}
+	}
+
+	@Test
+	public void testPrjAndRot () {
+		Matrix4 matrix = matrix();
+		float[] original = vectors(), projected = original.clone(), rotated = original.clone();
+		TransformUtils.prj(matrix, projected, offset, count, stride);
+		TransformUtils.rot(matrix, rotated, offset, count, stride);
+		for (int i = offset; i < original.length; i += stride) {
+			assertVector(expected(matrix, original, i, 4, true), projected, i);
+			assertVector(expected(matrix, original, i, 3, false), rotated, i);
+		}
+	}
+
+	@Test
+	public void testFloatBuffer () {
+		Matrix4 matrix = matrix();
+		float[] original = vectors(), vectors = original.clone();
+		TransformUtils.mul(matrix, vectors, offset, count, stride);
+		TransformUtils.rot(matrix, vectors, offset, count, stride);
+		TransformUtils.prj(matrix, vectors, offset, count, stride);
+
+		FloatBuffer buffer = BufferUtils.newFloatBuffer(original.length);
+		buffer.put(original).position(3);
+		TransformUtils.mul(matrix, buffer, offset, count, stride);
+		TransformUtils.rot(matrix, buffer, offset, count, stride);
+		TransformUtils.prj(matrix, buffer, offset, count, stride);
+		assertEquals(3, buffer.position());
+		for (int i = 0; i < original.length; i++)
+			assertEquals(vectors[i], buffer.get(i), 0);
+	}
+
+	@Test
+	public void testAffine2 () {
+		Affine2 affine = new Affine2().setToTrnRotScl(3, -4, 30, 2, 0.5f);
+		float[] original = vectors(), points = original.clone();
+		TransformUtils.mul(affine, points, offset, count, stride);
+		for (int i = offset; i < original.length; i += stride) {
+			Vector2 expected = new Vector2(original[i], original[i + 1]);
+			affine.applyTo(expected);
+			assertEquals(expected.x, points[i], 0.0001f);
+			assertEquals(expected.y, points[i + 1], 0.0001f);
+			assertEquals(original[i + 2], points[i + 2], 0);
+		}
+	}
+}
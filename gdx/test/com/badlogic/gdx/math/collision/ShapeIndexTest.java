@@ -0,0 +1,317 @@
+package com.badlogic.gdx.math.collision;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+public class ShapeIndexTest {
+	private final RandomXS128 random = new RandomXS128(7);
+
+	@Test
+	public void testSimple () {
+		ShapeIndex<String> index = new ShapeIndex();
+		int rectangle = index.add(new Rectangle(10, 0, 2, 2), "rectangle");
+		int circle = index.add(new Circle(20, 1, 1), "circle");
+		index.add(new BoundingBox(new Vector3(30, 0, 1), new Vector3(32, 2, 3)), "box");
+
+		Vector2 intersection = new Vector2();
+		assertEquals(rectangle, index.raycast(0, 1, 40, 1, intersection));
+		assertEquals(10, intersection.x, 0.0001f);
+		assertEquals(circle, index.raycast(40, 1, 0, 1, intersection));
+		assertEquals(21, intersection.x, 0.0001f);
+		assertEquals(-1, index.raycast(0, 5, 40, 5, null));
+
+		// The box doesn't contain z = 0, so 2D queries don't find it but 3D rays do.
+		Vector3 hit = new Vector3();
+		int box = index.raycast(new Ray(new Vector3(40, 1, 2), new Vector3(-1, 0, 0)), 100, hit);
+		assertEquals("box", index.getUserObject(box));
+		assertEquals(32, hit.x, 0.0001f);
+		assertEquals(circle, index.raycast(new Ray(new Vector3(20, 1, 5), new Vector3(0, 0, -1)), 100, hit));
+		assertEquals(0, hit.z, 0.0001f);
+
+		assertEquals(circle, index.nearest(24, 1, 10));
+		assertEquals(-1, index.nearest(24, 1, 2));
+
+		IntArray results = new IntArray();
+		index.overlaps(new Rectangle(11, 1, 10, 1), results);
+		assertEquals(2, results.size);
+
+		index.remove(rectangle);
+		assertEquals(circle, index.raycast(0, 1, 40, 1, null));
+		assertEquals(2, index.getSize());
+	}
+
+	@Test
+	public void testTree () {
+		compare(new DynamicAabbTree(0.5f));
+	}
+
+	@Test
+	public void testGrid () {
+		compare(new UniformGrid(4));
+	}
+
+	@Test
+	public void testTreeBalance () {
+		DynamicAabbTree tree = new DynamicAabbTree();
+		for (int i = 0; i < 1024; i++)
+			tree.add(i, 0, 0, i + 1, 1, 0);
+		// A tree built from sorted boxes without rotations would have a height of 1024.
+		assertEquals(1024, tree.getProxyCount());
+		assertEquals(true, tree.getHeight() < 30);
+	}
+
+	/** Compares the results of an index using the broadphase with an index that tests every shape. */
+	private void compare (Broadphase broadphase) {
+		ShapeIndex<Integer> index = new ShapeIndex(broadphase);
+		ShapeIndex<Integer> bruteForce = new ShapeIndex(new BruteForce());
+		Array<Object> shapes = new Array();
+		for (int i = 0; i < 300; i++)
+			shapes.add(randomShape());
+		IntArray ids = new IntArray(), bruteForceIds = new IntArray();
+		for (int i = 0; i < shapes.size; i++) {
+			ids.add(add(index, shapes.get(i), i));
+			bruteForceIds.add(add(bruteForce, shapes.get(i), i));
+		}
+
+		for (int round = 0; round < 5; round++) {
+			compareQueries(index, bruteForce);
+
+			// Move some shapes, remove some and add new ones.
+			for (int i = 0; i < shapes.size; i++) {
+				Object shape = shapes.get(i);
+				if (shape == null) continue;
+				int action = random.nextInt(10);
+				if (action < 3) {
+					move(shape);
+					index.update(ids.get(i));
+					bruteForce.update(bruteForceIds.get(i));
+				} else if (action == 3) {
+					index.remove(ids.get(i));
+					bruteForce.remove(bruteForceIds.get(i));
+					shapes.set(i, null);
+				}
+			}
+			for (int i = 0; i < 20; i++) {
+				Object shape = randomShape();
+				shapes.add(shape);
+				ids.add(add(index, shape, shapes.size - 1));
+				bruteForceIds.add(add(bruteForce, shape, shapes.size - 1));
+			}
+			assertEquals(bruteForce.getSize(), index.getSize());
+		}
+	}
+
+	private void compareQueries (ShapeIndex<Integer> index, ShapeIndex<Integer> bruteForce) {
+		Vector2 intersection = new Vector2(), bruteForceIntersection = new Vector2();
+		for (int i = 0; i < 300; i++) {
+			float x1 = random(), y1 = random(), x2 = random(), y2 = random();
+			int hit = index.raycast(x1, y1, x2, y2, intersection);
+			int bruteForceHit = bruteForce.raycast(x1, y1, x2, y2, bruteForceIntersection);
+			assertEquals(bruteForceHit == -1, hit == -1);
+			if (hit != -1) {
+				assertEquals(bruteForceIntersection.x, intersection.x, 0.001f);
+				assertEquals(bruteForceIntersection.y, intersection.y, 0.001f);
+			}
+		}
+
+		Vector3 hit3 = new Vector3(), bruteForceHit3 = new Vector3();
+		for (int i = 0; i < 300; i++) {
+			Ray ray = new Ray(new Vector3(random(), random(), random() / 4), new Vector3(random(), random(), random()));
+			int hit = index.raycast(ray, 60, hit3);
+			int bruteForceHit = bruteForce.raycast(ray, 60, bruteForceHit3);
+			assertEquals(bruteForceHit == -1, hit == -1);
+			if (hit != -1) assertEquals(0, bruteForceHit3.dst(hit3), 0.001f);
+		}
+
+		for (int i = 0; i < 300; i++) {
+			float x = random(), y = random();
+			int nearest = index.nearest(x, y, 10), bruteForceNearest = bruteForce.nearest(x, y, 10);
+			assertEquals(bruteForceNearest == -1, nearest == -1);
+			if (nearest != -1) assertEquals(distance(bruteForce, bruteForceNearest, x, y), distance(index, nearest, x, y), 0.001f);
+		}
+
+		IntArray results = new IntArray(), bruteForceResults = new IntArray();
+		for (int i = 0; i < 100; i++) {
+			Object shape = randomShape();
+			results.clear();
+			bruteForceResults.clear();
+			overlaps(index, shape, results);
+			overlaps(bruteForce, shape, bruteForceResults);
+			assertEquals(userObjects(bruteForce, bruteForceResults, 1), userObjects(index, results, 1));
+		}
+
+		results.clear();
+		bruteForceResults.clear();
+		index.findPairs(results);
+		bruteForce.findPairs(bruteForceResults);
+		assertEquals(userObjects(bruteForce, bruteForceResults, 2), userObjects(index, results, 2));
+	}
+
+	private float distance (ShapeIndex<Integer> index, int id, float x, float y) {
+		Object shape = index.getShape(id);
+		if (shape instanceof Rectangle) {
+			Rectangle r = (Rectangle)shape;
+			return Vector2.dst(Math.max(r.x, Math.min(x, r.x + r.width)), Math.max(r.y, Math.min(y, r.y + r.height)), x, y);
+		}
+		if (shape instanceof Circle) {
+			Circle c = (Circle)shape;
+			return Math.max(0, Vector2.dst(c.x, c.y, x, y) - c.radius);
+		}
+		if (shape instanceof BoundingBox) {
+			BoundingBox b = (BoundingBox)shape;
+			float dz = Math.max(Math.max(b.min.z, -b.max.z), 0);
+			float dxy = Vector2.dst(Math.max(b.min.x, Math.min(x, b.max.x)), Math.max(b.min.y, Math.min(y, b.max.y)), x, y);
+			return (float)Math.sqrt(dxy * dxy + dz * dz);
+		}
+		Polygon p = (Polygon)shape;
+		if (p.contains(x, y)) return 0;
+		float[] vertices = p.getTransformedVertices();
+		float distance = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < vertices.length; i += 2) {
+			int j = (i + 2) % vertices.length;
+			distance = Math.min(distance,
+				Intersector.distanceSegmentPoint(vertices[i], vertices[i + 1], vertices[j], vertices[j + 1], x, y));
+		}
+		return distance;
+	}
+
+	/** Returns the sorted user objects of the ids, in groups of the size. */
+	private String userObjects (ShapeIndex<Integer> index, IntArray ids, int groupSize) {
+		String[] groups = new String[ids.size / groupSize];
+		for (int i = 0; i < groups.length; i++) {
+			int[] group = new int[groupSize];
+			for (int ii = 0; ii < groupSize; ii++)
+				group[ii] = index.getUserObject(ids.get(i * groupSize + ii));
+			Arrays.sort(group);
+			groups[i] = Arrays.toString(group);
+		}
+		Arrays.sort(groups);
+		return Arrays.toString(groups);
+	}
+
+	private int add (ShapeIndex<Integer> index, Object shape, int userObject) {
+		if (shape instanceof Rectangle) return index.add((Rectangle)shape, userObject);
+		if (shape instanceof Circle) return index.add((Circle)shape, userObject);
+		if (shape instanceof Polygon) return index.add((Polygon)shape, userObject);
+		return index.add((BoundingBox)shape, userObject);
+	}
+
+	private void overlaps (ShapeIndex<Integer> index, Object shape, IntArray results) {
+		if (shape instanceof Rectangle)
+			index.overlaps((Rectangle)shape, results);
+		else if (shape instanceof Circle)
+			index.overlaps((Circle)shape, results);
+		else if (shape instanceof Polygon)
+			index.overlaps((Polygon)shape, results);
+		else
+			index.overlaps((BoundingBox)shape, results);
+	}
+
+	private Object randomShape () {
+		float x = random(), y = random();
+		switch (random.nextInt(4)) {
+		case 0:
+			return new Rectangle(x, y, 0.5f + random.nextFloat() * 4, 0.5f + random.nextFloat() * 4);
+		case 1:
+			return new Circle(x, y, 0.5f + random.nextFloat() * 2);
+		case 2:
+			// A convex polygon around the origin, moved to the position.
+			int count = 3 + random.nextInt(5);
+			float[] vertices = new float[count * 2];
+			float radius = 0.5f + random.nextFloat() * 2;
+			for (int i = 0; i < count; i++) {
+				float angle = (i + random.nextFloat() * 0.5f) / count * 6.2831855f;
+				vertices[i * 2] = (float)Math.cos(angle) * radius;
+				vertices[i * 2 + 1] = (float)Math.sin(angle) * radius;
+			}
+			Polygon polygon = new Polygon(vertices);
+			polygon.setPosition(x, y);
+			polygon.setRotation(random.nextFloat() * 360);
+			return polygon;
+		default:
+			float z = random.nextFloat() * 4 - 3;
+			return new BoundingBox(new Vector3(x, y, z), new Vector3(x + 0.5f + random.nextFloat() * 4, y + 0.5f
+				+ random.nextFloat() * 4, z + random.nextFloat() * 4));
+		}
+	}
+
+	private void move (Object shape) {
+		float dx = random.nextFloat() * 6 - 3, dy = random.nextFloat() * 6 - 3;
+		if (shape instanceof Rectangle) {
+			Rectangle r = (Rectangle)shape;
+			r.setPosition(r.x + dx, r.y + dy);
+		} else if (shape instanceof Circle) {
+			Circle c = (Circle)shape;
+			c.setPosition(c.x + dx, c.y + dy);
+		} else if (shape instanceof Polygon) {
+			((Polygon)shape).translate(dx, dy);
+		} else {
+			BoundingBox b = (BoundingBox)shape;
+			b.set(b.min.add(dx, dy, 0), b.max.add(dx, dy, 0));
+		}
+	}
+
+	private float random () {
+		return random.nextFloat() * 100 - 50;
+	}
+
+	/** Reports every proxy. */
+	static private class BruteForce implements Broadphase {
+		private final IntArray proxies = new IntArray();
+		private int nextProxy;
+
+		public int add (float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+			proxies.add(nextProxy);
+			return nextProxy++;
+		}
+
+		public boolean update (int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+			return false;
+		}
+
+		public void remove (int proxy) {
+			proxies.removeValue(proxy);
+		}
+
+		public void clear () {
+			proxies.clear();
+		}
+
+		public void query (float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback) {
+			for (int i = 0; i < proxies.size; i++)
+				if (!callback.report(proxies.get(i))) return;
+		}
+
+		public void raycast (float x, float y, float z, float dx, float dy, float dz, float maxFraction, RayCallback callback) {
+			for (int i = 0; i < proxies.size; i++) {
+				maxFraction = callback.report(proxies.get(i), maxFraction);
+				if (maxFraction <= 0) return;
+			}
+		}
+
+		public int nearest (float x, float y, float z, float maxDistance, DistanceCallback callback) {
+			int nearest = -1;
+			for (int i = 0; i < proxies.size; i++) {
+				float distance = callback.distance(proxies.get(i), maxDistance);
+				if (distance < maxDistance) {
+					maxDistance = distance;
+					nearest = proxies.get(i);
+				}
+			}
+			return nearest;
+		}
+	}
+}
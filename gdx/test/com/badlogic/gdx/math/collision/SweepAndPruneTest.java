@@ -0,0 +1,125 @@
+package com.badlogic.gdx.math.collision;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.collision.SweepAndPrune.PairListener;
+import com.badlogic.gdx.utils.IntArray;
+
+public class SweepAndPruneTest {
+	private final HashSet<Long> pairs = new HashSet();
+	private final PairListener listener = new PairListener() {
+		public void begin (int proxyA, int proxyB) {
+			assertTrue(proxyA < proxyB);
+			assertTrue("Pair began twice: " + proxyA + ", " + proxyB, pairs.add(key(proxyA, proxyB)));
+		}
+
+		public void end (int proxyA, int proxyB) {
+			assertTrue("Pair ended without beginning: " + proxyA + ", " + proxyB, pairs.remove(key(proxyA, proxyB)));
+		}
+	};
+
+	@Test
+	public void testSimple () {
+		SweepAndPrune sap = new SweepAndPrune();
+		int a = sap.add(new Rectangle(0, 0, 2, 2));
+		int b = sap.add(new Rectangle(1, 1, 2, 2));
+		int c = sap.add(new Rectangle(2, 0, 2, 2)); // Touches a, overlaps b.
+		sap.updatePairs(listener);
+		assertEquals(2, pairs.size());
+		assertTrue(pairs.contains(key(a, b)));
+		assertTrue(pairs.contains(key(b, c)));
+		assertTrue(sap.overlapping(c, b));
+		assertFalse(sap.overlapping(a, c));
+
+		// Move c through a to the other side in one step, the pair is never reported.
+		sap.update(c, -3, 0, -1, 2);
+		sap.updatePairs(listener);
+		assertEquals(1, pairs.size());
+		assertTrue(pairs.contains(key(a, b)));
+
+		sap.remove(b);
+		sap.updatePairs(listener);
+		assertEquals(0, pairs.size());
+		assertEquals(2, sap.getProxyCount());
+		assertEquals(b, sap.add(0, 0, 1, 1));
+		sap.updatePairs(listener);
+		assertTrue(pairs.contains(key(a, b)));
+		assertEquals(1, sap.getPairCount());
+	}
+
+	@Test
+	public void testRandom () {
+		RandomXS128 random = new RandomXS128(3);
+		SweepAndPrune sap = new SweepAndPrune();
+		IntArray ids = new IntArray();
+		Rectangle[] rectangles = new Rectangle[1500];
+		for (int i = 0; i < 500; i++)
+			add(sap, ids, rectangles, random);
+		for (int frame = 0; frame < 100; frame++) {
+			// Integer coordinates make many boxes touch and ends share values. Some boxes have no width or height.
+			for (int i = 0; i < ids.size; i++) {
+				Rectangle rectangle = rectangles[ids.get(i)];
+				if (random.nextInt(4) == 0) continue;
+				rectangle.x += random.nextInt(5) - 2;
+				rectangle.y += random.nextInt(5) - 2;
+				if (random.nextInt(10) == 0) rectangle.width = random.nextInt(4);
+				sap.update(ids.get(i), rectangle);
+			}
+			int changes = frame % 10 == 0 ? 200 : random.nextInt(10);
+			for (int i = 0; i < changes; i++) {
+				if (random.nextBoolean() && ids.size < 1000)
+					add(sap, ids, rectangles, random);
+				else if (ids.size > 0) sap.remove(ids.removeIndex(random.nextInt(ids.size)));
+			}
+			sap.updatePairs(listener);
+			assertEquals(ids.size, sap.getProxyCount());
+
+			HashSet<Long> expected = new HashSet();
+			for (int i = 0; i < ids.size; i++)
+				for (int ii = i + 1; ii < ids.size; ii++)
+					if (rectangles[ids.get(i)].overlaps(rectangles[ids.get(ii)])) expected.add(key(ids.get(i), ids.get(ii)));
+			assertTrue("Frame " + frame, expected.equals(pairs));
+			assertEquals(expected.size(), sap.getPairCount());
+
+			IntArray found = new IntArray();
+			sap.getPairs(found);
+			assertEquals(expected.size() * 2, found.size);
+			for (int i = 0; i < found.size; i += 2)
+				assertTrue(expected.contains(key(found.get(i), found.get(i + 1))));
+		}
+	}
+
+	@Test
+	public void testClear () {
+		SweepAndPrune sap = new SweepAndPrune();
+		for (int i = 0; i < 100; i++)
+			sap.add(i, 0, i + 2, 1);
+		sap.updatePairs(null);
+		assertEquals(99, sap.getPairCount());
+		sap.clear();
+		assertEquals(0, sap.getPairCount());
+		assertEquals(0, sap.getProxyCount());
+		assertEquals(0, sap.add(0, 0, 1, 1));
+		sap.add(0.5f, 0.5f, 1, 1);
+		sap.updatePairs(listener);
+		assertEquals(1, pairs.size());
+	}
+
+	private void add (SweepAndPrune sap, IntArray ids, Rectangle[] rectangles, RandomXS128 random) {
+		Rectangle rectangle = new Rectangle(random.nextInt(200), random.nextInt(200), random.nextInt(12), random.nextInt(12));
+		int id = sap.add(rectangle);
+		assertFalse("Id in use: " + id, ids.contains(id));
+		rectangles[id] = rectangle;
+		ids.add(id);
+	}
+
+	static private long key (int a, int b) {
+		return a < b ? (long)a << 32 | b : (long)b << 32 | a;
+	}
+}
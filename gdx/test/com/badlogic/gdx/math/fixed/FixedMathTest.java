@@ -0,0 +1,219 @@
+package com.badlogic.gdx.math.fixed;
+
+import static com.badlogic.gdx.math.fixed.FixedMath.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+public class FixedMathTest {
+	@Test
+	public void testConversions () {
+		assertEquals(ONE, fromInt(1));
+		assertEquals(-3 * ONE, fromInt(-3));
+		assertEquals(HALF, fromFloat(0.5f));
+		assertEquals(-HALF, fromDouble(-0.5));
+		assertEquals(1.25f, toFloat(fromFloat(1.25f)), 0);
+		assertEquals(fromDouble(Math.PI), PI);
+		assertEquals(fromDouble(Math.PI * 2), PI2);
+		assertEquals(fromDouble(Math.PI / 2), HALF_PI);
+		assertEquals(fromDouble(Math.E), E);
+
+		assertEquals(1, FixedMath.floor(fromFloat(1.75f)));
+		assertEquals(-2, FixedMath.floor(fromFloat(-1.25f)));
+		assertEquals(2, ceil(fromFloat(1.25f)));
+		assertEquals(-1, ceil(fromFloat(-1.75f)));
+		assertEquals(2, ceil(fromInt(2)));
+		assertEquals(2, FixedMath.round(fromFloat(1.5f)));
+		assertEquals(-1, FixedMath.round(fromFloat(-1.5f)));
+	}
+
+	@Test
+	public void testArithmetic () {
+		assertEquals(fromFloat(3.75f), mul(fromFloat(1.5f), fromFloat(2.5f)));
+		assertEquals(fromFloat(-3.75f), mul(fromFloat(-1.5f), fromFloat(2.5f)));
+		assertEquals(1, mul(1, HALF)); // Rounds to nearest.
+		assertEquals(39321, div(fromFloat(1.5f), fromFloat(2.5f))); // 0.6 is 39321.6.
+		assertEquals(21845, div(ONE, fromInt(3))); // Rounds toward zero.
+		assertEquals(-21845, div(-ONE, fromInt(3)));
+		assertEquals(fromInt(20000), mul(fromInt(200), fromInt(100))); // Intermediate exceeds int.
+		assertEquals(fromFloat(2.5f), lerp(fromInt(2), fromInt(3), HALF));
+		assertEquals(fromInt(3), FixedMath.abs(fromInt(-3)));
+		assertEquals(ONE, clamp(fromInt(5), -ONE, ONE));
+		assertEquals(fromInt(180), toDegrees(PI), 32); // PI is rounded.
+		assertEquals(PI, toRadians(fromInt(180)));
+		assertEquals(HALF_PI, toRadians(fromInt(90)));
+		assertEquals(-HALF_PI, toRadians(fromInt(-90)));
+	}
+
+	@Test
+	public void testSqrt () {
+		assertEquals(fromInt(3), FixedMath.sqrt(fromInt(9)));
+		assertEquals(HALF, FixedMath.sqrt(ONE / 4));
+		assertEquals(0, FixedMath.sqrt(0));
+		RandomXS128 random = new RandomXS128(5);
+		for (int i = 0; i < 100000; i++) {
+			long value = random.nextLong() >>> 1 + random.nextInt(63);
+			long root = FixedMath.sqrt(value);
+			assertTrue(root * root <= value);
+			assertTrue((root + 1) * (root + 1) > value || root + 1 > 3037000499L);
+		}
+		assertEquals(3037000499L, FixedMath.sqrt(Long.MAX_VALUE));
+		int root = FixedMath.sqrt(Integer.MAX_VALUE);
+		assertEquals(Math.sqrt(Integer.MAX_VALUE / 65536.0), toDouble(root), 1 / 65536.0);
+	}
+
+	@Test
+	public void testTrigonometry () {
+		double maxError = 3 / 65536.0;
+		for (int radians = -PI2 * 3; radians <= PI2 * 3; radians += 37) {
+			double angle = toDouble(radians);
+			assertEquals(StrictMath.sin(angle), toDouble(sin(radians)), maxError);
+			assertEquals(StrictMath.cos(angle), toDouble(cos(radians)), maxError);
+		}
+		assertEquals(0, sin(0));
+		assertEquals(ONE, cos(0));
+		assertEquals(ONE, sin(HALF_PI));
+		assertEquals(sin(1000), -sin(-1000));
+		for (long value = Integer.MIN_VALUE; value <= Integer.MAX_VALUE; value += 104729) {
+			int radians = (int)value;
+			double angle = toDouble(radians);
+			assertEquals(StrictMath.sin(angle), toDouble(sin(radians)), maxError);
+			assertEquals(StrictMath.cos(angle), toDouble(cos(radians)), maxError);
+			assertEquals(StrictMath.atan(angle), toDouble(atan(radians)), maxError);
+		}
+		for (int value = -fromInt(300); value <= fromInt(300); value += 101)
+			assertEquals(StrictMath.atan(toDouble(value)), toDouble(atan(value)), maxError);
+		assertEquals(StrictMath.atan(toDouble(Integer.MIN_VALUE)), toDouble(atan(Integer.MIN_VALUE)), maxError);
+		assertEquals(-atan(Integer.MAX_VALUE), atan(-Integer.MAX_VALUE));
+		RandomXS128 random = new RandomXS128(7);
+		for (int i = 0; i < 100000; i++) {
+			int y = random.nextInt(), x = random.nextInt() >> random.nextInt(24);
+			assertEquals(StrictMath.atan2(y, x), toDouble(atan2(y, x)), maxError);
+		}
+		assertEquals(PI, atan2(0, -ONE));
+		assertEquals(-HALF_PI, atan2(-ONE, 0));
+		assertEquals(0, atan2(0, 0));
+	}
+
+	@Test
+	public void testRandom () {
+		RandomXS128 random = new RandomXS128(3);
+		int start = fromInt(-20000), end = fromInt(20000), min = end, max = start;
+		for (int i = 0; i < 100000; i++) {
+			int value = FixedMath.random(random, start, end);
+			assertTrue(value >= start && value < end);
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		assertTrue(min < fromInt(-19900) && max > fromInt(19900));
+		for (int i = 0; i < 100000; i++) {
+			int value = FixedMath.random(random, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			assertTrue(value < Integer.MAX_VALUE);
+			value = FixedMath.random(random);
+			assertTrue(value >= 0 && value < ONE);
+		}
+	}
+
+	@Test
+	public void testVector () {
+		FixedVector2 v = new FixedVector2(fromInt(3), fromInt(4));
+		assertEquals(fromInt(5), v.len());
+		assertEquals(fromInt(25), v.len2());
+		assertEquals(fromInt(5), new FixedVector2(fromInt(-3000), fromInt(4000)).len() / 1000);
+		assertEquals(fromInt(7), v.dot(ONE, ONE));
+		assertEquals(fromInt(-1), v.crs(ONE, ONE));
+		assertEquals(fromInt(5), v.dst(0, 0));
+
+		FixedVector2 n = v.cpy().nor();
+		assertEquals(fromFloat(0.6f), n.x, 1);
+		assertEquals(fromFloat(0.8f), n.y, 1);
+		assertEquals(fromInt(10), v.cpy().setLength(fromInt(10)).len(), 1);
+		assertEquals(fromInt(2), v.cpy().limit(fromInt(2)).len(), 1);
+		assertTrue(v.cpy().limit(fromInt(6)).equals(v));
+
+		FixedVector2 r = new FixedVector2(ONE, 0).rotateRad(HALF_PI);
+		assertEquals(0, r.x, 1);
+		assertEquals(ONE, r.y);
+		assertTrue(new FixedVector2(ONE, 2).rotate90(1).equals(new FixedVector2(-2, ONE)));
+		assertTrue(new FixedVector2(ONE, 2).rotate90(-1).equals(new FixedVector2(2, -ONE)));
+		assertEquals(fromDouble(Math.atan2(4, 3)), v.angleRad(), 2);
+		FixedVector2 a = v.cpy().setAngleRad(PI);
+		assertEquals(fromInt(-5), a.x, 2);
+		assertEquals(0, a.y, 2);
+
+		assertTrue(new FixedVector2(ONE, ONE).mulAdd(v, HALF).equals(new FixedVector2(fromFloat(2.5f), fromInt(3))));
+		assertTrue(new FixedVector2().lerp(v, HALF).equals(new FixedVector2(fromFloat(1.5f), fromInt(2))));
+		assertTrue(v.cpy().scl(fromInt(2)).equals(new FixedVector2(fromInt(6), fromInt(8))));
+	}
+
+	@Test
+	public void testMatrix () {
+		FixedMatrix3 m = new FixedMatrix3().setToTranslation(fromInt(10), fromInt(20));
+		m.rotateRad(HALF_PI).scale(fromInt(2), fromInt(2));
+		FixedVector2 v = new FixedVector2(ONE, 0).mul(m);
+		assertEquals(fromInt(10), v.x, 1);
+		assertEquals(fromInt(22), v.y, 1);
+		assertEquals(HALF_PI, m.getRotationRad(), 1);
+		assertEquals(fromInt(4), m.det(), 2);
+
+		FixedMatrix3 inverse = new FixedMatrix3(m).inv();
+		v.mul(inverse);
+		assertEquals(ONE, v.x, 2);
+		assertEquals(0, v.y, 2);
+		m.mul(inverse);
+		int[] identity = new FixedMatrix3().val;
+		for (int i = 0; i < 9; i++)
+			assertEquals(identity[i], m.val[i], 4);
+
+		FixedMatrix3 a = new FixedMatrix3().setToRotationRad(fromInt(1)).trn(ONE, ONE);
+		FixedMatrix3 b = new FixedMatrix3().setToScaling(fromInt(3), HALF);
+		assertArrayEquals(new FixedMatrix3(b).mul(a).val, new FixedMatrix3(a).mulLeft(b).val);
+
+		try {
+			new FixedMatrix3().setToScaling(0, ONE).inv();
+			fail("Singular matrix was inverted");
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	/** The tables and a simulation must give these exact results on every platform. */
+	@Test
+	public void testDeterminism () {
+		long hash = 0;
+		for (int radians = -PI2; radians <= PI2; radians += 7)
+			hash = hash * 31 + sin(radians) * 7 + cos(radians);
+		for (int value = -fromInt(100); value <= fromInt(100); value += 13)
+			hash = hash * 31 + atan(value);
+		assertEquals(1241052674707897070L, hash);
+
+		RandomXS128 random = new RandomXS128(11);
+		FixedVector2[] positions = new FixedVector2[100], velocities = new FixedVector2[100];
+		for (int i = 0; i < 100; i++) {
+			positions[i] = new FixedVector2(FixedMath.random(random, -fromInt(100), fromInt(100)),
+				FixedMath.random(random, -fromInt(100), fromInt(100)));
+			velocities[i] = new FixedVector2(FixedMath.random(random), 0).rotateRad(FixedMath.random(random, 0, PI2));
+		}
+		FixedMatrix3 transform = new FixedMatrix3();
+		FixedVector2 tmp = new FixedVector2();
+		int step = ONE / 60;
+		for (int frame = 0; frame < 1000; frame++) {
+			for (int i = 0; i < 100; i++) {
+				FixedVector2 position = positions[i], velocity = velocities[i];
+				tmp.set(positions[(i + 1) % 100]).sub(position);
+				if (!tmp.isZero()) velocity.mulAdd(tmp.nor(), step).limit(fromInt(2));
+				velocity.rotateRad(mul(step, sin(position.angleRad())));
+				position.mulAdd(velocity, step);
+			}
+			transform.setToRotationRad(frame * 97).translate(positions[frame % 100]).scale(ONE + frame, ONE);
+			tmp.set(ONE, ONE).mul(transform);
+			positions[frame % 100].lerp(tmp, ONE / 100);
+		}
+		hash = 0;
+		for (int i = 0; i < 100; i++)
+			hash = hash * 31 + positions[i].hashCode() * 7 + velocities[i].hashCode();
+		assertEquals(-4198828084772820246L, hash);
+	}
+}
@@ -0,0 +1,184 @@
+package com.badlogic.gdx.scenes.scene2d;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Container;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar.ProgressBarStyle;
+import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+
+public class CachedGroupTest {
+	@Test
+	public void testChildChanges () {
+		CachedGroup group = new CachedGroup();
+		Actor a = actor(group), b = actor(group);
+		assertChanged(group);
+
+		a.setPosition(5, 6);
+		assertChanged(group);
+		a.setSize(20, 30);
+		assertChanged(group);
+		a.setRotation(45);
+		assertChanged(group);
+		a.setScale(2);
+		assertChanged(group);
+		a.setOrigin(5, 5);
+		assertChanged(group);
+		a.setColor(Color.RED);
+		assertChanged(group);
+		a.getColor().a = 0.5f;
+		assertChanged(group);
+		a.setVisible(false);
+		assertChanged(group);
+
+		// Setting the same values again doesn't redraw.
+		a.setPosition(5, 6);
+		a.setColor(1, 0, 0, 0.5f);
+		a.setVisible(false);
+		assertUnchanged(group);
+
+		b.toBack();
+		assertChanged(group);
+		Actor c = actor(group);
+		assertChanged(group);
+		c.remove();
+		assertChanged(group);
+		group.clearChildren();
+		assertChanged(group);
+	}
+
+	@Test
+	public void testDescendants () {
+		CachedGroup group = new CachedGroup();
+		Group child = new Group();
+		group.addActor(child);
+		Actor grandchild = actor(child);
+		assertChanged(group);
+
+		grandchild.setX(3);
+		assertChanged(group);
+		actor(child);
+		assertChanged(group);
+
+		// The descendants of an invisible group aren't drawn, so they don't matter.
+		child.setVisible(false);
+		assertChanged(group);
+		grandchild.setX(10);
+		actor(child);
+		assertUnchanged(group);
+		child.setVisible(true);
+		assertChanged(group);
+	}
+
+	@Test
+	public void testWidgets () {
+		CachedGroup group = new CachedGroup();
+		Image image = new Image(new BaseDrawable());
+		Container container = new Container();
+		ProgressBar bar = new ProgressBar(0, 10, 1, false, new ProgressBarStyle());
+		group.addActor(image);
+		group.addActor(container);
+		group.addActor(bar);
+		validate(group);
+		assertChanged(group);
+
+		image.setDrawable(new BaseDrawable());
+		validate(group);
+		assertChanged(group);
+		container.setBackground(new BaseDrawable());
+		validate(group);
+		assertChanged(group);
+		bar.setValue(5);
+		assertChanged(group);
+		bar.setDisabled(true);
+		assertChanged(group);
+
+		// A widget that needs layout changes until it is validated, which drawing does.
+		image.invalidate();
+		assertTrue(group.updateState());
+		assertTrue(group.updateState());
+		image.validate();
+		assertUnchanged(group);
+	}
+
+	@Test
+	public void testTransform () {
+		Group parent = new Group();
+		CachedGroup group = new CachedGroup();
+		parent.addActor(group);
+		Group child = new Group();
+		group.addActor(child);
+		Actor grandchild = actor(child);
+		assertChanged(group);
+
+		// The group's own transform and alpha are applied when drawing the frame buffer.
+		group.setPosition(50, 60);
+		group.setRotation(30);
+		group.setScale(2, 3);
+		group.setOrigin(10, 10);
+		group.getColor().a = 0.5f;
+		group.setTransform(false);
+		parent.setPosition(100, 100);
+		assertUnchanged(group);
+
+		// A transform of a child group changes what is drawn into the frame buffer.
+		child.setRotation(90);
+		assertChanged(group);
+		child.setScale(0.5f);
+		assertChanged(group);
+		grandchild.setRotation(10);
+		assertChanged(group);
+	}
+
+	@Test
+	public void testNested () {
+		CachedGroup outer = new CachedGroup(), inner = new CachedGroup();
+		Actor sibling = actor(outer);
+		outer.addActor(inner);
+		Actor actor = actor(inner);
+		assertChanged(outer);
+		assertChanged(inner);
+
+		// A change inside the inner cache also redraws the outer cache, which contains the inner frame buffer.
+		actor.setPosition(4, 4);
+		assertChanged(outer);
+		assertChanged(inner);
+
+		// Moving the inner cache only redraws the outer cache.
+		inner.setPosition(20, 20);
+		assertChanged(outer);
+		assertUnchanged(inner);
+
+		// A change outside the inner cache doesn't concern it.
+		sibling.setWidth(5);
+		assertChanged(outer);
+		assertUnchanged(inner);
+	}
+
+	private Actor actor (Group group) {
+		Actor actor = new Actor();
+		actor.setBounds(0, 0, 10, 10);
+		group.addActor(actor);
+		return actor;
+	}
+
+	private void validate (Group group) {
+		for (Actor actor : group.getChildren())
+			if (actor instanceof Layout) ((Layout)actor).validate();
+	}
+
+	/** Checks the group redraws once after a change, then not again until the next change. */
+	private void assertChanged (CachedGroup group) {
+		assertTrue(group.updateState());
+		assertFalse(group.updateState());
+	}
+
+	private void assertUnchanged (CachedGroup group) {
+		assertFalse(group.updateState());
+	}
+}
@@ -0,0 +1,137 @@
+package com.badlogic.gdx.scenes.scene2d;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+
+public class GroupHitIndexTest {
+	private final RandomXS128 random = new RandomXS128(3);
+
+	@Test
+	public void testSimple () {
+		Group group = new Group();
+		group.setHitIndex(25);
+		Actor bottom = new Actor(), top = new Actor();
+		bottom.setBounds(0, 0, 50, 50);
+		top.setBounds(40, 40, 50, 50);
+		group.addActor(bottom);
+		group.addActor(top);
+		assertSame(top, group.hit(45, 45, true));
+		assertSame(bottom, group.hit(10, 10, true));
+		assertNull(group.hit(100, 10, true));
+
+		top.setPosition(200, 200);
+		assertSame(bottom, group.hit(45, 45, true));
+		assertSame(top, group.hit(210, 210, true));
+
+		bottom.toFront();
+		top.setPosition(40, 40);
+		assertSame(bottom, group.hit(45, 45, true));
+
+		bottom.setTouchable(Touchable.disabled);
+		assertSame(top, group.hit(45, 45, true));
+		assertSame(bottom, group.hit(45, 45, false));
+
+		bottom.remove();
+		assertNull(group.hit(10, 10, false));
+	}
+
+	@Test
+	public void testTransform () {
+		Group group = new Group();
+		group.setHitIndex(25);
+		Actor actor = new Actor();
+		actor.setBounds(0, 0, 100, 10);
+		group.addActor(actor);
+		assertNull(group.hit(5, 50, true));
+
+		actor.setRotation(90);
+		assertSame(actor, group.hit(-5, 50, true));
+		assertNull(group.hit(50, 5, true));
+
+		actor.setRotation(0);
+		actor.setScale(2);
+		assertSame(actor, group.hit(150, 15, true));
+
+		actor.setOrigin(100, 10);
+		assertSame(actor, group.hit(-50, -5, true));
+		assertNull(group.hit(150, 15, true));
+	}
+
+	@Test
+	public void testRandom () {
+		Group group = new Group();
+		group.setHitIndex(25);
+		int hits = 0;
+		for (int step = 0; step < 3000; step++) {
+			int op = random.nextInt(11);
+			if (op < 3 || group.getChildren().size < 5) {
+				Actor actor;
+				if (random.nextInt(8) == 0) {
+					// Groups can hit outside their bounds.
+					Group child = new Group();
+					Actor grandchild = new Actor();
+					grandchild.setBounds(-20, -20, 10, 10);
+					child.addActor(grandchild);
+					actor = child;
+				} else
+					actor = new Actor();
+				actor.setBounds(random.nextFloat() * 500, random.nextFloat() * 500, random.nextFloat() * 60, random.nextFloat() * 60);
+				if (random.nextBoolean())
+					group.addActor(actor);
+				else
+					group.addActorAt(random.nextInt(group.getChildren().size + 1), actor);
+			} else {
+				Actor actor = group.getChildren().get(random.nextInt(group.getChildren().size));
+				switch (op) {
+				case 3:
+					actor.remove();
+					break;
+				case 4:
+					actor.setRotation(random.nextFloat() * 360);
+					break;
+				case 5:
+					actor.setScale(random.nextFloat() * 2);
+					break;
+				case 6:
+					actor.setZIndex(random.nextInt(group.getChildren().size));
+					break;
+				case 7:
+					actor.moveBy(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20);
+					break;
+				case 8:
+					actor.setOrigin(random.nextFloat() * 30, 4);
+					break;
+				case 9:
+					actor.setTouchable(random.nextBoolean() ? Touchable.disabled : Touchable.enabled);
+					break;
+				default:
+					actor.setSize(random.nextFloat() * 100, random.nextFloat() * 80);
+				}
+			}
+			for (int i = 0; i < 20; i++) {
+				float x = random.nextFloat() * 600 - 50, y = random.nextFloat() * 600 - 50;
+				boolean touchable = random.nextBoolean();
+				Actor expected = linearHit(group, x, y, touchable);
+				assertSame(expected, group.hit(x, y, touchable));
+				if (expected != null) hits++;
+			}
+		}
+		assertTrue(hits > 10000);
+	}
+
+	/** The hit detection of a group without a hit index. */
+	static private Actor linearHit (Group group, float x, float y, boolean touchable) {
+		Vector2 point = new Vector2();
+		for (int i = group.getChildren().size - 1; i >= 0; i--) {
+			Actor child = group.getChildren().get(i);
+			child.parentToLocalCoordinates(point.set(x, y));
+			Actor hit = child.hit(point.x, point.y, touchable);
+			if (hit != null) return hit;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,117 @@
+package com.badlogic.gdx.scenes.scene2d;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Align;
+
+public class GroupOrderTest {
+	private final RandomXS128 random = new RandomXS128(3);
+
+	@Test
+	public void testColumn () {
+		// Ten children of height 10, the first at the top.
+		Group group = new Group();
+		group.setChildrenOrder(Align.top);
+		for (int i = 0; i < 10; i++) {
+			Actor actor = new Actor();
+			actor.setBounds(0, 90 - i * 10, 50, 10);
+			group.addActor(actor);
+		}
+		Rectangle area = new Rectangle(0, 35, 50, 20);
+		assertEquals(4, group.orderedStart(area));
+		assertEquals(7, group.orderedEnd(area));
+
+		// Touching edges are inside, like the linear culling test.
+		area.set(0, 40, 50, 10);
+		assertEquals(4, group.orderedStart(area));
+		assertEquals(7, group.orderedEnd(area));
+
+		area.set(0, 200, 50, 10);
+		assertEquals(group.orderedStart(area), group.orderedEnd(area));
+	}
+
+	@Test
+	public void testInvalidate () {
+		Group group = new Group();
+		group.setChildrenOrder(Align.left);
+		Actor a = new Actor(), b = new Actor();
+		a.setBounds(0, 0, 10, 10);
+		b.setBounds(10, 0, 10, 10);
+		group.addActor(a);
+		group.addActor(b);
+		Rectangle area = new Rectangle(25, 0, 10, 10);
+		assertEquals(2, group.orderedStart(area));
+
+		// Moving, resizing and adding a child rebuild the search data.
+		b.setX(30);
+		assertEquals(1, group.orderedStart(area));
+		b.setX(10);
+		b.setWidth(16);
+		assertEquals(1, group.orderedStart(area));
+		Actor c = new Actor();
+		c.setBounds(30, 0, 10, 10);
+		group.addActor(c);
+		assertEquals(3, group.orderedEnd(area));
+		c.remove();
+		assertEquals(2, group.orderedEnd(area));
+	}
+
+	@Test
+	public void testRandom () {
+		int[] orders = {Align.top, Align.bottom, Align.left, Align.right};
+		Rectangle area = new Rectangle();
+		int tested = 0, total = 0;
+		for (int trial = 0; trial < 3000; trial++) {
+			int order = orders[trial % 4];
+			Group group = new Group();
+			group.setChildrenOrder(order);
+			int count = random.nextInt(40);
+			float position = 0;
+			for (int i = 0; i < count; i++) {
+				// Roughly ordered, with overlaps and children out of order.
+				float size = random.nextFloat() * 20;
+				float start = position + (random.nextFloat() - 0.3f) * 15;
+				position += random.nextFloat() * 12;
+				if (order == Align.top || order == Align.right) start = -start - size;
+				Actor actor = new Actor();
+				if (order == Align.top || order == Align.bottom)
+					actor.setBounds(random.nextFloat() * 10, start, 10, size);
+				else
+					actor.setBounds(start, random.nextFloat() * 10, size, 10);
+				group.addActor(actor);
+			}
+			float min = (random.nextFloat() - 0.5f) * 400, length = random.nextFloat() * 60;
+			if (order == Align.top || order == Align.bottom)
+				area.set(-100, min, 300, length);
+			else
+				area.set(min, -100, length, 300);
+			int start = group.orderedStart(area), end = group.orderedEnd(area);
+			tested += Math.max(0, end - start);
+			total += count;
+			for (int i = 0; i < count; i++) {
+				Actor child = group.getChildren().get(i);
+				boolean overlaps = child.getX() <= area.x + area.width && child.getY() <= area.y + area.height
+					&& child.getX() + child.getWidth() >= area.x && child.getY() + child.getHeight() >= area.y;
+				if (overlaps) assertTrue("Child " + i + " outside " + start + ".." + end, i >= start && i < end);
+			}
+		}
+		// The search must skip most children to be useful.
+		assertTrue(tested * 4 < total);
+	}
+
+	@Test
+	public void testHitIgnoresOrder () {
+		// Hit tests every child, the culling area may be stale.
+		Group group = new Group();
+		group.setChildrenOrder(Align.top);
+		Actor actor = new Actor();
+		actor.setBounds(0, 0, 10, 10);
+		group.addActor(actor);
+		group.setCullingArea(new Rectangle(0, 100, 10, 10));
+		assertSame(actor, group.hit(5, 5, true));
+	}
+}
@@ -0,0 +1,264 @@
+package com.badlogic.gdx.scenes.scene2d.ui;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+public class VirtualListTest {
+	@Test
+	public void testScrolling () {
+		TestList list = list(1000);
+		assertEquals(10000, list.getPrefHeight(), 0);
+
+		// The top of the list, the culling area is in the list's coordinates like ScrollPane sets it.
+		scroll(list, 0);
+		assertVisible(list, 0, 5);
+		assertEquals(6, list.getChildren().size);
+		assertEquals(9990, list.getRow(0).getY(), 0);
+		assertEquals(0, list.getItemIndexAt(9999));
+		assertEquals(5, list.getItemIndexAt(9945));
+
+		scroll(list, 4995);
+		assertVisible(list, 499, 504);
+		assertNull(list.getRow(0));
+		assertEquals("item 500", list.getItemAt(list.getItemY(500) + 5));
+
+		scroll(list, 9950);
+		assertVisible(list, 995, 999);
+		assertEquals(-1, list.getItemIndexAt(10001));
+
+		// Without a culling area every item has a row.
+		list.setCullingArea(null);
+		list.validate();
+		assertVisible(list, 0, 999);
+	}
+
+	@Test
+	public void testReuse () {
+		TestList list = list(1000);
+		scroll(list, 0);
+		int created = list.created;
+		Array<Row> rows = new Array();
+		for (int i = 0; i < 6; i++)
+			rows.add(list.getRow(i));
+
+		// Scrolling one row keeps the rows of the items that stay visible.
+		scroll(list, 10);
+		for (int i = 1; i < 6; i++)
+			assertSame(rows.get(i), list.getRow(i));
+		assertSame(rows.get(0), list.getRow(6)); // The row that left the area is reused.
+
+		// Scrolling through the whole list only needs the rows that fit in the area.
+		for (float y = 0; y <= 9950; y += 7)
+			scroll(list, y);
+		assertEquals(created, list.created);
+		assertTrue(list.getChildren().size <= 6);
+	}
+
+	@Test
+	public void testSelection () {
+		TestList list = list(1000);
+		list.getSelection().setMultiple(true);
+		scroll(list, 0);
+		list.getSelection().add("item 2");
+		list.getSelection().add("item 700");
+		assertEquals("item 2", list.getSelected());
+		list.validate();
+		assertTrue(list.getRow(2).selected);
+		assertFalse(list.getRow(3).selected);
+
+		// Items that aren't visible stay selected and their rows show it once they are.
+		scroll(list, 6980);
+		assertTrue(list.getRow(700).selected);
+		assertFalse(list.getRow(701).selected);
+		list.getSelection().remove("item 700");
+		list.validate();
+		assertFalse(list.getRow(700).selected);
+
+		// Items that are removed are deselected.
+		Array<String> items = list.getItems();
+		items.removeValue("item 2", false);
+		list.setItems(items);
+		assertTrue(list.getSelection().isEmpty());
+	}
+
+	@Test
+	public void testVariableRowHeight () {
+		TestList list = list(100);
+		list.setVariableRowHeight(true);
+		list.tallItem = 3;
+		scroll(list, 0);
+		// The tall row is measured, the items below still use the estimate.
+		assertEquals(30, list.getItemHeight(3), 0);
+		assertEquals(10, list.getItemHeight(50), 0);
+		assertEquals(1020, list.getPrefHeight(), 0);
+		assertEquals(30, list.getRow(3).getHeight(), 0);
+		assertEquals(list.getRow(3).getY() + 30, list.getRow(2).getY(), 0);
+		assertNull(list.getRow(4)); // Pushed out of the area by the tall row.
+		assertEquals(3, list.getItemIndexAt(list.getItemY(3) + 25));
+		assertEquals(50, list.getItemIndexAt(list.getItemY(50) + 5));
+
+		// Setting the items forgets the measured heights.
+		list.setItems(list.getItems());
+		assertEquals(10, list.getItemHeight(3), 0);
+	}
+
+	@Test
+	public void testTree () {
+		TestTree tree = tree();
+		assertItems(tree, "a", "b", "c");
+
+		tree.setExpanded("b", true);
+		assertItems(tree, "a", "b", "b1", "b2", "c");
+		assertEquals(1, tree.getDepth(2));
+
+		// Expanding an item that isn't visible only shows its children once its parent is expanded.
+		tree.setExpanded("a1", true);
+		assertItems(tree, "a", "b", "b1", "b2", "c");
+		tree.setExpanded("a", true);
+		assertItems(tree, "a", "a1", "a1x", "a1y", "a2", "b", "b1", "b2", "c");
+		assertEquals(2, tree.getDepth(2));
+
+		tree.setExpanded("a", false);
+		assertItems(tree, "a", "b", "b1", "b2", "c");
+		assertTrue(tree.isExpanded("a1"));
+
+		tree.children.get("b").add("b3");
+		tree.updateChildren("b");
+		assertItems(tree, "a", "b", "b1", "b2", "b3", "c");
+
+		tree.collapseAll();
+		assertItems(tree, "a", "b", "c");
+	}
+
+	@Test
+	public void testTreeKeepsHeights () {
+		TestTree tree = tree();
+		tree.setVariableRowHeight(true);
+		tree.setExpanded("b", true);
+		tree.tallItem = "c";
+		tree.setSize(100, tree.getPrefHeight());
+		tree.validate();
+		assertEquals(30, tree.getItemHeight(4), 0);
+		int created = tree.created;
+
+		// Only the top row is shown. The measured height moves with its item when rows are inserted and removed above it.
+		tree.setCullingArea(new Rectangle(0, tree.getHeight() - 10, 100, 10));
+		tree.validate();
+		tree.setExpanded("a", true);
+		tree.validate();
+		assertItems(tree, "a", "a1", "a2", "b", "b1", "b2", "c");
+		assertEquals(30, tree.getItemHeight(6), 0);
+		assertEquals(10, tree.getItemHeight(1), 0);
+		tree.setExpanded("b", false);
+		tree.validate();
+		assertItems(tree, "a", "a1", "a2", "b", "c");
+		assertEquals(30, tree.getItemHeight(4), 0);
+		assertEquals(70, tree.getPrefHeight(), 0);
+		assertEquals(created, tree.created);
+	}
+
+	private TestList list (int count) {
+		TestList list = new TestList();
+		Array<String> items = new Array();
+		for (int i = 0; i < count; i++)
+			items.add("item " + i);
+		list.setItems(items);
+		list.setSize(100, list.getPrefHeight());
+		return list;
+	}
+
+	private TestTree tree () {
+		TestTree tree = new TestTree();
+		tree.children.put("a", Array.with("a1", "a2"));
+		tree.children.put("a1", Array.with("a1x", "a1y"));
+		tree.children.put("b", Array.with("b1", "b2"));
+		tree.setRootItems(Array.with("a", "b", "c"));
+		return tree;
+	}
+
+	/** Sets a culling area 50 high, offset from the top of the list. */
+	private void scroll (BaseVirtualList list, float offset) {
+		list.setCullingArea(new Rectangle(0, list.getHeight() - offset - 50, 100, 50));
+		list.validate();
+	}
+
+	private void assertVisible (TestList list, int first, int last) {
+		assertNull(list.getRow(first - 1));
+		assertNull(list.getRow(last + 1));
+		for (int i = first; i <= last; i++) {
+			Row row = list.getRow(i);
+			assertEquals("item " + i, row.item);
+			assertEquals(i, row.index);
+			assertEquals(list.getItemY(i), row.getY(), 0);
+			assertEquals(100, row.getWidth(), 0);
+		}
+	}
+
+	private void assertItems (TestTree tree, String... items) {
+		assertArrayEquals(items, tree.getItems().toArray(String.class));
+	}
+
+	static class Row extends Widget {
+		String item;
+		int index;
+		boolean selected;
+		float prefHeight = 10;
+
+		public float getPrefWidth () {
+			return 50;
+		}
+
+		public float getPrefHeight () {
+			return prefHeight;
+		}
+	}
+
+	static class TestList extends VirtualList<String, Row> {
+		int created, tallItem = -1;
+
+		public TestList () {
+			super(10);
+		}
+
+		protected Row newRow () {
+			created++;
+			return new Row();
+		}
+
+		protected void updateRow (Row row, int index, String item, boolean selected) {
+			row.item = item;
+			row.index = index;
+			row.selected = selected;
+			row.prefHeight = index == tallItem ? 30 : 10;
+		}
+	}
+
+	static class TestTree extends VirtualTree<String, Row> {
+		final ObjectMap<String, Array<String>> children = new ObjectMap();
+		int created;
+		String tallItem;
+
+		public TestTree () {
+			super(10);
+		}
+
+		protected Array<String> getChildren (String item) {
+			return children.get(item);
+		}
+
+		protected Row newRow () {
+			created++;
+			return new Row();
+		}
+
+		protected void updateRow (Row row, int index, String item, boolean selected) {
+			row.item = item;
+			row.prefHeight = item.equals(tallItem) ? 30 : 10;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentPoolTest {
+	static class Item implements Pool.Poolable {
+		boolean obtained;
+
+		@Override
+		public void reset () {
+			obtained = false;
+		}
+	}
+
+	static ConcurrentPool<Item> newPool (final AtomicInteger created, int max) {
+		return new ConcurrentPool<Item>(4, max) {
+			@Override
+			protected Item newObject () {
+				created.incrementAndGet();
+				return new Item();
+			}
+		};
+	}
+
+	@Test
+	public void reusesObjectsTest () {
+		AtomicInteger created = new AtomicInteger();
+		ConcurrentPool<Item> pool = newPool(created, Integer.MAX_VALUE);
+		Array<Item> items = new Array<Item>();
+		for (int i = 0; i < 100; i++)
+			items.add(pool.obtain());
+		assertEquals(100, created.get());
+		assertEquals(100, pool.misses);
+		pool.freeAll(items);
+		assertEquals(100, pool.getFree());
+		IdentityHashMap<Item, Boolean> seen = new IdentityHashMap<Item, Boolean>();
+		for (int i = 0; i < 100; i++)
+			assertNull("Object obtained twice", seen.put(pool.obtain(), Boolean.TRUE));
+		assertEquals(100, created.get());
+		assertEquals(0, pool.getFree());
+	}
+
+	@Test
+	public void maxTest () {
+		AtomicInteger created = new AtomicInteger();
+		ConcurrentPool<Item> pool = newPool(created, 8);
+		Array<Item> items = new Array<Item>();
+		for (int i = 0; i < 40; i++)
+			items.add(pool.obtain());
+		pool.freeAll(items);
+		// 8 on the shared stack, at most 8 in the thread cache.
+		assertTrue(pool.getFree() <= 16);
+		assertEquals(40, pool.getFree() + pool.discarded);
+		assertEquals(8, pool.peak);
+	}
+
+	@Test
+	public void threadsTest () throws InterruptedException {
+		final AtomicInteger created = new AtomicInteger();
+		final ConcurrentPool<Item> pool = newPool(created, Integer.MAX_VALUE);
+		final AtomicInteger errors = new AtomicInteger();
+		final int threadCount = 4;
+		final CountDownLatch done = new CountDownLatch(threadCount);
+		for (int t = 0; t < threadCount; t++) {
+			new Thread() {
+				public void run () {
+					Array<Item> items = new Array<Item>();
+					for (int round = 0; round < 2000; round++) {
+						for (int i = 0; i < 10; i++) {
+							Item item = pool.obtain();
+							if (item.obtained) errors.incrementAndGet();
+							item.obtained = true;
+							items.add(item);
+						}
+						pool.freeAll(items);
+						items.clear();
+					}
+					done.countDown();
+				}
+			}.start();
+		}
+		done.await();
+		assertEquals("Object obtained by two threads at once", 0, errors.get());
+		assertTrue("Objects were not reused: " + created.get(), created.get() <= threadCount * 100);
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.lwjgl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.tests.bench.BenchmarkTest;
+
+/** Runs a CPU bound {@link BenchmarkTest} on the headless backend, without a window or OpenGL. The first argument is the class
+ * name of the benchmark, eg StageHitBench. GL calls and the batch are replaced with implementations that do nothing. The
+ * benchmarks log their results in {@link ApplicationListener#create()}, the application exits right after. */
+public class HeadlessBenchmarkStarter {
+	public static void main (String[] argv) {
+		String name = argv.length > 0 ? argv[0] : "StageHitBench";
+		final ApplicationListener benchmark = newBenchmark(name);
+
+		new HeadlessApplication(new ApplicationListener() {
+			public void create () {
+				Gdx.gl = Gdx.gl20 = noop(GL20.class);
+				benchmark.create();
+				Gdx.app.exit();
+			}
+
+			public void resize (int width, int height) {
+			}
+
+			public void render () {
+			}
+
+			public void pause () {
+			}
+
+			public void resume () {
+			}
+
+			public void dispose () {
+				benchmark.dispose();
+			}
+		});
+	}
+
+	/** @return The benchmark with the class name in the bench package, using a batch that does nothing. */
+	static BenchmarkTest newBenchmark (String name) {
+		Class type;
+		try {
+			type = Class.forName("com.badlogic.gdx.tests.bench." + name);
+		} catch (ClassNotFoundException ex) {
+			throw new IllegalArgumentException("Unknown benchmark: " + name);
+		}
+		if (!BenchmarkTest.class.isAssignableFrom(type)) throw new IllegalArgumentException("Not a benchmark: " + name);
+		try {
+			return (BenchmarkTest)type.getConstructor(Batch.class).newInstance(noop(Batch.class));
+		} catch (Exception ex) {
+			throw new RuntimeException("Unable to create benchmark: " + name, ex);
+		}
+	}
+
+	/** @return An implementation of the interface that ignores all calls and returns 0, false or null. */
+	static <T> T noop (Class<T> type) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, new InvocationHandler() {
+			public Object invoke (Object proxy, Method method, Object[] args) {
+				Class type = method.getReturnType();
+				if (type == boolean.class) return false;
+				if (type == int.class) return 0;
+				if (type == float.class) return 0f;
+				if (type == long.class) return 0l;
+				if (type == double.class) return 0d;
+				if (type == short.class) return (short)0;
+				if (type == byte.class) return (byte)0;
+				if (type == char.class) return (char)0;
+				return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/** A benchmark that measures once in {@link #create()}, then logs and shows the results. The batch is only used to show the
+ * results, so benchmarks can run on the headless backend with a batch that does nothing, see HeadlessBenchmarkStarter in the
+ * LWJGL tests. Subclasses must have a constructor that takes the batch. */
+abstract public class BenchmarkTest extends GdxTest {
+	private Batch batch;
+	private boolean ownsBatch;
+	private BitmapFont font;
+	private String result = "";
+
+	public BenchmarkTest () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public BenchmarkTest (Batch batch) {
+		this.batch = batch;
+	}
+
+	@Override
+	public void create () {
+		if (batch == null) {
+			batch = new SpriteBatch();
+			ownsBatch = true;
+			font = new BitmapFont();
+		}
+		result = run();
+		Gdx.app.log(ClassReflection.getSimpleName(getClass()), result);
+	}
+
+	/** Runs the benchmark.
+	 * @return The results, one line per measurement. */
+	abstract protected String run ();
+
+	/** Runs a method of the benchmark, which is timed by {@link #time(int, int)}. */
+	protected void runMethod (int method) {
+	}
+
+	/** Prepares a round of {@link #time(int, int)}, without being timed. */
+	protected void prepare (int method) {
+	}
+
+	/** Runs the method for a number of rounds. The first half of the rounds warms up the JIT.
+	 * @return The average time in nanoseconds of the second half of the rounds. */
+	protected double time (int method, int rounds) {
+		long time = 0;
+		for (int round = 0; round < rounds; round++) {
+			prepare(method);
+			long start = TimeUtils.nanoTime();
+			runMethod(method);
+			if (round >= rounds / 2) time += TimeUtils.nanoTime() - start;
+		}
+		return time / (double)(rounds - rounds / 2);
+	}
+
+	protected Batch getBatch () {
+		return batch;
+	}
+
+	@Override
+	public void render () {
+		if (font == null) return;
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		font.draw(batch, result, 10, Gdx.graphics.getHeight() - 10);
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		if (ownsBatch) batch.dispose();
+		if (font != null) font.dispose();
+	}
+}
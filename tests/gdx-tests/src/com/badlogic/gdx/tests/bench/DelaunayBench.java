@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.ConstrainedDelaunayTriangulator;
+import com.badlogic.gdx.math.DelaunayTriangulator;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/** Compares triangulating uniform and clustered points with {@link DelaunayTriangulator} and with
+ * {@link ConstrainedDelaunayTriangulator}, on one thread and in parallel strips, and times inserting constrained edges. */
+public class DelaunayBench extends BenchmarkTest {
+	static final int rounds = 10, threads = 4;
+
+	private final RandomXS128 random = new RandomXS128(1);
+	private final DelaunayTriangulator shortTriangulator = new DelaunayTriangulator();
+	private final ConstrainedDelaunayTriangulator triangulator = new ConstrainedDelaunayTriangulator();
+	private final ConstrainedDelaunayTriangulator parallelTriangulator = new ConstrainedDelaunayTriangulator();
+	private AsyncExecutor executor;
+	private final IntArray edges = new IntArray();
+	private float[] points;
+
+	public DelaunayBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public DelaunayBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		executor = new AsyncExecutor(threads);
+		parallelTriangulator.setExecutor(executor, threads);
+
+		StringBuilder builder = new StringBuilder("ms per triangulation:");
+		float[] points = uniform(10000);
+		builder.append("\n10k uniform, DelaunayTriangulator: ").append(time(points, 0));
+		builder.append(", ConstrainedDelaunayTriangulator: ").append(time(points, 1));
+		// DelaunayTriangulator takes minutes for a few thousand clustered points.
+		points = clustered(1000);
+		builder.append("\n1k clustered, DelaunayTriangulator: ").append(time(points, 0));
+		builder.append(", ConstrainedDelaunayTriangulator: ").append(time(points, 1));
+		points = uniform(1000000);
+		builder.append("\n1M uniform, one thread: ").append(time(points, 1));
+		builder.append(", ").append(threads).append(" threads: ").append(time(points, 2));
+		points = clustered(1000000);
+		builder.append("\n1M clustered, one thread: ").append(time(points, 1));
+		builder.append(", ").append(threads).append(" threads: ").append(time(points, 2));
+
+		// The first points are moved to a circle, which is constrained as the outline of a navmesh would be.
+		points = uniform(100000);
+		edges.clear();
+		for (int i = 0; i < 2000; i++) {
+			float angle = i * MathUtils.PI2 / 2000;
+			points[i * 2] = 5000 + MathUtils.cos(angle) * 4000;
+			points[i * 2 + 1] = 5000 + MathUtils.sin(angle) * 4000;
+			edges.add(i, (i + 1) % 2000);
+		}
+		builder.append("\n100k uniform, no edges: ").append(time(points, 1));
+		builder.append(", 2k constrained edges: ").append(time(points, 3));
+		return builder.toString();
+	}
+
+	private float[] uniform (int count) {
+		float[] points = new float[count * 2];
+		for (int i = 0; i < points.length; i++)
+			points[i] = random.nextFloat() * 10000;
+		return points;
+	}
+
+	/** Points in normally distributed clusters, which make the points of the same cluster nearly collinear or cocircular. */
+	private float[] clustered (int count) {
+		float[] points = new float[count * 2];
+		for (int i = 0; i < count; i++) {
+			float x = (i % 4) * 2500 + 1250, y = (i % 16 / 4) * 2500 + 1250, radius = (float)Math.abs(random.nextGaussian()) * 50;
+			float angle = random.nextFloat() * 6.28f;
+			points[i * 2] = x + (float)Math.cos(angle) * radius;
+			points[i * 2 + 1] = y + (float)Math.sin(angle) * radius;
+		}
+		return points;
+	}
+
+	/** @return The time per triangulation. */
+	private String time (float[] points, int method) {
+		this.points = points;
+		return String.format("%.1f", time(method, rounds) / 1000000);
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		float[] points = this.points;
+		switch (method) {
+		case 0:
+			shortTriangulator.computeTriangles(points, false);
+			break;
+		case 1:
+			triangulator.computeTriangles(points);
+			break;
+		case 2:
+			parallelTriangulator.computeTriangles(points);
+			break;
+		case 3:
+			triangulator.computeTriangles(points, 0, points.length, edges);
+			break;
+		}
+	}
+
+	@Override
+	public void dispose () {
+		executor.dispose();
+		super.dispose();
+	}
+}
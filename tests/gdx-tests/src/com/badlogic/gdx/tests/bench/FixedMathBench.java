@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.fixed.FixedMath;
+import com.badlogic.gdx.math.fixed.FixedMatrix3;
+import com.badlogic.gdx.math.fixed.FixedVector2;
+
+/** Runs the same simulation of steering entities with {@link Vector2}, {@link Matrix3} and {@link MathUtils}, with doubles and
+ * {@link StrictMath}, which is deterministic but slow, and with {@link FixedVector2}, {@link FixedMatrix3} and
+ * {@link FixedMath}. */
+public class FixedMathBench extends BenchmarkTest {
+	static final int rounds = 10, entities = 10000, steps = 20;
+
+	private Vector2[] floatPositions, floatVelocities;
+	private double[] doublePositions, doubleVelocities;
+	private FixedVector2[] fixedPositions, fixedVelocities;
+	private float checksum;
+
+	public FixedMathBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public FixedMathBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		RandomXS128 random = new RandomXS128(1);
+		floatPositions = new Vector2[entities];
+		floatVelocities = new Vector2[entities];
+		doublePositions = new double[entities * 2];
+		doubleVelocities = new double[entities * 2];
+		fixedPositions = new FixedVector2[entities];
+		fixedVelocities = new FixedVector2[entities];
+		for (int i = 0; i < entities; i++) {
+			int x = FixedMath.random(random, -FixedMath.fromInt(100), FixedMath.fromInt(100));
+			int y = FixedMath.random(random, -FixedMath.fromInt(100), FixedMath.fromInt(100));
+			int angle = FixedMath.random(random, 0, FixedMath.PI2);
+			fixedPositions[i] = new FixedVector2(x, y);
+			fixedVelocities[i] = new FixedVector2(FixedMath.ONE, 0).rotateRad(angle);
+			floatPositions[i] = fixedPositions[i].toVector2(new Vector2());
+			floatVelocities[i] = fixedVelocities[i].toVector2(new Vector2());
+			doublePositions[i * 2] = FixedMath.toDouble(x);
+			doublePositions[i * 2 + 1] = FixedMath.toDouble(y);
+			doubleVelocities[i * 2] = floatVelocities[i].x;
+			doubleVelocities[i * 2 + 1] = floatVelocities[i].y;
+		}
+
+		StringBuilder builder = new StringBuilder("ms for " + entities + " entities, " + steps + " steps:");
+		builder.append("\nfloat, MathUtils: ").append(time(0));
+		builder.append("\ndouble, StrictMath: ").append(time(1));
+		builder.append("\nfixed point: ").append(time(2));
+		return builder.toString();
+	}
+
+	/** @return The time per round. */
+	private String time (int method) {
+		return String.format("%.3f", time(method, rounds) / 1000000);
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		for (int step = 0; step < steps; step++)
+			step(method, step);
+	}
+
+	/** Each entity steers toward the next one, turns by the sine of its angle and is moved by a rotating transform. */
+	private void step (int method, int step) {
+		switch (method) {
+		case 0: {
+			Vector2[] positions = floatPositions, velocities = floatVelocities;
+			Matrix3 transform = new Matrix3().setToRotationRad(step * 0.01f).trn(0.1f, 0);
+			Vector2 tmp = new Vector2();
+			float delta = 1 / 60f;
+			for (int i = 0; i < entities; i++) {
+				Vector2 position = positions[i], velocity = velocities[i];
+				tmp.set(positions[(i + 1) % entities]).sub(position).nor();
+				velocity.mulAdd(tmp, delta).limit(2);
+				velocity.rotateRad(delta * MathUtils.sin(position.angleRad()));
+				position.mulAdd(velocity, delta).mul(transform);
+			}
+			checksum += positions[step].x;
+			break;
+		}
+		case 1: {
+			double[] positions = doublePositions, velocities = doubleVelocities;
+			double cos = StrictMath.cos(step * 0.01), sin = StrictMath.sin(step * 0.01);
+			double delta = 1 / 60d;
+			for (int i = 0, n = entities * 2; i < n; i += 2) {
+				double x = positions[i], y = positions[i + 1];
+				int next = (i + 2) % n;
+				double dx = positions[next] - x, dy = positions[next + 1] - y;
+				double len = StrictMath.sqrt(dx * dx + dy * dy);
+				if (len != 0) {
+					dx /= len;
+					dy /= len;
+				}
+				double vx = velocities[i] + dx * delta, vy = velocities[i + 1] + dy * delta;
+				len = StrictMath.sqrt(vx * vx + vy * vy);
+				if (len > 2) {
+					vx *= 2 / len;
+					vy *= 2 / len;
+				}
+				double angle = delta * StrictMath.sin(StrictMath.atan2(y, x));
+				double c = StrictMath.cos(angle), s = StrictMath.sin(angle);
+				velocities[i] = vx * c - vy * s;
+				velocities[i + 1] = vx * s + vy * c;
+				x += velocities[i] * delta;
+				y += velocities[i + 1] * delta;
+				positions[i] = x * cos - y * sin + 0.1;
+				positions[i + 1] = x * sin + y * cos;
+			}
+			checksum += positions[step * 2];
+			break;
+		}
+		case 2: {
+			FixedVector2[] positions = fixedPositions, velocities = fixedVelocities;
+			FixedMatrix3 transform = new FixedMatrix3().setToRotationRad(step * 655).trn(6554, 0);
+			FixedVector2 tmp = new FixedVector2();
+			int delta = FixedMath.ONE / 60, limit = FixedMath.fromInt(2);
+			for (int i = 0; i < entities; i++) {
+				FixedVector2 position = positions[i], velocity = velocities[i];
+				tmp.set(positions[(i + 1) % entities]).sub(position).nor();
+				velocity.mulAdd(tmp, delta).limit(limit);
+				velocity.rotateRad(FixedMath.mul(delta, FixedMath.sin(position.angleRad())));
+				position.mulAdd(velocity, delta).mul(transform);
+			}
+			checksum += FixedMath.toFloat(positions[step].x);
+			break;
+		}
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.pathfinding.GridPathFinder;
+import com.badlogic.gdx.maps.tiled.pathfinding.HierarchicalGrid;
+import com.badlogic.gdx.maps.tiled.pathfinding.WalkableGrid;
+import com.badlogic.gdx.maps.tiled.pathfinding.WalkableGrid.PropertyFilter;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Finds paths across a 1024x1024 {@link TiledMapTileLayer} of rooms and scattered walls. A* that reads the tile properties
+ * with {@link TiledMapTileLayer#getCell(int, int)}, as projects often write it, is compared with {@link GridPathFinder} on a
+ * {@link WalkableGrid} and on a {@link HierarchicalGrid}. Also times updating the hierarchical grid after cells change and
+ * queries from several threads while cells change. */
+public class GridPathFinderBench extends BenchmarkTest {
+	static final int rounds = 6, size = 1024, queries = 20, clusterSize = 16;
+
+	private final RandomXS128 random = new RandomXS128(1);
+	private TiledMapTileLayer layer;
+	private final PropertyFilter filter = new PropertyFilter("blocked", false);
+	private WalkableGrid grid;
+	private HierarchicalGrid graph;
+	private final GridPathFinder finder = new GridPathFinder();
+	private final IntArray path = new IntArray();
+	private final int[] points = new int[queries * 4];
+	private float cost;
+	private int expanded;
+
+	// A* over the layer.
+	private final BinaryHeap<CellNode> open = new BinaryHeap();
+	private CellNode[] nodes;
+	private int[] stamps;
+	private int stamp;
+
+	public GridPathFinderBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public GridPathFinderBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		StaticTiledMapTile floor = new StaticTiledMapTile((TextureRegion)null);
+		StaticTiledMapTile wall = new StaticTiledMapTile((TextureRegion)null);
+		wall.getProperties().put("blocked", "true");
+		layer = new TiledMapTileLayer(size, size, 16, 16);
+		for (int y = 0; y < size; y++)
+			for (int x = 0; x < size; x++) {
+				// Rooms of 32x32 cells with 4 doors each, and 15% scattered walls.
+				boolean blocked = (x % 32 == 0 && (y % 32 < 14 || y % 32 > 17)) || (y % 32 == 0 && (x % 32 < 14 || x % 32 > 17));
+				if (random.nextFloat() < 0.15f) blocked = true;
+				layer.setCell(x, y, new Cell().setTile(blocked ? wall : floor));
+			}
+
+		long start = TimeUtils.nanoTime();
+		grid = new WalkableGrid(layer, filter);
+		String gridTime = String.format("%.1f", (TimeUtils.nanoTime() - start) / 1000000.0);
+		start = TimeUtils.nanoTime();
+		graph = new HierarchicalGrid(grid, clusterSize);
+		String graphTime = String.format("%.1f", (TimeUtils.nanoTime() - start) / 1000000.0);
+
+		for (int i = 0; i < queries; i++) {
+			int startX, startY, endX, endY;
+			do {
+				startX = random.nextInt(size);
+				startY = random.nextInt(size);
+				endX = random.nextInt(size);
+				endY = random.nextInt(size);
+			} while (!finder.findPath(grid, startX, startY, endX, endY, path));
+			points[i * 4] = startX;
+			points[i * 4 + 1] = startY;
+			points[i * 4 + 2] = endX;
+			points[i * 4 + 3] = endY;
+		}
+
+		StringBuilder builder = new StringBuilder();
+		builder.append(size).append("x").append(size).append(" cells, grid from layer: ").append(gridTime);
+		builder.append(" ms, hierarchical grid: ").append(graphTime).append(" ms (").append(graph.getNodeCount()).append(" nodes)");
+		builder.append("\nms per path, average cost, expanded:");
+		builder.append("\nA* with getCell: ").append(time(0));
+		builder.append("\njump point search: ").append(time(1));
+		builder.append("\nhierarchical: ").append(time(2));
+		builder.append("\n100 cells changed, update: ").append(time(3)).append(" ms");
+		builder.append("\n").append(concurrent());
+		return builder.toString();
+	}
+
+	/** @return The time per path. */
+	private String time (int method) {
+		double ms = time(method, rounds) / 1000000;
+		if (method == 3) return String.format("%.3f", ms);
+		return String.format("%.3f, %.1f, %d", ms / queries, cost / queries, expanded / queries);
+	}
+
+	@Override
+	protected void prepare (int method) {
+		cost = 0;
+		expanded = 0;
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		if (method == 3)
+			update();
+		else {
+			for (int i = 0; i < queries; i++)
+				query(method, points[i * 4], points[i * 4 + 1], points[i * 4 + 2], points[i * 4 + 3]);
+		}
+	}
+
+	private void query (int method, int startX, int startY, int endX, int endY) {
+		switch (method) {
+		case 0:
+			cost += astar(startX, startY, endX, endY);
+			break;
+		case 1:
+			finder.findPath(grid, startX, startY, endX, endY, path);
+			cost += finder.getPathCost();
+			expanded += finder.getExpandedCount();
+			break;
+		case 2:
+			finder.findPath(graph, startX, startY, endX, endY, path);
+			cost += finder.getPathCost();
+			expanded += finder.getExpandedCount();
+			break;
+		}
+	}
+
+	/** Toggles walls at random cells of the layer, then updates the hierarchical grid. */
+	private void update () {
+		for (int i = 0; i < 100; i++) {
+			int x = random.nextInt(size), y = random.nextInt(size);
+			Cell cell = layer.getCell(x, y);
+			StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion)null);
+			if (filter.isWalkable(cell)) tile.getProperties().put("blocked", "true");
+			cell.setTile(tile);
+			graph.set(layer, x, y, filter);
+		}
+		graph.update();
+	}
+
+	/** Runs queries on several threads while the hierarchical grid is changed and updated. */
+	private String concurrent () {
+		int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+		final int perThread = queries * 5;
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int offset = t;
+			threads[t] = new Thread() {
+				public void run () {
+					GridPathFinder finder = new GridPathFinder();
+					IntArray path = new IntArray();
+					for (int i = 0; i < perThread; i++) {
+						int q = (i + offset) % queries * 4;
+						finder.findPath(graph, points[q], points[q + 1], points[q + 2], points[q + 3], path);
+					}
+				}
+			};
+		}
+		long start = TimeUtils.nanoTime();
+		for (Thread thread : threads)
+			thread.start();
+		int updates = 0;
+		while (true) {
+			boolean alive = false;
+			for (Thread thread : threads)
+				alive |= thread.isAlive();
+			if (!alive) break;
+			update();
+			updates++;
+		}
+		double ms = (TimeUtils.nanoTime() - start) / 1000000.0;
+		return String.format("%d threads: %.0f paths per second, %d updates meanwhile", threadCount,
+			threadCount * perThread / ms * 1000, updates);
+	}
+
+	/** A* with 8 neighbors and no corner cutting, reading walkability from the layer's cells.
+	 * @return The path cost. */
+	private float astar (int startX, int startY, int endX, int endY) {
+		if (nodes == null) {
+			nodes = new CellNode[size * size];
+			for (int i = 0; i < nodes.length; i++)
+				nodes[i] = new CellNode(i);
+			stamps = new int[size * size];
+		}
+		stamp += 2;
+		open.clear();
+		CellNode startNode = nodes[startY * size + startX];
+		startNode.cost = 0;
+		stamps[startNode.cell] = stamp;
+		open.add(startNode, heuristic(startX, startY, endX, endY));
+		while (open.size > 0) {
+			CellNode node = open.pop();
+			stamps[node.cell] = stamp + 1;
+			int x = node.cell % size, y = node.cell / size;
+			if (x == endX && y == endY) return node.cost;
+			expanded++;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					if (dx == 0 && dy == 0) continue;
+					int nx = x + dx, ny = y + dy;
+					if (nx < 0 || ny < 0 || nx >= size || ny >= size || !filter.isWalkable(layer.getCell(nx, ny))) continue;
+					if (dx != 0 && dy != 0
+						&& (!filter.isWalkable(layer.getCell(nx, y)) || !filter.isWalkable(layer.getCell(x, ny)))) continue;
+					CellNode next = nodes[ny * size + nx];
+					if (stamps[next.cell] == stamp + 1) continue;
+					float cost = node.cost + (dx != 0 && dy != 0 ? 1.4142135f : 1);
+					if (stamps[next.cell] == stamp) {
+						if (cost >= next.cost) continue;
+						next.cost = cost;
+						open.setValue(next, cost + heuristic(nx, ny, endX, endY));
+					} else {
+						stamps[next.cell] = stamp;
+						next.cost = cost;
+						open.add(next, cost + heuristic(nx, ny, endX, endY));
+					}
+				}
+			}
+		}
+		return 0;
+	}
+
+	static private float heuristic (int x, int y, int endX, int endY) {
+		int dx = Math.abs(x - endX), dy = Math.abs(y - endY);
+		return dx > dy ? dx + 0.41421356f * dy : dy + 0.41421356f * dx;
+	}
+
+	static class CellNode extends BinaryHeap.Node {
+		final int cell;
+		float cost;
+
+		CellNode (int cell) {
+			super(0);
+			this.cell = cell;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.TransformUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.BufferUtils;
+
+/** Compares transforming 100000 mesh vertices with {@link Vector3#mul(Matrix4)} per vertex, the native
+ * {@link Matrix4#mulVec(float[], float[], int, int, int)} and
+ * {@link BufferUtils#transform(java.nio.Buffer, int, int, int, Matrix4)}, and {@link TransformUtils}. The native results are
+ * skipped if the natives are not loaded. */
+public class MatrixTransformBench extends BenchmarkTest {
+	static final int vertices = 100000, stride = 8, rounds = 50;
+
+	private float[] array, x, y, z;
+	private FloatBuffer buffer;
+	private final Matrix4 matrix = new Matrix4().setToRotation(Vector3.Y, 1).translate(0.001f, 0, 0).scl(1.0001f);
+	private final Vector3 tmp = new Vector3();
+
+	public MatrixTransformBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public MatrixTransformBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		RandomXS128 random = new RandomXS128(1);
+		array = new float[vertices * stride];
+		for (int i = 0; i < array.length; i++)
+			array[i] = random.nextFloat() * 10 - 5;
+		buffer = BufferUtils.newFloatBuffer(array.length);
+		buffer.put(array).flip();
+		x = new float[vertices];
+		y = new float[vertices];
+		z = new float[vertices];
+		for (int i = 0; i < vertices; i++) {
+			x[i] = array[i * stride];
+			y[i] = array[i * stride + 1];
+			z[i] = array[i * stride + 2];
+		}
+
+		StringBuilder builder = new StringBuilder(vertices + " vertices, ns/vertex:");
+		builder.append("\nVector3.mul per vertex: ").append(time(0));
+		builder.append("\nnative Matrix4.mulVec: ").append(time(1));
+		builder.append("\nTransformUtils.mul float[]: ").append(time(2));
+		builder.append("\nTransformUtils.mul x, y, z arrays: ").append(time(3));
+		builder.append("\nnative BufferUtils.transform: ").append(time(4));
+		builder.append("\nTransformUtils.mul FloatBuffer: ").append(time(5));
+		return builder.toString();
+	}
+
+	/** @return The time per vertex, or "n/a" if the natives are not loaded. */
+	private String time (int method) {
+		try {
+			return String.format("%.2f", time(method, rounds) / vertices);
+		} catch (UnsatisfiedLinkError ex) {
+			return "n/a";
+		}
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		switch (method) {
+		case 0:
+			float[] array = this.array;
+			for (int i = 0; i < array.length; i += stride) {
+				tmp.set(array[i], array[i + 1], array[i + 2]).mul(matrix);
+				array[i] = tmp.x;
+				array[i + 1] = tmp.y;
+				array[i + 2] = tmp.z;
+			}
+			break;
+		case 1:
+			Matrix4.mulVec(matrix.val, this.array, 0, vertices, stride);
+			break;
+		case 2:
+			TransformUtils.mul(matrix, this.array, 0, vertices, stride);
+			break;
+		case 3:
+			TransformUtils.mul(matrix, x, y, z, 0, vertices);
+			break;
+		case 4:
+			BufferUtils.transform(buffer, 3, stride * 4, vertices, matrix);
+			break;
+		case 5:
+			TransformUtils.mul(matrix, buffer, 0, vertices, stride);
+			break;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.PixmapUtils;
+import com.badlogic.gdx.graphics.PixmapUtils.Composite;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.RandomXS128;
+
+/** Compares the throughput of {@link Pixmap} methods, called per pixel or per image, with the bulk operations of
+ * {@link PixmapUtils}, in megapixels per second. */
+public class PixmapBench extends BenchmarkTest {
+	static final int size = 1024, rounds = 40;
+
+	private Pixmap rgba, rgb565, half, overlay;
+	private int[] colors = new int[size * size];
+
+	public PixmapBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public PixmapBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		RandomXS128 random = new RandomXS128(1);
+		for (int i = 0; i < colors.length; i++)
+			colors[i] = random.nextInt();
+		rgba = new Pixmap(size, size, Format.RGBA8888);
+		rgb565 = new Pixmap(size, size, Format.RGB565);
+		half = new Pixmap(size / 2, size / 2, Format.RGBA8888);
+		overlay = new Pixmap(size, size, Format.RGBA8888);
+		PixmapUtils.setPixels(rgba, 0, 0, size, size, colors, 0);
+		PixmapUtils.setPixels(overlay, 0, 0, size, size, colors, 0);
+
+		StringBuilder builder = new StringBuilder(size + "x" + size + " pixels, megapixels per second:");
+		builder.append("\nread, getPixel: ").append(time(0)).append(", getPixels: ").append(time(1));
+		builder.append("\nwrite, drawPixel: ").append(time(2)).append(", setPixels: ").append(time(3));
+		builder.append("\nRGBA8888 to RGB565, drawPixmap: ").append(time(4)).append(", blit: ").append(time(5));
+		builder.append("\nbilinear downscale, drawPixmap: ").append(time(6)).append(", blit: ").append(time(7));
+		builder.append("\nsource over, drawPixmap: ").append(time(8)).append(", composite: ").append(time(9));
+		builder.append("\npremultiply, getPixel and drawPixel: ").append(time(10)).append(", premultiplyAlpha: ")
+			.append(time(11));
+		builder.append("\nflip y, drawPixmap: ").append(time(12)).append(", flipY: ").append(time(13));
+		return builder.toString();
+	}
+
+	/** @return The megapixels per second. */
+	private String time (int method) {
+		return String.format("%.1f", size * size / (time(method, rounds) / 1000));
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		switch (method) {
+		case 0:
+			for (int y = 0, i = 0; y < size; y++)
+				for (int x = 0; x < size; x++)
+					colors[i++] = rgba.getPixel(x, y);
+			break;
+		case 1:
+			PixmapUtils.getPixels(rgba, 0, 0, size, size, colors, 0);
+			break;
+		case 2:
+			rgba.setBlending(Blending.None);
+			for (int y = 0, i = 0; y < size; y++)
+				for (int x = 0; x < size; x++)
+					rgba.drawPixel(x, y, colors[i++]);
+			break;
+		case 3:
+			PixmapUtils.setPixels(rgba, 0, 0, size, size, colors, 0);
+			break;
+		case 4:
+			rgb565.setBlending(Blending.None);
+			rgb565.drawPixmap(rgba, 0, 0);
+			break;
+		case 5:
+			PixmapUtils.blit(rgba, 0, 0, rgb565, 0, 0, size, size);
+			break;
+		case 6:
+			half.setBlending(Blending.None);
+			half.setFilter(Pixmap.Filter.BiLinear);
+			half.drawPixmap(rgba, 0, 0, size, size, 0, 0, size / 2, size / 2);
+			break;
+		case 7:
+			PixmapUtils.blit(rgba, 0, 0, size, size, half, 0, 0, size / 2, size / 2, true);
+			break;
+		case 8:
+			overlay.setBlending(Blending.SourceOver);
+			overlay.drawPixmap(rgba, 0, 0);
+			break;
+		case 9:
+			PixmapUtils.composite(rgba, 0, 0, overlay, 0, 0, size, size, Composite.SrcOver);
+			break;
+		case 10:
+			rgba.setBlending(Blending.None);
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					int color = rgba.getPixel(x, y), a = color & 0xff;
+					int r = (color >>> 24) * a / 255, g = (color >>> 16 & 0xff) * a / 255, b = (color >>> 8 & 0xff) * a / 255;
+					rgba.drawPixel(x, y, r << 24 | g << 16 | b << 8 | a);
+				}
+			}
+			break;
+		case 11:
+			PixmapUtils.premultiplyAlpha(rgba);
+			break;
+		case 12:
+			// Flipping with drawPixmap needs a copy and one call per row.
+			rgba.setBlending(Blending.None);
+			overlay.setBlending(Blending.None);
+			overlay.drawPixmap(rgba, 0, 0);
+			for (int y = 0; y < size; y++)
+				rgba.drawPixmap(overlay, 0, size - 1 - y, 0, y, size, 1);
+			break;
+		case 13:
+			PixmapUtils.flipY(rgba);
+			break;
+		}
+	}
+
+	@Override
+	public void dispose () {
+		rgba.dispose();
+		rgb565.dispose();
+		half.dispose();
+		overlay.dispose();
+		super.dispose();
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.PolygonClipper;
+import com.badlogic.gdx.math.PolygonClipper.FillRule;
+import com.badlogic.gdx.math.PolygonClipper.Join;
+import com.badlogic.gdx.math.PolygonClipper.Operation;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Times {@link PolygonClipper} on the per frame work of destructible terrain and fog of war: cutting explosions out of a
+ * terrain outline, triangulating the result, merging circles of sight and offsetting. Intersecting convex polygons is compared
+ * with {@link Intersector#intersectPolygons(Polygon, Polygon, Polygon)}. */
+public class PolygonClipperBench extends BenchmarkTest {
+	static final int rounds = 10, explosions = 100, sights = 100;
+
+	private final PolygonClipper clipper = new PolygonClipper();
+	private final EarClippingTriangulator triangulator = new EarClippingTriangulator();
+	private final FloatArray terrain = new FloatArray(), vertices = new FloatArray();
+	private final IntArray terrainCounts = new IntArray(), counts = new IntArray();
+	private float[] ground, craters, circles;
+	private final Polygon convex1 = new Polygon(), convex2 = new Polygon(), overlap = new Polygon();
+	private int triangles;
+
+	public PolygonClipperBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public PolygonClipperBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		// Terrain 1024 wide with a hilly top of 512 vertices, and craters of 32 vertices.
+		RandomXS128 random = new RandomXS128(1);
+		ground = new float[516 * 2];
+		for (int i = 0; i < 514; i++) {
+			ground[i * 2] = i * 2;
+			ground[i * 2 + 1] = 300 + MathUtils.sin(i * 0.05f) * 60 + random.nextFloat() * 10;
+		}
+		ground[1028] = 1026;
+		ground[1029] = 0;
+		ground[1030] = 0;
+		ground[1031] = 0;
+		craters = new float[explosions * 64];
+		for (int i = 0; i < explosions; i++)
+			circle(craters, i * 64, 64, random.nextFloat() * 1024, 150 + random.nextFloat() * 200, 20 + random.nextFloat() * 30);
+		circles = new float[sights * 64];
+		for (int i = 0; i < sights; i++)
+			circle(circles, i * 64, 64, random.nextFloat() * 1024, random.nextFloat() * 1024, 40 + random.nextFloat() * 40);
+		float[] convex = new float[32];
+		circle(convex, 0, 32, 0, 0, 10);
+		convex1.setVertices(convex.clone());
+		for (int i = 0; i < 32; i += 2)
+			convex[i] += 5;
+		convex2.setVertices(convex);
+
+		StringBuilder builder = new StringBuilder("ms per call:");
+		builder.append("\ncut ").append(explosions).append(" craters in turn from a 512 vertex terrain: ").append(time(0));
+		builder.append("\ncut and triangulate each result: ").append(time(1)).append(" (").append(triangles).append(" triangles)");
+		builder.append("\nunion of ").append(sights).append(" circles: ").append(time(2));
+		builder.append("\noffset the cratered terrain, miter: ").append(time(3)).append(", round: ").append(time(4));
+		builder.append("\n1000 intersections of 16 vertex convex polygons, Intersector: ").append(time(5));
+		builder.append(", PolygonClipper: ").append(time(6));
+		return builder.toString();
+	}
+
+	static private void circle (float[] vertices, int offset, int count, float x, float y, float radius) {
+		for (int i = 0; i < count; i += 2) {
+			float angle = i * MathUtils.PI2 / count;
+			vertices[offset + i] = x + MathUtils.cos(angle) * radius;
+			vertices[offset + i + 1] = y + MathUtils.sin(angle) * radius;
+		}
+	}
+
+	/** @return The time per call, or per crater for the terrain. */
+	private String time (int method) {
+		int calls = method < 2 ? explosions : 1;
+		return String.format("%.3f", time(method, rounds) / calls / 1000000);
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		switch (method) {
+		case 0:
+		case 1:
+			// Each crater is cut from the result of the previous one. The terrain is kept as contours with holes.
+			clipper.setFillRule(FillRule.EvenOdd);
+			terrain.clear();
+			terrain.addAll(ground);
+			terrainCounts.clear();
+			terrainCounts.add(ground.length);
+			for (int i = 0; i < explosions; i++) {
+				clipper.clear();
+				for (int ii = 0, offset = 0; ii < terrainCounts.size; offset += terrainCounts.get(ii++))
+					clipper.addSubject(terrain.items, offset, terrainCounts.get(ii));
+				clipper.addClip(craters, i * 64, 64);
+				clipper.execute(Operation.Difference, terrain, terrainCounts);
+				if (method == 1) {
+					clipper.setBridgeHoles(true);
+					clipper.execute(Operation.Difference, vertices, counts);
+					clipper.setBridgeHoles(false);
+					triangles = 0;
+					for (int ii = 0, offset = 0; ii < counts.size; offset += counts.get(ii++))
+						triangles += triangulator.computeTriangles(vertices.items, offset, counts.get(ii)).size / 3;
+				}
+			}
+			break;
+		case 2:
+			clipper.clear();
+			clipper.setFillRule(FillRule.NonZero);
+			for (int i = 0; i < sights; i++)
+				clipper.addSubject(circles, i * 64, 64);
+			clipper.execute(Operation.Union, vertices, counts);
+			break;
+		case 3:
+		case 4:
+			clipper.clear();
+			clipper.setFillRule(FillRule.EvenOdd);
+			for (int i = 0, offset = 0; i < terrainCounts.size; offset += terrainCounts.get(i++))
+				clipper.addSubject(terrain.items, offset, terrainCounts.get(i));
+			clipper.offset(8, method == 3 ? Join.Miter : Join.Round, vertices, counts);
+			break;
+		case 5:
+			for (int i = 0; i < 1000; i++)
+				Intersector.intersectPolygons(convex1, convex2, overlap);
+			break;
+		case 6:
+			clipper.setFillRule(FillRule.EvenOdd);
+			float[] vertices1 = convex1.getVertices(), vertices2 = convex2.getVertices();
+			for (int i = 0; i < 1000; i++) {
+				clipper.clear();
+				clipper.addSubject(vertices1, 0, vertices1.length);
+				clipper.addClip(vertices2, 0, vertices2.length);
+				clipper.execute(Operation.Intersection, vertices, counts);
+			}
+			break;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.collision.Broadphase;
+import com.badlogic.gdx.math.collision.DynamicAabbTree;
+import com.badlogic.gdx.math.collision.ShapeIndex;
+import com.badlogic.gdx.math.collision.UniformGrid;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Compares casting the segments of 2000 bullets against 5000 rectangles, circles and polygons with an {@link Intersector} call
+ * per bullet and shape, and with a {@link ShapeIndex} using a {@link DynamicAabbTree} or a {@link UniformGrid}. Also times
+ * moving 10% of the shapes, nearest shape queries and finding all overlapping pairs. */
+public class ShapeQueryBench extends BenchmarkTest {
+	static final int shapeCount = 5000, bullets = 2000, rounds = 20;
+	static final float worldSize = 4000, bulletLength = 60;
+
+	private final RandomXS128 random = new RandomXS128(1);
+	private final Array<Object> shapes = new Array();
+	private float[] segments, points;
+	private final IntArray results = new IntArray();
+	private ShapeIndex<Object> tree, grid, index;
+	private final int[] treeIds = new int[shapeCount], gridIds = new int[shapeCount];
+	private final Vector2 start = new Vector2(), end = new Vector2(), center = new Vector2();
+	private int hitCount;
+
+	public ShapeQueryBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public ShapeQueryBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		for (int i = 0; i < shapeCount; i++) {
+			float x = random.nextFloat() * worldSize, y = random.nextFloat() * worldSize, size = 4 + random.nextFloat() * 16;
+			switch (i % 3) {
+			case 0:
+				shapes.add(new Rectangle(x, y, size, size * 0.75f));
+				break;
+			case 1:
+				shapes.add(new Circle(x, y, size / 2));
+				break;
+			default:
+				Polygon polygon = new Polygon(new float[] {0, 0, size, 0, size * 0.5f, size});
+				polygon.setPosition(x, y);
+				polygon.setRotation(random.nextFloat() * 360);
+				shapes.add(polygon);
+			}
+		}
+		segments = new float[bullets * 4];
+		points = new float[bullets * 2];
+		for (int i = 0; i < bullets; i++) {
+			float x = random.nextFloat() * worldSize, y = random.nextFloat() * worldSize, angle = random.nextFloat() * 6.28f;
+			segments[i * 4] = x;
+			segments[i * 4 + 1] = y;
+			segments[i * 4 + 2] = x + (float)Math.cos(angle) * bulletLength;
+			segments[i * 4 + 3] = y + (float)Math.sin(angle) * bulletLength;
+			points[i * 2] = x;
+			points[i * 2 + 1] = y;
+		}
+
+		tree = newIndex(new DynamicAabbTree(2), treeIds);
+		grid = newIndex(new UniformGrid(32), gridIds);
+		StringBuilder builder = new StringBuilder(shapeCount + " shapes, " + bullets + " bullets, ms per frame:");
+		builder.append("\nraycast, Intersector per shape: ").append(time(null, 0));
+		builder.append("\nraycast, tree: ").append(time(tree, 0));
+		builder.append("\nraycast, grid: ").append(time(grid, 0));
+		builder.append("\nmove 10%, tree: ").append(time(tree, 1));
+		builder.append("\nmove 10%, grid: ").append(time(grid, 1));
+		for (int i = 0; i < shapeCount; i += 10) { // Both indexes have to see the shapes moved for the other.
+			tree.update(treeIds[i]);
+			grid.update(gridIds[i]);
+		}
+		builder.append("\nnearest, tree: ").append(time(tree, 2));
+		builder.append("\nnearest, grid: ").append(time(grid, 2));
+		builder.append("\noverlapping pairs, tree: ").append(time(tree, 3));
+		builder.append("\noverlapping pairs, grid: ").append(time(grid, 3));
+		return builder.toString();
+	}
+
+	private ShapeIndex<Object> newIndex (Broadphase broadphase, int[] ids) {
+		ShapeIndex<Object> index = new ShapeIndex(broadphase);
+		for (int i = 0; i < shapeCount; i++) {
+			Object shape = shapes.get(i);
+			if (shape instanceof Rectangle)
+				ids[i] = index.add((Rectangle)shape, null);
+			else if (shape instanceof Circle)
+				ids[i] = index.add((Circle)shape, null);
+			else
+				ids[i] = index.add((Polygon)shape, null);
+		}
+		return index;
+	}
+
+	/** @return The time per frame. */
+	private String time (ShapeIndex<Object> index, int method) {
+		this.index = index;
+		return String.format("%.3f", time(method, rounds) / 1000000);
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		ShapeIndex<Object> index = this.index;
+		results.clear();
+		switch (method) {
+		case 0:
+			if (index != null)
+				index.raycast(segments, 0, bullets, results);
+			else
+				raycastAll();
+			break;
+		case 1:
+			// Jiggle every tenth shape by a little, as moving objects do each frame.
+			int[] ids = index == tree ? treeIds : gridIds;
+			for (int i = 0; i < shapeCount; i += 10) {
+				Object shape = shapes.get(i);
+				float dx = random.nextFloat() - 0.5f, dy = random.nextFloat() - 0.5f;
+				if (shape instanceof Rectangle) {
+					Rectangle rectangle = (Rectangle)shape;
+					rectangle.setPosition(rectangle.x + dx, rectangle.y + dy);
+				} else if (shape instanceof Circle) {
+					Circle circle = (Circle)shape;
+					circle.setPosition(circle.x + dx, circle.y + dy);
+				} else
+					((Polygon)shape).translate(dx, dy);
+				index.update(ids[i]);
+			}
+			break;
+		case 2:
+			index.nearest(points, 0, bullets, 100, results);
+			break;
+		case 3:
+			index.findPairs(results);
+			break;
+		}
+	}
+
+	/** Tests every bullet against every shape, the way it is done without an index. */
+	private void raycastAll () {
+		float[] segments = this.segments;
+		Object[] shapes = this.shapes.items;
+		int hits = 0;
+		for (int i = 0; i < bullets * 4; i += 4) {
+			start.set(segments[i], segments[i + 1]);
+			end.set(segments[i + 2], segments[i + 3]);
+			for (int ii = 0; ii < shapeCount; ii++) {
+				Object shape = shapes[ii];
+				boolean hit;
+				if (shape instanceof Rectangle)
+					hit = Intersector.intersectSegmentRectangle(start, end, (Rectangle)shape);
+				else if (shape instanceof Circle) {
+					Circle circle = (Circle)shape;
+					hit = Intersector.intersectSegmentCircle(start, end, center.set(circle.x, circle.y), circle.radius * circle.radius);
+				} else
+					hit = Intersector.intersectSegmentPolygon(start, end, (Polygon)shape);
+				if (hit) hits++;
+			}
+		}
+		hitCount = hits;
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+/** Compares {@link Stage#hit(float, float, boolean)} on a group of 20000 actors with and without
+ * {@link Group#setHitIndex(float) hit index}. */
+public class StageHitBench extends BenchmarkTest {
+	static final int columns = 200, rows = 100, hits = 20000, rounds = 10, moved = 200;
+
+	private Stage stage;
+	private Group grid;
+	private final RandomXS128 random = new RandomXS128(1);
+
+	public StageHitBench () {
+	}
+
+	/** @param batch Used by the stage and to show the results, eg a batch that does nothing on the headless backend. */
+	public StageHitBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		stage = new Stage(new ScreenViewport(), getBatch());
+		grid = new Group();
+		grid.setTransform(false);
+		stage.addActor(grid);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				Actor actor = new Actor();
+				actor.setBounds(column * 10, row * 10, 8, 8);
+				grid.addActor(actor);
+			}
+		}
+
+		float[] points = new float[hits * 2];
+		for (int i = 0; i < points.length; i += 2) {
+			points[i] = random.nextFloat() * columns * 10;
+			points[i + 1] = random.nextFloat() * rows * 10;
+		}
+		Actor[] indexedHits = new Actor[hits];
+
+		long linear = 0, indexed = 0, mismatches = 0;
+		for (int round = 0; round < rounds; round++) {
+			moveActors();
+			long start = TimeUtils.nanoTime();
+			for (int i = 0; i < hits; i++)
+				stage.hit(points[i * 2], points[i * 2 + 1], true);
+			if (round > 0) linear += TimeUtils.nanoTime() - start;
+
+			grid.setHitIndex(40);
+			start = TimeUtils.nanoTime();
+			for (int i = 0; i < hits; i++) {
+				if (i % 100 == 0) moveActors();
+				stage.hit(points[i * 2], points[i * 2 + 1], true);
+			}
+			if (round > 0) indexed += TimeUtils.nanoTime() - start;
+
+			// Actors moved during the indexed pass, compare both on the final positions.
+			for (int i = 0; i < hits; i++)
+				indexedHits[i] = stage.hit(points[i * 2], points[i * 2 + 1], true);
+			grid.setHitIndex(0);
+			for (int i = 0; i < hits; i++)
+				if (stage.hit(points[i * 2], points[i * 2 + 1], true) != indexedHits[i]) mismatches++;
+		}
+
+		int measured = (rounds - 1) * hits;
+		return grid.getChildren().size + " actors, " + measured + " hits: linear " + linear / measured + " ns/hit, indexed "
+			+ indexed / measured + " ns/hit (including " + moved + " moved actors every 100 hits), " + mismatches + " mismatches";
+	}
+
+	/** Moves some actors by a few pixels, the index updates them incrementally. */
+	private void moveActors () {
+		Actor[] actors = grid.getChildren().items;
+		for (int i = 0; i < moved; i++) {
+			Actor actor = actors[random.nextInt(grid.getChildren().size)];
+			actor.moveBy(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+		}
+	}
+
+	@Override
+	public void dispose () {
+		stage.dispose();
+		super.dispose();
+	}
+}
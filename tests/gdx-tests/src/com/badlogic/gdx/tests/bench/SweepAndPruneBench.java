@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.collision.Broadphase.QueryCallback;
+import com.badlogic.gdx.math.collision.DynamicAabbTree;
+import com.badlogic.gdx.math.collision.SweepAndPrune;
+import com.badlogic.gdx.math.collision.SweepAndPrune.PairListener;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Stress test of {@link SweepAndPrune} with boxes that all move every frame. 2000 boxes are compared with testing every pair
+ * with {@link Rectangle#overlaps(Rectangle)}, and 100k boxes are compared with adding all boxes again each frame, which gets no
+ * help from the previous frame, and with querying a {@link DynamicAabbTree} for each box. */
+public class SweepAndPruneBench extends BenchmarkTest {
+	static final int rounds = 10, fewBoxes = 2000, manyBoxes = 100000;
+
+	private final RandomXS128 random = new RandomXS128(1);
+	private Rectangle[] rectangles;
+	private float[] velocities;
+	private float worldSize;
+	private int[] treeProxies, treeBoxes; // The proxy of each box and the box of each proxy.
+	private final SweepAndPrune few = new SweepAndPrune(), many = new SweepAndPrune(), rebuilt = new SweepAndPrune();
+	private final DynamicAabbTree tree = new DynamicAabbTree(1);
+	private int pairs, changes, queryBox;
+
+	private final PairListener listener = new PairListener() {
+		public void begin (int proxyA, int proxyB) {
+			changes++;
+		}
+
+		public void end (int proxyA, int proxyB) {
+			changes++;
+		}
+	};
+
+	private final QueryCallback callback = new QueryCallback() {
+		public boolean report (int proxy) {
+			int box = treeBoxes[proxy];
+			if (box > queryBox && rectangles[queryBox].overlaps(rectangles[box])) pairs++;
+			return true;
+		}
+	};
+
+	public SweepAndPruneBench () {
+	}
+
+	/** @param batch Used to show the results, eg a batch that does nothing on the headless backend. */
+	public SweepAndPruneBench (Batch batch) {
+		super(batch);
+	}
+
+	@Override
+	protected String run () {
+		StringBuilder builder = new StringBuilder("ms per frame, all boxes move:");
+		// The world is sized so there are about as many pairs as boxes.
+		setup(fewBoxes, 400);
+		for (int i = 0; i < fewBoxes; i++)
+			few.add(rectangles[i]);
+		few.updatePairs(null);
+		builder.append("\n").append(fewBoxes).append(" boxes, every pair: ").append(time(0));
+		builder.append(", sweep and prune: ").append(time(1));
+		builder.append(" (").append(few.getPairCount()).append(" pairs, ").append(changes / rounds).append(" changes)");
+
+		setup(manyBoxes, 2800);
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < manyBoxes; i++)
+			many.add(rectangles[i]);
+		many.updatePairs(null);
+		builder.append("\n").append(manyBoxes).append(" boxes, first frame: ")
+			.append(String.format("%.3f", (TimeUtils.nanoTime() - start) / 1000000.0));
+		changes = 0;
+		builder.append("\nsweep and prune: ").append(time(2));
+		builder.append(" (").append(many.getPairCount()).append(" pairs, ").append(changes / rounds).append(" changes)");
+		builder.append("\nadded again each frame: ").append(time(3));
+		treeProxies = new int[manyBoxes];
+		int maxProxy = 0;
+		for (int i = 0; i < manyBoxes; i++) {
+			Rectangle rectangle = rectangles[i];
+			treeProxies[i] = tree.add(rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height, 0);
+			maxProxy = Math.max(maxProxy, treeProxies[i]);
+		}
+		treeBoxes = new int[maxProxy + 1];
+		for (int i = 0; i < manyBoxes; i++)
+			treeBoxes[treeProxies[i]] = i;
+		builder.append("\ntree query per box: ").append(time(4));
+		return builder.toString();
+	}
+
+	/** Boxes of size 2 to 10 with a speed of up to 1 per frame. */
+	private void setup (int count, float worldSize) {
+		rectangles = new Rectangle[count];
+		velocities = new float[count * 2];
+		for (int i = 0; i < count; i++) {
+			float size = 2 + random.nextFloat() * 8;
+			rectangles[i] = new Rectangle(random.nextFloat() * (worldSize - size), random.nextFloat() * (worldSize - size), size,
+				size);
+			velocities[i * 2] = random.nextFloat() * 2 - 1;
+			velocities[i * 2 + 1] = random.nextFloat() * 2 - 1;
+		}
+		this.worldSize = worldSize;
+	}
+
+	/** Moves the boxes and bounces them off the sides of the world. */
+	private void move () {
+		Rectangle[] rectangles = this.rectangles;
+		float worldSize = this.worldSize;
+		float[] velocities = this.velocities;
+		for (int i = 0, n = rectangles.length; i < n; i++) {
+			Rectangle rectangle = rectangles[i];
+			float x = rectangle.x + velocities[i * 2], y = rectangle.y + velocities[i * 2 + 1];
+			if (x < 0 || x + rectangle.width > worldSize) velocities[i * 2] = -velocities[i * 2];
+			if (y < 0 || y + rectangle.height > worldSize) velocities[i * 2 + 1] = -velocities[i * 2 + 1];
+			rectangle.setPosition(x, y);
+		}
+	}
+
+	/** @return The time per frame. */
+	private String time (int method) {
+		changes = 0;
+		return String.format("%.3f", time(method, rounds) / 1000000);
+	}
+
+	@Override
+	protected void prepare (int method) {
+		move();
+	}
+
+	@Override
+	protected void runMethod (int method) {
+		Rectangle[] rectangles = this.rectangles;
+		int count = rectangles.length;
+		pairs = 0;
+		switch (method) {
+		case 0:
+			for (int i = 0; i < count; i++) {
+				Rectangle rectangle = rectangles[i];
+				for (int ii = i + 1; ii < count; ii++)
+					if (rectangle.overlaps(rectangles[ii])) pairs++;
+			}
+			break;
+		case 1:
+		case 2:
+			SweepAndPrune sap = method == 1 ? few : many;
+			for (int i = 0; i < count; i++)
+				sap.update(i, rectangles[i]);
+			sap.updatePairs(listener);
+			break;
+		case 3:
+			rebuilt.clear();
+			for (int i = 0; i < count; i++)
+				rebuilt.add(rectangles[i]);
+			rebuilt.updatePairs(null);
+			break;
+		case 4:
+			for (int i = 0; i < count; i++) {
+				Rectangle rectangle = rectangles[i];
+				tree.update(treeProxies[i], rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height,
+					0);
+			}
+			for (int i = 0; i < count; i++) {
+				Rectangle rectangle = rectangles[i];
+				queryBox = i;
+				tree.query(rectangle.x, rectangle.y, 0, rectangle.x + rectangle.width, rectangle.y + rectangle.height, 0, callback);
+			}
+			break;
+		}
+	}
+}
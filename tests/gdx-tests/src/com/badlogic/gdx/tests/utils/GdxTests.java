@@ -37,6 +37,15 @@ import java.util.Collections;
 import java.util.List;
 
 import com.badlogic.gdx.tests.*;
+import com.badlogic.gdx.tests.bench.DelaunayBench;
+import com.badlogic.gdx.tests.bench.FixedMathBench;
+import com.badlogic.gdx.tests.bench.GridPathFinderBench;
+import com.badlogic.gdx.tests.bench.MatrixTransformBench;
+import com.badlogic.gdx.tests.bench.PixmapBench;
+import com.badlogic.gdx.tests.bench.PolygonClipperBench;
+import com.badlogic.gdx.tests.bench.ShapeQueryBench;
+import com.badlogic.gdx.tests.bench.StageHitBench;
+import com.badlogic.gdx.tests.bench.SweepAndPruneBench;
 import com.badlogic.gdx.tests.bench.TiledMapBench;
 import com.badlogic.gdx.tests.conformance.DisplayModeTest;
 import com.badlogic.gdx.tests.examples.MoveSpriteExample;
@@ -117,6 +126,7 @@ public class GdxTests {
 		CpuSpriteBatchTest.class,
 		CullTest.class,
 		CursorTest.class,
+		DelaunayBench.class,
 		DelaunayTriangulatorTest.class,
 		DeltaTimeTest.class,
 		DirtyRenderingTest.class,
@@ -129,6 +139,7 @@ public class GdxTests {
 		ExternalMusicTest.class,
 		FilesTest.class,
 		FilterPerformanceTest.class,
+		FixedMathBench.class,
 		FloatTextureTest.class,
 		FogTest.class,
 		FrameBufferCubemapTest.class,
@@ -140,6 +151,7 @@ public class GdxTests {
 		GestureDetectorTest.class,
 		GLES30Test.class,
 		GLProfilerErrorTest.class,
+		GridPathFinderBench.class,
 		GroupCullingTest.class,
 		GroupFadeTest.class,
 		GroupTest.class,
@@ -166,6 +178,7 @@ public class GdxTests {
 		MaterialTest.class,
 		MaterialEmissiveTest.class,
 		MatrixJNITest.class,
+		MatrixTransformBench.class,
 		MeshBuilderTest.class,
 		MeshShaderTest.class,
 		MipMapTest.class,
@@ -186,9 +199,11 @@ public class GdxTests {
 		ParticleEmittersTest.class,
 		ParticleEmitterChangeSpriteTest.class,
 		PixelsPerInchTest.class,
+		PixmapBench.class,
 		PixmapBlendingTest.class,
 		PixmapPackerTest.class,
 		PixmapTest.class,
+		PolygonClipperBench.class,
 		PolygonRegionTest.class,
 		PolygonSpriteTest.class,
 		PreferencesTest.class,
@@ -209,6 +224,7 @@ public class GdxTests {
 		ShaderMultitextureTest.class,
 		ShaderTest.class,
 		ShadowMappingTest.class,
+		ShapeQueryBench.class,
 		ShapeRendererTest.class,
 		SimpleAnimationTest.class,
 		SimpleDecalTest.class,
@@ -224,9 +240,11 @@ public class GdxTests {
 		SpriteCacheOffsetTest.class,
 		SpriteCacheTest.class,
 		StageDebugTest.class,
+		StageHitBench.class,
 		StagePerformanceTest.class,
 		StageTest.class,
 		SuperKoalio.class,
+		SweepAndPruneBench.class,
 		TableLayoutTest.class,
 		TableTest.class,
 		TextAreaTest.class,